@@ -0,0 +1,9 @@
+#!/usr/bin/env bash
+#
+# Codec benchmark for credit-service.
+# Compares time and allocation per credit document for the Spring Data mapping and the
+# hand-written BSON codec used with persistence.mapping=codec.
+#
+# Usage: scripts/codec-benchmark.sh [jmh-args]
+#
+exec "$(dirname "$0")/jmh-benchmark.sh" CodecBenchmark "$@"
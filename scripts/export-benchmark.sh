@@ -0,0 +1,8 @@
+#!/usr/bin/env bash
+#
+# CSV export benchmark for credit-service.
+# Reports the export throughput in rows per second (ops/s), with and without debt cycle columns.
+#
+# Usage: scripts/export-benchmark.sh [jmh-args]
+#
+exec "$(dirname "$0")/jmh-benchmark.sh" CsvExportBenchmark "$@"
@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+#
+# Runs JMH micro-benchmarks from src/jmh/java with the GC profiler.
+# The first argument selects the benchmarks (a JMH name pattern); the others go to JMH,
+# for example -p size=10000 or -f 1 for a quick run.
+#
+# Usage: scripts/jmh-benchmark.sh <benchmark> [jmh-args]
+#
+set -euo pipefail
+
+if [[ $# -lt 1 ]]; then
+  echo "Usage: $0 <benchmark> [jmh-args]" >&2
+  exit 1
+fi
+
+TARGET_DIR=${TARGET_DIR:-target}
+
+mvn -B -q -Pbenchmark test-compile dependency:build-classpath \
+  -Dmdep.includeScope=test -Dmdep.outputFile="$TARGET_DIR/benchmark.classpath"
+
+java -cp "$TARGET_DIR/test-classes:$TARGET_DIR/classes:$(cat "$TARGET_DIR/benchmark.classpath")" \
+  org.openjdk.jmh.Main "$1" -prof gc "${@:2}"
@@ -0,0 +1,9 @@
+#!/usr/bin/env bash
+#
+# JSON encoder benchmark for credit-service.
+# Compares the default Jackson encoder with the streaming encoder registered for listing
+# endpoints, for JSON arrays and NDJSON, and reports time and allocation per encoded stream.
+#
+# Usage: scripts/json-benchmark.sh [jmh-args]
+#
+exec "$(dirname "$0")/jmh-benchmark.sh" JsonEncoderBenchmark "$@"
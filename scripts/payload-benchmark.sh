@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+#
+# Payload format benchmark for credit-service.
+# Compares JSON, CBOR and Smile listings, uncompressed and with gzip or brotli, and reports the
+# encode and compression time per listing; the payload size of each combination is printed
+# at the end of its trial.
+#
+# Usage: scripts/payload-benchmark.sh [jmh-args]
+#
+exec "$(dirname "$0")/jmh-benchmark.sh" PayloadFormatBenchmark "$@"
@@ -0,0 +1,8 @@
+#!/usr/bin/env bash
+#
+# Rate limiting benchmark for credit-service.
+# Reports the average cost in nanoseconds of a token bucket acquisition and of the rate limit filter.
+#
+# Usage: scripts/ratelimit-benchmark.sh [jmh-args]
+#
+exec "$(dirname "$0")/jmh-benchmark.sh" RateLimitBenchmark "$@"
@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark for credit-service.
+# Reports time-to-ready (until /actuator/health/readiness is UP) and resident memory
+# for the plain jar, the extracted jar with the CDS archive, and CDS plus AOT.
+# The runs use the Dockerfile flags, each CDS mode with the archive trained in that mode.
+# The AOT run uses the conditional beans fixed at build time, i.e. the default property values.
+#
+# Usage: mvn -Pfast-startup package && scripts/startup-benchmark.sh [runs]
+#
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18084}
+TARGET_DIR=${TARGET_DIR:-target}
+JAR_NAME=credit-service-0.0.1-SNAPSHOT.jar
+APP_DIR=$TARGET_DIR/application
+READY_URL="http://localhost:$PORT/actuator/health/readiness"
+COMMON_ARGS=(
+  "-Dserver.port=$PORT"
+  "-Dfeign.client.config.transaction-service.url=${TRANSACTION_SERVICE_URL:-http://localhost:8085}"
+)
+AOT_ARGS=(
+  "-Dspring.aot.enabled=true"
+  "-Dspring.cloud.refresh.enabled=false"
+)
+
+for archive in application.jsa application-aot.jsa; do
+  if [[ ! -f "$APP_DIR/$archive" ]]; then
+    echo "Missing $APP_DIR/$archive, build with: mvn -Pfast-startup package" >&2
+    exit 1
+  fi
+done
+
+now_ms() {
+  date +%s%3N
+}
+
+# Starts the given command, waits for readiness and prints "<millis> <rss-kb>".
+measure_once() {
+  local start pid ready rss
+  start=$(now_ms)
+  "$@" > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf "$READY_URL" 2> /dev/null | grep -q '"UP"'; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "Process exited before becoming ready: $*" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  ready=$(( $(now_ms) - start ))
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "$ready $rss"
+}
+
+benchmark() {
+  local name=$1
+  shift
+  local total_ms=0 total_rss=0 result ms rss
+  for _ in $(seq "$RUNS"); do
+    result=$(measure_once "$@")
+    read -r ms rss <<< "$result"
+    total_ms=$(( total_ms + ms ))
+    total_rss=$(( total_rss + rss ))
+  done
+  printf '%-18s ready=%6d ms  rss=%7d KB  (avg of %d runs)\n' \
+    "$name" $(( total_ms / RUNS )) $(( total_rss / RUNS )) "$RUNS"
+}
+
+benchmark "jar" java "${COMMON_ARGS[@]}" -jar "$TARGET_DIR/$JAR_NAME"
+benchmark "extracted+cds" java -XX:SharedArchiveFile="$APP_DIR/application.jsa" -Xlog:cds=off \
+  "${COMMON_ARGS[@]}" -jar "$APP_DIR/$JAR_NAME"
+benchmark "extracted+cds+aot" java -XX:SharedArchiveFile="$APP_DIR/application-aot.jsa" -Xlog:cds=off \
+  "${AOT_ARGS[@]}" "${COMMON_ARGS[@]}" -jar "$APP_DIR/$JAR_NAME"
@@ -0,0 +1,107 @@
+package com.sgi.credit.benchmark;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.DebtCycle;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.helper.MongoTestTemplates;
+import com.sgi.credit.infrastructure.repository.codec.CreditCodec;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Spring Data mapping with the hand-written codec for one credit document.
+ * Encoding goes from the entity to BSON bytes and decoding from BSON bytes to the entity,
+ * which is the work done per document on a save and on a read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CodecBenchmark {
+
+    private final MappingMongoConverter converter = MongoTestTemplates.converter();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final CreditCodec creditCodec = new CreditCodec();
+    private final EncoderContext encoderContext = EncoderContext.builder().build();
+    private final DecoderContext decoderContext = DecoderContext.builder().build();
+
+    private Credit credit;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        credit = Credit.builder()
+                .id(new ObjectId().toHexString())
+                .creditNumber("4557880123456789")
+                .consumptionAmount(Money.ofMinor(12_345))
+                .balance(Money.ofMinor(187_655))
+                .interestRate(new BigDecimal("0.35"))
+                .creditLimit(Money.ofMajor(2_000))
+                .type("CREDIT_CARD")
+                .clientId(new ObjectId().toHexString())
+                .activeCycle(DebtCycle.builder()
+                        .id(new ObjectId().toHexString())
+                        .amount(Money.ofMinor(12_345))
+                        .dueDate(now)
+                        .build())
+                .ledgerSeq(42L)
+                .journalSeq(42L)
+                .createdDate(now)
+                .updatedDate(now)
+                .version(7L)
+                .build();
+        bytes = encodeWithCodec();
+    }
+
+    @Benchmark
+    public byte[] encodeWithConverter() {
+        Document document = new Document();
+        converter.write(credit, document);
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        documentCodec.encode(new BsonBinaryWriter(buffer), document, encoderContext);
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeWithCodec() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        creditCodec.encode(new BsonBinaryWriter(buffer), credit, encoderContext);
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public Credit decodeWithConverter() {
+        Document document = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), decoderContext);
+        return converter.read(Credit.class, document);
+    }
+
+    @Benchmark
+    public Credit decodeWithCodec() {
+        return creditCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), decoderContext);
+    }
+}
@@ -0,0 +1,95 @@
+package com.sgi.credit.benchmark;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditExportRow;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.infrastructure.encoding.CreditCsvWriter;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CSV export in rows per second, from export rows to pooled Netty buffers.
+ * The database cursor is not part of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CsvExportBenchmark.ROWS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CsvExportBenchmark {
+
+    static final int ROWS = 100_000;
+
+    @Param({"false", "true"})
+    private boolean cycles;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final CreditCsvWriter csvWriter = new CreditCsvWriter(512);
+
+    private List<CreditExportRow> rows;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Credit credit = Credit.builder()
+                    .id(new ObjectId().toHexString())
+                    .creditNumber("4557880123456789")
+                    .type("PERSONAL")
+                    .clientId("client-" + i)
+                    .creditLimit(Money.ofMajor(2_000))
+                    .consumptionAmount(Money.ofMinor(i))
+                    .balance(Money.ofMinor(200_000 - i))
+                    .interestRate(new BigDecimal("0.35"))
+                    .createdDate(now)
+                    .updatedDate(now)
+                    .build();
+            Debt cycle = cycles
+                    ? Debt.builder().id(new ObjectId().toHexString()).creditId(credit.getId()).status("ACTIVE")
+                            .amount(credit.getConsumptionAmount()).dueDate(now).build()
+                    : null;
+            rows.add(new CreditExportRow(credit, cycle));
+        }
+    }
+
+    @Benchmark
+    public long export() {
+        Long bytes = csvWriter.write(Flux.fromIterable(rows), bufferFactory, cycles)
+                .map(CsvExportBenchmark::release)
+                .reduce(0L, Long::sum)
+                .block();
+        return bytes != null ? bytes : 0L;
+    }
+
+    private static long release(DataBuffer buffer) {
+        long bytes = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sgi.credit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sgi.credit.infrastructure.config.JacksonConfig;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.encoding.StreamingJsonEncoder;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default Jackson encoder with {@link StreamingJsonEncoder} on a listing of credits.
+ * Each operation encodes the whole stream into pooled Netty buffers, as the server does, and
+ * returns the number of bytes written.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonEncoderBenchmark {
+
+    private static final ResolvableType CREDIT_TYPE = ResolvableType.forClass(CreditResponse.class);
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"application/json", "application/x-ndjson"})
+    private String mediaType;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    private Jackson2JsonEncoder defaultEncoder;
+    private StreamingJsonEncoder streamingEncoder;
+    private List<CreditResponse> credits;
+    private MimeType mimeType;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new JacksonConfig().moneyModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        defaultEncoder = new Jackson2JsonEncoder(objectMapper);
+        streamingEncoder = new StreamingJsonEncoder(objectMapper, List.of(CreditResponse.class), 256,
+                Duration.ofMillis(5));
+        mimeType = MediaType.parseMediaType(mediaType);
+        OffsetDateTime createdDate = OffsetDateTime.of(2024, 1, 15, 10, 20, 30, 123_000_000, ZoneOffset.UTC);
+        credits = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            credits.add(new CreditResponse()
+                    .id("66a0c1f2e4b0a1b2c3d4e5" + String.format("%02x", i % 256))
+                    .creditNumber("4557880123456789")
+                    .type(CreditResponse.TypeEnum.PERSONAL)
+                    .creditLimit(BigDecimal.valueOf(200_000, 2))
+                    .consumptionAmount(BigDecimal.valueOf(i, 2))
+                    .balance(BigDecimal.valueOf(200_000 - i, 2))
+                    .interestRate(new BigDecimal("0.35"))
+                    .clientId("client-" + i)
+                    .createdDate(createdDate.plusSeconds(i)));
+        }
+    }
+
+    @Benchmark
+    public long defaultEncoder() {
+        return encode(defaultEncoder);
+    }
+
+    @Benchmark
+    public long streamingEncoder() {
+        return encode(streamingEncoder);
+    }
+
+    private long encode(Encoder<Object> encoder) {
+        Long bytes = encoder.encode(Flux.fromIterable(credits), bufferFactory, CREDIT_TYPE, mimeType, Map.of())
+                .map(JsonEncoderBenchmark::release)
+                .reduce(0L, Long::sum)
+                .block();
+        return bytes != null ? bytes : 0L;
+    }
+
+    private static long release(DataBuffer buffer) {
+        long bytes = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+}
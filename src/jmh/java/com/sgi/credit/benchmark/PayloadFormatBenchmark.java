@@ -0,0 +1,145 @@
+package com.sgi.credit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sgi.credit.infrastructure.config.JacksonConfig;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.encoding.BinaryJsonEncoder;
+import com.sgi.credit.infrastructure.encoding.StreamingJsonEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.BrotliEncoder;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the response formats of a credit listing: JSON, CBOR and Smile, each sent as is or
+ * compressed with gzip or brotli at the levels the server uses. Each operation encodes the listing
+ * with the encoder serving that format and runs it through the Netty compressor; the payload size
+ * of each combination is printed at the end of the trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PayloadFormatBenchmark {
+
+    private static final ResolvableType CREDIT_TYPE = ResolvableType.forClass(CreditResponse.class);
+    private static final int GZIP_LEVEL = 6;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    @Param({"application/json", "application/cbor", "application/x-jackson-smile"})
+    private String mediaType;
+
+    @Param({"identity", "gzip", "br"})
+    private String contentEncoding;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    private Encoder<Object> encoder;
+    private List<CreditResponse> credits;
+    private MimeType mimeType;
+    private long payloadBytes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new JacksonConfig().moneyModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        mimeType = MediaType.parseMediaType(mediaType);
+        encoder = MediaType.APPLICATION_JSON.isCompatibleWith(mimeType)
+                ? new StreamingJsonEncoder(objectMapper, List.of(CreditResponse.class), 256, Duration.ofMillis(5))
+                : new BinaryJsonEncoder(objectMapper);
+        OffsetDateTime createdDate = OffsetDateTime.of(2024, 1, 15, 10, 20, 30, 123_000_000, ZoneOffset.UTC);
+        credits = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            credits.add(new CreditResponse()
+                    .id("66a0c1f2e4b0a1b2c3d4e5" + String.format("%02x", i % 256))
+                    .creditNumber("4557880123456789")
+                    .type(CreditResponse.TypeEnum.PERSONAL)
+                    .creditLimit(BigDecimal.valueOf(200_000, 2))
+                    .consumptionAmount(BigDecimal.valueOf(i, 2))
+                    .balance(BigDecimal.valueOf(200_000 - i, 2))
+                    .interestRate(new BigDecimal("0.35"))
+                    .clientId("client-" + i)
+                    .createdDate(createdDate.plusSeconds(i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void printPayloadSize() {
+        System.out.printf("%n%s %s, %d credits: %d bytes%n", mediaType, contentEncoding, size, payloadBytes);
+    }
+
+    @Benchmark
+    public long encode() {
+        EmbeddedChannel channel = compressor();
+        Flux<ByteBuf> buffers = encoder.encode(Flux.fromIterable(credits), bufferFactory, CREDIT_TYPE, mimeType, Map.of())
+                .map(buffer -> ((NettyDataBuffer) buffer).getNativeBuffer());
+        if (channel == null) {
+            Long bytes = buffers.map(PayloadFormatBenchmark::release).reduce(0L, Long::sum).block();
+            payloadBytes = bytes != null ? bytes : 0L;
+            return payloadBytes;
+        }
+        buffers.doOnNext(channel::writeOutbound).blockLast();
+        channel.finish();
+        long bytes = 0;
+        for (ByteBuf compressed = channel.readOutbound(); compressed != null; compressed = channel.readOutbound()) {
+            bytes += release(compressed);
+        }
+        payloadBytes = bytes;
+        return bytes;
+    }
+
+    private EmbeddedChannel compressor() {
+        ChannelHandler handler = switch (contentEncoding) {
+            case "gzip" -> ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP, GZIP_LEVEL);
+            case "br" -> new BrotliEncoder();
+            default -> null;
+        };
+        return handler != null ? new EmbeddedChannel(handler) : null;
+    }
+
+    private static long release(ByteBuf buffer) {
+        long bytes = buffer.readableBytes();
+        buffer.release();
+        return bytes;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sgi.credit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgi.credit.infrastructure.ratelimit.RateLimitFilter;
+import com.sgi.credit.infrastructure.ratelimit.RateLimitProperties;
+import com.sgi.credit.infrastructure.ratelimit.TokenBuckets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of rate limiting: a bucket acquisition alone, under contention from
+ * four threads over 1024 keys, and the whole filter on a charge request, exchange creation excluded.
+ * Quotas are large enough that every request is granted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class RateLimitBenchmark {
+
+    private static final int KEYS = 1024;
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    private final String[] keys = new String[KEYS];
+    private TokenBuckets buckets;
+    private RateLimitFilter filter;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "credit-" + i;
+        }
+        buckets = new TokenBuckets(1_000_000_000L, 1e9, 64, Duration.ofMinutes(5));
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Quota unlimited = new RateLimitProperties.Quota(1_000_000_000L, 1e9);
+        properties.getEndpoints().get("charge").setClient(unlimited);
+        properties.getEndpoints().get("charge").setCredit(unlimited);
+        filter = new RateLimitFilter(properties, new SimpleMeterRegistry(), new ObjectMapper());
+    }
+
+    /**
+     * Charge exchanges of one thread, created once and reused; the filter only overwrites their headers.
+     */
+    @State(Scope.Thread)
+    public static class Requests {
+
+        private final MockServerWebExchange[] exchanges = new MockServerWebExchange[KEYS];
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < KEYS; i++) {
+                exchanges[i] = MockServerWebExchange.from(MockServerHttpRequest
+                        .post("/v1/credits/credit-{id}/charge", i)
+                        .header("X-Client-Id", "client-" + (i % 16))
+                        .build());
+                exchanges[i].getRequest().getPath();
+            }
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return buckets.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEYS)], System.nanoTime());
+    }
+
+    @Benchmark
+    public Mono<Void> filter(Requests requests) {
+        return filter.filter(requests.exchanges[ThreadLocalRandom.current().nextInt(KEYS)], CHAIN);
+    }
+}
@@ -1,33 +1,45 @@
 package com.sgi.credit.application.service;
 
-import java.math.BigDecimal;
 import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditExportRow;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.Hold;
+import com.sgi.credit.domain.model.HoldStatus;
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.model.ReadConsistency;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
-import com.sgi.credit.domain.model.Debt;
-import com.sgi.credit.domain.ports.out.DebtRepository;
 import com.sgi.credit.infrastructure.dto.BalanceResponse;
 import com.sgi.credit.infrastructure.dto.ChargeRequest;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
 import com.sgi.credit.infrastructure.dto.CreditRequest;
-import com.sgi.credit.infrastructure.dto.DebtRequest;
+import com.sgi.credit.infrastructure.dto.HoldResponse;
 import com.sgi.credit.infrastructure.dto.PaymentRequest;
-import com.sgi.credit.infrastructure.dto.DebtResponse;
 import com.sgi.credit.infrastructure.dto.TransactionRequest;
 import com.sgi.credit.infrastructure.dto.TransactionResponse;
 import com.sgi.credit.infrastructure.mapper.CreditMapper;
-import com.sgi.credit.infrastructure.mapper.DebtMapper;
+import com.sgi.credit.infrastructure.mapper.HoldMapper;
+import com.sgi.credit.infrastructure.tracing.StageObservations;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import com.sgi.credit.domain.ports.in.CreditService;
+import com.sgi.credit.domain.ports.out.BalanceBroadcaster;
+import com.sgi.credit.domain.ports.out.CreditLedger;
 import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtCycleStore;
 import com.sgi.credit.domain.ports.out.FeignExternalService;
+import com.sgi.credit.domain.ports.out.HoldStore;
+import com.sgi.credit.domain.ports.out.OptimisticLockRetry;
 import com.sgi.credit.domain.shared.CustomError;
 import com.sgi.credit.infrastructure.exception.CustomException;
 
@@ -35,33 +47,34 @@ import static com.sgi.credit.domain.shared.Constants.generateAccountNumber;
 
 /**
  * Service implementation for managing credits.
+ * Every operation is observed as a service stage, so traces show the service time around the
+ * repository and transaction-service calls it makes.
  */
 @Service
 @RequiredArgsConstructor
 public class CreditServiceImpl implements CreditService {
 
+    private static final int EXPORT_CYCLE_LOOKUPS = 16;
+
     private final CreditRepository creditRepository;
     private final FeignExternalService webClient;
-    private final DebtRepository debtRepository;
+    private final DebtCycleStore debtCycleStore;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final CreditLedger creditLedger;
+    private final HoldStore holdStore;
+    private final BalanceBroadcaster balanceBroadcaster;
+    private final ObservationRegistry observationRegistry;
 
 
     @Override
     public Mono<CreditResponse> createCredit(Mono<CreditRequest> credit) {
-        return credit.flatMap(creditMono ->
+        return observe("createCredit", credit.flatMap(creditMono ->
                 hasOverdueDebt(creditMono.getClientId())
                         .filter(hasOverdue -> !hasOverdue)
                         .switchIfEmpty(Mono.error(new CustomException(CustomError.E_OUTSTANDING_DEBT)))
-                        .flatMap(ignored -> {
-                            Credit creditBank = CreditMapper.INSTANCE.toCredit(creditMono, generateAccountNumber());
-                            return creditRepository.save(creditBank)
-                                    .flatMap(creditResponse -> {
-                                        Debt debtRequest = DebtMapper.INSTANCE.toDebtRequest(creditResponse,
-                                                DebtRequest.StatusEnum.ACTIVE.name());
-                                        return debtRepository.save(debtRequest)
-                                                .thenReturn(creditResponse);
-                                    });
-                        })
-        );
+                        .flatMap(ignored -> debtCycleStore.open(
+                                CreditMapper.INSTANCE.toCredit(creditMono, generateAccountNumber())))
+        ));
     }
 
     /**
@@ -73,160 +86,303 @@ public class CreditServiceImpl implements CreditService {
      * @return A Mono emitting true if the debt is overdue, false otherwise.
      */
     public Mono<Boolean> hasOverdueDebt(String clientId) {
-        return debtRepository.findByClientIdAndStatus(clientId, DebtRequest.StatusEnum.ACTIVE.name())
-                .map(debt -> {
-                    LocalDate dueDate = debt.getDueDate().atZone(ZoneId.systemDefault()).toLocalDate();
-                    return dueDate.isBefore(LocalDate.now().withDayOfMonth(1));
-                })
-                .defaultIfEmpty(false);
+        Instant firstDayOfMonth = LocalDate.now().withDayOfMonth(1)
+                .atStartOfDay(ZoneId.systemDefault())
+                .toInstant();
+        return debtCycleStore.hasCycleDueBefore(clientId, firstDayOfMonth);
     }
 
     @Override
     public Mono<Void> deleteCredit(String id) {
-        return creditRepository.findById(id)
-                .switchIfEmpty(Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)))
-                .flatMap(creditRepository::delete);
+        return observe("deleteCredit", optimisticLockRetry.retryOnConflict("deleteCredit",
+                () -> creditRepository.findById(id)
+                        .switchIfEmpty(Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)))
+                        .flatMap(creditRepository::delete)));
     }
 
     @Override
     public Flux<CreditResponse> getAllCredits(String creditId, String type, String clientId) {
-        return creditRepository.findAll(creditId, type, clientId);
+        return observe("getAllCredits", creditRepository.findAll(creditId, type, clientId));
     }
 
     @Override
     public Mono<CreditResponse> getCreditById(String id) {
-        return creditRepository.findById(id).map(CreditMapper.INSTANCE::toCreditResponse);
+        return observe("getCreditById", creditRepository.findById(id)
+                .flatMap(credit -> creditLedger.currentState(credit)
+                        .map(state -> withTotals(credit, state)))
+                .map(CreditMapper.INSTANCE::toCreditResponse));
+    }
+
+    /**
+     * Returns an opaque token that changes whenever the credit is written.
+     * Reads only the document version, so it is cheap enough to answer conditional requests.
+     * The revision of the credit's holds is appended, since holds change the available balance, and so
+     * is the ledger position not applied to the document yet, since reads already include it.
+     *
+     * @param id The credit ID.
+     * @return A Mono emitting the version token, or empty if the credit is unknown.
+     */
+    @Override
+    public Mono<String> getCreditVersion(String id) {
+        return observe("getCreditVersion", Mono.zip(creditRepository.findVersionById(id), holdStore.revision(id),
+                        creditLedger.pendingPosition(id).defaultIfEmpty(0L))
+                .map(parts -> versionToken(parts.getT1(), parts.getT2(), parts.getT3())));
+    }
+
+    private static String versionToken(long version, long holdRevision, long pendingPosition) {
+        StringBuilder token = new StringBuilder(Long.toHexString(version));
+        if (holdRevision > 0) {
+            token.append('-').append(Long.toHexString(holdRevision));
+        }
+        if (pendingPosition > 0) {
+            token.append('.').append(Long.toHexString(pendingPosition));
+        }
+        return token.toString();
     }
 
+    /**
+     * Updates the terms of a credit. The type and interest rate are saved on the credit document;
+     * a new credit limit is recorded in the ledger only when it differs from the current one,
+     * so a retried attempt does not record it twice.
+     */
     @Override
     public Mono<CreditResponse> updateCredit(String id, Mono<CreditRequest> customer) {
-        return creditRepository.findById(id)
-                .switchIfEmpty(Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)))
-                .flatMap(accountRequest ->
-                        customer.map(updatedAccount -> {
-                            accountRequest.setCreditLimit(updatedAccount.getCreditLimit());
-                            accountRequest.setType(updatedAccount.getType().getValue());
-                            accountRequest.setInterestRate(updatedAccount.getInterestRate());
-                            accountRequest.setUpdatedDate(Instant.now());
-                            return accountRequest;
-                        })
-                ).flatMap(creditRepository::save);
+        return observe("updateCredit", customer.flatMap(updatedAccount -> updateCredit(id, updatedAccount,
+                Money.of(updatedAccount.getCreditLimit()))));
+    }
+
+    private Mono<CreditResponse> updateCredit(String id, CreditRequest updatedAccount, Money creditLimit) {
+        return optimisticLockRetry.retryOnConflict("updateCredit",
+                () -> creditRepository.findById(id)
+                        .switchIfEmpty(Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)))
+                        .flatMap(credit -> {
+                            credit.setType(updatedAccount.getType().getValue());
+                            credit.setInterestRate(updatedAccount.getInterestRate());
+                            credit.setUpdatedDate(Instant.now());
+                            return creditRepository.save(credit)
+                                    .flatMap(saved -> creditLedger.currentState(credit)
+                                            .flatMap(state -> state.getCreditLimit().equals(creditLimit)
+                                                    ? Mono.just(saved)
+                                                    : creditLedger.append(credit, state, LedgerEntryType.LIMIT_CHANGE,
+                                                                    creditLimit)
+                                                            .flatMap(next -> recordBalance(credit, next))
+                                                            .map(next -> CreditMapper.INSTANCE.toCreditResponse(
+                                                                    withTotals(credit, next)))));
+                        }));
     }
 
     @Override
     public Flux<TransactionResponse> getClientTransactions(String idCredit) {
-        return creditRepository.findById(idCredit)
+        return observe("getClientTransactions", creditRepository.findById(idCredit, ReadConsistency.BOUNDED_STALENESS)
                 .switchIfEmpty(Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)))
                 .flatMapMany(credit -> webClient.get(
                         "/v1/transactions/{productId}/card",
                         idCredit,
-                        TransactionResponse.class));
+                        TransactionResponse.class)));
     }
 
+    /**
+     * Applies a payment to the credit ledger, then records the transaction.
+     * The read-modify-write of the ledger is retried on optimistic lock conflicts;
+     * the transaction is posted once, after the payment is committed.
+     */
     @Override
-    @Transactional
     public Mono<TransactionResponse> makePayment(String idCredit, Mono<PaymentRequest> paymentRequestMono) {
-        TransactionRequest transaction = new TransactionRequest();
+        return observe("makePayment", paymentRequestMono.flatMap(payment -> optimisticLockRetry.retryOnConflict(
+                        "makePayment", () -> applyPayment(idCredit, Money.of(payment.getAmount()))))
+                .flatMap(transaction -> webClient.post("/v1/transactions", transaction, TransactionResponse.class)));
+    }
+
+    private Mono<TransactionRequest> applyPayment(String idCredit, Money amount) {
         return creditRepository.findById(idCredit)
                 .switchIfEmpty(Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)))
-                .flatMap(credit ->
-                        paymentRequestMono
-                                .filter(payment -> payment.getAmount().compareTo(credit.getConsumptionAmount()) <= 0)
-                                .switchIfEmpty(Mono.error(new CustomException(CustomError.E_INVALID_INPUT)))
-                                .flatMap(payment -> {
-                                    BigDecimal updatedConsumptionAmount = credit.getConsumptionAmount()
-                                            .subtract(payment.getAmount());
-                                    return debtRepository.findByClientIdAndStatus(credit.getClientId(),
-                                                    DebtRequest.StatusEnum.ACTIVE.name())
-                                            .flatMap(debt -> {
-                                                debt.setAmount(updatedConsumptionAmount);
-                                                if (debt.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
-                                                    debt.setStatus(DebtRequest.StatusEnum.PAID.name());
-                                                    return debtRepository.save(debt)
-                                                            .flatMap(this::createNewDebtForNextMonth);
-                                                }
-                                                return debtRepository.save(debt);
-                                            })
-                                            .then(Mono.defer(() -> {
-                                                transaction.setProductId(idCredit);
-                                                transaction.setClientId(credit.getClientId());
-                                                transaction.setType(TransactionRequest.TypeEnum.PAYMENT);
-                                                transaction.setBalance(credit.getCreditLimit()
-                                                        .subtract(updatedConsumptionAmount).doubleValue());
-                                                transaction.setAmount(payment.getAmount().doubleValue());
-                                                credit.setConsumptionAmount(updatedConsumptionAmount);
-                                                credit.setBalance(credit.getCreditLimit().subtract(updatedConsumptionAmount));
-                                                return creditRepository.save(credit)
-                                                        .flatMap(savedCredit ->
-                                                                webClient.post("/v1/transactions", transaction,
-                                                                        TransactionResponse.class)
-                                                        );
-                                            }));
-                                })
-                );
-    }
-
-    private Mono<Debt> createNewDebtForNextMonth(DebtResponse currentDebt) {
-        Debt newDebt = new Debt();
-        newDebt.setCreditId(currentDebt.getCreditId());
-        newDebt.setClientId(currentDebt.getClientId());
-        newDebt.setAmount(BigDecimal.ZERO);
-        newDebt.setStatus(DebtRequest.StatusEnum.ACTIVE.name());
-        newDebt.setDueDate(currentDebt.getDueDate().plusNanos(1).toInstant());
-        return debtRepository.save(newDebt)
-                .map(debt ->  DebtMapper.INSTANCE.convertDebtResponseToDebt(Mono.just(debt)));
-    }
-
-    @Override
-    @Transactional
+                .flatMap(credit -> creditLedger.currentState(credit)
+                        .filter(state -> amount.compareTo(state.getConsumptionAmount()) <= 0)
+                        .switchIfEmpty(Mono.error(new CustomException(CustomError.E_INVALID_INPUT)))
+                        .flatMap(state -> creditLedger.append(credit, state, LedgerEntryType.PAYMENT, amount))
+                        .flatMap(state -> recordBalance(credit, state))
+                        .map(state -> toTransaction(credit, TransactionRequest.TypeEnum.PAYMENT, state, amount)));
+    }
+
+    /**
+     * Charges the credit ledger, then records the transaction.
+     * The read-modify-write of the ledger is retried on optimistic lock conflicts;
+     * the transaction is posted once, after the charge is committed. Active holds are not
+     * available to direct charges.
+     */
+    @Override
     public Mono<TransactionResponse> chargeCreditCard(String idCredit, Mono<ChargeRequest> chargeRequestMono) {
-        TransactionRequest transaction = new TransactionRequest();
+        return observe("chargeCreditCard", chargeRequestMono.flatMap(charge -> optimisticLockRetry.retryOnConflict(
+                        "chargeCreditCard", () -> applyCharge(idCredit, Money.of(charge.getAmount()))))
+                .flatMap(transaction -> webClient.post("/v1/transactions", transaction, TransactionResponse.class)));
+    }
+
+    private Mono<TransactionRequest> applyCharge(String idCredit, Money amount) {
         return creditRepository.findById(idCredit)
                 .switchIfEmpty(Mono.defer(() -> Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND))))
-                .flatMap(credit -> chargeRequestMono
-                        .filter(isNotCreditLimitExceeded(credit))
+                .flatMap(credit -> creditLedger.currentState(credit)
+                        .zipWith(holdStore.heldAmount(idCredit))
+                        .filter(stateAndHeld -> isNotCreditLimitExceeded(stateAndHeld.getT1(), stateAndHeld.getT2())
+                                .test(amount))
                         .switchIfEmpty(Mono.error(new CustomException(CustomError.E_INSUFFICIENT_BALANCE)))
-                        .flatMap(charge -> {
-                            BigDecimal updatedConsumptionAmount = credit.getConsumptionAmount().add(charge.getAmount());
-                            return debtRepository.findByClientIdAndStatus(credit.getClientId(),
-                                            DebtRequest.StatusEnum.ACTIVE.name())
-                                    .flatMap(debt -> {
-                                        debt.setAmount(updatedConsumptionAmount);
-                                        return debtRepository.save(debt);
-                                    })
-                                    .then(Mono.defer(() -> {
-                                        transaction.setProductId(idCredit);
-                                        transaction.setClientId(credit.getClientId());
-                                        transaction.setType(TransactionRequest.TypeEnum.CHARGE);
-                                        transaction.setBalance(credit.getCreditLimit()
-                                                .subtract(updatedConsumptionAmount).doubleValue());
-                                        transaction.setAmount(charge.getAmount().doubleValue());
-                                        credit.setConsumptionAmount(updatedConsumptionAmount);
-                                        credit.setBalance(credit.getCreditLimit().subtract(updatedConsumptionAmount));
-                                        return creditRepository.save(credit)
-                                                .flatMap(savedAccount -> webClient.post(
-                                                        "/v1/transactions",
-                                                        transaction,
-                                                        TransactionResponse.class));
-                                            }));
+                        .flatMap(stateAndHeld -> creditLedger.append(credit, stateAndHeld.getT1(),
+                                LedgerEntryType.CHARGE, amount))
+                        .flatMap(state -> recordBalance(credit, state))
+                        .map(state -> toTransaction(credit, TransactionRequest.TypeEnum.CHARGE, state, amount)));
+    }
 
+    /**
+     * Authorizes a charge by holding the amount against the available balance.
+     * Served from the hold store alone while it knows a recent ledger balance for the credit;
+     * otherwise the balance is read from the ledger first.
+     */
+    @Override
+    public Mono<HoldResponse> authorizeCharge(String idCredit, Mono<ChargeRequest> chargeRequestMono) {
+        return observe("authorizeCharge", chargeRequestMono.flatMap(charge -> {
+            Money amount = Money.of(charge.getAmount());
+            return holdStore.reserve(idCredit, amount)
+                    .switchIfEmpty(Mono.defer(() -> creditRepository.findById(idCredit)
+                            .switchIfEmpty(Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)))
+                            .flatMap(creditLedger::currentState)
+                            .flatMap(state -> holdStore.reserve(idCredit, amount, state.balance()))));
+        }).map(HoldMapper.INSTANCE::toHoldResponse));
+    }
 
-                        }));
+    /**
+     * Captures a hold into a ledger charge, then records the transaction.
+     * The hold is claimed first so it is captured at most once; if the charge cannot be
+     * committed it is restored and can be captured or voided again.
+     */
+    @Override
+    public Mono<TransactionResponse> captureHold(String idCredit, String holdId) {
+        return observe("captureHold", holdStore.claim(idCredit, holdId, HoldStatus.CAPTURED)
+                .switchIfEmpty(Mono.error(new CustomException(CustomError.E_HOLD_NOT_FOUND)))
+                .flatMap(hold -> optimisticLockRetry.retryOnConflict("captureHold",
+                                () -> applyCharge(idCredit, hold.getAmount()))
+                        .onErrorResume(ex -> holdStore.restore(hold).then(Mono.error(ex))))
+                .flatMap(transaction -> webClient.post("/v1/transactions", transaction, TransactionResponse.class)));
+    }
+
+    @Override
+    public Mono<Void> voidHold(String idCredit, String holdId) {
+        return observe("voidHold", holdStore.claim(idCredit, holdId, HoldStatus.VOIDED)
+                .switchIfEmpty(Mono.error(new CustomException(CustomError.E_HOLD_NOT_FOUND)))
+                .then());
+    }
+
+    /**
+     * Records the committed ledger balance for new holds and pushes the available balance
+     * to the subscribers of the credit, if it has any.
+     */
+    private Mono<CreditSnapshot> recordBalance(Credit credit, CreditSnapshot state) {
+        return holdStore.recordBalance(credit.getId(), state.balance())
+                .then(Mono.defer(() -> balanceBroadcaster.hasSubscribers(credit.getId())
+                        ? holdStore.heldAmount(credit.getId())
+                                .doOnNext(held -> balanceBroadcaster.publish(credit.getId(),
+                                        toBalance(credit.getClientId(), state.balance().minus(held))))
+                                .then()
+                        : Mono.<Void>empty()))
+                .thenReturn(state);
+    }
+
+    private static BalanceResponse toBalance(String clientId, Money available) {
+        BalanceResponse balance = new BalanceResponse();
+        balance.setClientId(clientId);
+        balance.setBalance(available.toBigDecimal());
+        return balance;
+    }
+
+    private static TransactionRequest toTransaction(Credit credit, TransactionRequest.TypeEnum type,
+                                                    CreditSnapshot state, Money amount) {
+        TransactionRequest transaction = new TransactionRequest();
+        transaction.setProductId(credit.getId());
+        transaction.setClientId(credit.getClientId());
+        transaction.setType(type);
+        transaction.setBalance(state.balance().toBigDecimal());
+        transaction.setAmount(amount.toBigDecimal());
+        return transaction;
+    }
+
+    private static Credit withTotals(Credit credit, CreditSnapshot state) {
+        credit.setConsumptionAmount(state.getConsumptionAmount());
+        credit.setCreditLimit(state.getCreditLimit());
+        credit.setBalance(state.balance());
+        return credit;
     }
 
     @Override
     public Flux<CreditResponse> getCreditCardByClientId(String clientId) {
-        return creditRepository.getCreditCardByClientId(clientId);
+        return observe("getCreditCardByClientId", creditRepository.getCreditCardByClientId(clientId));
     }
 
-    private Predicate<ChargeRequest> isNotCreditLimitExceeded(Credit credit) {
-        return charge -> charge.getAmount().compareTo(credit.getCreditLimit().subtract(credit.getConsumptionAmount())) <= 0;
+    /**
+     * Streams every credit, and optionally its debt cycles, in cursor order.
+     * Cycle lookups run for at most {@link #EXPORT_CYCLE_LOOKUPS} credits at a time and rows keep the
+     * credit order, so memory stays bounded by that window whatever the size of the book.
+     *
+     * @param includeCycles Whether each credit is repeated once per debt cycle.
+     * @return A Flux emitting the export rows.
+     */
+    @Override
+    public Flux<CreditExportRow> exportCredits(boolean includeCycles) {
+        Flux<Credit> credits = creditRepository.streamAll();
+        if (!includeCycles) {
+            return observe("exportCredits", credits.map(credit -> new CreditExportRow(credit, null)));
+        }
+        return observe("exportCredits", credits.flatMapSequential(credit -> debtCycleStore.findCycles(credit)
+                .map(cycle -> new CreditExportRow(credit, cycle))
+                .defaultIfEmpty(new CreditExportRow(credit, null)), EXPORT_CYCLE_LOOKUPS));
+    }
+
+    private Predicate<Money> isNotCreditLimitExceeded(CreditSnapshot state, Money held) {
+        return amount -> amount.compareTo(state.balance().minus(held)) <= 0;
     }
 
+    /**
+     * Returns the available balance of the credit: its ledger balance less the active holds.
+     */
     @Override
     public Mono<BalanceResponse> getClientBalances(String idCredit) {
-        return creditRepository.findById(idCredit)
-                .map(CreditMapper.INSTANCE::toBalanceResponse);
+        return observe("getClientBalances", creditLedger.findBalance(idCredit)
+                .zipWith(holdStore.heldAmount(idCredit), (balance, held) -> {
+                    if (held.signum() > 0 && balance.getBalance() != null) {
+                        balance.setBalance(balance.getBalance().subtract(held.toBigDecimal()));
+                    }
+                    return balance;
+                }));
+    }
+
+    /**
+     * Follows the balance updates first, then reads the current balance, so no commit falls between the two.
+     * The current balance is dropped if an update was already delivered, since it may be older.
+     */
+    @Override
+    public Flux<BalanceResponse> streamBalances(String idCredit) {
+        return Flux.defer(() -> {
+            AtomicBoolean updated = new AtomicBoolean();
+            Flux<Tuple2<Boolean, BalanceResponse>> updates = balanceBroadcaster.subscribe(idCredit)
+                    .map(balance -> Tuples.of(true, balance));
+            Mono<Tuple2<Boolean, BalanceResponse>> current = getClientBalances(idCredit)
+                    .switchIfEmpty(Mono.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)))
+                    .map(balance -> Tuples.of(false, balance));
+            return Flux.merge(updates, current)
+                    .filter(update -> {
+                        if (update.getT1()) {
+                            updated.set(true);
+                            return true;
+                        }
+                        return !updated.get();
+                    })
+                    .map(Tuple2::getT2);
+        });
+    }
+
+    private <T> Mono<T> observe(String stage, Mono<T> source) {
+        return StageObservations.observe(observationRegistry, "service", "creditService." + stage, source);
+    }
+
+    private <T> Flux<T> observe(String stage, Flux<T> source) {
+        return StageObservations.observe(observationRegistry, "service", "creditService." + stage, source);
     }
 
 }
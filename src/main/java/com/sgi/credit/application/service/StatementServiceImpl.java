@@ -0,0 +1,319 @@
+package com.sgi.credit.application.service;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.model.Statement;
+import com.sgi.credit.domain.model.StatementJob;
+import com.sgi.credit.domain.model.StatementJobStatus;
+import com.sgi.credit.domain.ports.in.StatementService;
+import com.sgi.credit.domain.ports.out.CreditLedger;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtCycleStore;
+import com.sgi.credit.domain.ports.out.FeignExternalService;
+import com.sgi.credit.domain.ports.out.StatementStore;
+import com.sgi.credit.domain.shared.CustomError;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import com.sgi.credit.infrastructure.dto.TransactionResponse;
+import com.sgi.credit.infrastructure.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service generating the monthly statements of every credit.
+ * Credits are read in ID order; the ledger state, debt cycles and transactions of up to
+ * {@code statements.concurrency} credits are fetched at the same time, and the statements are
+ * written in partitions of {@code statements.partition-size} with one bulk write each. After each
+ * partition the job records the last credit written, which is where a resumed job starts again.
+ * The ledger state is the one at the end of the period when the ledger keeps its history, and the
+ * current one otherwise; {@link Statement#getAsOf()} records which. The debt is that of the cycles
+ * open at the end of the period.
+ * A credit whose data cannot be fetched after {@code statements.retries} retries is counted as failed
+ * and skipped, so one unreachable credit does not stop the month-end run; the job keeps its ID and
+ * retries it first when resumed.
+ */
+@Slf4j
+@Service
+public class StatementServiceImpl implements StatementService, DisposableBean {
+
+    private static final String TRANSACTIONS_PATH = "/v1/transactions/{productId}/card";
+
+    private final CreditRepository creditRepository;
+    private final CreditLedger creditLedger;
+    private final DebtCycleStore debtCycleStore;
+    private final FeignExternalService webClient;
+    private final StatementStore statementStore;
+    private final MeterRegistry meterRegistry;
+    private final int partitionSize;
+    private final int concurrency;
+    private final Retry retry;
+    private final Counter generated;
+    private final Counter failed;
+    private final Timer partitionTimer;
+    private final Map<String, Disposable> running = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the service.
+     *
+     * @param creditRepository Repository streaming the credits.
+     * @param creditLedger     Ledger providing the totals of each credit.
+     * @param debtCycleStore   Store providing the debt cycles of each credit.
+     * @param webClient        Client of the transaction service.
+     * @param statementStore   Store receiving the statements and job checkpoints.
+     * @param meterRegistry    Registry receiving the generation metrics.
+     * @param partitionSize    Statements written, and checkpointed, together.
+     * @param concurrency      Credits whose data is fetched at the same time.
+     * @param retries          Retries of the fetches of one credit before it is counted as failed.
+     */
+    public StatementServiceImpl(CreditRepository creditRepository,
+                                CreditLedger creditLedger,
+                                DebtCycleStore debtCycleStore,
+                                FeignExternalService webClient,
+                                StatementStore statementStore,
+                                MeterRegistry meterRegistry,
+                                @Value("${statements.partition-size:500}") int partitionSize,
+                                @Value("${statements.concurrency:16}") int concurrency,
+                                @Value("${statements.retries:2}") int retries) {
+        this.creditRepository = creditRepository;
+        this.creditLedger = creditLedger;
+        this.debtCycleStore = debtCycleStore;
+        this.webClient = webClient;
+        this.statementStore = statementStore;
+        this.meterRegistry = meterRegistry;
+        this.partitionSize = partitionSize;
+        this.concurrency = concurrency;
+        this.retry = Retry.backoff(retries, Duration.ofMillis(100));
+        this.generated = Counter.builder("credit.statements.generated").register(meterRegistry);
+        this.failed = Counter.builder("credit.statements.failed").register(meterRegistry);
+        this.partitionTimer = Timer.builder("credit.statements.partition").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<StatementJob> startJob(YearMonth period) {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            StatementJob job = StatementJob.builder()
+                    .id(new ObjectId().toHexString())
+                    .period(period.toString())
+                    .status(StatementJobStatus.RUNNING)
+                    .startedAt(now)
+                    .updatedAt(now)
+                    .build();
+            return statementStore.saveJob(job).doOnNext(this::launch);
+        });
+    }
+
+    /**
+     * Resumes a job after its last checkpoint, retrying its failed credits first.
+     * Completed jobs without failed credits, and jobs still running on this instance, are returned as they are.
+     */
+    @Override
+    public Mono<StatementJob> resumeJob(String jobId) {
+        return getJob(jobId)
+                .flatMap(job -> {
+                    if (job.getStatus() == StatementJobStatus.COMPLETED && job.failedCreditIds().isEmpty()
+                            || running.containsKey(jobId)) {
+                        return Mono.just(job);
+                    }
+                    job.setStatus(StatementJobStatus.RUNNING);
+                    job.setError(null);
+                    job.setUpdatedAt(Instant.now());
+                    return statementStore.saveJob(job).doOnNext(this::launch);
+                });
+    }
+
+    @Override
+    public Mono<StatementJob> getJob(String jobId) {
+        return statementStore.findJob(jobId)
+                .switchIfEmpty(Mono.error(new CustomException(CustomError.E_STATEMENT_JOB_NOT_FOUND)));
+    }
+
+    @Override
+    public void destroy() {
+        running.values().forEach(Disposable::dispose);
+    }
+
+    private void launch(StatementJob job) {
+        Disposable.Swap task = Disposables.swap();
+        if (running.putIfAbsent(job.getId(), task) != null) {
+            return;
+        }
+        task.update(run(job)
+                .doFinally(signal -> running.remove(job.getId(), task))
+                .subscribe(null, ex -> log.error("Statement job {} could not record its status", job.getId(), ex)));
+    }
+
+    private Mono<Void> run(StatementJob job) {
+        YearMonth period = YearMonth.parse(job.getPeriod());
+        Instant from = period.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = period.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<String> retried = job.failedCreditIds();
+        log.info("Statement job {} for {} retrying {} failed credits and starting after credit {}", job.getId(), period,
+                retried.size(), job.getLastCreditId());
+        Flux<Outcome> retries = Flux.fromIterable(retried)
+                .flatMapSequential(creditId -> creditRepository.findById(creditId)
+                        .flatMap(credit -> generate(credit, job.getPeriod(), from, to, true))
+                        .switchIfEmpty(Mono.fromSupplier(() -> {
+                            log.info("Statement of deleted credit {} for {} no longer retried", creditId, period);
+                            return new Outcome(creditId, null, true, false);
+                        })), concurrency);
+        Flux<Outcome> remaining = creditRepository.streamFrom(job.getLastCreditId())
+                .flatMapSequential(credit -> generate(credit, job.getPeriod(), from, to, false), concurrency);
+        return retries.concatWith(remaining)
+                .buffer(partitionSize)
+                .concatMap(partition -> checkpoint(job, partition))
+                .then(Mono.defer(() -> finish(job, StatementJobStatus.COMPLETED, null)))
+                .onErrorResume(ex -> {
+                    log.error("Statement job {} failed after credit {}", job.getId(), job.getLastCreditId(), ex);
+                    return finish(job, StatementJobStatus.FAILED, ex.getMessage());
+                })
+                .then();
+    }
+
+    private Mono<Outcome> generate(Credit credit, String period, Instant from, Instant to, boolean retried) {
+        return Mono.zip(closingState(credit, to),
+                        debtCycleStore.findCycles(credit).filter(debt -> isOpenAt(debt, to)).collectList(),
+                        transactionTotals(credit.getId(), from, to))
+                .retryWhen(retry)
+                .map(data -> new Outcome(credit.getId(),
+                        toStatement(credit, period, data.getT1(), data.getT2(), data.getT3()), retried, false))
+                .onErrorResume(ex -> {
+                    log.warn("Statement of credit {} for {} failed", credit.getId(), period, ex);
+                    return Mono.just(new Outcome(credit.getId(), null, retried, true));
+                });
+    }
+
+    /**
+     * Tells whether a debt cycle was open at the given instant: opened before it, and still active or paid from it on.
+     * Cycles written without an opening date count as opened, and paid ones without a payment date as paid, before it.
+     */
+    private static boolean isOpenAt(Debt debt, Instant instant) {
+        if (debt.getOpenedAt() != null && !debt.getOpenedAt().isBefore(instant)) {
+            return false;
+        }
+        return DebtRequest.StatusEnum.ACTIVE.name().equals(debt.getStatus())
+                || debt.getPaidAt() != null && !debt.getPaidAt().isBefore(instant);
+    }
+
+    private Mono<Closing> closingState(Credit credit, Instant to) {
+        return creditLedger.stateAt(credit, to)
+                .map(state -> new Closing(state, to))
+                .switchIfEmpty(Mono.defer(() -> {
+                    Instant now = Instant.now();
+                    return creditLedger.currentState(credit).map(state -> new Closing(state, now));
+                }));
+    }
+
+    private Mono<Totals> transactionTotals(String creditId, Instant from, Instant to) {
+        return webClient.get(TRANSACTIONS_PATH, creditId, TransactionResponse.class)
+                .filter(transaction -> transaction.getCreatedDate() != null
+                        && !transaction.getCreatedDate().toInstant().isBefore(from)
+                        && transaction.getCreatedDate().toInstant().isBefore(to))
+                .reduce(Totals.EMPTY, Totals::add);
+    }
+
+    private static Statement toStatement(Credit credit, String period, Closing closing,
+                                         List<Debt> openCycles, Totals totals) {
+        CreditSnapshot state = closing.state();
+        return Statement.builder()
+                .id(Statement.idOf(credit.getId(), period))
+                .creditId(credit.getId())
+                .clientId(credit.getClientId())
+                .period(period)
+                .creditLimit(state.getCreditLimit())
+                .consumptionAmount(state.getConsumptionAmount())
+                .balance(state.balance())
+                .charges(Money.ofMinor(totals.charges()))
+                .payments(Money.ofMinor(totals.payments()))
+                .transactionCount(totals.count())
+                .debtAmount(openCycles.isEmpty() ? Money.ZERO : state.getConsumptionAmount())
+                .dueDate(openCycles.stream().map(Debt::getDueDate).filter(Objects::nonNull)
+                        .min(Comparator.naturalOrder()).orElse(null))
+                .asOf(closing.asOf())
+                .generatedAt(Instant.now())
+                .build();
+    }
+
+    private Mono<StatementJob> checkpoint(StatementJob job, List<Outcome> partition) {
+        List<Statement> statements = partition.stream().map(Outcome::statement).filter(Objects::nonNull).toList();
+        List<String> failures = partition.stream().filter(outcome -> outcome.failed() && !outcome.retried())
+                .map(Outcome::creditId).toList();
+        List<String> settled = partition.stream().filter(outcome -> outcome.retried() && !outcome.failed())
+                .map(Outcome::creditId).toList();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return statementStore.saveAll(statements)
+                .then(Mono.defer(() -> {
+                    List<String> failedCreditIds = new ArrayList<>(job.failedCreditIds());
+                    failedCreditIds.removeAll(settled);
+                    failedCreditIds.addAll(failures);
+                    partition.stream().filter(outcome -> !outcome.retried()).reduce((first, second) -> second)
+                            .ifPresent(last -> job.setLastCreditId(last.creditId()));
+                    job.setFailedCreditIds(failedCreditIds);
+                    job.setProcessed(job.getProcessed() + statements.size());
+                    job.setFailed(Math.max(0, job.getFailed() + failures.size() - settled.size()));
+                    job.setUpdatedAt(Instant.now());
+                    return statementStore.saveJob(job);
+                }))
+                .doOnNext(saved -> {
+                    sample.stop(partitionTimer);
+                    generated.increment(statements.size());
+                    failed.increment(failures.size());
+                });
+    }
+
+    private Mono<StatementJob> finish(StatementJob job, StatementJobStatus status, String error) {
+        Instant now = Instant.now();
+        job.setStatus(status);
+        job.setError(error);
+        job.setUpdatedAt(now);
+        job.setCompletedAt(status == StatementJobStatus.COMPLETED ? now : null);
+        log.info("Statement job {} {}: {} statements, {} failed", job.getId(), status, job.getProcessed(),
+                job.getFailed());
+        return statementStore.saveJob(job);
+    }
+
+    /**
+     * Result of one credit: its statement, or none when it failed or, on a retry, when the credit is gone.
+     */
+    private record Outcome(String creditId, Statement statement, boolean retried, boolean failed) {
+    }
+
+    private record Closing(CreditSnapshot state, Instant asOf) {
+    }
+
+    private record Totals(long charges, long payments, int count) {
+
+        static final Totals EMPTY = new Totals(0L, 0L, 0);
+
+        Totals add(TransactionResponse transaction) {
+            Money money = Money.of(transaction.getAmount());
+            long amount = money != null ? money.minorUnits() : 0L;
+            return transaction.getType() == TransactionResponse.TypeEnum.PAYMENT
+                    ? new Totals(charges, Math.addExact(payments, amount), count + 1)
+                    : new Totals(Math.addExact(charges, amount), payments, count + 1);
+        }
+    }
+}
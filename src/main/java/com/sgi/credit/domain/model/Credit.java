@@ -8,6 +8,7 @@ import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -20,10 +21,11 @@ import java.time.Instant;
  * Represents a credit in the system.
  * Contains information about the credit number, consumed amount, balance,
  * interest rate, credit limit, and creation and modification dates.
+ * When debt cycles are embedded, it also holds the open billing cycle.
  */
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "credit")
@@ -33,26 +35,32 @@ public class Credit {
     private String id;
     private String creditNumber;
 
-    @Field(targetType = FieldType.DECIMAL128)
-    private BigDecimal consumptionAmount;
+    private Money consumptionAmount;
 
-    @Field(targetType = FieldType.DECIMAL128)
-    private BigDecimal balance;
+    private Money balance;
 
     @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal interestRate;
 
-    @Field(targetType = FieldType.DECIMAL128)
-    private BigDecimal creditLimit;
+    private Money creditLimit;
 
     private String type;
 
     @Indexed
     private String clientId;
 
+    private DebtCycle activeCycle;
+
+    private Long ledgerSeq;
+
+    private Long journalSeq;
+
     @CreatedDate
     private Instant createdDate;
 
     @LastModifiedDate
     private Instant updatedDate;
+
+    @Version
+    private Long version;
 }
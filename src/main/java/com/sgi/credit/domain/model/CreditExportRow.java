@@ -0,0 +1,11 @@
+package com.sgi.credit.domain.model;
+
+/**
+ * One row of the portfolio export: a credit and, when cycles are exported, one of its debt cycles.
+ * Credits without cycles are exported once with a null cycle.
+ *
+ * @param credit The credit.
+ * @param cycle  The debt cycle, or null.
+ */
+public record CreditExportRow(Credit credit, Debt cycle) {
+}
@@ -0,0 +1,68 @@
+package com.sgi.credit.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Represents the totals of a credit after applying its ledger up to a sequence number.
+ * Snapshots are kept per (creditId, seq); the one at seq 0 holds the opening totals.
+ * Also used as the in-flight state when the ledger tail is replayed on top of a stored snapshot.
+ */
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "credit_snapshot")
+@CompoundIndex(name = "credit_seq", def = "{'creditId': 1, 'seq': -1}", unique = true)
+public class CreditSnapshot {
+
+    @Id
+    private String id;
+
+    private String creditId;
+
+    private String clientId;
+
+    private long seq;
+
+    private Money consumptionAmount;
+
+    private Money creditLimit;
+
+    private Instant takenAt;
+
+    /**
+     * Returns the available balance.
+     *
+     * @return The credit limit minus the consumed amount.
+     */
+    public Money balance() {
+        return creditLimit.minus(consumptionAmount);
+    }
+
+    /**
+     * Returns the state after applying the given entry.
+     *
+     * @param entry The next entry of the ledger.
+     * @return A new snapshot positioned at the entry sequence.
+     */
+    public CreditSnapshot apply(LedgerEntry entry) {
+        CreditSnapshot next = toBuilder().id(null).seq(entry.getSeq()).takenAt(null).build();
+        switch (entry.getType()) {
+            case CHARGE, INTEREST -> next.setConsumptionAmount(consumptionAmount.plus(entry.getAmount()));
+            case PAYMENT -> next.setConsumptionAmount(consumptionAmount.minus(entry.getAmount()));
+            case LIMIT_CHANGE -> next.setCreditLimit(entry.getAmount());
+            default -> throw new IllegalArgumentException("Unknown ledger entry type " + entry.getType());
+        }
+        return next;
+    }
+}
@@ -1,25 +1,26 @@
 package com.sgi.credit.domain.model;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.Field;
-import org.springframework.data.mongodb.core.mapping.FieldType;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 
 /**
  * Represents a debts in the system.
  * Contains information about the debt cardId, debt amount, status
- * and clientId.
+ * and clientId, and when the cycle was opened and paid. Debts written before those dates were
+ * recorded have them unset.
  */
 @Getter
 @Setter
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "debt")
@@ -31,8 +32,7 @@ public class Debt {
     @Indexed
     private String creditId;
 
-    @Field(targetType = FieldType.DECIMAL128)
-    private BigDecimal amount;
+    private Money amount;
 
     private String status;
 
@@ -40,4 +40,11 @@ public class Debt {
     private String clientId;
 
     private Instant dueDate;
+
+    private Instant openedAt;
+
+    private Instant paidAt;
+
+    @Version
+    private Long version;
 }
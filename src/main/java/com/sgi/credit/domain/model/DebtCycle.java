@@ -0,0 +1,29 @@
+package com.sgi.credit.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Represents the open billing cycle of a credit when it is embedded in the credit document.
+ * Keeps the ID of the debt it becomes once the cycle is closed.
+ */
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class DebtCycle {
+
+    private String id;
+
+    private Money amount;
+
+    private Instant dueDate;
+
+    private Instant openedAt;
+}
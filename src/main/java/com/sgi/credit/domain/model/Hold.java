@@ -0,0 +1,32 @@
+package com.sgi.credit.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Represents an authorization hold: an amount of available credit reserved for a charge
+ * that has been authorized but not yet captured. A hold is captured into a ledger charge,
+ * voided, or expires.
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class Hold {
+
+    private String id;
+
+    private String creditId;
+
+    private Money amount;
+
+    private HoldStatus status;
+
+    private Instant createdAt;
+
+    private Instant expiresAt;
+}
@@ -0,0 +1,11 @@
+package com.sgi.credit.domain.model;
+
+/**
+ * Lifecycle of an authorization hold.
+ */
+public enum HoldStatus {
+    AUTHORIZED,
+    CAPTURED,
+    VOIDED,
+    EXPIRED
+}
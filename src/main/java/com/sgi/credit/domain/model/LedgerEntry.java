@@ -0,0 +1,40 @@
+package com.sgi.credit.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Represents one immutable event in the ledger of a credit.
+ * Sequence numbers are unique per credit, so two writers cannot append the same position.
+ * For LIMIT_CHANGE the amount is the new limit; for the other types it is the moved amount.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "credit_ledger")
+@CompoundIndex(name = "credit_seq", def = "{'creditId': 1, 'seq': 1}", unique = true)
+public class LedgerEntry {
+
+    @Id
+    private String id;
+
+    private String creditId;
+
+    private long seq;
+
+    private LedgerEntryType type;
+
+    private Money amount;
+
+    private Instant occurredAt;
+}
@@ -0,0 +1,11 @@
+package com.sgi.credit.domain.model;
+
+/**
+ * Kinds of events recorded in a credit ledger.
+ */
+public enum LedgerEntryType {
+    CHARGE,
+    PAYMENT,
+    LIMIT_CHANGE,
+    INTEREST
+}
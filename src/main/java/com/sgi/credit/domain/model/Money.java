@@ -0,0 +1,112 @@
+package com.sgi.credit.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money held as a count of minor units, such as cents.
+ * All amounts share the currency scale {@link #SCALE}; arithmetic on the hot path is plain
+ * {@code long} math that fails on overflow instead of wrapping. Conversions from decimals
+ * round with {@link #ROUNDING}.
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * Number of decimal digits of the minor unit.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Rounding applied when a decimal has more digits than {@link #SCALE}.
+     */
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
+    public static final Money ZERO = new Money(0L);
+
+    private static final long MINOR_PER_MAJOR = BigDecimal.ONE.scaleByPowerOfTen(SCALE).longValueExact();
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Creates an amount from minor units.
+     *
+     * @param minorUnits Amount in minor units.
+     * @return The amount.
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Creates an amount from whole major units.
+     *
+     * @param majorUnits Amount in major units.
+     * @return The amount.
+     */
+    public static Money ofMajor(long majorUnits) {
+        return ofMinor(Math.multiplyExact(majorUnits, MINOR_PER_MAJOR));
+    }
+
+    /**
+     * Creates an amount from a decimal, rounded to the currency scale.
+     *
+     * @param amount Decimal amount in major units.
+     * @return The amount, or null when the decimal is null.
+     * @throws ArithmeticException if the amount does not fit in a long of minor units.
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return ofMinor(amount.setScale(SCALE, ROUNDING).unscaledValue().longValueExact());
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Returns the amount as a decimal in major units.
+     *
+     * @return The decimal with the currency scale.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Money money && money.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.sgi.credit.domain.model;
+
+/**
+ * Consistency a read needs from the database.
+ */
+public enum ReadConsistency {
+
+    /**
+     * Must see every acknowledged write, as read-modify-write paths and version checks do.
+     */
+    STRONG,
+
+    /**
+     * May lag behind the latest writes by the configured staleness bound, as listings can.
+     */
+    BOUNDED_STALENESS
+}
@@ -0,0 +1,62 @@
+package com.sgi.credit.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Represents the monthly statement of a credit.
+ * Holds only the totals of the period: the ledger state as of {@code asOf}, the charges and payments
+ * made during the month, and the debt of the cycles open at the end of the period with its due date.
+ * {@code asOf} is the end of the period when the ledger keeps its history, and the generation time
+ * otherwise. The ID is derived from the credit and the period, so generating a statement twice replaces it.
+ */
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "statement")
+public class Statement {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String creditId;
+
+    private String clientId;
+
+    private String period;
+
+    private Money creditLimit;
+
+    private Money consumptionAmount;
+
+    private Money balance;
+
+    private Money charges;
+
+    private Money payments;
+
+    private int transactionCount;
+
+    private Money debtAmount;
+
+    private Instant dueDate;
+
+    private Instant asOf;
+
+    private Instant generatedAt;
+
+    public static String idOf(String creditId, String period) {
+        return creditId + ":" + period;
+    }
+}
@@ -0,0 +1,74 @@
+package com.sgi.credit.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Represents a run of the statement engine over every credit for one period.
+ * Credits are processed in ID order and the job is checkpointed after each written partition,
+ * so a failed or interrupted job resumes after {@code lastCreditId}. Credits whose statement could not
+ * be generated are kept in {@code failedCreditIds} and retried first when the job is resumed.
+ */
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "statementJob")
+public class StatementJob {
+
+    @Id
+    private String id;
+
+    private String period;
+
+    private StatementJobStatus status;
+
+    private String lastCreditId;
+
+    private long processed;
+
+    private long failed;
+
+    private List<String> failedCreditIds;
+
+    private Instant startedAt;
+
+    private Instant updatedAt;
+
+    private Instant completedAt;
+
+    private String error;
+
+    /**
+     * Returns the credits still waiting for a statement after failing.
+     *
+     * @return The credit IDs, empty when none failed or the job predates the list.
+     */
+    public List<String> failedCreditIds() {
+        return failedCreditIds != null ? failedCreditIds : List.of();
+    }
+
+    /**
+     * Returns the average throughput of the job since it was first started.
+     *
+     * @return Statements written per second, or 0 before the first checkpoint.
+     */
+    public double creditsPerSecond() {
+        Instant end = completedAt != null ? completedAt : updatedAt;
+        if (startedAt == null || end == null) {
+            return 0;
+        }
+        long millis = Duration.between(startedAt, end).toMillis();
+        return millis > 0 ? processed * 1000.0 / millis : 0;
+    }
+}
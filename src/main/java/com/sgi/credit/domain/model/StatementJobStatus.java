@@ -0,0 +1,10 @@
+package com.sgi.credit.domain.model;
+
+/**
+ * Lifecycle of a statement generation job.
+ */
+public enum StatementJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,7 +1,9 @@
 package com.sgi.credit.domain.ports.in;
 
+import com.sgi.credit.domain.model.CreditExportRow;
 import com.sgi.credit.infrastructure.dto.CreditRequest;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.dto.HoldResponse;
 import com.sgi.credit.infrastructure.dto.PaymentRequest;
 import com.sgi.credit.infrastructure.dto.TransactionResponse;
 import com.sgi.credit.infrastructure.dto.ChargeRequest;
@@ -25,15 +27,33 @@ public interface CreditService {
 
     Mono<CreditResponse> getCreditById(String id);
 
+    Mono<String> getCreditVersion(String id);
+
     Mono<CreditResponse> updateCredit(String id, Mono<CreditRequest> credit);
 
     Mono<TransactionResponse> makePayment(String idAccount, Mono<PaymentRequest> transactionRequest);
 
     Mono<BalanceResponse> getClientBalances(String creditId);
 
+    /**
+     * Streams the available balance of a credit: the current one, then every change committed afterwards.
+     *
+     * @param creditId The credit ID.
+     * @return A Flux emitting the balances, or an error if the credit is unknown.
+     */
+    Flux<BalanceResponse> streamBalances(String creditId);
+
     Flux<TransactionResponse> getClientTransactions(String creditId);
 
     Mono<TransactionResponse> chargeCreditCard(String idCredit, Mono<ChargeRequest> chargeRequestMono);
 
+    Mono<HoldResponse> authorizeCharge(String idCredit, Mono<ChargeRequest> chargeRequestMono);
+
+    Mono<TransactionResponse> captureHold(String idCredit, String holdId);
+
+    Mono<Void> voidHold(String idCredit, String holdId);
+
     Flux<CreditResponse> getCreditCardByClientId(String clientId);
+
+    Flux<CreditExportRow> exportCredits(boolean includeCycles);
 }
@@ -0,0 +1,19 @@
+package com.sgi.credit.domain.ports.in;
+
+import com.sgi.credit.domain.model.StatementJob;
+import reactor.core.publisher.Mono;
+
+import java.time.YearMonth;
+
+/**
+ * Interface defining the operations for generating monthly statements.
+ * Jobs run in the background; starting or resuming one returns as soon as it is recorded.
+ */
+public interface StatementService {
+
+    Mono<StatementJob> startJob(YearMonth period);
+
+    Mono<StatementJob> resumeJob(String jobId);
+
+    Mono<StatementJob> getJob(String jobId);
+}
@@ -0,0 +1,25 @@
+package com.sgi.credit.domain.ports.out;
+
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import reactor.core.publisher.Flux;
+
+/**
+ * Interface delivering the balance of a credit to its subscribers whenever it changes.
+ * Publishing to a credit nobody follows is a no-op, so writers can check
+ * {@link #hasSubscribers(String)} before computing the balance at all.
+ */
+public interface BalanceBroadcaster {
+
+    boolean hasSubscribers(String creditId);
+
+    void publish(String creditId, BalanceResponse balance);
+
+    /**
+     * Follows the balance updates of a credit.
+     * A subscriber that cannot keep up only receives the latest balance published meanwhile.
+     *
+     * @param creditId The credit ID.
+     * @return A Flux emitting the balances published after the subscription.
+     */
+    Flux<BalanceResponse> subscribe(String creditId);
+}
@@ -0,0 +1,47 @@
+package com.sgi.credit.domain.ports.out;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Interface for reading and moving the totals of a credit.
+ * Appending is the commit point of a charge, payment or limit change; it fails with an
+ * optimistic locking error when the state it was computed from is no longer current.
+ */
+public interface CreditLedger {
+
+    Mono<CreditSnapshot> currentState(Credit credit);
+
+    /**
+     * Reads the totals of a credit as they stood at an instant, for ledgers keeping their history.
+     *
+     * @param credit  The credit.
+     * @param instant Instant the totals are read at; entries made from then on are left out.
+     * @return A Mono emitting the totals, or empty when the ledger only keeps the current ones.
+     */
+    default Mono<CreditSnapshot> stateAt(Credit credit, Instant instant) {
+        return Mono.empty();
+    }
+
+    Mono<CreditSnapshot> append(Credit credit, CreditSnapshot state, LedgerEntryType type, Money amount);
+
+    /**
+     * Reads the position of the last entry of a credit acknowledged but not yet held by its document,
+     * for ledgers applying entries asynchronously; such an entry changes the totals read but not the
+     * document version.
+     *
+     * @param creditId The credit ID.
+     * @return A Mono emitting the position, or empty when the document holds every acknowledged entry.
+     */
+    default Mono<Long> pendingPosition(String creditId) {
+        return Mono.empty();
+    }
+
+    Mono<BalanceResponse> findBalance(String creditId);
+}
@@ -1,10 +1,14 @@
 package com.sgi.credit.domain.ports.out;
 
 import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.ReadConsistency;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 /**
  * Repository interface defining operations to manage credits.
  */
@@ -14,9 +18,44 @@ public interface CreditRepository {
 
     Mono<Credit> findById(String id);
 
+    /**
+     * Finds a credit with the given read consistency.
+     * Adapters without replicas read it the same way as {@link #findById(String)}.
+     *
+     * @param id          The credit ID.
+     * @param consistency Consistency the caller needs.
+     * @return A Mono emitting the credit, or empty if it is unknown.
+     */
+    default Mono<Credit> findById(String id, ReadConsistency consistency) {
+        return findById(id);
+    }
+
     Flux<CreditResponse> findAll(String creditId, String type, String clientId);
 
+    Flux<Credit> streamAll();
+
+    /**
+     * Streams every credit in ID order, starting after the given ID.
+     *
+     * @param afterId Last ID already read, or null to start from the first credit.
+     * @return A Flux emitting the credits.
+     */
+    Flux<Credit> streamFrom(String afterId);
+
     Mono<Void> delete(Credit credit);
 
     Flux<CreditResponse> getCreditCardByClientId(String  clientId);
+
+    Mono<BalanceResponse> findBalanceById(String id);
+
+    Mono<Long> findVersionById(String id);
+
+    Mono<Boolean> existsCycleDueBefore(String clientId, Instant cutoff);
+
+    /**
+     * Finds the highest journal sequence applied to any credit.
+     *
+     * @return A Mono emitting the sequence, or empty if no credit holds one.
+     */
+    Mono<Long> findHighestJournalSeq();
 }
@@ -0,0 +1,24 @@
+package com.sgi.credit.domain.ports.out;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Interface for persisting a credit together with its open billing cycle.
+ * Implementations decide whether the cycle is a separate debt document or part of the credit.
+ */
+public interface DebtCycleStore {
+
+    Mono<CreditResponse> open(Credit credit);
+
+    Mono<CreditResponse> record(Credit credit, boolean closeWhenSettled);
+
+    Mono<Boolean> hasCycleDueBefore(String clientId, Instant cutoff);
+
+    Flux<Debt> findCycles(Credit credit);
+}
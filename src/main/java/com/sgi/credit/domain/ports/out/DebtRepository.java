@@ -16,5 +16,7 @@ public interface DebtRepository {
 
     Mono<DebtResponse> findByCreditId(String creditId);
 
+    Flux<Debt> findAllByCreditId(String creditId);
+
     Mono<Debt> findByClientIdAndStatus(String clientId, String status);
 }
@@ -0,0 +1,34 @@
+package com.sgi.credit.domain.ports.out;
+
+import com.sgi.credit.domain.model.Hold;
+import com.sgi.credit.domain.model.HoldStatus;
+import com.sgi.credit.domain.model.Money;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Interface for the authorization holds of each credit.
+ * Holds are reserved against the ledger balance last recorded for the credit, less the holds
+ * already active. {@link #reserve(String, Money)} completes empty when that balance is unknown or
+ * too old, and the caller reserves again with a freshly read one. Reservations fail with an
+ * insufficient balance error when they do not fit.
+ */
+public interface HoldStore {
+
+    Mono<Hold> reserve(String creditId, Money amount);
+
+    Mono<Hold> reserve(String creditId, Money amount, Money ledgerBalance);
+
+    Mono<Void> recordBalance(String creditId, Money ledgerBalance);
+
+    Mono<Hold> claim(String creditId, String holdId, HoldStatus status);
+
+    Mono<Void> restore(Hold hold);
+
+    Mono<Money> heldAmount(String creditId);
+
+    Mono<Long> revision(String creditId);
+
+    Mono<Integer> expire(Instant now, int batchSize);
+}
@@ -0,0 +1,25 @@
+package com.sgi.credit.domain.ports.out;
+
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface for the append-only entries and the snapshots of the credit ledgers.
+ * Each (creditId, seq) position holds at most one entry and one snapshot. Appending an entry at a taken
+ * position fails with an optimistic locking error; saving a snapshot at a taken position keeps the stored
+ * one, since both hold the totals at that position, and emits false.
+ */
+public interface LedgerEventStore {
+
+    Mono<LedgerEntry> append(LedgerEntry entry);
+
+    Flux<LedgerEntry> entriesAfter(String creditId, long seq);
+
+    Mono<CreditSnapshot> latestSnapshot(String creditId);
+
+    Mono<CreditSnapshot> snapshotAt(String creditId, long seq);
+
+    Mono<Boolean> saveSnapshot(CreditSnapshot snapshot);
+}
@@ -0,0 +1,14 @@
+package com.sgi.credit.domain.ports.out;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Interface for re-running read-modify-write units of work that lose an optimistic lock.
+ * The unit of work is supplied lazily so each attempt reads fresh documents.
+ */
+public interface OptimisticLockRetry {
+
+    <T> Mono<T> retryOnConflict(String operation, Supplier<Mono<T>> unitOfWork);
+}
@@ -0,0 +1,21 @@
+package com.sgi.credit.domain.ports.out;
+
+import com.sgi.credit.domain.model.Statement;
+import com.sgi.credit.domain.model.StatementJob;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Interface for persisting statements and the progress of the jobs generating them.
+ * Statements are written in batches; writing a statement whose ID already exists replaces it,
+ * so a resumed job can write a partition again.
+ */
+public interface StatementStore {
+
+    Mono<Void> saveAll(List<Statement> statements);
+
+    Mono<StatementJob> saveJob(StatementJob job);
+
+    Mono<StatementJob> findJob(String jobId);
+}
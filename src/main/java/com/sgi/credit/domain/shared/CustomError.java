@@ -17,6 +17,14 @@ public enum CustomError {
     E_INVALID_INPUT(new ApiError(HttpStatus.BAD_REQUEST, "CREDIT-100", "Invalid input provided")),
     E_CREDIT_NOT_FOUND(new ApiError(HttpStatus.NOT_FOUND, "CREDIT-001", "Bank credit not found")),
     E_OUTSTANDING_DEBT(new ApiError(HttpStatus.CONFLICT, "CREDIT-006", "The client has an outstanding debt.")),
+    E_CONCURRENT_MODIFICATION(new ApiError(HttpStatus.CONFLICT, "CREDIT-007",
+            "The credit was modified concurrently, please retry.")),
+    E_TOO_MANY_REQUESTS(new ApiError(HttpStatus.TOO_MANY_REQUESTS, "CREDIT-008",
+            "Too many requests, please retry later.")),
+    E_HOLD_NOT_FOUND(new ApiError(HttpStatus.NOT_FOUND, "CREDIT-009", "Authorization hold not found or no longer active")),
+    E_STATEMENT_JOB_NOT_FOUND(new ApiError(HttpStatus.NOT_FOUND, "CREDIT-010", "Statement job not found")),
+    E_SERVICE_OVERLOADED(new ApiError(HttpStatus.SERVICE_UNAVAILABLE, "CREDIT-011",
+            "The service is overloaded, please retry later.")),
     E_INSUFFICIENT_BALANCE(new ApiError(HttpStatus.PAYMENT_REQUIRED, "CREDIT-004", "Insufficient balance"));
 
     private final ApiError error;
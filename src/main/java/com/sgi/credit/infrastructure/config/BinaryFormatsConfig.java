@@ -0,0 +1,28 @@
+package com.sgi.credit.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgi.credit.infrastructure.encoding.BinaryJsonEncoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Registers {@link BinaryJsonEncoder} so that the endpoints declaring {@code application/cbor} or
+ * {@code application/x-jackson-smile} can answer in those formats when the client asks for them.
+ * Response compression above {@code server.compression.min-response-size} is left to the server.
+ * Disabled with {@code web.binary-formats.enabled=false}.
+ */
+@Configuration(proxyBeanMethods = false)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "web.binary-formats.enabled", havingValue = "true", matchIfMissing = true)
+public class BinaryFormatsConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().registerWithDefaultConfig(new BinaryJsonEncoder(objectMapper));
+    }
+}
@@ -0,0 +1,46 @@
+package com.sgi.credit.infrastructure.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.sgi.credit.domain.model.Money;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Registers the JSON representation of domain value types.
+ * {@link Money} is written as a plain decimal number with the currency scale.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+
+    /**
+     * Creates the module picked up by the auto-configured object mapper.
+     *
+     * @return The module with the {@link Money} serializer and deserializer.
+     */
+    @Bean
+    public SimpleModule moneyModule() {
+        SimpleModule module = new SimpleModule("money");
+        module.addSerializer(Money.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(Money value, JsonGenerator generator, SerializerProvider serializers)
+                    throws IOException {
+                generator.writeNumber(value.toBigDecimal());
+            }
+        });
+        module.addDeserializer(Money.class, new JsonDeserializer<>() {
+            @Override
+            public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                return Money.of(parser.getDecimalValue());
+            }
+        });
+        return module;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sgi.credit.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.dto.TransactionResponse;
+import com.sgi.credit.infrastructure.encoding.StreamingJsonEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Registers {@link StreamingJsonEncoder} for the responses listed in bulk, ahead of the default Jackson encoder.
+ * Disabled with {@code web.json-streaming.enabled=false}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "web.json-streaming.enabled", havingValue = "true", matchIfMissing = true)
+public class JsonStreamingConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration maxDelay;
+
+    /**
+     * Creates the configuration.
+     *
+     * @param objectMapper Application object mapper.
+     * @param batchSize    Maximum number of elements written into one buffer.
+     * @param maxDelay     Time to wait for more elements before a partial batch is written.
+     */
+    public JsonStreamingConfig(ObjectMapper objectMapper,
+                               @Value("${web.json-streaming.batch-size:256}") int batchSize,
+                               @Value("${web.json-streaming.max-delay:5ms}") Duration maxDelay) {
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().registerWithDefaultConfig(new StreamingJsonEncoder(objectMapper,
+                List.of(CreditResponse.class, TransactionResponse.class), batchSize, maxDelay));
+    }
+}
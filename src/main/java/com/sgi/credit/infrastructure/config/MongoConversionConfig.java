@@ -0,0 +1,55 @@
+package com.sgi.credit.infrastructure.config;
+
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.infrastructure.repository.convert.MoneyDecimal128;
+import org.bson.types.Decimal128;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+/**
+ * Registers the conversions of domain value types that Spring Data cannot map by reflection.
+ * {@link Money} is stored as Decimal128, the same BSON type the amounts had as decimals.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MongoConversionConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return customConversions();
+    }
+
+    /**
+     * Creates the custom conversions, also used where a template is built by hand.
+     *
+     * @return The conversions of the domain value types.
+     */
+    public static MongoCustomConversions customConversions() {
+        return new MongoCustomConversions(List.of(MoneyWriter.INSTANCE, MoneyReader.INSTANCE));
+    }
+
+    @WritingConverter
+    enum MoneyWriter implements Converter<Money, Decimal128> {
+        INSTANCE;
+
+        @Override
+        public Decimal128 convert(Money source) {
+            return MoneyDecimal128.toDecimal128(source);
+        }
+    }
+
+    @ReadingConverter
+    enum MoneyReader implements Converter<Decimal128, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(Decimal128 source) {
+            return MoneyDecimal128.toMoney(source);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sgi.credit.infrastructure.config;
+
+import com.sgi.credit.infrastructure.repository.pool.CheckoutWaitListener;
+import com.sgi.credit.infrastructure.repository.pool.GatedReactiveMongoTemplate;
+import com.sgi.credit.infrastructure.repository.pool.PoolSizeController;
+import com.sgi.credit.infrastructure.repository.pool.ReactorContextProvider;
+import com.sgi.credit.infrastructure.repository.pool.StageCommandTagsProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.time.Duration;
+
+/**
+ * Observes the Mongo connection pool and, optionally, sizes it from the observed waits.
+ * Checkout waits are timed as {@code credit.mongo.pool.checkout}, next to the pool size and wait queue
+ * gauges published by default, and the {@code mongodb.driver.commands} timer is tagged with the
+ * repository method issuing each command. With {@code persistence.mongo.pool.auto-size.enabled=true}
+ * the driver pool is created at {@code persistence.mongo.pool.auto-size.max-size} and a
+ * {@link PoolSizeController} keeps the operations of the template within an adjusted limit.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "mongo", matchIfMissing = true)
+public class MongoPoolConfig {
+
+    @Bean
+    public MongoCommandTagsProvider stageCommandTagsProvider() {
+        return new StageCommandTagsProvider();
+    }
+
+    /**
+     * Registers the context provider and the checkout listener on the client settings.
+     *
+     * @param meterRegistry Registry receiving the checkout timer.
+     * @param controller    Controller sizing the pool, when enabled.
+     * @return The customizer.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer poolObservationCustomizer(MeterRegistry meterRegistry,
+                                                                          ObjectProvider<PoolSizeController> controller) {
+        PoolSizeController sizeController = controller.getIfAvailable();
+        return builder -> builder.contextProvider(new ReactorContextProvider())
+                .applyToConnectionPoolSettings(pool -> {
+                    if (sizeController != null) {
+                        pool.maxSize(sizeController.maxSize());
+                    }
+                    pool.addConnectionPoolListener(new CheckoutWaitListener(meterRegistry,
+                            sizeController != null ? sizeController::recordWait : nanos -> { }));
+                });
+    }
+
+    /**
+     * Creates the controller adjusting the effective pool size.
+     *
+     * @param meterRegistry Registry receiving the limit gauges.
+     * @param minSize       Lowest limit.
+     * @param maxSize       Highest limit and maximum size of the driver pool.
+     * @param initialSize   Limit before the first adjustment.
+     * @param waitThreshold Average wait beyond which a saturated limit grows.
+     * @param interval      Time between two adjustments.
+     * @return The controller.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "persistence.mongo.pool.auto-size.enabled", havingValue = "true")
+    public PoolSizeController poolSizeController(MeterRegistry meterRegistry,
+                                                 @Value("${persistence.mongo.pool.auto-size.min-size:10}") int minSize,
+                                                 @Value("${persistence.mongo.pool.auto-size.max-size:100}") int maxSize,
+                                                 @Value("${persistence.mongo.pool.auto-size.initial-size:20}") int initialSize,
+                                                 @Value("${persistence.mongo.pool.auto-size.wait-threshold:5ms}")
+                                                 Duration waitThreshold,
+                                                 @Value("${persistence.mongo.pool.auto-size.interval:1s}") Duration interval) {
+        return new PoolSizeController(meterRegistry, minSize, maxSize, initialSize, waitThreshold, interval);
+    }
+
+    /**
+     * Creates the template gated by the controller, in place of the default one.
+     *
+     * @param databaseFactory Factory of the database.
+     * @param converter       Converter of the entities.
+     * @param controller      Controller whose limit the operations run within.
+     * @return The template.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "persistence.mongo.pool.auto-size.enabled", havingValue = "true")
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory databaseFactory,
+                                                       MongoConverter converter,
+                                                       PoolSizeController controller) {
+        return new GatedReactiveMongoTemplate(databaseFactory, converter, controller);
+    }
+}
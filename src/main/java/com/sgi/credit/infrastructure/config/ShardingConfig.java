@@ -0,0 +1,111 @@
+package com.sgi.credit.infrastructure.config;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.sgi.credit.infrastructure.repository.impl.BulkWriteBatcher;
+import com.sgi.credit.infrastructure.repository.impl.MongoShard;
+import com.sgi.credit.infrastructure.repository.impl.ReadRouting;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryShard;
+import com.sgi.credit.infrastructure.repository.sharding.Shard;
+import com.sgi.credit.infrastructure.repository.sharding.ShardRebalancer;
+import com.sgi.credit.infrastructure.repository.sharding.ShardRouter;
+import com.sgi.credit.infrastructure.repository.sharding.ShardedCreditRepository;
+import com.sgi.credit.infrastructure.repository.sharding.ShardedDebtRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+
+import java.util.List;
+
+/**
+ * Spreads credits and debts over several shards by consistent hashing on the client ID.
+ * On Mongo each name in {@code persistence.sharding.shards} is a database of the configured deployment;
+ * in memory each is an independent pair of repositories. The sharded repositories take precedence over
+ * the single-database ones, which keep serving the other collections. Set
+ * {@code persistence.sharding.rebalancing=true} after adding a shard until the rebalancer has run.
+ * Enabled with {@code persistence.sharding.enabled=true}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "persistence.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * Creates the router over one database per shard.
+     *
+     * @param mongoClient         Client of the deployment holding the databases.
+     * @param mongoTemplate       Template whose converter the shard templates share.
+     * @param writeBatcher        Batcher whose settings the shards copy.
+     * @param observationRegistry Registry observing the repository stages.
+     * @param readRouting         Routing whose settings the shards' reads copy.
+     * @param shards              Names of the shard databases.
+     * @param virtualNodes        Points placed on the ring per shard.
+     * @param rebalancing         Whether documents may still be on a shard other than their owner.
+     * @return The router.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "persistence.mode", havingValue = "mongo", matchIfMissing = true)
+    public ShardRouter mongoShardRouter(MongoClient mongoClient,
+                                        ReactiveMongoTemplate mongoTemplate,
+                                        BulkWriteBatcher writeBatcher,
+                                        ObservationRegistry observationRegistry,
+                                        ReadRouting readRouting,
+                                        @Value("${persistence.sharding.shards}") List<String> shards,
+                                        @Value("${persistence.sharding.virtual-nodes:128}") int virtualNodes,
+                                        @Value("${persistence.sharding.rebalancing:false}") boolean rebalancing) {
+        List<Shard> mongoShards = shards.stream()
+                .<Shard>map(database -> new MongoShard(database, new ReactiveMongoTemplate(
+                        new SimpleReactiveMongoDatabaseFactory(mongoClient, database), mongoTemplate.getConverter()),
+                        writeBatcher, observationRegistry, readRouting))
+                .toList();
+        return new ShardRouter(mongoShards, virtualNodes, rebalancing);
+    }
+
+    /**
+     * Creates the router over in-memory shards.
+     *
+     * @param shards       Names of the shards.
+     * @param lockStripes  Lock stripes of each shard's repositories.
+     * @param virtualNodes Points placed on the ring per shard.
+     * @return The router.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "persistence.mode", havingValue = "memory")
+    public ShardRouter memoryShardRouter(@Value("${persistence.sharding.shards}") List<String> shards,
+                                         @Value("${persistence.memory.lock-stripes:64}") int lockStripes,
+                                         @Value("${persistence.sharding.virtual-nodes:128}") int virtualNodes) {
+        return new ShardRouter(shards.stream().<Shard>map(name -> new InMemoryShard(name, lockStripes)).toList(),
+                virtualNodes, false);
+    }
+
+    @Bean
+    @Primary
+    public ShardedCreditRepository shardedCreditRepository(ShardRouter shardRouter) {
+        return new ShardedCreditRepository(shardRouter);
+    }
+
+    @Bean
+    @Primary
+    public ShardedDebtRepository shardedDebtRepository(ShardRouter shardRouter) {
+        return new ShardedDebtRepository(shardRouter);
+    }
+
+    /**
+     * Creates the rebalancer moving documents to the shard owning their client.
+     *
+     * @param shardRouter   Router whose shards are rebalanced.
+     * @param meterRegistry Registry receiving the move metrics.
+     * @param concurrency   Documents moved at the same time.
+     * @return The rebalancer.
+     */
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRouter shardRouter,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${persistence.sharding.rebalance-concurrency:8}") int concurrency) {
+        return new ShardRebalancer(shardRouter, meterRegistry, concurrency);
+    }
+}
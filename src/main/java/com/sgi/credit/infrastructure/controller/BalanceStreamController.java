@@ -0,0 +1,55 @@
+package com.sgi.credit.infrastructure.controller;
+
+import com.sgi.credit.domain.ports.in.CreditService;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * Controller pushing the available balance of a credit as Server-Sent Events, so screens showing it
+ * need not poll {@code GET /v1/credits/{creditId}/balances}. The first event carries the current balance
+ * and each later one a committed change. A comment is sent every {@code balance-stream.heartbeat} so
+ * proxies keep idle streams open. Served outside the generated API, which only models single responses.
+ */
+@RestController
+public class BalanceStreamController {
+
+    static final String BALANCE_EVENT = "balance";
+
+    private final CreditService creditService;
+    private final Duration heartbeat;
+
+    /**
+     * Creates the controller.
+     *
+     * @param creditService Service providing the balance stream.
+     * @param heartbeat     Interval of the keep-alive comments.
+     */
+    public BalanceStreamController(CreditService creditService,
+                                   @Value("${balance-stream.heartbeat:15s}") Duration heartbeat) {
+        this.creditService = creditService;
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * Streams the balance changes of a credit until the client disconnects.
+     *
+     * @param creditId The credit ID.
+     * @return A Flux emitting the balance events and keep-alive comments.
+     */
+    @GetMapping(value = "/v1/credits/{creditId}/balances/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BalanceResponse>> streamBalances(@PathVariable String creditId) {
+        Flux<ServerSentEvent<BalanceResponse>> balances = creditService.streamBalances(creditId)
+                .map(balance -> ServerSentEvent.builder(balance).event(BALANCE_EVENT).build());
+        Flux<ServerSentEvent<BalanceResponse>> keepAlive = Flux.interval(heartbeat, heartbeat)
+                .map(tick -> ServerSentEvent.<BalanceResponse>builder().comment("keep-alive").build());
+        return Flux.merge(balances, keepAlive);
+    }
+}
@@ -1,12 +1,19 @@
 package com.sgi.credit.infrastructure.controller;
 
 import com.sgi.credit.domain.ports.in.CreditService;
+import com.sgi.credit.domain.ports.in.StatementService;
+import com.sgi.credit.domain.shared.CustomError;
 import com.sgi.credit.infrastructure.dto.BalanceResponse;
 import com.sgi.credit.infrastructure.dto.CreditRequest;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.dto.HoldResponse;
 import com.sgi.credit.infrastructure.dto.TransactionResponse;
 import com.sgi.credit.infrastructure.dto.ChargeRequest;
 import com.sgi.credit.infrastructure.dto.PaymentRequest;
+import com.sgi.credit.infrastructure.dto.StatementJobRequest;
+import com.sgi.credit.infrastructure.dto.StatementJobResponse;
+import com.sgi.credit.infrastructure.exception.CustomException;
+import com.sgi.credit.infrastructure.mapper.StatementMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +22,9 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
 /**
  * Controller to handle operations related to credits.
  */
@@ -23,6 +33,7 @@ import reactor.core.publisher.Mono;
 public class CreditController implements V1Api {
 
     private final CreditService creditService;
+    private final StatementService statementService;
 
     @Override
     public Mono<ResponseEntity<CreditResponse>> createCredit(
@@ -46,9 +57,8 @@ public class CreditController implements V1Api {
 
     @Override
     public Mono<ResponseEntity<BalanceResponse>> getClientBalances(
-            String creditId, ServerWebExchange exchange) {
-        return creditService.getClientBalances(creditId)
-                .map(balance -> ResponseEntity.ok().body(balance));
+            String creditId, String ifNoneMatch, ServerWebExchange exchange) {
+        return conditionalGet(creditId, ifNoneMatch, creditService.getClientBalances(creditId));
     }
 
     @Override
@@ -60,9 +70,8 @@ public class CreditController implements V1Api {
 
     @Override
     public Mono<ResponseEntity<CreditResponse>> getCreditById(
-            String creditId, ServerWebExchange exchange) {
-        return creditService.getCreditById(creditId)
-                .map(creditResponse -> ResponseEntity.ok().body(creditResponse));
+            String creditId, String ifNoneMatch, ServerWebExchange exchange) {
+        return conditionalGet(creditId, ifNoneMatch, creditService.getCreditById(creditId));
     }
 
     @Override
@@ -91,4 +100,91 @@ public class CreditController implements V1Api {
         return creditService.chargeCreditCard(creditId, chargeRequest)
                 .map(creditResponse -> ResponseEntity.ok().body(creditResponse));
     }
+
+    @Override
+    public Mono<ResponseEntity<HoldResponse>> authorizeCharge(
+            String creditId, Mono<ChargeRequest> chargeRequest, ServerWebExchange exchange) {
+        return creditService.authorizeCharge(creditId, chargeRequest)
+                .map(holdResponse -> ResponseEntity.status(HttpStatus.CREATED).body(holdResponse));
+    }
+
+    @Override
+    public Mono<ResponseEntity<TransactionResponse>> captureHold(
+            String creditId, String holdId, ServerWebExchange exchange) {
+        return creditService.captureHold(creditId, holdId)
+                .map(transactionResponse -> ResponseEntity.ok().body(transactionResponse));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> voidHold(
+            String creditId, String holdId, ServerWebExchange exchange) {
+        return creditService.voidHold(creditId, holdId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+
+    @Override
+    public Mono<ResponseEntity<StatementJobResponse>> startStatementJob(
+            Mono<StatementJobRequest> statementJobRequest, ServerWebExchange exchange) {
+        return statementJobRequest
+                .map(request -> parsePeriod(request.getPeriod()))
+                .flatMap(statementService::startJob)
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(StatementMapper.INSTANCE.toStatementJobResponse(job)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<StatementJobResponse>> getStatementJob(String jobId, ServerWebExchange exchange) {
+        return statementService.getJob(jobId)
+                .map(job -> ResponseEntity.ok().body(StatementMapper.INSTANCE.toStatementJobResponse(job)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<StatementJobResponse>> resumeStatementJob(String jobId, ServerWebExchange exchange) {
+        return statementService.resumeJob(jobId)
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(StatementMapper.INSTANCE.toStatementJobResponse(job)));
+    }
+
+    private static YearMonth parsePeriod(String period) {
+        try {
+            return YearMonth.parse(period);
+        } catch (DateTimeParseException | NullPointerException ex) {
+            throw new CustomException(CustomError.E_INVALID_INPUT);
+        }
+    }
+
+    /**
+     * Answers a read with 304 Not Modified when the client's If-None-Match matches the current
+     * credit version; otherwise runs the full read and tags the response with that version.
+     * Only the version is read on the not-modified path.
+     *
+     * @param creditId    The credit ID.
+     * @param ifNoneMatch The If-None-Match header, may be null.
+     * @param read        The full read, subscribed only when the version does not match.
+     * @return A Mono emitting the conditional response.
+     */
+    private <T> Mono<ResponseEntity<T>> conditionalGet(String creditId, String ifNoneMatch, Mono<T> read) {
+        return creditService.getCreditVersion(creditId)
+                .map(version -> "\"" + version + "\"")
+                .flatMap(entityTag -> matchesAny(entityTag, ifNoneMatch)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).<T>build())
+                        : read.map(body -> ResponseEntity.ok().eTag(entityTag).body(body)))
+                .switchIfEmpty(Mono.defer(() -> read.map(body -> ResponseEntity.ok().body(body))));
+    }
+
+    private static boolean matchesAny(String entityTag, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,58 @@
+package com.sgi.credit.infrastructure.controller;
+
+import com.sgi.credit.domain.ports.in.CreditService;
+import com.sgi.credit.infrastructure.encoding.CreditCsvWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller streaming the whole credit portfolio as CSV.
+ * Rows are read from the database cursor as the response is written, so the export uses the same
+ * memory for any portfolio size. Served outside the generated API because the body is written as raw buffers.
+ */
+@RestController
+public class CreditExportController {
+
+    static final String TEXT_CSV = "text/csv";
+
+    private final CreditService creditService;
+    private final CreditCsvWriter csvWriter;
+
+    /**
+     * Creates the controller.
+     *
+     * @param creditService Service providing the export rows.
+     * @param batchSize     Rows written into each response buffer.
+     */
+    public CreditExportController(CreditService creditService,
+                                  @Value("${export.csv.batch-size:512}") int batchSize) {
+        this.creditService = creditService;
+        this.csvWriter = new CreditCsvWriter(batchSize);
+    }
+
+    /**
+     * Exports every credit, one CSV line per credit or, with {@code cycles=true}, per credit and debt cycle.
+     *
+     * @param cycles   Whether the debt cycle columns are included.
+     * @param exchange The current exchange.
+     * @return A Mono emitting the streamed CSV response.
+     */
+    @GetMapping(value = "/v1/credits/export", produces = TEXT_CSV)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportCredits(
+            @RequestParam(name = "cycles", defaultValue = "false") boolean cycles, ServerWebExchange exchange) {
+        return Mono.fromSupplier(() -> ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("credits.csv").build().toString())
+                .body(csvWriter.write(creditService.exportCredits(cycles),
+                        exchange.getResponse().bufferFactory(), cycles)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.sgi.credit.infrastructure.controller;
+
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.infrastructure.repository.impl.EventSourcedCreditLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Actuator endpoint that rebuilds the snapshot of a credit from its whole ledger.
+ * Exposed as {@code POST /actuator/ledger/{creditId}} when included in the web exposure list;
+ * the rebuild time and replayed entries are published as {@code credit.ledger.rebuild*}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.ledger", havingValue = "event-sourced")
+@Endpoint(id = "ledger")
+public class LedgerEndpoint {
+
+    private final EventSourcedCreditLedger creditLedger;
+
+    @WriteOperation
+    public Mono<CreditSnapshot> rebuild(@Selector String creditId) {
+        return creditLedger.rebuild(creditId);
+    }
+}
@@ -0,0 +1,46 @@
+package com.sgi.credit.infrastructure.controller;
+
+import com.sgi.credit.infrastructure.repository.sharding.Shard;
+import com.sgi.credit.infrastructure.repository.sharding.ShardRebalancer;
+import com.sgi.credit.infrastructure.repository.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint showing the shards and running the rebalancer after a shard is added.
+ * Exposed as {@code GET /actuator/shards} and {@code POST /actuator/shards} when included in the web
+ * exposure list; the moved documents are published as {@code credit.sharding.moved}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.sharding.enabled", havingValue = "true")
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final ShardRouter shardRouter;
+    private final ShardRebalancer shardRebalancer;
+
+    @ReadOperation
+    public ShardsInfo shards() {
+        return new ShardsInfo(shardRouter.shards().stream().map(Shard::name).toList(), shardRouter.isRebalancing(),
+                shardRebalancer.lastReport());
+    }
+
+    @WriteOperation
+    public Mono<ShardRebalancer.Report> rebalance() {
+        return shardRebalancer.rebalance();
+    }
+
+    /**
+     * Shards, whether reads still span all of them, and the outcome of the last rebalancing.
+     */
+    public record ShardsInfo(List<String> shards, boolean rebalancing, ShardRebalancer.Report lastRebalancing) {
+    }
+}
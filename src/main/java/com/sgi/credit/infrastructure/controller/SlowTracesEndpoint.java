@@ -0,0 +1,34 @@
+package com.sgi.credit.infrastructure.controller;
+
+import com.sgi.credit.infrastructure.tracing.InMemorySpanExporter;
+import com.sgi.credit.infrastructure.tracing.SlowTrace;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint listing the recent slow traces kept by the {@link InMemorySpanExporter}, with the
+ * time spent in each stage. Exposed as {@code GET /actuator/slowtraces} and
+ * {@code GET /actuator/slowtraces/{traceId}} when included in the web exposure list.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "slowtraces")
+public class SlowTracesEndpoint {
+
+    private final InMemorySpanExporter spanExporter;
+
+    @ReadOperation
+    public List<SlowTrace> slowTraces() {
+        return spanExporter.slowTraces();
+    }
+
+    @ReadOperation
+    public SlowTrace slowTrace(@Selector String traceId) {
+        return spanExporter.findSlowTrace(traceId).orElse(null);
+    }
+}
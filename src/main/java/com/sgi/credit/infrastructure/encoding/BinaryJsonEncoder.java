@@ -0,0 +1,161 @@
+package com.sgi.credit.infrastructure.encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoder for the binary forms of the JSON responses, CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}), written with the application mapper settings and the
+ * timestamps of {@link UtcTimestampSerializer}, as in the JSON listings.
+ * A {@link Flux} is written as one array document, since the binary formats cannot be joined with the
+ * textual separators the Jackson encoders use: a single generator opens the array, writes each element
+ * into its own buffer as it arrives and closes the array once the Flux completes, so a listing is never
+ * held in memory as a whole. Single values are written as is.
+ */
+public class BinaryJsonEncoder implements HttpMessageEncoder<Object> {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    /**
+     * Creates the encoder.
+     *
+     * @param objectMapper Mapper with the application settings, copied onto each binary format.
+     */
+    public BinaryJsonEncoder(ObjectMapper objectMapper) {
+        SimpleModule timestamps = new SimpleModule("utc-timestamps")
+                .addSerializer(OffsetDateTime.class, new UtcTimestampSerializer());
+        this.cborMapper = objectMapper.copyWith(new CBORFactory()).registerModule(timestamps);
+        this.smileMapper = objectMapper.copyWith(new SmileFactory()).registerModule(timestamps);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return mimeType != null && MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType))
+                && !CharSequence.class.isAssignableFrom(type) && !DataBuffer.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> mono) {
+            return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        ObjectMapper mapper = mapperFor(mimeType);
+        ObjectWriter writer = mapper.writerFor(mapper.constructType(elementType.getType()));
+        return Flux.using(() -> new ArrayWriter(mapper, mimeType),
+                        array -> Flux.concat(
+                                Mono.fromCallable(() -> array.start(bufferFactory)),
+                                Flux.from(inputStream).map(value -> array.write(writer, value, bufferFactory)),
+                                Mono.fromCallable(() -> array.end(bufferFactory))),
+                        ArrayWriter::close)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        ObjectMapper mapper = mapperFor(mimeType);
+        JavaType javaType = mapper.constructType(valueType.getType());
+        try {
+            byte[] bytes = mapper.writerFor(javaType).writeValueAsBytes(value);
+            DataBuffer buffer = bufferFactory.allocateBuffer(bytes.length);
+            buffer.write(bytes);
+            return buffer;
+        } catch (JsonProcessingException ex) {
+            throw new EncodingException("Could not write " + mimeType + ": " + ex.getOriginalMessage(), ex);
+        }
+    }
+
+    private ObjectMapper mapperFor(MimeType mimeType) {
+        return MediaType.APPLICATION_CBOR.isCompatibleWith(mimeType) ? cborMapper : smileMapper;
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return List.of();
+    }
+
+    /**
+     * Generator writing one array document, handing out what it wrote after each step.
+     */
+    private static final class ArrayWriter {
+
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final MimeType mimeType;
+        private final JsonGenerator generator;
+
+        private ArrayWriter(ObjectMapper mapper, MimeType mimeType) throws IOException {
+            this.mimeType = mimeType;
+            this.generator = mapper.getFactory().createGenerator(output);
+        }
+
+        private DataBuffer start(DataBufferFactory bufferFactory) throws IOException {
+            generator.writeStartArray();
+            return drain(bufferFactory);
+        }
+
+        private DataBuffer write(ObjectWriter writer, Object value, DataBufferFactory bufferFactory) {
+            try {
+                writer.writeValue(generator, value);
+                return drain(bufferFactory);
+            } catch (IOException ex) {
+                throw new EncodingException("Could not write " + mimeType + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        private DataBuffer end(DataBufferFactory bufferFactory) throws IOException {
+            generator.writeEndArray();
+            return drain(bufferFactory);
+        }
+
+        private DataBuffer drain(DataBufferFactory bufferFactory) throws IOException {
+            generator.flush();
+            DataBuffer buffer = bufferFactory.allocateBuffer(output.size());
+            buffer.write(output.toByteArray());
+            output.reset();
+            return buffer;
+        }
+
+        private void close() {
+            try {
+                generator.close();
+            } catch (IOException ex) {
+                // Nothing to release: the generator writes to memory
+            }
+        }
+    }
+}
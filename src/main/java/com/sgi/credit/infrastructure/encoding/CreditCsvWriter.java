@@ -0,0 +1,131 @@
+package com.sgi.credit.infrastructure.encoding;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditExportRow;
+import com.sgi.credit.domain.model.Debt;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes export rows as RFC 4180 CSV.
+ * Rows are requested from upstream {@code batchSize} at a time and each batch is written into one
+ * buffer, so the stream only holds what the response has not yet sent. The row count and the rate
+ * in rows per second are logged when the stream completes.
+ */
+@Slf4j
+public class CreditCsvWriter {
+
+    private static final String CREDIT_HEADER = "id,creditNumber,type,clientId,creditLimit,consumptionAmount,"
+            + "balance,interestRate,createdDate,updatedDate";
+    private static final String CYCLE_HEADER = ",cycleId,cycleStatus,cycleAmount,cycleDueDate";
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    private final int batchSize;
+
+    public CreditCsvWriter(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Encodes the rows, starting with the header line.
+     *
+     * @param rows          Rows to write.
+     * @param bufferFactory Factory of the response buffers.
+     * @param includeCycles Whether the cycle columns are written.
+     * @return The CSV content.
+     */
+    public Flux<DataBuffer> write(Flux<CreditExportRow> rows, DataBufferFactory bufferFactory, boolean includeCycles) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            long[] count = new long[1];
+            int[] lastSize = {MIN_BUFFER_SIZE};
+            String header = includeCycles ? CREDIT_HEADER + CYCLE_HEADER : CREDIT_HEADER;
+            StringBuilder line = new StringBuilder(MIN_BUFFER_SIZE);
+            return Flux.just(bufferFactory.wrap((header + "\r\n").getBytes(StandardCharsets.UTF_8)))
+                    .concatWith(rows.buffer(batchSize).map(batch -> {
+                        line.setLength(0);
+                        batch.forEach(row -> appendRow(line, row, includeCycles));
+                        count[0] += batch.size();
+                        DataBuffer buffer = bufferFactory.allocateBuffer(lastSize[0]);
+                        buffer.write(line, StandardCharsets.UTF_8);
+                        lastSize[0] = Math.max(MIN_BUFFER_SIZE, buffer.readableByteCount());
+                        return buffer;
+                    }))
+                    .doOnComplete(() -> {
+                        long millis = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        log.info("Exported {} credit rows in {} ms ({} rows/s)", count[0], millis,
+                                count[0] * 1000L / millis);
+                    });
+        });
+    }
+
+    /**
+     * Appends one CSV line for the row, ending with CRLF.
+     *
+     * @param line          Target of the line.
+     * @param row           Row to write.
+     * @param includeCycles Whether the cycle columns are written.
+     */
+    static void appendRow(StringBuilder line, CreditExportRow row, boolean includeCycles) {
+        Credit credit = row.credit();
+        appendField(line, credit.getId(), ',');
+        appendField(line, credit.getCreditNumber(), ',');
+        appendField(line, credit.getType(), ',');
+        appendField(line, credit.getClientId(), ',');
+        appendField(line, credit.getCreditLimit(), ',');
+        appendField(line, credit.getConsumptionAmount(), ',');
+        appendField(line, credit.getBalance(), ',');
+        appendField(line, credit.getInterestRate(), ',');
+        appendField(line, credit.getCreatedDate(), ',');
+        if (!includeCycles) {
+            appendField(line, credit.getUpdatedDate(), '\n');
+            return;
+        }
+        appendField(line, credit.getUpdatedDate(), ',');
+        Debt cycle = row.cycle();
+        if (cycle == null) {
+            line.append(",,,\r\n");
+            return;
+        }
+        appendField(line, cycle.getId(), ',');
+        appendField(line, cycle.getStatus(), ',');
+        appendField(line, cycle.getAmount(), ',');
+        appendField(line, cycle.getDueDate(), '\n');
+    }
+
+    private static void appendField(StringBuilder line, Object value, char end) {
+        if (value != null) {
+            appendEscaped(line, value.toString());
+        }
+        if (end == '\n') {
+            line.append('\r');
+        }
+        line.append(end);
+    }
+
+    private static void appendEscaped(StringBuilder line, String field) {
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            line.append(field);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
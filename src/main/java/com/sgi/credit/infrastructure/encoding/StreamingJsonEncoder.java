@@ -0,0 +1,172 @@
+package com.sgi.credit.infrastructure.encoding;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON encoder for the response types returned in large streams.
+ * Each type gets an {@link ObjectWriter} with its serializer resolved once, and timestamps are
+ * written by {@link UtcTimestampSerializer}. Streams are encoded in batches: the elements available
+ * within {@code maxDelay}, up to {@code batchSize} of them, are written through one generator into
+ * one pooled buffer sized from the previous batch. A {@link Flux} is written as a JSON array, or as
+ * one document per line for {@code application/x-ndjson}; single values are written as is.
+ */
+public class StreamingJsonEncoder implements HttpMessageEncoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(
+            MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), MediaType.APPLICATION_NDJSON);
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.APPLICATION_NDJSON);
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final Duration maxDelay;
+
+    /**
+     * Creates the encoder.
+     *
+     * @param objectMapper Mapper with the application settings, copied before the timestamp serializer is added.
+     * @param types        Types this encoder writes; other types are left to the default encoders.
+     * @param batchSize    Maximum number of elements written into one buffer.
+     * @param maxDelay     Time to wait for more elements before a partial batch is written.
+     */
+    public StreamingJsonEncoder(ObjectMapper objectMapper, Collection<Class<?>> types, int batchSize, Duration maxDelay) {
+        ObjectMapper mapper = objectMapper.copy()
+                .registerModule(new SimpleModule("utc-timestamps")
+                        .addSerializer(OffsetDateTime.class, new UtcTimestampSerializer()));
+        types.forEach(type -> writers.put(type, mapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("")));
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return writers.containsKey(elementType.toClass())
+                && (mimeType == null || MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType)));
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> mono) {
+            return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        ObjectWriter writer = writer(elementType);
+        boolean lineDelimited = mimeType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType);
+        return Flux.defer(() -> {
+            StreamState state = new StreamState(writer, bufferFactory, lineDelimited);
+            Flux<DataBuffer> elements = Flux.from(inputStream)
+                    .bufferTimeout(batchSize, maxDelay)
+                    .map(state::encodeBatch);
+            return lineDelimited ? elements : elements.concatWith(Mono.fromCallable(state::closeArray));
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        return new StreamState(writer(valueType), bufferFactory, true).encode(List.of(value), false);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_MEDIA_TYPES;
+    }
+
+    private ObjectWriter writer(ResolvableType type) {
+        ObjectWriter writer = writers.get(type.toClass());
+        if (writer == null) {
+            throw new EncodingException("No JSON writer registered for " + type);
+        }
+        return writer;
+    }
+
+    /**
+     * Separators and buffer sizing of one encoded stream.
+     */
+    private static final class StreamState {
+
+        private final ObjectWriter writer;
+        private final DataBufferFactory bufferFactory;
+        private final boolean lineDelimited;
+        private int lastSize = MIN_BUFFER_SIZE;
+        private boolean started;
+
+        StreamState(ObjectWriter writer, DataBufferFactory bufferFactory, boolean lineDelimited) {
+            this.writer = writer;
+            this.bufferFactory = bufferFactory;
+            this.lineDelimited = lineDelimited;
+        }
+
+        DataBuffer encodeBatch(List<?> batch) {
+            return encode(batch, lineDelimited);
+        }
+
+        DataBuffer closeArray() {
+            byte[] end = started ? new byte[] {']'} : new byte[] {'[', ']'};
+            return bufferFactory.wrap(end);
+        }
+
+        DataBuffer encode(List<?> values, boolean newlineAfterEach) {
+            DataBuffer buffer = bufferFactory.allocateBuffer(lastSize);
+            boolean release = true;
+            try (JsonGenerator generator = writer.getFactory().createGenerator(buffer.asOutputStream(), JsonEncoding.UTF8)) {
+                for (Object value : values) {
+                    writeSeparator(generator);
+                    writer.writeValue(generator, value);
+                    if (newlineAfterEach) {
+                        generator.writeRaw('\n');
+                    }
+                }
+                generator.flush();
+                release = false;
+            } catch (IOException ex) {
+                throw new EncodingException("JSON encoding error: " + ex.getMessage(), ex);
+            } finally {
+                if (release) {
+                    DataBufferUtils.release(buffer);
+                }
+            }
+            lastSize = Math.max(MIN_BUFFER_SIZE, buffer.readableByteCount());
+            return buffer;
+        }
+
+        private void writeSeparator(JsonGenerator generator) throws IOException {
+            if (lineDelimited) {
+                return;
+            }
+            generator.writeRaw(started ? ',' : '[');
+            started = true;
+        }
+    }
+}
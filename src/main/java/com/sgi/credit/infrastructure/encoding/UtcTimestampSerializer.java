@@ -0,0 +1,78 @@
+package com.sgi.credit.infrastructure.encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.OffsetDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes UTC timestamps as ISO-8601 strings straight into the generator.
+ * The output is the same as {@link OffsetDateTimeSerializer} with Spring Boot defaults, for example
+ * {@code 2024-01-15T10:20:30.5Z}, but built in a reused char array instead of going through a
+ * {@link java.time.format.DateTimeFormatter}. Other offsets, years outside 0-9999 and numeric
+ * timestamps are left to {@link OffsetDateTimeSerializer}.
+ */
+public class UtcTimestampSerializer extends StdSerializer<OffsetDateTime> {
+
+    private static final int MAX_LENGTH = "yyyy-MM-ddTHH:mm:ss.nnnnnnnnnZ".length();
+    private static final int MAX_YEAR = 9999;
+    private static final int NANO_DIGITS = 9;
+
+    private final transient ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    public UtcTimestampSerializer() {
+        super(OffsetDateTime.class);
+    }
+
+    @Override
+    public void serialize(OffsetDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (!ZoneOffset.UTC.equals(value.getOffset()) || value.getYear() < 0 || value.getYear() > MAX_YEAR
+                || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            OffsetDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+            return;
+        }
+        char[] buffer = buffers.get();
+        int length = format(value, buffer);
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static int format(OffsetDateTime value, char[] buffer) {
+        int position = digits(buffer, 0, value.getYear(), 4);
+        buffer[position++] = '-';
+        position = digits(buffer, position, value.getMonthValue(), 2);
+        buffer[position++] = '-';
+        position = digits(buffer, position, value.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        position = digits(buffer, position, value.getHour(), 2);
+        buffer[position++] = ':';
+        position = digits(buffer, position, value.getMinute(), 2);
+        buffer[position++] = ':';
+        position = digits(buffer, position, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano != 0) {
+            buffer[position++] = '.';
+            int fractionDigits = NANO_DIGITS;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                fractionDigits--;
+            }
+            position = digits(buffer, position, nano, fractionDigits);
+        }
+        buffer[position++] = 'Z';
+        return position;
+    }
+
+    private static int digits(char[] buffer, int position, int value, int width) {
+        int remaining = value;
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return position + width;
+    }
+}
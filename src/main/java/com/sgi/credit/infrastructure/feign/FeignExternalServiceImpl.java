@@ -3,65 +3,79 @@ package com.sgi.credit.infrastructure.feign;
 import com.sgi.credit.domain.ports.out.FeignExternalService;
 import com.sgi.credit.domain.shared.CustomError;
 import com.sgi.credit.infrastructure.exception.CustomException;
-import lombok.extern.slf4j.Slf4j;
+import com.sgi.credit.infrastructure.tracing.StageObservations;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import static com.sgi.credit.domain.shared.Constants.EXTERNAL_REQUEST_ERROR_FORMAT;
-import static com.sgi.credit.domain.shared.Constants.EXTERNAL_REQUEST_SUCCESS_FORMAT;
-
 /**
  * Implementation of the external Feign service to make HTTP requests.
- * Uses WebClient to make reactive requests to an external service.
+ * Uses WebClient to make reactive requests to an external service; each exchange is summarized
+ * in a single log line by {@link OutboundExchangeLogger}. Calls are observed as external stages, including the
+ * time spent in the circuit breaker; the web client observation nested in them propagates the trace context.
  */
 @Service
-@Slf4j
 public class FeignExternalServiceImpl implements FeignExternalService {
 
     private final WebClient webClient;
     private final ReactiveCircuitBreaker circuitBreaker;
+    private final OutboundExchangeLogger exchangeLogger;
+    private final ObservationRegistry observationRegistry;
 
+    /**
+     * Creates the service.
+     *
+     * @param webClientBuilder      Builder of the web client.
+     * @param transactionServiceUrl Base URL of the transaction service.
+     * @param circuitBreakerFactory Factory of the circuit breaker wrapping every call.
+     * @param exchangeLogger        Logger of the exchange summaries.
+     * @param observationRegistry   Registry of the stage observations.
+     */
     public FeignExternalServiceImpl(WebClient.Builder webClientBuilder,
                                     @Value("${feign.client.config.transaction-service.url}") String transactionServiceUrl,
-                                    ReactiveCircuitBreakerFactory circuitBreakerFactory) {
+                                    ReactiveCircuitBreakerFactory circuitBreakerFactory,
+                                    OutboundExchangeLogger exchangeLogger,
+                                    ObservationRegistry observationRegistry) {
         this.circuitBreaker =  circuitBreakerFactory.create("credit-service");
-        this.webClient = webClientBuilder.baseUrl(transactionServiceUrl).build();
+        this.exchangeLogger = exchangeLogger;
+        this.observationRegistry = observationRegistry;
+        this.webClient = webClientBuilder.baseUrl(transactionServiceUrl)
+                .filter(exchangeLogger.byteCounter())
+                .build();
     }
 
     @Override
     public <T, R> Mono<R> post(String url, T requestBody, Class<R> responseType) {
-        return webClient.post()
-                .uri(url)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(responseType)
-                .doOnNext(response -> logSuccess(url, response))
+        return StageObservations.observe(observationRegistry, "external", "transactionService.post", Mono.defer(() -> {
+                    OutboundExchangeLogger.Exchange exchange = exchangeLogger.start(HttpMethod.POST, url);
+                    return exchangeLogger.track(exchange, webClient.post()
+                            .uri(url)
+                            .attribute(OutboundExchangeLogger.EXCHANGE_ATTRIBUTE, exchange)
+                            .bodyValue(requestBody)
+                            .retrieve()
+                            .bodyToMono(responseType));
+                })
                 .onErrorResume(ex -> Mono.error(new CustomException(CustomError.E_OPERATION_FAILED)))
-                .transformDeferred(circuitBreaker::run);
+                .transformDeferred(circuitBreaker::run));
     }
 
     @Override
     public <R> Flux<R> get(String url, String pathVariable, Class<R> responseType) {
-        return webClient.get()
-                .uri(url, pathVariable)
-                .retrieve()
-                .bodyToFlux(responseType)
-                    .doOnNext(response -> logSuccess(url, response))
-                .doOnError(ex -> logError(url, ex))
+        return StageObservations.observe(observationRegistry, "external", "transactionService.get", Flux.defer(() -> {
+                    OutboundExchangeLogger.Exchange exchange = exchangeLogger.start(HttpMethod.GET, url);
+                    return exchangeLogger.track(exchange, webClient.get()
+                            .uri(url, pathVariable)
+                            .attribute(OutboundExchangeLogger.EXCHANGE_ATTRIBUTE, exchange)
+                            .retrieve()
+                            .bodyToFlux(responseType));
+                })
                 .onErrorResume(ex -> Mono.error(new CustomException(CustomError.E_OPERATION_FAILED)))
-                .transformDeferred(circuitBreaker::run);
-    }
-
-    private <R> void logSuccess(String url, R response) {
-        log.info(EXTERNAL_REQUEST_SUCCESS_FORMAT, url, response);
-    }
-
-    private void logError(String url, Throwable ex) {
-        log.error(EXTERNAL_REQUEST_ERROR_FORMAT, url, ex);
+                .transformDeferred(circuitBreaker::run));
     }
 }
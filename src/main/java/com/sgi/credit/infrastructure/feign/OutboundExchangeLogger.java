@@ -0,0 +1,196 @@
+package com.sgi.credit.infrastructure.feign;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs one summary line per outbound exchange instead of one line per response element.
+ * The summary holds the method, URL template, outcome, status, decoded element count, body bytes and latency
+ * as {@code key=value} pairs. Failed exchanges are always logged; successful ones are sampled with
+ * {@code outbound-logging.success-sample-rate}. With {@code outbound-logging.body-preview=true} the first
+ * element is appended as JSON, with the fields in {@code outbound-logging.redacted-fields} masked.
+ * Successful lines are handed to the asynchronous appender configured in {@code logback-spring.xml}, so the
+ * event loop only builds the event; failures are written synchronously and never dropped.
+ */
+@Slf4j
+@Component
+public class OutboundExchangeLogger {
+
+    static final String EXCHANGE_ATTRIBUTE = OutboundExchangeLogger.class.getName() + ".exchange";
+
+    private static final String SUMMARY_FORMAT =
+            "Outbound {} {} outcome={} status={} elements={} bytes={} latencyMs={}{}";
+    private static final TextNode REDACTED = TextNode.valueOf("***");
+
+    private final ObjectMapper objectMapper;
+    private final double successSampleRate;
+    private final boolean bodyPreview;
+    private final Set<String> redactedFields;
+
+    /**
+     * Creates the logger.
+     *
+     * @param objectMapper      Mapper used to render the body preview.
+     * @param successSampleRate Fraction of successful exchanges that are logged, from 0 to 1.
+     * @param bodyPreview       Whether the first response element is appended to the summary.
+     * @param redactedFields    Field names masked in the body preview, at any depth.
+     */
+    public OutboundExchangeLogger(ObjectMapper objectMapper,
+                                  @Value("${outbound-logging.success-sample-rate:1.0}") double successSampleRate,
+                                  @Value("${outbound-logging.body-preview:false}") boolean bodyPreview,
+                                  @Value("${outbound-logging.redacted-fields:amount,balance,creditLimit,consumptionAmount}")
+                                  Set<String> redactedFields) {
+        this.objectMapper = objectMapper;
+        this.successSampleRate = successSampleRate;
+        this.bodyPreview = bodyPreview;
+        this.redactedFields = redactedFields;
+    }
+
+    /**
+     * Starts tracking an exchange; pass it to the request as the {@link #EXCHANGE_ATTRIBUTE} attribute.
+     *
+     * @param method HTTP method.
+     * @param url    URL template, logged without the expanded variables.
+     * @return The exchange to track.
+     */
+    public Exchange start(HttpMethod method, String url) {
+        return new Exchange(method, url, System.nanoTime());
+    }
+
+    /**
+     * Filter counting the response body bytes of tracked exchanges.
+     *
+     * @return The filter to register on the web client.
+     */
+    public ExchangeFilterFunction byteCounter() {
+        return (request, next) -> next.exchange(request)
+                .map(response -> request.attribute(EXCHANGE_ATTRIBUTE)
+                        .map(Exchange.class::cast)
+                        .map(exchange -> {
+                            exchange.status = response.statusCode().value();
+                            return response.mutate()
+                                    .body(body -> body.doOnNext(buffer -> exchange.bytes += buffer.readableByteCount()))
+                                    .build();
+                        })
+                        .orElse(response));
+    }
+
+    /**
+     * Counts the decoded elements and logs the summary when the body ends.
+     *
+     * @param exchange Exchange started for this request.
+     * @param body     Decoded response body.
+     * @param <T>      Type of the elements.
+     * @return The same elements.
+     */
+    public <T> Flux<T> track(Exchange exchange, Flux<T> body) {
+        return body.doOnNext(exchange::onElement)
+                .doOnError(exchange::onError)
+                .doFinally(signal -> finish(exchange, signal));
+    }
+
+    /**
+     * Counts the decoded value and logs the summary when the body ends.
+     *
+     * @param exchange Exchange started for this request.
+     * @param body     Decoded response body.
+     * @param <T>      Type of the value.
+     * @return The same value.
+     */
+    public <T> Mono<T> track(Exchange exchange, Mono<T> body) {
+        return body.doOnNext(exchange::onElement)
+                .doOnError(exchange::onError)
+                .doFinally(signal -> finish(exchange, signal));
+    }
+
+    private void finish(Exchange exchange, SignalType signal) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - exchange.startNanos);
+        if (exchange.error != null) {
+            log.error(SUMMARY_FORMAT, exchange.method, exchange.url, "ERROR", exchange.status, exchange.elements,
+                    exchange.bytes, latencyMs, "", exchange.error);
+            return;
+        }
+        if (!log.isInfoEnabled() || !sampled()) {
+            return;
+        }
+        String outcome = signal == SignalType.CANCEL ? "CANCELLED" : "SUCCESS";
+        log.info(SUMMARY_FORMAT, exchange.method, exchange.url, outcome, exchange.status, exchange.elements,
+                exchange.bytes, latencyMs, preview(exchange.first));
+    }
+
+    private boolean sampled() {
+        return successSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+
+    private String preview(Object first) {
+        if (!bodyPreview || first == null) {
+            return "";
+        }
+        JsonNode node = objectMapper.valueToTree(first);
+        redact(node);
+        return " body=" + node;
+    }
+
+    private void redact(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (redactedFields.contains(field.getKey()) && !field.getValue().isNull()) {
+                    field.setValue(REDACTED);
+                } else {
+                    redact(field.getValue());
+                }
+            }
+        } else if (node.isArray()) {
+            node.forEach(this::redact);
+        }
+    }
+
+    /**
+     * Counters of one outbound exchange. Updated by the signals of a single response, one at a time.
+     */
+    public static final class Exchange {
+
+        private final HttpMethod method;
+        private final String url;
+        private final long startNanos;
+        private int status;
+        private long elements;
+        private long bytes;
+        private Object first;
+        private Throwable error;
+
+        private Exchange(HttpMethod method, String url, long startNanos) {
+            this.method = method;
+            this.url = url;
+            this.startNanos = startNanos;
+        }
+
+        private void onElement(Object element) {
+            if (elements++ == 0) {
+                first = element;
+            }
+        }
+
+        private void onError(Throwable ex) {
+            error = ex;
+        }
+    }
+}
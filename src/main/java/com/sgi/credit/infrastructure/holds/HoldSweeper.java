@@ -0,0 +1,70 @@
+package com.sgi.credit.infrastructure.holds;
+
+import com.sgi.credit.domain.ports.out.HoldStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Background task expiring stale authorization holds.
+ * Every {@code holds.sweep-interval} it expires due holds in batches of {@code holds.sweep-batch-size},
+ * one batch after the other until a batch comes back short, and counts them in
+ * {@code credit.holds.expired}. Runs on the bounded elastic scheduler, off the event loop.
+ */
+@Slf4j
+@Component
+public class HoldSweeper implements DisposableBean {
+
+    private final Disposable task;
+
+    /**
+     * Creates and starts the sweeper.
+     *
+     * @param holdStore     Store whose holds are expired.
+     * @param meterRegistry Registry receiving the expired hold counter.
+     * @param interval      Time between two sweeps.
+     * @param batchSize     Holds expired per batch.
+     */
+    public HoldSweeper(HoldStore holdStore,
+                       MeterRegistry meterRegistry,
+                       @Value("${holds.sweep-interval:10s}") Duration interval,
+                       @Value("${holds.sweep-batch-size:500}") int batchSize) {
+        Counter expired = Counter.builder("credit.holds.expired")
+                .register(meterRegistry);
+        this.task = Flux.interval(interval, interval, Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .concatMap(tick -> sweep(holdStore, batchSize)
+                        .doOnNext(count -> {
+                            expired.increment(count);
+                            if (count > 0) {
+                                log.info("Expired {} authorization holds", count);
+                            }
+                        })
+                        .onErrorResume(ex -> {
+                            log.warn("Hold sweep failed", ex);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    private static Mono<Integer> sweep(HoldStore holdStore, int batchSize) {
+        return holdStore.expire(Instant.now(), batchSize)
+                .expand(count -> count == batchSize ? holdStore.expire(Instant.now(), batchSize) : Mono.empty())
+                .reduce(0, Integer::sum);
+    }
+
+    @Override
+    public void destroy() {
+        task.dispose();
+    }
+}
@@ -0,0 +1,241 @@
+package com.sgi.credit.infrastructure.holds;
+
+import com.sgi.credit.domain.model.Hold;
+import com.sgi.credit.domain.model.HoldStatus;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.HoldStore;
+import com.sgi.credit.domain.shared.CustomError;
+import com.sgi.credit.infrastructure.exception.CustomException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory implementation of the hold store.
+ * Each credit with holds has an entry holding its last recorded ledger balance, the sum of its active
+ * holds and the holds themselves; every change to an entry runs inside {@link ConcurrentHashMap#compute},
+ * so an authorization costs a map update and never waits on the database while the recorded balance
+ * is younger than {@code holds.balance-ttl}. Active holds are also indexed by expiry for the sweeper.
+ * Holds live in the memory of this instance: they are lost on restart, and authorizations made by
+ * other instances are not seen. Entries without holds are dropped once their balance is stale.
+ */
+@Component
+public class InMemoryHoldStore implements HoldStore {
+
+    private static final Comparator<Hold> BY_EXPIRY = Comparator.comparing(Hold::getExpiresAt)
+            .thenComparing(Hold::getId);
+
+    private final ConcurrentMap<String, CreditHolds> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Hold> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    private final AtomicLong revisions = new AtomicLong();
+    private final Duration expiry;
+    private final long balanceTtlNanos;
+
+    /**
+     * Creates the store.
+     *
+     * @param meterRegistry Registry receiving the active hold gauge.
+     * @param expiry        Time after which an authorized hold expires.
+     * @param balanceTtl    Time a recorded ledger balance is trusted for new reservations.
+     */
+    public InMemoryHoldStore(MeterRegistry meterRegistry,
+                             @Value("${holds.expiry:7d}") Duration expiry,
+                             @Value("${holds.balance-ttl:2s}") Duration balanceTtl) {
+        this.expiry = expiry;
+        this.balanceTtlNanos = balanceTtl.toNanos();
+        Gauge.builder("credit.holds.active", byExpiry, NavigableSet::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Hold> reserve(String creditId, Money amount) {
+        return Mono.fromSupplier(() -> {
+            long now = System.nanoTime();
+            Hold[] reserved = new Hold[1];
+            entries.computeIfPresent(creditId, (key, entry) -> {
+                if (entry.isFresh(now)) {
+                    reserved[0] = entry.reserve(creditId, amount);
+                }
+                return entry;
+            });
+            return index(reserved[0]);
+        });
+    }
+
+    @Override
+    public Mono<Hold> reserve(String creditId, Money amount, Money ledgerBalance) {
+        return Mono.fromSupplier(() -> {
+            long now = System.nanoTime();
+            Hold[] reserved = new Hold[1];
+            entries.compute(creditId, (key, current) -> {
+                CreditHolds entry = current != null ? current : new CreditHolds();
+                entry.record(ledgerBalance, now);
+                reserved[0] = entry.reserve(creditId, amount);
+                return entry;
+            });
+            return index(reserved[0]);
+        });
+    }
+
+    @Override
+    public Mono<Void> recordBalance(String creditId, Money ledgerBalance) {
+        return Mono.fromRunnable(() -> {
+            long now = System.nanoTime();
+            entries.computeIfPresent(creditId, (key, entry) -> {
+                entry.record(ledgerBalance, now);
+                return entry;
+            });
+        });
+    }
+
+    @Override
+    public Mono<Hold> claim(String creditId, String holdId, HoldStatus status) {
+        return Mono.fromSupplier(() -> {
+            Hold[] claimed = new Hold[1];
+            entries.computeIfPresent(creditId, (key, entry) -> {
+                Hold hold = entry.release(holdId);
+                if (hold != null) {
+                    byExpiry.remove(hold);
+                    claimed[0] = hold.toBuilder().status(status).build();
+                }
+                return entry;
+            });
+            return claimed[0];
+        });
+    }
+
+    @Override
+    public Mono<Void> restore(Hold hold) {
+        return Mono.fromRunnable(() -> {
+            Hold active = hold.toBuilder().status(HoldStatus.AUTHORIZED).build();
+            entries.compute(hold.getCreditId(), (key, current) -> {
+                CreditHolds entry = current != null ? current : new CreditHolds();
+                entry.add(active);
+                return entry;
+            });
+            byExpiry.add(active);
+        });
+    }
+
+    @Override
+    public Mono<Money> heldAmount(String creditId) {
+        return Mono.fromSupplier(() -> {
+            CreditHolds entry = entries.get(creditId);
+            return entry != null ? Money.ofMinor(entry.reservedMinor) : Money.ZERO;
+        });
+    }
+
+    @Override
+    public Mono<Long> revision(String creditId) {
+        return Mono.fromSupplier(() -> {
+            CreditHolds entry = entries.get(creditId);
+            return entry != null ? entry.revision : 0L;
+        });
+    }
+
+    /**
+     * Expires the holds due at the given time, oldest first, and drops the entries left without
+     * holds whose balance is stale.
+     */
+    @Override
+    public Mono<Integer> expire(Instant now, int batchSize) {
+        return Mono.fromSupplier(() -> {
+            int expired = 0;
+            while (expired < batchSize) {
+                Hold next = byExpiry.isEmpty() ? null : byExpiry.first();
+                if (next == null || next.getExpiresAt().isAfter(now)) {
+                    break;
+                }
+                if (byExpiry.remove(next)) {
+                    entries.computeIfPresent(next.getCreditId(), (key, entry) -> {
+                        entry.release(next.getId());
+                        return entry;
+                    });
+                    expired++;
+                }
+            }
+            long nanos = System.nanoTime();
+            entries.forEach((creditId, entry) -> entries.computeIfPresent(creditId,
+                    (key, current) -> current.holds.isEmpty() && !current.isFresh(nanos) ? null : current));
+            return expired;
+        });
+    }
+
+    private Hold index(Hold hold) {
+        if (hold != null) {
+            byExpiry.add(hold);
+        }
+        return hold;
+    }
+
+    /**
+     * Holds and recorded balance of one credit, only changed inside a compute of its map entry.
+     */
+    private final class CreditHolds {
+
+        private final Map<String, Hold> holds = new HashMap<>();
+        private long balanceMinor;
+        private long recordedAtNanos;
+        private boolean recorded;
+        private volatile long reservedMinor;
+        private volatile long revision;
+
+        boolean isFresh(long nowNanos) {
+            return recorded && nowNanos - recordedAtNanos < balanceTtlNanos;
+        }
+
+        void record(Money ledgerBalance, long nowNanos) {
+            balanceMinor = ledgerBalance.minorUnits();
+            recordedAtNanos = nowNanos;
+            recorded = true;
+        }
+
+        Hold reserve(String creditId, Money amount) {
+            if (amount.signum() <= 0 || balanceMinor - reservedMinor < amount.minorUnits()) {
+                throw new CustomException(amount.signum() <= 0
+                        ? CustomError.E_INVALID_INPUT
+                        : CustomError.E_INSUFFICIENT_BALANCE);
+            }
+            Instant now = Instant.now();
+            Hold hold = Hold.builder()
+                    .id(new ObjectId().toHexString())
+                    .creditId(creditId)
+                    .amount(amount)
+                    .status(HoldStatus.AUTHORIZED)
+                    .createdAt(now)
+                    .expiresAt(now.plus(expiry))
+                    .build();
+            add(hold);
+            return hold;
+        }
+
+        void add(Hold hold) {
+            holds.put(hold.getId(), hold);
+            reservedMinor = Math.addExact(reservedMinor, hold.getAmount().minorUnits());
+            revision = revisions.incrementAndGet();
+        }
+
+        Hold release(String holdId) {
+            Hold hold = holds.remove(holdId);
+            if (hold != null) {
+                reservedMinor -= hold.getAmount().minorUnits();
+                revision = revisions.incrementAndGet();
+            }
+            return hold;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.sgi.credit.infrastructure.journal;
+
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+
+import java.time.Instant;
+
+/**
+ * A command recorded in the write-ahead journal.
+ *
+ * @param seq        Position in the journal, unique and increasing across segments.
+ * @param creditId   Credit the command applies to.
+ * @param type       Kind of movement.
+ * @param amount     Moved amount.
+ * @param recordedAt When the command was journaled.
+ */
+public record JournalEntry(long seq, String creditId, LedgerEntryType type, Money amount, Instant recordedAt) {
+}
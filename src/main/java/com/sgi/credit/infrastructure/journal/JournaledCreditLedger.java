@@ -0,0 +1,284 @@
+package com.sgi.credit.infrastructure.journal;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntry;
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditLedger;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.OptimisticLockRetry;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import com.sgi.credit.infrastructure.mapper.CreditMapper;
+import com.sgi.credit.infrastructure.repository.impl.DocumentCreditLedger;
+import com.sgi.credit.infrastructure.repository.memory.StripedLock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Credit ledger that acknowledges charges, payments and interest once they are durable in a
+ * node-local {@link MappedJournal}, and applies them to the document ledger asynchronously, in journal order.
+ * Reads and validations see the document totals plus the journaled entries not applied yet.
+ * Each credit carries the last journal sequence applied to it, saved with its totals,
+ * so entries replayed after a crash are applied once, and the journal starts past the highest one
+ * so a lost journal directory cannot reuse sequences the credits already hold. Limit changes bypass the journal.
+ * The journal is node-local: every credit must be written through a single node while it is enabled.
+ * Enabled with {@code persistence.journal.enabled=true} on top of the document ledger.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnExpression("'${persistence.journal.enabled:false}' == 'true' and '${persistence.ledger:document}' == 'document'")
+public class JournaledCreditLedger implements CreditLedger, DisposableBean {
+
+    private final DocumentCreditLedger delegate;
+    private final CreditRepository creditRepository;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final MappedJournal journal;
+    private static final Duration SEQ_RETENTION = Duration.ofMinutes(1);
+
+    private final StripedLock locks = new StripedLock(256);
+    private final ConcurrentMap<String, Deque<JournalEntry>> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> lastSeqs = new ConcurrentHashMap<>();
+    private final Queue<Released> released = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final Sinks.Many<JournalEntry> committed = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable applier;
+
+    /**
+     * Opens the journal past the highest sequence applied to any credit, queues the entries left
+     * unapplied by the previous run and starts applying.
+     *
+     * @param delegate            Document ledger the entries are applied to.
+     * @param creditRepository    Repository used to load credits when applying entries.
+     * @param optimisticLockRetry Retry applied to each entry.
+     * @param meterRegistry       Registry receiving the journal metrics.
+     * @param directory           Directory of the journal files.
+     * @param segmentSize         Size of each journal segment.
+     * @param commitDelay         Time the flusher waits to gather more commands before each flush.
+     * @throws IOException If the journal cannot be opened.
+     */
+    public JournaledCreditLedger(DocumentCreditLedger delegate,
+                                 CreditRepository creditRepository,
+                                 OptimisticLockRetry optimisticLockRetry,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${persistence.journal.directory:data/journal}") Path directory,
+                                 @Value("${persistence.journal.segment-size:64MB}") DataSize segmentSize,
+                                 @Value("${persistence.journal.commit-delay:0ms}") Duration commitDelay)
+            throws IOException {
+        this.delegate = delegate;
+        this.creditRepository = creditRepository;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.journal = new MappedJournal(directory, (int) segmentSize.toBytes(), commitDelay.toNanos(), meterRegistry);
+        Long highestSeq = creditRepository.findHighestJournalSeq().block();
+        if (highestSeq != null) {
+            journal.advancePast(highestSeq);
+        }
+        Gauge.builder("credit.journal.pending", pendingCount, AtomicLong::get)
+                .description("Journaled entries not applied to the database yet")
+                .register(meterRegistry);
+        List<JournalEntry> unapplied = journal.unapplied();
+        unapplied.forEach(this::track);
+        this.applier = committed.asFlux()
+                .concatMap(this::apply)
+                .subscribe();
+        onCommit(unapplied);
+        journal.start(this::onCommit);
+    }
+
+    @Override
+    public Mono<CreditSnapshot> currentState(Credit credit) {
+        return delegate.currentState(credit)
+                .map(state -> withPending(credit, state));
+    }
+
+    @Override
+    public Mono<CreditSnapshot> append(Credit credit, CreditSnapshot state, LedgerEntryType type, Money amount) {
+        if (type == LedgerEntryType.LIMIT_CHANGE) {
+            return delegate.currentState(credit)
+                    .flatMap(current -> delegate.append(credit, current, type, amount))
+                    .map(next -> withPending(credit, next));
+        }
+        return Mono.fromCallable(() -> journal(credit, state, type, amount))
+                .flatMap(appended -> Mono.fromFuture(appended.durable())
+                        .thenReturn(state.apply(toLedgerEntry(appended.entry()))));
+    }
+
+    @Override
+    public Mono<Long> pendingPosition(String creditId) {
+        return Mono.fromSupplier(() -> {
+            Deque<JournalEntry> entries = pending.get(creditId);
+            JournalEntry last = entries != null ? entries.peekLast() : null;
+            return last != null ? last.seq() : null;
+        });
+    }
+
+    @Override
+    public Mono<BalanceResponse> findBalance(String creditId) {
+        if (!pending.containsKey(creditId)) {
+            return delegate.findBalance(creditId);
+        }
+        return creditRepository.findById(creditId)
+                .flatMap(this::currentState)
+                .map(CreditMapper.INSTANCE::toBalanceResponse);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        journal.close();
+        applier.dispose();
+    }
+
+    /**
+     * Journals the entry if the state it was computed from is still the latest one of the credit,
+     * the same optimistic check the document ledger gets from the credit version.
+     */
+    private MappedJournal.Appended journal(Credit credit, CreditSnapshot state, LedgerEntryType type,
+                                           Money amount) {
+        ReentrantLock lock = locks.get(credit.getId());
+        lock.lock();
+        try {
+            long lastSeq = lastSeqs.getOrDefault(credit.getId(), appliedSeq(credit));
+            if (state.getSeq() != lastSeq) {
+                throw new OptimisticLockingFailureException(
+                        "Journal position " + lastSeq + " of credit " + credit.getId() + " moved.");
+            }
+            MappedJournal.Appended appended = journal.append(credit.getId(), type, amount);
+            track(appended.entry());
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void track(JournalEntry entry) {
+        pending.computeIfAbsent(entry.creditId(), key -> new ConcurrentLinkedDeque<>()).add(entry);
+        lastSeqs.merge(entry.creditId(), entry.seq(), Math::max);
+        pendingCount.incrementAndGet();
+    }
+
+    private void onCommit(List<JournalEntry> entries) {
+        entries.forEach(entry -> committed.emitNext(entry, Sinks.EmitFailureHandler.FAIL_FAST));
+    }
+
+    /**
+     * Applies one entry to the document ledger unless the credit already holds it,
+     * retrying until the database accepts it so later entries keep their order.
+     */
+    private Mono<Void> apply(JournalEntry entry) {
+        return optimisticLockRetry.retryOnConflict("journalApply", () -> creditRepository.findById(entry.creditId())
+                        .filter(credit -> appliedSeq(credit) < entry.seq())
+                        .flatMap(credit -> {
+                            credit.setJournalSeq(entry.seq());
+                            return delegate.currentState(credit)
+                                    .flatMap(state -> delegate.append(credit, state, entry.type(), entry.amount()));
+                        }))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100))
+                        .maxBackoff(Duration.ofSeconds(5))
+                        .doBeforeRetry(signal -> log.warn("Retrying journal entry {}", entry.seq(), signal.failure())))
+                .doOnSuccess(ignored -> {
+                    untrack(entry);
+                    journal.markApplied(entry.seq());
+                    forgetReleased();
+                })
+                .then();
+    }
+
+    private void untrack(JournalEntry entry) {
+        Deque<JournalEntry> remaining = pending.computeIfPresent(entry.creditId(), (key, entries) -> {
+            entries.removeIf(queued -> queued.seq() == entry.seq());
+            return entries.isEmpty() ? null : entries;
+        });
+        pendingCount.decrementAndGet();
+        if (remaining == null) {
+            released.add(new Released(entry.creditId(), entry.seq(), System.nanoTime()));
+        }
+    }
+
+    /**
+     * Drops the last positions of credits with nothing pending for longer than any request holds the
+     * state it read; the position saved with the credit is authoritative from then on.
+     */
+    private void forgetReleased() {
+        long horizon = System.nanoTime() - SEQ_RETENTION.toNanos();
+        for (Released head = released.peek(); head != null && head.at() - horizon < 0; head = released.peek()) {
+            released.poll();
+            ReentrantLock lock = locks.get(head.creditId());
+            lock.lock();
+            try {
+                if (!pending.containsKey(head.creditId())) {
+                    lastSeqs.remove(head.creditId(), head.seq());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds the journaled entries the credit document does not hold yet; the resulting sequence is
+     * the last journal position seen for the credit.
+     */
+    private CreditSnapshot withPending(Credit credit, CreditSnapshot state) {
+        long appliedSeq = appliedSeq(credit);
+        CreditSnapshot current = state.toBuilder().seq(appliedSeq).build();
+        Deque<JournalEntry> entries = pending.get(credit.getId());
+        if (entries != null) {
+            for (JournalEntry entry : entries) {
+                if (entry.seq() > appliedSeq) {
+                    current = current.apply(toLedgerEntry(entry));
+                }
+            }
+        }
+        return current;
+    }
+
+    private static long appliedSeq(Credit credit) {
+        return credit.getJournalSeq() != null ? credit.getJournalSeq() : 0L;
+    }
+
+    private static LedgerEntry toLedgerEntry(JournalEntry entry) {
+        return LedgerEntry.builder()
+                .creditId(entry.creditId())
+                .seq(entry.seq())
+                .type(entry.type())
+                .amount(entry.amount())
+                .occurredAt(entry.recordedAt())
+                .build();
+    }
+
+    /**
+     * Credit whose journaled entries were all applied.
+     *
+     * @param creditId Credit ID.
+     * @param seq      Last applied sequence.
+     * @param at       When it was applied, from {@link System#nanoTime()}.
+     */
+    private record Released(String creditId, long seq, long at) {
+    }
+}
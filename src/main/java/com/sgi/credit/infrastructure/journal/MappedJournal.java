@@ -0,0 +1,437 @@
+package com.sgi.credit.infrastructure.journal;
+
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal stored in fixed-size memory-mapped segment files.
+ * Writers copy records into the mapped segment under a short lock; a single flusher thread forces
+ * everything written since its previous pass with one msync and then completes all those writers,
+ * so concurrent commands share the cost of each flush (group commit).
+ * Each record is {@code [length][crc32c][payload]}; recovery stops at the first torn or corrupt record.
+ * The applied position is kept in a checkpoint file and segments fully behind it are deleted.
+ * Each segment is named after its first sequence, so the sequence never moves backwards on recovery
+ * even when the checkpoint was lost or every record was already deleted.
+ */
+@Slf4j
+public class MappedJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER = Integer.BYTES * 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long commitDelayNanos;
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final FileChannel checkpointChannel;
+    private final List<JournalEntry> unapplied = new ArrayList<>();
+    private final List<Long> segmentSeqs = new ArrayList<>();
+
+    private final Object lock = new Object();
+    private Segment segment;
+    private long nextSeq;
+    private int flushedPosition;
+    private List<Appended> waiting = new ArrayList<>();
+    private IOException failure;
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    /**
+     * Opens the journal, recovering the entries written after the last checkpoint.
+     *
+     * @param directory     Directory holding the segments and the checkpoint.
+     * @param segmentSize   Size of each segment file in bytes.
+     * @param commitDelay   Time the flusher waits for more writers before each flush, in nanoseconds.
+     * @param meterRegistry Registry receiving the batch size and flush time.
+     * @throws IOException If the directory cannot be read or a segment cannot be mapped.
+     */
+    public MappedJournal(Path directory, int segmentSize, long commitDelay, MeterRegistry meterRegistry)
+            throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.commitDelayNanos = commitDelay;
+        this.batchSize = DistributionSummary.builder("credit.journal.batch.size")
+                .description("Journal records made durable by one flush")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flushTimer = meterRegistry.timer("credit.journal.flush");
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover(readCheckpoint());
+    }
+
+    /**
+     * Returns the entries that were journaled but not marked applied before the last shutdown, in order.
+     *
+     * @return The entries to apply again.
+     */
+    public List<JournalEntry> unapplied() {
+        return List.copyOf(unapplied);
+    }
+
+    /**
+     * Starts the flusher thread.
+     *
+     * @param onCommit Called from the flusher thread, in journal order, with each batch made durable
+     *                 and before the writers of that batch are completed.
+     */
+    public void start(Consumer<List<JournalEntry>> onCommit) {
+        flusher = new Thread(() -> flushLoop(onCommit), "credit-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Writes a command to the mapped segment. The command is not durable until the returned future completes.
+     *
+     * @param creditId Credit the command applies to.
+     * @param type     Kind of movement.
+     * @param amount   Moved amount.
+     * @return The journaled entry and the future completed once it is forced to disk.
+     */
+    public Appended append(String creditId, LedgerEntryType type, Money amount) {
+        synchronized (lock) {
+            if (failure != null) {
+                throw new UncheckedIOException("Journal is no longer writable", failure);
+            }
+            JournalEntry entry = new JournalEntry(nextSeq, creditId, type, amount, Instant.now());
+            byte[] payload = encode(entry);
+            if (HEADER + payload.length > segmentSize) {
+                throw new IllegalArgumentException("Journal record does not fit in a segment");
+            }
+            try {
+                if (segment.buffer.position() + HEADER + payload.length > segmentSize) {
+                    roll();
+                }
+            } catch (IOException ex) {
+                failure = ex;
+                throw new UncheckedIOException(ex);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            segment.buffer.putInt(payload.length)
+                    .putInt((int) crc.getValue())
+                    .put(payload);
+            nextSeq++;
+            Appended appended = new Appended(entry, new CompletableFuture<>());
+            waiting.add(appended);
+            lock.notifyAll();
+            return appended;
+        }
+    }
+
+    /**
+     * Moves the next sequence past the given one if it is not already, starting a new segment named
+     * after it so the position survives a restart. Used when positions already applied downstream
+     * are ahead of the journal, for instance after its directory was lost.
+     *
+     * @param seq Highest sequence known to be used.
+     * @return Whether the sequence was moved.
+     * @throws IOException If the new segment cannot be created.
+     */
+    public boolean advancePast(long seq) throws IOException {
+        synchronized (lock) {
+            if (seq < nextSeq) {
+                return false;
+            }
+            log.warn("Journal sequence {} is behind applied sequence {}, continuing from {}", nextSeq, seq, seq + 1);
+            nextSeq = seq + 1;
+            roll();
+            return true;
+        }
+    }
+
+    /**
+     * Records that every entry up to the given sequence was applied downstream.
+     * The checkpoint is only forced before segments behind it are deleted: until then entries behind
+     * a stale checkpoint are only replayed, and applying them is idempotent.
+     *
+     * @param seq Last applied sequence.
+     */
+    public void markApplied(long seq) {
+        try {
+            checkpointChannel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, seq), 0);
+            deleteSegmentsBefore(seq);
+        } catch (IOException ex) {
+            log.warn("Could not update the journal checkpoint to {}", seq, ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (lock) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+        checkpointChannel.close();
+    }
+
+    private void flushLoop(Consumer<List<JournalEntry>> onCommit) {
+        while (true) {
+            List<Appended> batch;
+            MappedByteBuffer buffer;
+            int from;
+            int to;
+            synchronized (lock) {
+                while (waiting.isEmpty() && running) {
+                    waitQuietly();
+                }
+                if (waiting.isEmpty()) {
+                    return;
+                }
+            }
+            if (commitDelayNanos > 0) {
+                sleepQuietly();
+            }
+            synchronized (lock) {
+                batch = waiting;
+                waiting = new ArrayList<>();
+                buffer = segment.buffer;
+                from = flushedPosition;
+                to = buffer.position();
+                flushedPosition = to;
+            }
+            Timer.Sample sample = Timer.start();
+            try {
+                buffer.force(from, to - from);
+            } catch (UncheckedIOException ex) {
+                log.error("Journal flush failed, rejecting further commands", ex);
+                synchronized (lock) {
+                    failure = ex.getCause();
+                }
+                batch.forEach(appended -> appended.durable().completeExceptionally(ex));
+                continue;
+            }
+            sample.stop(flushTimer);
+            batchSize.record(batch.size());
+            List<JournalEntry> entries = batch.stream().map(Appended::entry).toList();
+            try {
+                onCommit.accept(entries);
+            } catch (RuntimeException ex) {
+                log.error("Journal commit listener failed", ex);
+            }
+            batch.forEach(appended -> appended.durable().complete(null));
+        }
+    }
+
+    private void waitQuietly() {
+        try {
+            lock.wait();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(commitDelayNanos / 1_000_000, (int) (commitDelayNanos % 1_000_000));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Forces and closes the current segment and opens the next one.
+     * Runs under the lock; records of the closed segment are durable once it returns.
+     */
+    private void roll() throws IOException {
+        segment.buffer.force();
+        segment.channel.close();
+        segment = openSegment(nextSeq);
+        segmentSeqs.add(nextSeq);
+        flushedPosition = 0;
+    }
+
+    private Segment openSegment(long firstSeq) throws IOException {
+        Path path = segmentPath(firstSeq);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(path, firstSeq, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+    }
+
+    private long readCheckpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        return checkpointChannel.read(buffer, 0) == Long.BYTES ? buffer.getLong(0) : 0L;
+    }
+
+    private void recover(long checkpoint) throws IOException {
+        List<Path> segments = listSegments();
+        long lastSeq = checkpoint;
+        for (int i = 0; i < segments.size(); i++) {
+            long firstSeq = firstSeqOf(segments.get(i));
+            boolean last = i == segments.size() - 1;
+            Segment candidate = openSegment(firstSeq);
+            segmentSeqs.add(firstSeq);
+            lastSeq = Math.max(lastSeq, firstSeq - 1);
+            MappedByteBuffer buffer = candidate.buffer;
+            while (buffer.remaining() >= HEADER) {
+                int start = buffer.position();
+                JournalEntry entry = readRecord(buffer);
+                if (entry == null) {
+                    buffer.position(start);
+                    if (last && buffer.getInt(start) != 0) {
+                        truncate(buffer);
+                    }
+                    break;
+                }
+                lastSeq = Math.max(lastSeq, entry.seq());
+                if (entry.seq() > checkpoint) {
+                    unapplied.add(entry);
+                }
+            }
+            if (last) {
+                segment = candidate;
+            } else {
+                candidate.channel.close();
+            }
+        }
+        nextSeq = lastSeq + 1;
+        if (segment == null) {
+            segment = openSegment(nextSeq);
+            segmentSeqs.add(nextSeq);
+        }
+        flushedPosition = segment.buffer.position();
+        log.info("Journal opened at sequence {} with {} entries to apply", nextSeq, unapplied.size());
+    }
+
+    private static JournalEntry readRecord(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        final int checksum = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue() == checksum ? decode(payload) : null;
+    }
+
+    /**
+     * Clears whatever a crash left after the last complete record, so a record written there later
+     * cannot be followed by stale bytes that happen to look valid.
+     */
+    private static void truncate(MappedByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.force();
+        buffer.position(start);
+    }
+
+    /**
+     * Deletes the segments whose every record is applied, never the current one, which is always the last.
+     * The checkpoint is forced first so the applied position does not depend on the deleted records.
+     */
+    private void deleteSegmentsBefore(long appliedSeq) throws IOException {
+        List<Long> behind = new ArrayList<>();
+        synchronized (lock) {
+            while (segmentSeqs.size() > 1 && segmentSeqs.get(1) <= appliedSeq + 1) {
+                behind.add(segmentSeqs.remove(0));
+            }
+        }
+        if (behind.isEmpty()) {
+            return;
+        }
+        checkpointChannel.force(false);
+        for (long firstSeq : behind) {
+            Files.deleteIfExists(segmentPath(firstSeq));
+        }
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSeqOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(JournalEntry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(entry.seq());
+            out.writeLong(entry.recordedAt().toEpochMilli());
+            out.writeUTF(entry.type().name());
+            out.writeUTF(entry.creditId());
+            out.writeLong(entry.amount().minorUnits());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static JournalEntry decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long seq = in.readLong();
+            Instant recordedAt = Instant.ofEpochMilli(in.readLong());
+            LedgerEntryType type = LedgerEntryType.valueOf(in.readUTF());
+            String creditId = in.readUTF();
+            return new JournalEntry(seq, creditId, type, Money.ofMinor(in.readLong()), recordedAt);
+        } catch (IOException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * A journaled entry and the future completed when it is durable.
+     *
+     * @param entry   The journaled entry.
+     * @param durable Completed once the entry is forced to disk.
+     */
+    public record Appended(JournalEntry entry, CompletableFuture<Void> durable) {
+    }
+
+    private record Segment(Path path, long firstSeq, FileChannel channel, MappedByteBuffer buffer) {
+    }
+}
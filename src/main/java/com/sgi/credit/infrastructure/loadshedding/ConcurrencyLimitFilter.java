@@ -0,0 +1,168 @@
+package com.sgi.credit.infrastructure.loadshedding;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgi.credit.domain.shared.CustomError;
+import com.sgi.credit.infrastructure.dto.ErrorResponse;
+import com.sgi.credit.infrastructure.exception.ApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit of the API, shedding the requests above it.
+ * Requests under {@code /v1} are counted while in flight against a {@link GradientLimit} fed with their
+ * latency, so the limit falls when Mongo slows down and in-flight work stops piling up. Each request is
+ * classified by endpoint into a {@link RequestPriority} that may only fill its share of the limit: listings
+ * are shed first, then single reads, then mutations, and payments last. A shed request is answered at once
+ * with {@code 503 Service Unavailable} and {@code Retry-After}. Runs after the rate limiting, so that
+ * throttled requests do not count. The limit and the requests in flight are published as
+ * {@code credit.concurrency.limit} and {@code credit.concurrency.inflight}, and shed requests are counted in
+ * {@code credit.concurrency.rejected} per priority. Disabled with {@code concurrency-limit.enabled=false}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitFilter implements WebFilter {
+
+    private static final PathPattern LIMITED_PATHS = new PathPatternParser().parse("/v1/**");
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<EndpointPriority> endpoints;
+    private final List<PathPattern> excludedPaths;
+    private final EndpointPriority defaultEndpoint;
+    private final Map<RequestPriority, Double> shares;
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+    private final String retryAfter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates the filter.
+     *
+     * @param properties    Limit settings and endpoint priorities.
+     * @param meterRegistry Registry receiving the limit gauges and rejection counters.
+     * @param objectMapper  Mapper writing the error body of shed requests.
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper) {
+        this.limit = new GradientLimit(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getTolerance(), properties.getSmoothing(), properties.getLongWindows(),
+                properties.getWindow().toNanos(), properties.getMinWindowSamples());
+        PathPatternParser parser = new PathPatternParser();
+        this.endpoints = properties.getEndpoints().values().stream()
+                .map(endpoint -> new EndpointPriority(HttpMethod.valueOf(endpoint.getMethod()),
+                        parser.parse(endpoint.getPath()), endpoint.getPriority(), endpoint.isSampled()))
+                .sorted(Comparator.comparing(EndpointPriority::pattern, PathPattern.SPECIFICITY_COMPARATOR))
+                .toList();
+        this.excludedPaths = properties.getExcludedPaths().stream().map(parser::parse).toList();
+        this.defaultEndpoint = new EndpointPriority(null, LIMITED_PATHS, properties.getDefaultPriority(), true);
+        this.shares = new EnumMap<>(properties.getShares());
+        this.retryAfter = Long.toString(Math.max(1L, properties.getRetryAfter().toSeconds()));
+        this.objectMapper = objectMapper;
+        Gauge.builder("credit.concurrency.limit", limit, GradientLimit::limit).register(meterRegistry);
+        Gauge.builder("credit.concurrency.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, Counter.builder("credit.concurrency.rejected")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        PathContainer path = request.getPath().pathWithinApplication();
+        if (!LIMITED_PATHS.matches(path) || excludedPaths.stream().anyMatch(excluded -> excluded.matches(path))) {
+            return chain.filter(exchange);
+        }
+        EndpointPriority endpoint = classify(request.getMethod(), path);
+        if (!tryAcquire(endpoint.priority())) {
+            rejected.get(endpoint.priority()).increment();
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+            return reject(exchange.getResponse());
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            int completed = inFlight.getAndDecrement();
+            if (endpoint.sampled() && signal != SignalType.CANCEL) {
+                long now = System.nanoTime();
+                limit.onSample(now - start, completed, now);
+            }
+        });
+    }
+
+    int limit() {
+        return limit.limit();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private EndpointPriority classify(HttpMethod method, PathContainer path) {
+        for (EndpointPriority endpoint : endpoints) {
+            if (endpoint.method().equals(method) && endpoint.pattern().matches(path)) {
+                return endpoint;
+            }
+        }
+        return defaultEndpoint;
+    }
+
+    private boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit.limit() * shares.getOrDefault(priority, 1.0)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response) {
+        ApiError error = CustomError.E_SERVICE_OVERLOADED.getError();
+        response.setStatusCode(error.getStatus());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new ErrorResponse(error.getStatus().value(), error.getCode(),
+                    error.getMessage(), OffsetDateTime.now(ZoneOffset.UTC)));
+        } catch (JsonProcessingException ex) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private record EndpointPriority(HttpMethod method, PathPattern pattern, RequestPriority priority, boolean sampled) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.sgi.credit.infrastructure.loadshedding;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the {@link ConcurrencyLimitFilter}, bound from {@code concurrency-limit.*}.
+ * Requests under {@code /v1} that match no endpoint get {@code default-priority}; endpoints are keyed by
+ * name, so one can be overridden with, for instance, {@code concurrency-limit.endpoints.transactions.priority=NORMAL}.
+ */
+@Data
+@ConfigurationProperties("concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private int initialLimit = 50;
+
+    private int minLimit = 10;
+
+    private int maxLimit = 500;
+
+    /**
+     * Ratio of the recent to the long-term latency tolerated before the limit shrinks.
+     */
+    private double tolerance = 2.0;
+
+    /**
+     * Weight of each new limit against the previous one.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Windows the long-term latency is averaged over.
+     */
+    private int longWindows = 600;
+
+    /**
+     * Minimum duration of a latency window.
+     */
+    private Duration window = Duration.ofMillis(100);
+
+    /**
+     * Minimum samples of a latency window.
+     */
+    private int minWindowSamples = 10;
+
+    /**
+     * Value of the {@code Retry-After} header of shed requests.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private RequestPriority defaultPriority = RequestPriority.NORMAL;
+
+    /**
+     * Share of the limit each priority may fill.
+     */
+    private Map<RequestPriority, Double> shares = new EnumMap<>(Map.of(
+            RequestPriority.CRITICAL, 1.0,
+            RequestPriority.HIGH, 0.9,
+            RequestPriority.NORMAL, 0.75,
+            RequestPriority.LOW, 0.5));
+
+    /**
+     * Long-lived requests left out of the limit, such as server-sent event streams.
+     */
+    private List<String> excludedPaths = new ArrayList<>(List.of("/v1/credits/{creditId}/balances/stream"));
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>(Map.ofEntries(
+            Map.entry("payment", new Endpoint(HttpMethod.POST.name(), "/v1/credits/{creditId}/payment",
+                    RequestPriority.CRITICAL, true)),
+            Map.entry("capture", new Endpoint(HttpMethod.POST.name(),
+                    "/v1/credits/{creditId}/authorizations/{holdId}/capture", RequestPriority.CRITICAL, true)),
+            Map.entry("charge", new Endpoint(HttpMethod.POST.name(), "/v1/credits/{creditId}/charge",
+                    RequestPriority.HIGH, true)),
+            Map.entry("authorize", new Endpoint(HttpMethod.POST.name(), "/v1/credits/{creditId}/authorizations",
+                    RequestPriority.HIGH, true)),
+            Map.entry("void", new Endpoint(HttpMethod.DELETE.name(), "/v1/credits/{creditId}/authorizations/{holdId}",
+                    RequestPriority.HIGH, true)),
+            Map.entry("create", new Endpoint(HttpMethod.POST.name(), "/v1/credits", RequestPriority.HIGH, true)),
+            Map.entry("update", new Endpoint(HttpMethod.PUT.name(), "/v1/credits/{creditId}", RequestPriority.HIGH, true)),
+            Map.entry("delete", new Endpoint(HttpMethod.DELETE.name(), "/v1/credits/{creditId}",
+                    RequestPriority.HIGH, true)),
+            Map.entry("list", new Endpoint(HttpMethod.GET.name(), "/v1/credits", RequestPriority.LOW, true)),
+            Map.entry("transactions", new Endpoint(HttpMethod.GET.name(), "/v1/credits/{creditId}/transactions",
+                    RequestPriority.LOW, true)),
+            Map.entry("card", new Endpoint(HttpMethod.GET.name(), "/v1/credits/{clientId}/card", RequestPriority.LOW, true)),
+            Map.entry("export", new Endpoint(HttpMethod.GET.name(), "/v1/credits/export", RequestPriority.LOW, false))));
+
+    /**
+     * Classified endpoint.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Endpoint {
+
+        private String method;
+        private String path;
+        private RequestPriority priority;
+
+        /**
+         * Whether the latency of its requests adjusts the limit; off for responses whose duration grows
+         * with their size, such as exports.
+         */
+        private boolean sampled = true;
+    }
+}
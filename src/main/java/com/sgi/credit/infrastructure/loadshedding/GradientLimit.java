@@ -0,0 +1,125 @@
+package com.sgi.credit.infrastructure.loadshedding;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit adjusted from the observed latency with the gradient algorithm.
+ * Latency samples are averaged over windows of at least {@code window} and {@code minWindowSamples};
+ * each window average (the short RTT) is compared with an exponential average over many windows
+ * (the long RTT). While the short RTT stays within {@code tolerance} times the long one the limit grows
+ * by about its square root per window; beyond that it shrinks in proportion, by at most half, and the
+ * change is smoothed. Windows in which fewer than half of the limit were in flight leave it unchanged,
+ * since the latency then says nothing about it. After the latency drops back the long RTT is pulled down
+ * too, so that a past slowdown does not keep the limit high.
+ * Samples are added to striped counters without locking; the request completing a window claims it with
+ * a compare-and-set and alone computes the new limit, while the others keep adding to the next window.
+ */
+public final class GradientLimit {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double LONG_RTT_DRIFT = 2.0;
+    private static final double LONG_RTT_DECAY = 0.95;
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longRttFactor;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private volatile int limit;
+
+    private final AtomicLong windowStart = new AtomicLong(NOT_STARTED);
+    private final LongAdder windowSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAccumulator windowMaxInFlight = new LongAccumulator(Math::max, 0);
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private double longRtt;
+
+    /**
+     * Creates the limit.
+     *
+     * @param initialLimit     Limit before the first window.
+     * @param minLimit         Lowest limit.
+     * @param maxLimit         Highest limit.
+     * @param tolerance        Ratio of the short to the long RTT tolerated before the limit shrinks.
+     * @param smoothing        Weight of each new limit against the previous one, between 0 and 1.
+     * @param longWindows      Windows the long RTT is averaged over.
+     * @param windowNanos      Minimum duration of a window.
+     * @param minWindowSamples Minimum samples of a window.
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                         int longWindows, long windowNanos, int minWindowSamples) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1 || smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Invalid gradient limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longRttFactor = 2.0 / (longWindows + 1);
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Records the latency of a completed request.
+     *
+     * @param rttNanos Time from admission to completion of the request.
+     * @param inFlight Requests in flight when it completed, itself included.
+     * @param nowNanos Current {@link System#nanoTime()}.
+     */
+    public void onSample(long rttNanos, int inFlight, long nowNanos) {
+        long start = windowStart.get();
+        if (start == NOT_STARTED && windowStart.compareAndSet(NOT_STARTED, nowNanos)) {
+            start = nowNanos;
+        }
+        windowSum.add(rttNanos);
+        windowSamples.increment();
+        windowMaxInFlight.accumulate(inFlight);
+        if (start == NOT_STARTED || nowNanos - start < windowNanos || windowSamples.sum() < minWindowSamples
+                || !updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (windowStart.get() != start) {
+                return;
+            }
+            long samples = windowSamples.sumThenReset();
+            long sum = windowSum.sumThenReset();
+            long maxInFlight = windowMaxInFlight.getThenReset();
+            windowStart.set(NOT_STARTED);
+            if (samples > 0) {
+                update((double) sum / samples, (int) maxInFlight);
+            }
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) * longRttFactor;
+        if (longRtt / shortRtt > LONG_RTT_DRIFT) {
+            longRtt *= LONG_RTT_DECAY;
+        }
+        int current = limit;
+        if (maxInFlight * 2 < current) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = (int) Math.max(minLimit, Math.min(maxLimit, Math.round(next)));
+    }
+}
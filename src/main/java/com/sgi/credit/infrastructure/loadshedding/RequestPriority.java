@@ -0,0 +1,28 @@
+package com.sgi.credit.infrastructure.loadshedding;
+
+/**
+ * Priority of an inbound request when the concurrency limit is reached.
+ * Each priority may use a share of the limit, so lower priorities are shed first.
+ */
+public enum RequestPriority {
+
+    /**
+     * Payments and captures, which settle money already committed.
+     */
+    CRITICAL,
+
+    /**
+     * Charges, authorizations and other mutations.
+     */
+    HIGH,
+
+    /**
+     * Reads of a single credit.
+     */
+    NORMAL,
+
+    /**
+     * Listings and exports.
+     */
+    LOW
+}
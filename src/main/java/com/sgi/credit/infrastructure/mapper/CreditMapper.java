@@ -1,9 +1,13 @@
 package com.sgi.credit.infrastructure.mapper;
 
 import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.Money;
 import com.sgi.credit.infrastructure.dto.BalanceResponse;
 import com.sgi.credit.infrastructure.dto.CreditRequest;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.repository.projection.CreditBalanceView;
+import com.sgi.credit.infrastructure.repository.projection.CreditCardView;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.OffsetDateTime;
@@ -25,6 +29,8 @@ public interface CreditMapper {
     @Mapping(target = "type", source = "type")
     CreditResponse toCreditResponse(Credit credit);
 
+    CreditResponse toCreditResponse(CreditCardView creditCard);
+
     /**
      * Converts a CreditRequest to a Credit object.
      * This method also sets the credit number based on the provided account number
@@ -38,12 +44,12 @@ public interface CreditMapper {
     @Mapping(target = "id", ignore = true)
     default Credit toCredit(CreditRequest creditRequest, String accountNumber) {
         return Credit.builder()
-                .consumptionAmount(BigDecimal.ZERO)
+                .consumptionAmount(Money.ZERO)
                 .creditNumber(accountNumber)
                 .type(creditRequest.getType().getValue())
                 .interestRate(creditRequest.getInterestRate())
-                .creditLimit(creditRequest.getCreditLimit())
-                .balance(creditRequest.getCreditLimit())
+                .creditLimit(map(creditRequest.getCreditLimit()))
+                .balance(map(creditRequest.getCreditLimit()))
                 .clientId(creditRequest.getClientId())
                 .createdDate(Instant.now())
                 .updatedDate(Instant.now())
@@ -53,7 +59,20 @@ public interface CreditMapper {
     @Mapping(target = "balance", source = "balance")
     BalanceResponse toBalanceResponse(Credit credit);
 
+    BalanceResponse toBalanceResponse(CreditBalanceView balance);
+
+    @Mapping(target = "balance", expression = "java(map(snapshot.balance()))")
+    BalanceResponse toBalanceResponse(CreditSnapshot snapshot);
+
     default OffsetDateTime map(Instant instant) {
         return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
     }
+
+    default BigDecimal map(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    default Money map(BigDecimal amount) {
+        return Money.of(amount);
+    }
 }
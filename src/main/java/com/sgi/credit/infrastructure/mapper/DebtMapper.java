@@ -1,6 +1,7 @@
 package com.sgi.credit.infrastructure.mapper;
 
 import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
 import com.sgi.credit.infrastructure.dto.DebtRequest;
 import com.sgi.credit.infrastructure.dto.DebtResponse;
@@ -9,6 +10,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -30,6 +32,9 @@ public interface DebtMapper {
     @Mapping(target = "creditId", source = "creditResponse.id")
     @Mapping(target = "amount", source = "creditResponse.consumptionAmount")
     @Mapping(target = "dueDate", expression = "java(java.time.Instant.now())")
+    @Mapping(target = "openedAt", expression = "java(java.time.Instant.now())")
+    @Mapping(target = "paidAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Debt toDebtRequest(CreditResponse creditResponse, String status);
 
     Debt convertDebtResponseToDebt(Mono<DebtResponse> debtResponse);
@@ -38,5 +43,13 @@ public interface DebtMapper {
         return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
     }
 
+    default BigDecimal map(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    default Money map(BigDecimal amount) {
+        return Money.of(amount);
+    }
+
 
 }
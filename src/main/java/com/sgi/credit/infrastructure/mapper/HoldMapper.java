@@ -0,0 +1,31 @@
+package com.sgi.credit.infrastructure.mapper;
+
+import com.sgi.credit.domain.model.Hold;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.infrastructure.dto.HoldResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Mapper for converting authorization holds to their API representation.
+ */
+@Mapper
+public interface HoldMapper {
+
+    HoldMapper INSTANCE = Mappers.getMapper(HoldMapper.class);
+
+    HoldResponse toHoldResponse(Hold hold);
+
+    default OffsetDateTime map(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    default BigDecimal map(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+}
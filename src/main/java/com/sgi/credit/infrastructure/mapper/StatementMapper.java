@@ -0,0 +1,27 @@
+package com.sgi.credit.infrastructure.mapper;
+
+import com.sgi.credit.domain.model.StatementJob;
+import com.sgi.credit.infrastructure.dto.StatementJobResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Mapper for converting statement jobs to their API representation.
+ */
+@Mapper
+public interface StatementMapper {
+
+    StatementMapper INSTANCE = Mappers.getMapper(StatementMapper.class);
+
+    @Mapping(target = "creditsPerSecond", expression = "java(job.creditsPerSecond())")
+    StatementJobResponse toStatementJobResponse(StatementJob job);
+
+    default OffsetDateTime map(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+}
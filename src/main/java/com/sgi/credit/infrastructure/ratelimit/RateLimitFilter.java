@@ -0,0 +1,229 @@
+package com.sgi.credit.infrastructure.ratelimit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgi.credit.domain.shared.CustomError;
+import com.sgi.credit.infrastructure.dto.ErrorResponse;
+import com.sgi.credit.infrastructure.exception.ApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Token bucket rate limiting of the mutation endpoints, per client address, per client and per credit.
+ * The address is the remote one, or the last address of {@code rate-limit.address-header} when a
+ * trusted proxy sets it; the client is read from {@code rate-limit.client-header} and the credit from the
+ * {@code {creditId}} path variable. The client header is chosen by the caller, so it only adds a quota:
+ * every limited request, including those without a credit, takes a token of its address. A request
+ * takes one token from each bucket that applies; when one is empty it is answered with
+ * {@code 429 Too Many Requests} before reaching the controller. Responses of limited endpoints carry the
+ * {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset} headers of the most
+ * restrictive quota, and rejections carry {@code Retry-After}. Rejections are counted in
+ * {@code credit.ratelimit.rejected} per endpoint and dimension. Disabled with {@code rate-limit.enabled=false}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter implements WebFilter {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final String CREDIT_VARIABLE = "creditId";
+    private static final String ANONYMOUS = "anonymous";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final List<String> FORWARDING_HEADERS = List.of("Forwarded", "X-Forwarded-For", "X-Real-IP");
+
+    private final List<EndpointLimit> limits;
+    private final String clientHeader;
+    private final String addressHeader;
+    private final ObjectMapper objectMapper;
+    private final AtomicBoolean proxyWarned = new AtomicBoolean();
+
+    /**
+     * Creates the filter.
+     *
+     * @param properties    Quotas per endpoint.
+     * @param meterRegistry Registry receiving the rejection counters and bucket gauges.
+     * @param objectMapper  Mapper writing the error body of rejections.
+     */
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.clientHeader = properties.getClientHeader();
+        this.addressHeader = properties.getAddressHeader();
+        this.objectMapper = objectMapper;
+        this.limits = new ArrayList<>();
+        PathPatternParser parser = new PathPatternParser();
+        for (Map.Entry<String, RateLimitProperties.Endpoint> entry : properties.getEndpoints().entrySet()) {
+            RateLimitProperties.Endpoint endpoint = entry.getValue();
+            limits.add(new EndpointLimit(HttpMethod.valueOf(endpoint.getMethod()), parser.parse(endpoint.getPath()),
+                    dimension(entry.getKey(), "client", endpoint.getClient(), properties, meterRegistry),
+                    dimension(entry.getKey(), "client-id", endpoint.getClientId(), properties, meterRegistry),
+                    dimension(entry.getKey(), "credit", endpoint.getCredit(), properties, meterRegistry)));
+        }
+    }
+
+    private static Dimension dimension(String endpoint, String name, RateLimitProperties.Quota quota,
+                                       RateLimitProperties properties, MeterRegistry meterRegistry) {
+        if (quota == null) {
+            return null;
+        }
+        TokenBuckets buckets = new TokenBuckets(quota.getCapacity(), quota.getRefillPerSecond(),
+                properties.getStripes(), properties.getIdleTimeout());
+        Gauge.builder("credit.ratelimit.buckets", buckets, TokenBuckets::size)
+                .tag("endpoint", endpoint)
+                .tag("dimension", name)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("credit.ratelimit.rejected")
+                .tag("endpoint", endpoint)
+                .tag("dimension", name)
+                .register(meterRegistry);
+        return new Dimension(buckets, rejected);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (EndpointLimit limit : limits) {
+            if (limit.method().equals(request.getMethod())) {
+                PathPattern.PathMatchInfo match = limit.pattern().matchAndExtract(path);
+                if (match != null) {
+                    return limit(exchange, chain, limit, match.getUriVariables().get(CREDIT_VARIABLE));
+                }
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> limit(ServerWebExchange exchange, WebFilterChain chain, EndpointLimit limit, String creditId) {
+        long now = System.nanoTime();
+        Outcome outcome = new Outcome();
+        ServerHttpRequest request = exchange.getRequest();
+        if (limit.client() != null) {
+            outcome.take(limit.client(), clientAddress(request), now);
+        }
+        String clientId = request.getHeaders().getFirst(clientHeader);
+        if (limit.clientId() != null && clientId != null && !clientId.isEmpty() && outcome.waitNanos < 0) {
+            outcome.take(limit.clientId(), clientId, now);
+        }
+        if (limit.credit() != null && creditId != null && outcome.waitNanos < 0) {
+            outcome.take(limit.credit(), creditId, now);
+        }
+        if (outcome.dimension == null) {
+            return chain.filter(exchange);
+        }
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set(LIMIT_HEADER, Long.toString(outcome.dimension.buckets().capacity()));
+        headers.set(REMAINING_HEADER, Long.toString(outcome.remaining));
+        headers.set(RESET_HEADER, Long.toString(seconds(outcome.resetNanos)));
+        if (outcome.waitNanos < 0) {
+            return chain.filter(exchange);
+        }
+        outcome.dimension.rejected().increment();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1L, seconds(outcome.waitNanos))));
+        return reject(exchange.getResponse());
+    }
+
+    private String clientAddress(ServerHttpRequest request) {
+        if (addressHeader == null) {
+            warnIfProxied(request);
+        } else {
+            String addresses = request.getHeaders().getFirst(addressHeader);
+            if (addresses != null && !addresses.isBlank()) {
+                return addresses.substring(addresses.lastIndexOf(',') + 1).trim();
+            }
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : ANONYMOUS;
+    }
+
+    private void warnIfProxied(ServerHttpRequest request) {
+        if (!proxyWarned.get() && FORWARDING_HEADERS.stream().anyMatch(request.getHeaders()::containsKey)
+                && proxyWarned.compareAndSet(false, true)) {
+            log.warn("Requests arrive through a proxy but rate-limit.address-header is not set: the client quotas "
+                    + "are keyed on the proxy address, shared by every caller behind it");
+        }
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response) {
+        ApiError error = CustomError.E_TOO_MANY_REQUESTS.getError();
+        response.setStatusCode(error.getStatus());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new ErrorResponse(error.getStatus().value(), error.getCode(),
+                    error.getMessage(), OffsetDateTime.now(ZoneOffset.UTC)));
+        } catch (JsonProcessingException ex) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static long seconds(long nanos) {
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+
+    private record EndpointLimit(HttpMethod method, PathPattern pattern, Dimension client, Dimension clientId,
+                                 Dimension credit) {
+    }
+
+    private record Dimension(TokenBuckets buckets, Counter rejected) {
+    }
+
+    /**
+     * Most restrictive result of the buckets taken by one request.
+     */
+    private static final class Outcome {
+
+        private Dimension dimension;
+        private long remaining = Long.MAX_VALUE;
+        private long resetNanos;
+        private long waitNanos = -1L;
+
+        void take(Dimension candidate, String key, long now) {
+            long result = candidate.buckets().tryAcquire(key, now);
+            if (result < 0) {
+                dimension = candidate;
+                remaining = 0;
+                waitNanos = -1L - result;
+                resetNanos = candidate.buckets().nanosUntilFull(key, now);
+            } else if (result < remaining) {
+                dimension = candidate;
+                remaining = result;
+                resetNanos = candidate.buckets().nanosUntilFull(key, now);
+            }
+        }
+    }
+}
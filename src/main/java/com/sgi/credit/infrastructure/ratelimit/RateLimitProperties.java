@@ -0,0 +1,104 @@
+package com.sgi.credit.infrastructure.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of the {@link RateLimitFilter}, bound from {@code rate-limit.*}.
+ * Each endpoint has a quota per client address, a quota per {@code clientHeader} value and, when its
+ * path has a {@code {creditId}} variable, a quota per credit; a missing quota is not enforced.
+ * Endpoints are keyed by name, so a single quota can be overridden with, for instance,
+ * {@code rate-limit.endpoints.charge.credit.capacity=5}.
+ */
+@Data
+@ConfigurationProperties("rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Header identifying the calling client, keying the {@code clientId} quotas. The caller chooses its
+     * value, so it only narrows the quota of the client address and never replaces it.
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Header carrying the client address, set by a trusted proxy in front of the service, such as
+     * {@code X-Forwarded-For}; its last address, the one the proxy appended, is used. The remote address
+     * is used when unset or when the request lacks it, so behind a proxy every caller would share one
+     * bucket: requests carrying forwarding headers while this is unset are logged as a warning.
+     */
+    private String addressHeader;
+
+    /**
+     * Stripes of each bucket table.
+     */
+    private int stripes = 64;
+
+    /**
+     * Time a full bucket is kept before it is evicted.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>(Map.ofEntries(
+            Map.entry("create", new Endpoint(HttpMethod.POST.name(), "/v1/credits",
+                    new Quota(20, 10), new Quota(5, 2), null)),
+            Map.entry("update", new Endpoint(HttpMethod.PUT.name(), "/v1/credits/{creditId}",
+                    new Quota(20, 10), new Quota(10, 5), new Quota(5, 2))),
+            Map.entry("delete", new Endpoint(HttpMethod.DELETE.name(), "/v1/credits/{creditId}",
+                    new Quota(20, 10), new Quota(10, 5), new Quota(5, 2))),
+            Map.entry("payment", new Endpoint(HttpMethod.POST.name(), "/v1/credits/{creditId}/payment",
+                    new Quota(100, 50), new Quota(40, 20), new Quota(20, 10))),
+            Map.entry("charge", new Endpoint(HttpMethod.POST.name(), "/v1/credits/{creditId}/charge",
+                    new Quota(100, 50), new Quota(40, 20), new Quota(20, 10))),
+            Map.entry("authorize", new Endpoint(HttpMethod.POST.name(), "/v1/credits/{creditId}/authorizations",
+                    new Quota(100, 50), new Quota(40, 20), new Quota(20, 10))),
+            Map.entry("void", new Endpoint(HttpMethod.DELETE.name(), "/v1/credits/{creditId}/authorizations/{holdId}",
+                    new Quota(100, 50), new Quota(40, 20), new Quota(20, 10))),
+            Map.entry("capture", new Endpoint(HttpMethod.POST.name(),
+                    "/v1/credits/{creditId}/authorizations/{holdId}/capture",
+                    new Quota(100, 50), new Quota(40, 20), new Quota(20, 10))),
+            Map.entry("statement-job", new Endpoint(HttpMethod.POST.name(), "/v1/statements/jobs",
+                    new Quota(2, 0.1), new Quota(1, 0.05), null)),
+            Map.entry("statement-job-resume", new Endpoint(HttpMethod.POST.name(), "/v1/statements/jobs/{jobId}/resume",
+                    new Quota(2, 0.1), new Quota(1, 0.05), null))));
+
+    /**
+     * Limited endpoint.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Endpoint {
+
+        private String method;
+        private String path;
+        private Quota client;
+        private Quota clientId;
+        private Quota credit;
+    }
+
+    /**
+     * Token bucket quota.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Quota {
+
+        /**
+         * Burst size.
+         */
+        private long capacity;
+
+        /**
+         * Sustained requests per second.
+         */
+        private double refillPerSecond;
+    }
+}
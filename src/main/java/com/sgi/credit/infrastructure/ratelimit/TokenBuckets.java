@@ -0,0 +1,122 @@
+package com.sgi.credit.infrastructure.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets of one quota, kept in memory per key and spread over independent stripes.
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the generic cell rate algorithm): taking a token is one compare-and-set, with no lock and no
+ * refill timer. A bucket that stayed full for {@code idleTimeout} carries no state and is evicted
+ * by an occasional sweep of its stripe, run by the request that finds the sweep overdue.
+ */
+public final class TokenBuckets {
+
+    private final long capacity;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long idleNanos;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates the buckets.
+     *
+     * @param capacity         Tokens a bucket holds, that is the burst size.
+     * @param refillPerSecond  Tokens added to a bucket per second.
+     * @param stripes          Number of stripes, rounded up to a power of two.
+     * @param idleTimeout      Time a full bucket is kept before it can be evicted.
+     */
+    public TokenBuckets(long capacity, double refillPerSecond, int stripes, Duration idleTimeout) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Quota needs a positive capacity and refill rate");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1L, Math.round(TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.toleranceNanos = Math.multiplyExact(capacity, intervalNanos);
+        this.idleNanos = idleTimeout.toNanos();
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Takes one token from the bucket of the key.
+     *
+     * @param key       Key of the bucket.
+     * @param nowNanos  Current {@link System#nanoTime()}.
+     * @return Tokens left after this one when it was granted, or {@code -1 - waitNanos} when the bucket
+     *         is empty, {@code waitNanos} being the time until the next token.
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        Stripe stripe = stripes[spread(key.hashCode()) & stripeMask];
+        stripe.sweepIfDue(nowNanos);
+        AtomicLong fullAt = stripe.buckets.get(key);
+        if (fullAt == null) {
+            fullAt = stripe.buckets.computeIfAbsent(key, ignored -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - toleranceNanos;
+            if (excess > 0) {
+                return -1L - excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return (toleranceNanos - (next - nowNanos)) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Returns the time until the bucket of the key is full again.
+     *
+     * @param key      Key of the bucket.
+     * @param nowNanos Current {@link System#nanoTime()}.
+     * @return The time in nanoseconds, zero when the bucket is full or unknown.
+     */
+    public long nanosUntilFull(String key, long nowNanos) {
+        AtomicLong fullAt = stripes[spread(key.hashCode()) & stripeMask].buckets.get(key);
+        return fullAt == null ? 0L : Math.max(0L, fullAt.get() - nowNanos);
+    }
+
+    /**
+     * Returns the number of buckets currently held.
+     *
+     * @return The number of buckets.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+
+        private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + idleNanos);
+
+        void sweepIfDue(long nowNanos) {
+            long due = nextSweep.get();
+            if (nowNanos - due >= 0 && nextSweep.compareAndSet(due, nowNanos + idleNanos)) {
+                buckets.values().removeIf(fullAt -> nowNanos - fullAt.get() >= idleNanos);
+            }
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.sgi.credit.infrastructure.repository;
 
 import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.infrastructure.repository.projection.CreditBalanceView;
+import com.sgi.credit.infrastructure.repository.projection.CreditCardView;
+import com.sgi.credit.infrastructure.repository.projection.CreditJournalView;
+import com.sgi.credit.infrastructure.repository.projection.CreditRevisionView;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
 
 /**
  * Reactive Repository for the Credit entity.
@@ -10,8 +18,18 @@ import reactor.core.publisher.Flux;
  */
 public interface CreditRepositoryJpa extends ReactiveMongoRepository<Credit, String> {
 
-    Flux<Credit> findAllByClientId(String clientId);
+    Flux<CreditCardView> findCardsByClientId(String clientId);
+
+    Mono<CreditBalanceView> findBalanceById(String id);
+
+    Mono<CreditRevisionView> findRevisionById(String id);
+
+    Mono<Boolean> existsByClientIdAndActiveCycleDueDateBefore(String clientId, Instant cutoff);
+
+    Flux<Credit> findByIdGreaterThan(String id, Sort sort);
 
     Flux<Credit> findAllByIdOrTypeOrClientId(String id, String type, String clientId);
 
+    Mono<CreditJournalView> findFirstByJournalSeqNotNullOrderByJournalSeqDesc();
+
 }
@@ -13,6 +13,8 @@ public interface DebtRepositoryJpa extends ReactiveMongoRepository<Debt, String>
 
     Mono<Debt> findByCreditId(String creditId);
 
+    Flux<Debt> findAllByCreditId(String creditId);
+
     Flux<Debt> findAllByClientId(String clientId);
 
     Mono<Debt> findByClientIdAndStatus(String clientId, String status);
@@ -0,0 +1,124 @@
+package com.sgi.credit.infrastructure.repository.codec;
+
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.infrastructure.repository.convert.MoneyDecimal128;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Reads and writes single fields the way Spring Data maps them.
+ * Writers skip null values, as the mapping converter does; readers accept the BSON types that
+ * older documents or manual updates may have left, and return null for BSON nulls.
+ */
+final class BsonFields {
+
+    static final String ID = "_id";
+    static final String TYPE_KEY = "_class";
+    static final String VERSION = "version";
+
+    private BsonFields() {
+    }
+
+    static void writeId(BsonWriter writer, String name, String id) {
+        if (id == null) {
+            return;
+        }
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(name, new ObjectId(id));
+        } else {
+            writer.writeString(name, id);
+        }
+    }
+
+    static String readId(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID -> reader.readObjectId().toHexString();
+            case NULL -> readNull(reader);
+            default -> reader.readString();
+        };
+    }
+
+    static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    static String readString(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.NULL ? readNull(reader) : reader.readString();
+    }
+
+    static void writeMoney(BsonWriter writer, String name, Money value) {
+        if (value != null) {
+            writer.writeDecimal128(name, MoneyDecimal128.toDecimal128(value));
+        }
+    }
+
+    static Money readMoney(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case DECIMAL128 -> MoneyDecimal128.toMoney(reader.readDecimal128());
+            case NULL -> readNull(reader);
+            default -> Money.of(readBigDecimal(reader));
+        };
+    }
+
+    static void writeDecimal(BsonWriter writer, String name, BigDecimal value) {
+        if (value != null) {
+            writer.writeDecimal128(name, new Decimal128(value));
+        }
+    }
+
+    static BigDecimal readDecimal(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.NULL ? readNull(reader) : readBigDecimal(reader);
+    }
+
+    static void writeInstant(BsonWriter writer, String name, Instant value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.toEpochMilli());
+        }
+    }
+
+    static Instant readInstant(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.NULL
+                ? readNull(reader)
+                : Instant.ofEpochMilli(reader.readDateTime());
+    }
+
+    static void writeLong(BsonWriter writer, String name, Long value) {
+        if (value != null) {
+            writer.writeInt64(name, value);
+        }
+    }
+
+    static Long readLong(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT64 -> reader.readInt64();
+            case INT32 -> (long) reader.readInt32();
+            case DOUBLE -> (long) reader.readDouble();
+            case NULL -> readNull(reader);
+            default -> throw new IllegalStateException("Unexpected BSON type " + reader.getCurrentBsonType());
+        };
+    }
+
+    private static BigDecimal readBigDecimal(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case DECIMAL128 -> reader.readDecimal128().bigDecimalValue();
+            case DOUBLE -> BigDecimal.valueOf(reader.readDouble());
+            case INT64 -> BigDecimal.valueOf(reader.readInt64());
+            case INT32 -> BigDecimal.valueOf(reader.readInt32());
+            case STRING -> new BigDecimal(reader.readString());
+            default -> throw new IllegalStateException("Unexpected BSON type " + reader.getCurrentBsonType());
+        };
+    }
+
+    private static <T> T readNull(BsonReader reader) {
+        reader.readNull();
+        return null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.sgi.credit.infrastructure.repository.codec;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.DebtCycle;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Hand-written codec for {@link Credit} documents, including the embedded debt cycle.
+ * Produces the same fields and BSON types as the Spring Data mapping, so documents written by either
+ * path can be read by the other. Unknown fields are skipped.
+ */
+public class CreditCodec implements Codec<Credit> {
+
+    private static final String CREDIT_NUMBER = "creditNumber";
+    private static final String CONSUMPTION_AMOUNT = "consumptionAmount";
+    private static final String BALANCE = "balance";
+    private static final String INTEREST_RATE = "interestRate";
+    private static final String CREDIT_LIMIT = "creditLimit";
+    private static final String TYPE = "type";
+    private static final String CLIENT_ID = "clientId";
+    private static final String ACTIVE_CYCLE = "activeCycle";
+    private static final String LEDGER_SEQ = "ledgerSeq";
+    private static final String JOURNAL_SEQ = "journalSeq";
+    private static final String CREATED_DATE = "createdDate";
+    private static final String UPDATED_DATE = "updatedDate";
+    private static final String CYCLE_AMOUNT = "amount";
+    private static final String CYCLE_DUE_DATE = "dueDate";
+    private static final String CYCLE_OPENED_AT = "openedAt";
+
+    @Override
+    public void encode(BsonWriter writer, Credit credit, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonFields.writeId(writer, BsonFields.ID, credit.getId());
+        BsonFields.writeString(writer, CREDIT_NUMBER, credit.getCreditNumber());
+        BsonFields.writeMoney(writer, CONSUMPTION_AMOUNT, credit.getConsumptionAmount());
+        BsonFields.writeMoney(writer, BALANCE, credit.getBalance());
+        BsonFields.writeDecimal(writer, INTEREST_RATE, credit.getInterestRate());
+        BsonFields.writeMoney(writer, CREDIT_LIMIT, credit.getCreditLimit());
+        BsonFields.writeString(writer, TYPE, credit.getType());
+        BsonFields.writeString(writer, CLIENT_ID, credit.getClientId());
+        if (credit.getActiveCycle() != null) {
+            writer.writeName(ACTIVE_CYCLE);
+            encodeCycle(writer, credit.getActiveCycle());
+        }
+        BsonFields.writeLong(writer, LEDGER_SEQ, credit.getLedgerSeq());
+        BsonFields.writeLong(writer, JOURNAL_SEQ, credit.getJournalSeq());
+        BsonFields.writeInstant(writer, CREATED_DATE, credit.getCreatedDate());
+        BsonFields.writeInstant(writer, UPDATED_DATE, credit.getUpdatedDate());
+        BsonFields.writeLong(writer, BsonFields.VERSION, credit.getVersion());
+        writer.writeString(BsonFields.TYPE_KEY, Credit.class.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Credit decode(BsonReader reader, DecoderContext decoderContext) {
+        Credit credit = new Credit();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case BsonFields.ID -> credit.setId(BsonFields.readId(reader));
+                case CREDIT_NUMBER -> credit.setCreditNumber(BsonFields.readString(reader));
+                case CONSUMPTION_AMOUNT -> credit.setConsumptionAmount(BsonFields.readMoney(reader));
+                case BALANCE -> credit.setBalance(BsonFields.readMoney(reader));
+                case INTEREST_RATE -> credit.setInterestRate(BsonFields.readDecimal(reader));
+                case CREDIT_LIMIT -> credit.setCreditLimit(BsonFields.readMoney(reader));
+                case TYPE -> credit.setType(BsonFields.readString(reader));
+                case CLIENT_ID -> credit.setClientId(BsonFields.readString(reader));
+                case ACTIVE_CYCLE -> credit.setActiveCycle(decodeCycle(reader));
+                case LEDGER_SEQ -> credit.setLedgerSeq(BsonFields.readLong(reader));
+                case JOURNAL_SEQ -> credit.setJournalSeq(BsonFields.readLong(reader));
+                case CREATED_DATE -> credit.setCreatedDate(BsonFields.readInstant(reader));
+                case UPDATED_DATE -> credit.setUpdatedDate(BsonFields.readInstant(reader));
+                case BsonFields.VERSION -> credit.setVersion(BsonFields.readLong(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return credit;
+    }
+
+    @Override
+    public Class<Credit> getEncoderClass() {
+        return Credit.class;
+    }
+
+    private static void encodeCycle(BsonWriter writer, DebtCycle cycle) {
+        writer.writeStartDocument();
+        BsonFields.writeId(writer, BsonFields.ID, cycle.getId());
+        BsonFields.writeMoney(writer, CYCLE_AMOUNT, cycle.getAmount());
+        BsonFields.writeInstant(writer, CYCLE_DUE_DATE, cycle.getDueDate());
+        BsonFields.writeInstant(writer, CYCLE_OPENED_AT, cycle.getOpenedAt());
+        writer.writeEndDocument();
+    }
+
+    private static DebtCycle decodeCycle(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        DebtCycle cycle = new DebtCycle();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case BsonFields.ID -> cycle.setId(BsonFields.readId(reader));
+                case CYCLE_AMOUNT -> cycle.setAmount(BsonFields.readMoney(reader));
+                case CYCLE_DUE_DATE -> cycle.setDueDate(BsonFields.readInstant(reader));
+                case CYCLE_OPENED_AT -> cycle.setOpenedAt(BsonFields.readInstant(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return cycle;
+    }
+}
@@ -0,0 +1,67 @@
+package com.sgi.credit.infrastructure.repository.codec;
+
+import com.sgi.credit.domain.model.Debt;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Hand-written codec for {@link Debt} documents.
+ * Produces the same fields and BSON types as the Spring Data mapping. Unknown fields are skipped.
+ */
+public class DebtCodec implements Codec<Debt> {
+
+    private static final String CREDIT_ID = "creditId";
+    private static final String AMOUNT = "amount";
+    private static final String STATUS = "status";
+    private static final String CLIENT_ID = "clientId";
+    private static final String DUE_DATE = "dueDate";
+    private static final String OPENED_AT = "openedAt";
+    private static final String PAID_AT = "paidAt";
+
+    @Override
+    public void encode(BsonWriter writer, Debt debt, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        BsonFields.writeId(writer, BsonFields.ID, debt.getId());
+        BsonFields.writeString(writer, CREDIT_ID, debt.getCreditId());
+        BsonFields.writeMoney(writer, AMOUNT, debt.getAmount());
+        BsonFields.writeString(writer, STATUS, debt.getStatus());
+        BsonFields.writeString(writer, CLIENT_ID, debt.getClientId());
+        BsonFields.writeInstant(writer, DUE_DATE, debt.getDueDate());
+        BsonFields.writeInstant(writer, OPENED_AT, debt.getOpenedAt());
+        BsonFields.writeInstant(writer, PAID_AT, debt.getPaidAt());
+        BsonFields.writeLong(writer, BsonFields.VERSION, debt.getVersion());
+        writer.writeString(BsonFields.TYPE_KEY, Debt.class.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Debt decode(BsonReader reader, DecoderContext decoderContext) {
+        Debt debt = new Debt();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case BsonFields.ID -> debt.setId(BsonFields.readId(reader));
+                case CREDIT_ID -> debt.setCreditId(BsonFields.readString(reader));
+                case AMOUNT -> debt.setAmount(BsonFields.readMoney(reader));
+                case STATUS -> debt.setStatus(BsonFields.readString(reader));
+                case CLIENT_ID -> debt.setClientId(BsonFields.readString(reader));
+                case DUE_DATE -> debt.setDueDate(BsonFields.readInstant(reader));
+                case OPENED_AT -> debt.setOpenedAt(BsonFields.readInstant(reader));
+                case PAID_AT -> debt.setPaidAt(BsonFields.readInstant(reader));
+                case BsonFields.VERSION -> debt.setVersion(BsonFields.readLong(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return debt;
+    }
+
+    @Override
+    public Class<Debt> getEncoderClass() {
+        return Debt.class;
+    }
+}
@@ -0,0 +1,18 @@
+package com.sgi.credit.infrastructure.repository.codec;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Codec registry with the hand-written domain codecs ahead of the driver defaults.
+ */
+public final class DomainCodecs {
+
+    public static final CodecRegistry REGISTRY = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(new CreditCodec(), new DebtCodec()),
+            MongoClientSettings.getDefaultCodecRegistry());
+
+    private DomainCodecs() {
+    }
+}
@@ -0,0 +1,185 @@
+package com.sgi.credit.infrastructure.repository.codec;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Typed driver collection read and written through the domain codecs.
+ * Saves follow the Spring Data rules for {@code @Version} fields: a document without a version is
+ * inserted with version 0, otherwise it is replaced only if the stored version still matches, and
+ * the ID and version of the given instance are updated.
+ *
+ * @param <T> Type of the document.
+ */
+public class VersionedCollection<T> {
+
+    private final Mono<MongoCollection<T>> collection;
+    private final String collectionName;
+    private final Accessor<T, String> id;
+    private final Accessor<T, Long> version;
+    private final MongoExceptionTranslator exceptionTranslator = new MongoExceptionTranslator();
+
+    /**
+     * Creates the collection.
+     *
+     * @param mongoTemplate  Template providing the database.
+     * @param collectionName Name of the collection.
+     * @param type           Type of the document, encoded by {@link DomainCodecs#REGISTRY}.
+     * @param id             Access to the ID of a document.
+     * @param version        Access to the version of a document.
+     */
+    public VersionedCollection(ReactiveMongoTemplate mongoTemplate, String collectionName, Class<T> type,
+                               Accessor<T, String> id, Accessor<T, Long> version) {
+        this.collection = mongoTemplate.getMongoDatabase()
+                .map(database -> database.getCollection(collectionName, type).withCodecRegistry(DomainCodecs.REGISTRY))
+                .cache();
+        this.collectionName = collectionName;
+        this.id = id;
+        this.version = version;
+    }
+
+    /**
+     * Converts an ID to the value stored in {@code _id}.
+     *
+     * @param id Document ID.
+     * @return The ObjectId for a valid hex string, the string otherwise.
+     */
+    public static Object key(String id) {
+        return id != null && ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    public Mono<T> findById(String documentId) {
+        return findOne(Filters.eq(BsonFields.ID, key(documentId)));
+    }
+
+    /**
+     * Finds the only document matching the filter.
+     *
+     * @param filter Query filter.
+     * @return The document, empty if none matches, or an error if more than one does.
+     */
+    public Mono<T> findOne(Bson filter) {
+        return collection.flatMapMany(target -> target.find(filter).limit(2))
+                .collectList()
+                .flatMap(this::single)
+                .onErrorMap(this::translate);
+    }
+
+    public Flux<T> find(Bson filter) {
+        return collection.flatMapMany(target -> target.find(filter))
+                .onErrorMap(this::translate);
+    }
+
+    /**
+     * Streams the documents in ID order, starting after the given ID.
+     *
+     * @param afterId Last ID already read, or null to start from the first document.
+     * @return A Flux emitting the documents.
+     */
+    public Flux<T> findAfter(String afterId) {
+        Bson filter = afterId == null ? Filters.empty() : Filters.gt(BsonFields.ID, key(afterId));
+        return collection.flatMapMany(target -> target.find(filter).sort(Sorts.ascending(BsonFields.ID)))
+                .onErrorMap(this::translate);
+    }
+
+    /**
+     * Inserts or replaces the document, checking its version.
+     *
+     * @param document Document to save.
+     * @return The saved document.
+     */
+    public Mono<T> save(T document) {
+        return Mono.defer(() -> {
+            Long expected = version.get(document);
+            if (id.get(document) == null) {
+                id.set(document, new ObjectId().toHexString());
+            }
+            version.set(document, expected != null ? expected + 1 : 0L);
+            Mono<Boolean> written = expected == null
+                    ? collection.flatMap(target -> Mono.from(target.insertOne(document))).thenReturn(true)
+                    : collection.flatMap(target -> Mono.from(target.replaceOne(versionFilter(document, expected),
+                            document))).map(result -> result.getMatchedCount() == 1);
+            return written
+                    .flatMap(matched -> matched
+                            ? Mono.just(document)
+                            : Mono.<T>error(conflict("save", document, expected)))
+                    .onErrorMap(this::translate)
+                    .doOnError(ex -> version.set(document, expected));
+        });
+    }
+
+    /**
+     * Deletes the document if its version still matches.
+     *
+     * @param document Document to delete.
+     * @return Completion, or an optimistic locking error if the stored version changed.
+     */
+    public Mono<Void> delete(T document) {
+        Long expected = version.get(document);
+        Bson filter = expected == null
+                ? Filters.eq(BsonFields.ID, key(id.get(document)))
+                : versionFilter(document, expected);
+        return collection.flatMap(target -> Mono.from(target.deleteOne(filter)))
+                .flatMap(result -> expected != null && result.getDeletedCount() == 0
+                        ? Mono.<Void>error(conflict("remove", document, expected))
+                        : Mono.<Void>empty())
+                .onErrorMap(this::translate);
+    }
+
+    private Bson versionFilter(T document, long expected) {
+        return Filters.and(Filters.eq(BsonFields.ID, key(id.get(document))), Filters.eq(BsonFields.VERSION, expected));
+    }
+
+    private Mono<T> single(List<T> matches) {
+        if (matches.size() > 1) {
+            return Mono.error(new IncorrectResultSizeDataAccessException("Query returned non unique result.", 1));
+        }
+        return Mono.justOrEmpty(matches.isEmpty() ? null : matches.get(0));
+    }
+
+    private OptimisticLockingFailureException conflict(String operation, T document, Long expected) {
+        return new OptimisticLockingFailureException(String.format(
+                "Cannot %s entity %s with version %s in collection %s; Has it been modified meanwhile",
+                operation, id.get(document), expected, collectionName));
+    }
+
+    private Throwable translate(Throwable ex) {
+        if (ex instanceof RuntimeException runtimeException) {
+            RuntimeException translated = exceptionTranslator.translateExceptionIfPossible(runtimeException);
+            return translated != null ? translated : ex;
+        }
+        return ex;
+    }
+
+    /**
+     * Getter and setter pair for one property of a document.
+     *
+     * @param get Reads the property.
+     * @param set Writes the property.
+     * @param <T> Type of the document.
+     * @param <V> Type of the property.
+     */
+    public record Accessor<T, V>(Function<T, V> get, BiConsumer<T, V> set) {
+
+        V get(T document) {
+            return get.apply(document);
+        }
+
+        void set(T document, V value) {
+            set.accept(document, value);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sgi.credit.infrastructure.repository.convert;
+
+import com.sgi.credit.domain.model.Money;
+import org.bson.types.Decimal128;
+
+/**
+ * Converts {@link Money} to and from the Decimal128 values stored in Mongo.
+ * Amounts at the currency scale are encoded straight from their minor units into the IEEE 754
+ * BID layout, so the usual round trip through {@link java.math.BigDecimal} is only taken for
+ * values stored with another scale.
+ */
+public final class MoneyDecimal128 {
+
+    private static final long SIGN_BIT = 1L << 63;
+    private static final int EXPONENT_OFFSET = 49;
+    private static final long EXPONENT_BIAS = 6176;
+    private static final long CURRENCY_EXPONENT_BITS = (EXPONENT_BIAS - Money.SCALE) << EXPONENT_OFFSET;
+
+    private MoneyDecimal128() {
+    }
+
+    /**
+     * Encodes the amount as a Decimal128 with the currency scale.
+     *
+     * @param money Amount to encode.
+     * @return The Decimal128 value.
+     */
+    public static Decimal128 toDecimal128(Money money) {
+        long minorUnits = money.minorUnits();
+        if (minorUnits == Long.MIN_VALUE) {
+            return new Decimal128(money.toBigDecimal());
+        }
+        long high = CURRENCY_EXPONENT_BITS | (minorUnits < 0 ? SIGN_BIT : 0L);
+        return Decimal128.fromIEEE754BIDEncoding(high, Math.abs(minorUnits));
+    }
+
+    /**
+     * Decodes a stored Decimal128, rounding it to the currency scale when it was stored with another one.
+     *
+     * @param value Stored value.
+     * @return The amount.
+     */
+    public static Money toMoney(Decimal128 value) {
+        long high = value.getHigh();
+        long low = value.getLow();
+        if ((high & ~SIGN_BIT) == CURRENCY_EXPONENT_BITS && low >= 0) {
+            return Money.ofMinor(high < 0 ? -low : low);
+        }
+        return Money.of(value.bigDecimalValue());
+    }
+}
@@ -0,0 +1,353 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent saves of versioned documents into unordered Mongo bulk writes.
+ * Saves issued within {@code persistence.write-batching.window}, up to
+ * {@code persistence.write-batching.max-batch} of them, share one {@code bulkWrite} per collection;
+ * each caller is then completed with its own entity or error. New documents are inserted, existing
+ * ones are replaced on a filter by id and expected version, without upserting, so a document deleted
+ * meanwhile is not written back. A bulk write only reports how many replaces matched in total: when
+ * every one did, all of them succeeded; otherwise the documents are read back and each replace whose
+ * document does not hold its new version is reported as an {@link OptimisticLockingFailureException},
+ * the same as a regular repository save. A version alone does not tell which writer produced it, since
+ * another instance, or a save bypassing the batcher, can move a document from the same version to the
+ * same next one; each replacement therefore carries a fresh {@code _writeToken}, and a replace only
+ * succeeded when its token is read back. A second save of the same document while one is in flight
+ * was computed from the same version and fails the same way.
+ * Enabled with {@code persistence.write-batching.enabled=true}; otherwise saves go straight
+ * to the repository.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "mongo", matchIfMissing = true)
+public class BulkWriteBatcher implements DisposableBean {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String ID_FIELD = "_id";
+    private static final String TOKEN_FIELD = "_writeToken";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatch;
+    private final int maxInFlight;
+    private final boolean percentileHistogram;
+    private final MongoExceptionTranslator exceptionTranslator = new MongoExceptionTranslator();
+    private final Map<Class<?>, Coalescer> coalescers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the batcher.
+     *
+     * @param mongoTemplate       Template providing the collections and the entity converter.
+     * @param meterRegistry       Registry receiving the batch metrics.
+     * @param enabled             Whether saves are coalesced at all.
+     * @param window              Time a batch stays open after its first save.
+     * @param maxBatch            Number of saves that closes a batch before the window ends.
+     * @param maxInFlight         Bulk writes running at the same time per collection.
+     * @param percentileHistogram Whether the batch size summary publishes histogram buckets.
+     */
+    public BulkWriteBatcher(ReactiveMongoTemplate mongoTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${persistence.write-batching.enabled:false}") boolean enabled,
+                            @Value("${persistence.write-batching.window:2ms}") Duration window,
+                            @Value("${persistence.write-batching.max-batch:128}") int maxBatch,
+                            @Value("${persistence.write-batching.max-in-flight:4}") int maxInFlight,
+                            @Value("${persistence.write-batching.percentile-histogram:true}") boolean percentileHistogram) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatch = maxBatch;
+        this.maxInFlight = maxInFlight;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    /**
+     * Saves the entity through the next bulk write of its collection.
+     * Like a repository save, the ID and version of the given instance are updated once it is written.
+     *
+     * @param entity Versioned document to save.
+     * @param direct Save used when batching is disabled.
+     * @param <T>    Type of the document.
+     * @return The saved entity.
+     */
+    public <T> Mono<T> save(T entity, Function<T, Mono<T>> direct) {
+        if (!enabled) {
+            return direct.apply(entity);
+        }
+        return Mono.defer(() -> {
+            PendingWrite write = new PendingWrite(entity, Sinks.empty());
+            coalescers.computeIfAbsent(entity.getClass(), Coalescer::new).submit(write);
+            return write.done().asMono().thenReturn(entity);
+        });
+    }
+
+    /**
+     * Creates a batcher with the same settings writing through another template, as each shard does.
+     *
+     * @param template Template of the other database.
+     * @return The new batcher.
+     */
+    public BulkWriteBatcher withTemplate(ReactiveMongoTemplate template) {
+        return new BulkWriteBatcher(template, meterRegistry, enabled, window, maxBatch, maxInFlight, percentileHistogram);
+    }
+
+    @Override
+    public void destroy() {
+        coalescers.values().forEach(Coalescer::close);
+    }
+
+    private record PendingWrite(Object entity, Sinks.Empty<Void> done) {
+    }
+
+    private record PreparedWrite(PendingWrite write, String id, Long expectedVersion, long nextVersion,
+                                 ObjectId token) {
+
+        boolean replaces() {
+            return expectedVersion != null;
+        }
+    }
+
+    private static Object toKey(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static boolean isWrittenBy(Document document, PreparedWrite write, String versionField) {
+        return document != null
+                && document.get(versionField) instanceof Number version && version.longValue() == write.nextVersion()
+                && write.token().equals(document.get(TOKEN_FIELD));
+    }
+
+    /**
+     * Queue and bulk writer of a single document type.
+     */
+    private final class Coalescer {
+
+        private final MongoPersistentEntity<?> persistentEntity;
+        private final Sinks.Many<PendingWrite> queue = Sinks.many().unicast().onBackpressureBuffer();
+        private final Map<String, Sinks.Empty<Void>> replacing = new ConcurrentHashMap<>();
+        private final DistributionSummary batchSize;
+        private final Timer flushTimer;
+
+        Coalescer(Class<?> type) {
+            this.persistentEntity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+            if (!persistentEntity.hasVersionProperty()) {
+                throw new IllegalArgumentException("Batched saves require a versioned document: " + type.getName());
+            }
+            this.batchSize = DistributionSummary.builder("credit.write.batch.size")
+                    .tag("collection", persistentEntity.getCollection())
+                    .publishPercentileHistogram(percentileHistogram)
+                    .maximumExpectedValue((double) maxBatch)
+                    .register(meterRegistry);
+            this.flushTimer = Timer.builder("credit.write.batch.flush")
+                    .tag("collection", persistentEntity.getCollection())
+                    .register(meterRegistry);
+            queue.asFlux()
+                    .bufferTimeout(maxBatch, window)
+                    .flatMap(this::flush, maxInFlight)
+                    .subscribe();
+        }
+
+        void submit(PendingWrite write) {
+            queue.emitNext(write, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        }
+
+        void close() {
+            queue.tryEmitComplete();
+        }
+
+        private Mono<Void> flush(List<PendingWrite> batch) {
+            batchSize.record(batch.size());
+            List<PreparedWrite> prepared = new ArrayList<>(batch.size());
+            List<WriteModel<Document>> models = new ArrayList<>(batch.size());
+            for (PendingWrite write : batch) {
+                try {
+                    models.add(prepare(write, prepared));
+                } catch (RuntimeException ex) {
+                    write.done().tryEmitError(ex);
+                }
+            }
+            if (models.isEmpty()) {
+                return Mono.empty();
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return mongoTemplate.getCollection(persistentEntity.getCollection())
+                    .flatMap(collection -> Mono.from(collection.bulkWrite(models, new BulkWriteOptions().ordered(false))))
+                    .flatMap(result -> resolve(prepared, result.getMatchedCount()))
+                    .onErrorResume(MongoBulkWriteException.class, ex -> completePartially(prepared, ex))
+                    .onErrorResume(ex -> {
+                        Throwable error = translate(ex);
+                        log.warn("Bulk write of {} documents to {} failed", prepared.size(),
+                                persistentEntity.getCollection(), ex);
+                        prepared.forEach(write -> fail(write, error));
+                        return Mono.empty();
+                    })
+                    .doFinally(signal -> sample.stop(flushTimer))
+                    .then();
+        }
+
+        private WriteModel<Document> prepare(PendingWrite write, List<PreparedWrite> prepared) {
+            PersistentPropertyAccessor<Object> accessor = persistentEntity.getPropertyAccessor(write.entity());
+            MongoPersistentProperty versionProperty = persistentEntity.getRequiredVersionProperty();
+            Object currentId = accessor.getProperty(persistentEntity.getRequiredIdProperty());
+            String id = currentId != null ? currentId.toString() : new ObjectId().toHexString();
+            Number version = (Number) accessor.getProperty(versionProperty);
+            Long expectedVersion = version != null ? version.longValue() : null;
+            long nextVersion = expectedVersion != null ? expectedVersion + 1 : 0L;
+            PreparedWrite preparedWrite = new PreparedWrite(write, id, expectedVersion, nextVersion,
+                    expectedVersion != null ? new ObjectId() : null);
+            if (preparedWrite.replaces() && replacing.putIfAbsent(id, write.done()) != null) {
+                throw optimisticLockFailure(preparedWrite);
+            }
+
+            Document document = new Document();
+            Object key = toKey(id);
+            try {
+                mongoTemplate.getConverter().write(write.entity(), document);
+            } catch (RuntimeException ex) {
+                release(preparedWrite);
+                throw ex;
+            }
+            document.put(ID_FIELD, key);
+            document.put(versionProperty.getFieldName(), nextVersion);
+            prepared.add(preparedWrite);
+            if (!preparedWrite.replaces()) {
+                return new InsertOneModel<>(document);
+            }
+            document.put(TOKEN_FIELD, preparedWrite.token());
+            return new ReplaceOneModel<>(
+                    Filters.and(Filters.eq(ID_FIELD, key), Filters.eq(versionProperty.getFieldName(), expectedVersion)),
+                    document,
+                    new ReplaceOptions());
+        }
+
+        /**
+         * Completes the writes that raised no error, given how many of their replaces matched a document.
+         */
+        private Mono<Void> resolve(List<PreparedWrite> written, int matchedCount) {
+            List<PreparedWrite> replaced = written.stream().filter(PreparedWrite::replaces).toList();
+            if (matchedCount >= replaced.size()) {
+                written.forEach(this::complete);
+                return Mono.empty();
+            }
+            String versionField = persistentEntity.getRequiredVersionProperty().getFieldName();
+            Query query = Query.query(Criteria.where(ID_FIELD)
+                    .in(replaced.stream().map(write -> toKey(write.id())).toList()));
+            query.fields().include(versionField).include(TOKEN_FIELD);
+            return mongoTemplate.find(query, Document.class, persistentEntity.getCollection())
+                    .collectMap(document -> document.get(ID_FIELD).toString())
+                    .doOnNext(documents -> written.forEach(write -> {
+                        if (!write.replaces() || isWrittenBy(documents.get(write.id()), write, versionField)) {
+                            complete(write);
+                        } else {
+                            fail(write, optimisticLockFailure(write));
+                        }
+                    }))
+                    .then();
+        }
+
+        private Mono<Void> completePartially(List<PreparedWrite> prepared, MongoBulkWriteException ex) {
+            if (ex.getWriteConcernError() != null) {
+                Throwable error = translate(ex);
+                prepared.forEach(write -> fail(write, error));
+                return Mono.empty();
+            }
+            Map<Integer, BulkWriteError> errors = new HashMap<>();
+            ex.getWriteErrors().forEach(error -> errors.put(error.getIndex(), error));
+            List<PreparedWrite> written = new ArrayList<>(prepared.size());
+            for (int i = 0; i < prepared.size(); i++) {
+                PreparedWrite write = prepared.get(i);
+                BulkWriteError error = errors.get(i);
+                if (error == null) {
+                    written.add(write);
+                } else {
+                    fail(write, toException(write, error));
+                }
+            }
+            return resolve(written, ex.getWriteResult().getMatchedCount());
+        }
+
+        private void complete(PreparedWrite write) {
+            PersistentPropertyAccessor<Object> accessor = persistentEntity.getPropertyAccessor(write.write().entity());
+            accessor.setProperty(persistentEntity.getRequiredIdProperty(), write.id());
+            accessor.setProperty(persistentEntity.getRequiredVersionProperty(), write.nextVersion());
+            release(write);
+            write.write().done().tryEmitEmpty();
+        }
+
+        private void fail(PreparedWrite write, Throwable error) {
+            release(write);
+            write.write().done().tryEmitError(error);
+        }
+
+        private void release(PreparedWrite write) {
+            if (write.replaces()) {
+                replacing.remove(write.id(), write.write().done());
+            }
+        }
+
+        private RuntimeException toException(PreparedWrite write, BulkWriteError error) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                return new DataIntegrityViolationException(error.getMessage());
+            }
+            if (!write.replaces()) {
+                return new DuplicateKeyException(error.getMessage());
+            }
+            return optimisticLockFailure(write);
+        }
+
+        private OptimisticLockingFailureException optimisticLockFailure(PreparedWrite write) {
+            return new OptimisticLockingFailureException(String.format(
+                    "Cannot save entity %s with version %s to collection %s; Has it been modified meanwhile",
+                    write.id(), write.expectedVersion(), persistentEntity.getCollection()));
+        }
+
+        private Throwable translate(Throwable ex) {
+            if (ex instanceof RuntimeException runtimeException) {
+                RuntimeException translated = exceptionTranslator.translateExceptionIfPossible(runtimeException);
+                return translated != null ? translated : ex;
+            }
+            return ex;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.mongodb.client.model.Filters;
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.ReadConsistency;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.mapper.CreditMapper;
+import com.sgi.credit.infrastructure.repository.codec.VersionedCollection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Credit repository that reads and writes whole credit documents through the hand-written
+ * {@link com.sgi.credit.infrastructure.repository.codec.CreditCodec}, bypassing the reflective mapping.
+ * Queries that return projections or depend on derived-query semantics stay on {@link CreditRepositoryImpl}.
+ * Enabled with {@code persistence.mapping=codec} on Mongo, unless sharding is enabled.
+ */
+@Primary
+@Repository
+@ConditionalOnExpression("'${persistence.mode:mongo}' == 'mongo' and '${persistence.mapping:converter}' == 'codec'"
+        + " and '${persistence.sharding.enabled:false}' != 'true'")
+public class CodecCreditRepository implements CreditRepository {
+
+    private final CreditRepositoryImpl delegate;
+    private final VersionedCollection<Credit> credits;
+
+    /**
+     * Creates the repository.
+     *
+     * @param delegate      Repository used for projections and multi-document queries.
+     * @param mongoTemplate Template providing the database.
+     */
+    public CodecCreditRepository(CreditRepositoryImpl delegate, ReactiveMongoTemplate mongoTemplate) {
+        this.delegate = delegate;
+        this.credits = new VersionedCollection<>(mongoTemplate, "credit", Credit.class,
+                new VersionedCollection.Accessor<>(Credit::getId, Credit::setId),
+                new VersionedCollection.Accessor<>(Credit::getVersion, Credit::setVersion));
+    }
+
+    @Override
+    public Mono<CreditResponse> save(Credit credit) {
+        return credits.save(credit)
+                .map(CreditMapper.INSTANCE::toCreditResponse);
+    }
+
+    @Override
+    public Mono<Credit> findById(String id) {
+        return credits.findById(id);
+    }
+
+    /**
+     * Finds the credit through the codec on the primary, or through the routed repository when
+     * the caller tolerates staleness.
+     */
+    @Override
+    public Mono<Credit> findById(String id, ReadConsistency consistency) {
+        return consistency == ReadConsistency.STRONG ? findById(id) : delegate.findById(id, consistency);
+    }
+
+    @Override
+    public Flux<CreditResponse> findAll(String creditId, String type, String clientId) {
+        return delegate.findAll(creditId, type, clientId);
+    }
+
+    @Override
+    public Flux<Credit> streamAll() {
+        return credits.find(Filters.empty());
+    }
+
+    @Override
+    public Flux<Credit> streamFrom(String afterId) {
+        return credits.findAfter(afterId);
+    }
+
+    @Override
+    public Mono<Void> delete(Credit credit) {
+        return credits.delete(credit);
+    }
+
+    @Override
+    public Flux<CreditResponse> getCreditCardByClientId(String clientId) {
+        return delegate.getCreditCardByClientId(clientId);
+    }
+
+    @Override
+    public Mono<BalanceResponse> findBalanceById(String id) {
+        return delegate.findBalanceById(id);
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return delegate.findVersionById(id);
+    }
+
+    @Override
+    public Mono<Boolean> existsCycleDueBefore(String clientId, Instant cutoff) {
+        return delegate.existsCycleDueBefore(clientId, cutoff);
+    }
+
+    @Override
+    public Mono<Long> findHighestJournalSeq() {
+        return delegate.findHighestJournalSeq();
+    }
+}
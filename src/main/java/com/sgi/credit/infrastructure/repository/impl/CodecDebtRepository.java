@@ -0,0 +1,69 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.mongodb.client.model.Filters;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.infrastructure.dto.DebtResponse;
+import com.sgi.credit.infrastructure.mapper.DebtMapper;
+import com.sgi.credit.infrastructure.repository.codec.VersionedCollection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Debt repository that reads and writes debt documents through the hand-written
+ * {@link com.sgi.credit.infrastructure.repository.codec.DebtCodec}, bypassing the reflective mapping.
+ * Enabled with {@code persistence.mapping=codec} on Mongo, unless sharding is enabled.
+ */
+@Primary
+@Repository
+@ConditionalOnExpression("'${persistence.mode:mongo}' == 'mongo' and '${persistence.mapping:converter}' == 'codec'"
+        + " and '${persistence.sharding.enabled:false}' != 'true'")
+public class CodecDebtRepository implements DebtRepository {
+
+    private static final String CLIENT_ID = "clientId";
+
+    private final VersionedCollection<Debt> debts;
+
+    /**
+     * Creates the repository.
+     *
+     * @param mongoTemplate Template providing the database.
+     */
+    public CodecDebtRepository(ReactiveMongoTemplate mongoTemplate) {
+        this.debts = new VersionedCollection<>(mongoTemplate, "debt", Debt.class,
+                new VersionedCollection.Accessor<>(Debt::getId, Debt::setId),
+                new VersionedCollection.Accessor<>(Debt::getVersion, Debt::setVersion));
+    }
+
+    @Override
+    public Mono<DebtResponse> save(Debt debt) {
+        return debts.save(debt)
+                .map(DebtMapper.INSTANCE::toDebtResponse);
+    }
+
+    @Override
+    public Flux<DebtResponse> findAllByClientId(String clientId) {
+        return debts.find(Filters.eq(CLIENT_ID, clientId))
+                .map(DebtMapper.INSTANCE::toDebtResponse);
+    }
+
+    @Override
+    public Mono<DebtResponse> findByCreditId(String creditId) {
+        return debts.findOne(Filters.eq("creditId", creditId))
+                .map(DebtMapper.INSTANCE::toDebtResponse);
+    }
+
+    @Override
+    public Flux<Debt> findAllByCreditId(String creditId) {
+        return debts.find(Filters.eq("creditId", creditId));
+    }
+
+    @Override
+    public Mono<Debt> findByClientIdAndStatus(String clientId, String status) {
+        return debts.findOne(Filters.and(Filters.eq(CLIENT_ID, clientId), Filters.eq("status", status)));
+    }
+}
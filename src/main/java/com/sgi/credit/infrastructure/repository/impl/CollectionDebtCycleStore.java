@@ -0,0 +1,79 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtCycleStore;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import com.sgi.credit.infrastructure.dto.DebtResponse;
+import com.sgi.credit.infrastructure.mapper.DebtMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Debt cycle store that keeps the open cycle as an ACTIVE document in the debt collection.
+ * Every write touches the credit and the debt documents separately.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.debt-cycle", havingValue = "collection", matchIfMissing = true)
+public class CollectionDebtCycleStore implements DebtCycleStore {
+
+    private final CreditRepository creditRepository;
+    private final DebtRepository debtRepository;
+
+    @Override
+    public Mono<CreditResponse> open(Credit credit) {
+        return creditRepository.save(credit)
+                .flatMap(creditResponse -> debtRepository.save(DebtMapper.INSTANCE.toDebtRequest(creditResponse,
+                                DebtRequest.StatusEnum.ACTIVE.name()))
+                        .thenReturn(creditResponse));
+    }
+
+    @Override
+    public Mono<CreditResponse> record(Credit credit, boolean closeWhenSettled) {
+        return debtRepository.findByClientIdAndStatus(credit.getClientId(), DebtRequest.StatusEnum.ACTIVE.name())
+                .flatMap(debt -> {
+                    debt.setAmount(credit.getConsumptionAmount());
+                    if (closeWhenSettled && debt.getAmount().signum() <= 0) {
+                        debt.setStatus(DebtRequest.StatusEnum.PAID.name());
+                        debt.setPaidAt(Instant.now());
+                        return debtRepository.save(debt)
+                                .flatMap(this::createNewDebtForNextMonth);
+                    }
+                    return debtRepository.save(debt);
+                })
+                .then(Mono.defer(() -> creditRepository.save(credit)));
+    }
+
+    @Override
+    public Mono<Boolean> hasCycleDueBefore(String clientId, Instant cutoff) {
+        return debtRepository.findByClientIdAndStatus(clientId, DebtRequest.StatusEnum.ACTIVE.name())
+                .map(debt -> debt.getDueDate().isBefore(cutoff))
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Flux<Debt> findCycles(Credit credit) {
+        return debtRepository.findAllByCreditId(credit.getId());
+    }
+
+    private Mono<DebtResponse> createNewDebtForNextMonth(DebtResponse currentDebt) {
+        Debt newDebt = new Debt();
+        newDebt.setCreditId(currentDebt.getCreditId());
+        newDebt.setClientId(currentDebt.getClientId());
+        newDebt.setAmount(Money.ZERO);
+        newDebt.setStatus(DebtRequest.StatusEnum.ACTIVE.name());
+        newDebt.setDueDate(currentDebt.getDueDate().plusNanos(1).toInstant());
+        newDebt.setOpenedAt(Instant.now());
+        return debtRepository.save(newDebt);
+    }
+}
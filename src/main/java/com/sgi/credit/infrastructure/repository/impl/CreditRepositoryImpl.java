@@ -1,59 +1,148 @@
 package com.sgi.credit.infrastructure.repository.impl;
 
 import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.ReadConsistency;
 import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
 import com.sgi.credit.infrastructure.mapper.CreditMapper;
 import com.sgi.credit.infrastructure.repository.CreditRepositoryJpa;
-import lombok.RequiredArgsConstructor;
+import com.sgi.credit.infrastructure.repository.projection.CreditJournalView;
+import com.sgi.credit.infrastructure.repository.projection.CreditRevisionView;
+import com.sgi.credit.infrastructure.tracing.StageObservations;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.Objects;
 import java.util.stream.Stream;
 
 /**
  * Implementation of the credit repository.
  * Provides methods to save, find, delete, and list credits reactively.
- * Uses CreditRepositoryJpa to interact with the database.
+ * Uses CreditRepositoryJpa to interact with the database; saves go through the
+ * {@link BulkWriteBatcher} so they can share bulk writes. Listings and streams tolerate bounded staleness
+ * and may be read from a secondary through {@link ReadRouting}; lookups by ID read from the primary unless
+ * the caller asks otherwise. Every call is observed as a repository stage.
  */
 @Slf4j
 @Repository
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "mongo", matchIfMissing = true)
 public class CreditRepositoryImpl implements CreditRepository {
 
+    private static final String STAGE_PREFIX = "creditRepository.";
+    private static final Sort BY_ID = Sort.by("id");
+
     private final CreditRepositoryJpa creditRepository;
+    private final BulkWriteBatcher writeBatcher;
+    private final ObservationRegistry observationRegistry;
+    private final ReadRouting.Routed<CreditRepositoryJpa> reads;
+
+    /**
+     * Creates the repository.
+     *
+     * @param creditRepository    Spring Data repository of the primary.
+     * @param writeBatcher        Batcher the saves go through.
+     * @param observationRegistry Registry observing the repository stages.
+     * @param readRouting         Routing of the reads between the primary and the secondaries.
+     */
+    public CreditRepositoryImpl(CreditRepositoryJpa creditRepository,
+                                BulkWriteBatcher writeBatcher,
+                                ObservationRegistry observationRegistry,
+                                ReadRouting readRouting) {
+        this.creditRepository = creditRepository;
+        this.writeBatcher = writeBatcher;
+        this.observationRegistry = observationRegistry;
+        this.reads = readRouting.route(STAGE_PREFIX, CreditRepositoryJpa.class, creditRepository);
+    }
 
     @Override
     public Mono<CreditResponse> save(Credit credit) {
-        return creditRepository.save(credit)
+        return observe("save", writeBatcher.save(credit, creditRepository::save))
                 .map(CreditMapper.INSTANCE::toCreditResponse);
     }
 
     @Override
     public Mono<Credit> findById(String id) {
-        return creditRepository.findById(id);
+        return findById(id, ReadConsistency.STRONG);
+    }
+
+    @Override
+    public Mono<Credit> findById(String id, ReadConsistency consistency) {
+        return observe("findById", reads.read("findById", consistency).findById(id));
     }
 
     @Override
     public Flux<CreditResponse> findAll(String creditId, String type, String clientId) {
         boolean allNull = Stream.of(clientId, type, creditId).allMatch(Objects::isNull);
+        CreditRepositoryJpa replica = reads.read("findAll", ReadConsistency.BOUNDED_STALENESS);
         Flux<Credit> resultFlux = allNull
-                ? creditRepository.findAll()
-                : creditRepository.findAllByIdOrTypeOrClientId(creditId, type, clientId);
-        return resultFlux.map(CreditMapper.INSTANCE::toCreditResponse);
+                ? replica.findAll()
+                : replica.findAllByIdOrTypeOrClientId(creditId, type, clientId);
+        return observe("findAll", resultFlux).map(CreditMapper.INSTANCE::toCreditResponse);
+    }
+
+    @Override
+    public Flux<Credit> streamAll() {
+        return observe("streamAll", reads.read("streamAll", ReadConsistency.BOUNDED_STALENESS).findAll());
+    }
+
+    @Override
+    public Flux<Credit> streamFrom(String afterId) {
+        CreditRepositoryJpa replica = reads.read("streamFrom", ReadConsistency.BOUNDED_STALENESS);
+        return observe("streamFrom", afterId == null
+                ? replica.findAll(BY_ID)
+                : replica.findByIdGreaterThan(afterId, BY_ID));
     }
 
     @Override
     public Mono<Void> delete(Credit credit) {
-        return creditRepository.delete(credit);
+        return observe("delete", creditRepository.delete(credit));
     }
 
     @Override
     public Flux<CreditResponse> getCreditCardByClientId(String clientId) {
-        return creditRepository.findAllByClientId(clientId)
+        return observe("getCreditCardByClientId", reads.read("getCreditCardByClientId",
+                ReadConsistency.BOUNDED_STALENESS).findCardsByClientId(clientId))
                 .map(CreditMapper.INSTANCE::toCreditResponse);
     }
+
+    @Override
+    public Mono<BalanceResponse> findBalanceById(String id) {
+        return observe("findBalanceById", reads.read("findBalanceById", ReadConsistency.STRONG).findBalanceById(id))
+                .map(CreditMapper.INSTANCE::toBalanceResponse);
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return observe("findVersionById", reads.read("findVersionById", ReadConsistency.STRONG).findRevisionById(id))
+                .mapNotNull(CreditRevisionView::getVersion);
+    }
+
+    @Override
+    public Mono<Boolean> existsCycleDueBefore(String clientId, Instant cutoff) {
+        return observe("existsCycleDueBefore",
+                reads.read("existsCycleDueBefore", ReadConsistency.STRONG)
+                        .existsByClientIdAndActiveCycleDueDateBefore(clientId, cutoff));
+    }
+
+    @Override
+    public Mono<Long> findHighestJournalSeq() {
+        return observe("findHighestJournalSeq", reads.read("findHighestJournalSeq", ReadConsistency.STRONG)
+                .findFirstByJournalSeqNotNullOrderByJournalSeqDesc())
+                .mapNotNull(CreditJournalView::getJournalSeq);
+    }
+
+    private <T> Mono<T> observe(String stage, Mono<T> source) {
+        return StageObservations.observe(observationRegistry, "repository", STAGE_PREFIX + stage, source);
+    }
+
+    private <T> Flux<T> observe(String stage, Flux<T> source) {
+        return StageObservations.observe(observationRegistry, "repository", STAGE_PREFIX + stage, source);
+    }
 }
@@ -1,11 +1,14 @@
 package com.sgi.credit.infrastructure.repository.impl;
 
 import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.ReadConsistency;
 import com.sgi.credit.domain.ports.out.DebtRepository;
 import com.sgi.credit.infrastructure.dto.DebtResponse;
 import com.sgi.credit.infrastructure.mapper.DebtMapper;
 import com.sgi.credit.infrastructure.repository.DebtRepositoryJpa;
-import lombok.RequiredArgsConstructor;
+import com.sgi.credit.infrastructure.tracing.StageObservations;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -13,35 +16,76 @@ import reactor.core.publisher.Mono;
 /**
  * Implementation of the Debt repository.
  * Provides methods to save, find, delete, and list Debts reactively.
- * Uses DebtRepositoryJpa to interact with the database.
+ * Uses DebtRepositoryJpa to interact with the database; saves go through the
+ * {@link BulkWriteBatcher} so they can share bulk writes. The listing by client tolerates bounded
+ * staleness and may be read from a secondary through {@link ReadRouting}; the lookups used while paying
+ * or charging read from the primary. Every call is observed as a repository stage.
  */
 @Repository
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "mongo", matchIfMissing = true)
 public class DebtRepositoryImpl implements DebtRepository {
 
+    private static final String STAGE_PREFIX = "debtRepository.";
+
     private final DebtRepositoryJpa repositoryJpa;
+    private final BulkWriteBatcher writeBatcher;
+    private final ObservationRegistry observationRegistry;
+    private final ReadRouting.Routed<DebtRepositoryJpa> reads;
+
+    /**
+     * Creates the repository.
+     *
+     * @param repositoryJpa       Spring Data repository of the primary.
+     * @param writeBatcher        Batcher the saves go through.
+     * @param observationRegistry Registry observing the repository stages.
+     * @param readRouting         Routing of the reads between the primary and the secondaries.
+     */
+    public DebtRepositoryImpl(DebtRepositoryJpa repositoryJpa,
+                              BulkWriteBatcher writeBatcher,
+                              ObservationRegistry observationRegistry,
+                              ReadRouting readRouting) {
+        this.repositoryJpa = repositoryJpa;
+        this.writeBatcher = writeBatcher;
+        this.observationRegistry = observationRegistry;
+        this.reads = readRouting.route(STAGE_PREFIX, DebtRepositoryJpa.class, repositoryJpa);
+    }
 
     @Override
     public Mono<DebtResponse> save(Debt debt) {
-        return repositoryJpa.save(debt)
+        return observe("save", writeBatcher.save(debt, repositoryJpa::save))
             .map(DebtMapper.INSTANCE::toDebtResponse);
     }
 
     @Override
     public Flux<DebtResponse> findAllByClientId(String clientId) {
-        return repositoryJpa.findAllByClientId(clientId)
+        return observe("findAllByClientId", reads.read("findAllByClientId", ReadConsistency.BOUNDED_STALENESS)
+                .findAllByClientId(clientId))
                 .map(DebtMapper.INSTANCE::toDebtResponse);
     }
 
     @Override
     public Mono<DebtResponse> findByCreditId(String creditId) {
-        return repositoryJpa.findByCreditId(creditId)
+        return observe("findByCreditId", reads.read("findByCreditId", ReadConsistency.STRONG).findByCreditId(creditId))
                 .map(DebtMapper.INSTANCE::toDebtResponse);
     }
 
+    @Override
+    public Flux<Debt> findAllByCreditId(String creditId) {
+        return observe("findAllByCreditId", reads.read("findAllByCreditId", ReadConsistency.STRONG)
+                .findAllByCreditId(creditId));
+    }
+
     @Override
     public Mono<Debt> findByClientIdAndStatus(String clientId, String status) {
-        return repositoryJpa.findByClientIdAndStatus(clientId, status);
+        return observe("findByClientIdAndStatus", reads.read("findByClientIdAndStatus", ReadConsistency.STRONG)
+                .findByClientIdAndStatus(clientId, status));
+    }
+
+    private <T> Mono<T> observe(String stage, Mono<T> source) {
+        return StageObservations.observe(observationRegistry, "repository", STAGE_PREFIX + stage, source);
     }
 
+    private <T> Flux<T> observe(String stage, Flux<T> source) {
+        return StageObservations.observe(observationRegistry, "repository", STAGE_PREFIX + stage, source);
+    }
 }
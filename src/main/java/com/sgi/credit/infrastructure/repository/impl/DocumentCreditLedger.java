@@ -0,0 +1,63 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntry;
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditLedger;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtCycleStore;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Credit ledger that keeps only the running totals on the credit document.
+ * Appending overwrites the totals and saves the credit with its debt cycle; no history is kept.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.ledger", havingValue = "document", matchIfMissing = true)
+public class DocumentCreditLedger implements CreditLedger {
+
+    private final CreditRepository creditRepository;
+    private final DebtCycleStore debtCycleStore;
+
+    @Override
+    public Mono<CreditSnapshot> currentState(Credit credit) {
+        return Mono.just(CreditSnapshot.builder()
+                .creditId(credit.getId())
+                .clientId(credit.getClientId())
+                .seq(credit.getVersion() != null ? credit.getVersion() : 0L)
+                .consumptionAmount(credit.getConsumptionAmount())
+                .creditLimit(credit.getCreditLimit())
+                .build());
+    }
+
+    @Override
+    public Mono<CreditSnapshot> append(Credit credit, CreditSnapshot state, LedgerEntryType type, Money amount) {
+        CreditSnapshot next = state.apply(LedgerEntry.builder()
+                .seq(state.getSeq() + 1)
+                .type(type)
+                .amount(amount)
+                .build());
+        credit.setConsumptionAmount(next.getConsumptionAmount());
+        credit.setCreditLimit(next.getCreditLimit());
+        credit.setBalance(next.balance());
+        credit.setUpdatedDate(Instant.now());
+        Mono<?> write = type == LedgerEntryType.LIMIT_CHANGE
+                ? creditRepository.save(credit)
+                : debtCycleStore.record(credit, type == LedgerEntryType.PAYMENT);
+        return write.thenReturn(next);
+    }
+
+    @Override
+    public Mono<BalanceResponse> findBalance(String creditId) {
+        return creditRepository.findBalanceById(creditId);
+    }
+}
@@ -0,0 +1,96 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.DebtCycle;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtCycleStore;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Debt cycle store that embeds the open cycle in the credit document.
+ * Creating a credit, charging and paying are single-document writes; only a cycle closed by a payment
+ * is written to the debt collection, after the credit is saved, keeping the cycle ID as the debt ID.
+ * Enabled with {@code persistence.debt-cycle=embedded}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "persistence.debt-cycle", havingValue = "embedded")
+public class EmbeddedDebtCycleStore implements DebtCycleStore {
+
+    private final CreditRepository creditRepository;
+    private final DebtRepository debtRepository;
+
+    @Override
+    public Mono<CreditResponse> open(Credit credit) {
+        credit.setActiveCycle(newCycle(credit.getConsumptionAmount(), Instant.now()));
+        return creditRepository.save(credit);
+    }
+
+    @Override
+    public Mono<CreditResponse> record(Credit credit, boolean closeWhenSettled) {
+        DebtCycle cycle = credit.getActiveCycle();
+        if (cycle == null) {
+            return creditRepository.save(credit);
+        }
+        cycle.setAmount(credit.getConsumptionAmount());
+        if (!closeWhenSettled || cycle.getAmount().signum() > 0) {
+            return creditRepository.save(credit);
+        }
+        Debt closed = toDebt(credit, cycle, DebtRequest.StatusEnum.PAID.name());
+        closed.setPaidAt(Instant.now());
+        credit.setActiveCycle(newCycle(Money.ZERO, cycle.getDueDate().plusNanos(1)));
+        return creditRepository.save(credit)
+                .flatMap(creditResponse -> debtRepository.save(closed)
+                        .thenReturn(creditResponse));
+    }
+
+    @Override
+    public Mono<Boolean> hasCycleDueBefore(String clientId, Instant cutoff) {
+        return creditRepository.existsCycleDueBefore(clientId, cutoff);
+    }
+
+    /**
+     * Lists the cycles closed into the debt collection, followed by the open cycle as an ACTIVE debt.
+     */
+    @Override
+    public Flux<Debt> findCycles(Credit credit) {
+        Flux<Debt> closed = debtRepository.findAllByCreditId(credit.getId());
+        DebtCycle cycle = credit.getActiveCycle();
+        return cycle != null
+                ? closed.concatWithValues(toDebt(credit, cycle, DebtRequest.StatusEnum.ACTIVE.name()))
+                : closed;
+    }
+
+    private static Debt toDebt(Credit credit, DebtCycle cycle, String status) {
+        return Debt.builder()
+                .id(cycle.getId())
+                .creditId(credit.getId())
+                .clientId(credit.getClientId())
+                .amount(cycle.getAmount())
+                .status(status)
+                .dueDate(cycle.getDueDate())
+                .openedAt(cycle.getOpenedAt())
+                .build();
+    }
+
+    private static DebtCycle newCycle(Money amount, Instant dueDate) {
+        return DebtCycle.builder()
+                .id(new ObjectId().toHexString())
+                .amount(amount)
+                .dueDate(dueDate)
+                .openedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,298 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntry;
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditLedger;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtCycleStore;
+import com.sgi.credit.domain.ports.out.LedgerEventStore;
+import com.sgi.credit.domain.ports.out.OptimisticLockRetry;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import com.sgi.credit.infrastructure.mapper.CreditMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Credit ledger backed by an append-only store of events per credit.
+ * The current totals are the latest snapshot plus a replay of the entries after it; a snapshot is
+ * written every {@code persistence.ledger.snapshot-interval} entries, so replays stay short.
+ * Until its first entry a credit's state is read from its document; the snapshot at seq 0 holding those
+ * opening totals is written with the first entry, so reads never write.
+ * After each append the totals are projected back onto the credit document and its debt cycle,
+ * guarded by {@link Credit#getLedgerSeq()} so a projection is applied at most once. A credit whose
+ * projection fails is marked for re-projection: its latest state is projected again in the background,
+ * every {@code persistence.ledger.reprojection-delay} at first and backing off, and until then
+ * {@link #pendingPosition(String)} reports the committed position so conditional reads do not match
+ * the stale document.
+ * Past totals are rebuilt from the opening snapshot and the entries that occurred before the instant read.
+ * Enabled with {@code persistence.ledger=event-sourced}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "persistence.ledger", havingValue = "event-sourced")
+public class EventSourcedCreditLedger implements CreditLedger, DisposableBean {
+
+    private final LedgerEventStore eventStore;
+    private final CreditRepository creditRepository;
+    private final DebtCycleStore debtCycleStore;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final long snapshotInterval;
+    private final DistributionSummary replayLength;
+    private final Counter snapshots;
+    private final Timer rebuildTimer;
+    private final Counter rebuildEvents;
+    private final Counter reprojections;
+    private final Duration reprojectionDelay;
+    private final Map<String, Unprojected> unprojected = new ConcurrentHashMap<>();
+    private final Disposable.Composite catchUps = Disposables.composite();
+
+    /**
+     * Creates the ledger.
+     *
+     * @param eventStore          Store of the ledger entries and snapshots.
+     * @param creditRepository    Repository of the credit documents the totals are projected to.
+     * @param debtCycleStore      Store updated with the projected totals.
+     * @param optimisticLockRetry Retry applied to the projection.
+     * @param meterRegistry       Registry receiving the ledger metrics.
+     * @param snapshotInterval    Number of entries between two snapshots.
+     * @param reprojectionDelay   First delay before a failed projection is retried.
+     */
+    public EventSourcedCreditLedger(LedgerEventStore eventStore,
+                                    CreditRepository creditRepository,
+                                    DebtCycleStore debtCycleStore,
+                                    OptimisticLockRetry optimisticLockRetry,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${persistence.ledger.snapshot-interval:50}") long snapshotInterval,
+                                    @Value("${persistence.ledger.reprojection-delay:1s}") Duration reprojectionDelay) {
+        this.eventStore = eventStore;
+        this.creditRepository = creditRepository;
+        this.debtCycleStore = debtCycleStore;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.snapshotInterval = snapshotInterval;
+        this.reprojectionDelay = reprojectionDelay;
+        this.replayLength = DistributionSummary.builder("credit.ledger.replay.length")
+                .description("Ledger entries replayed on top of the latest snapshot")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.snapshots = meterRegistry.counter("credit.ledger.snapshots");
+        this.rebuildTimer = meterRegistry.timer("credit.ledger.rebuild");
+        this.rebuildEvents = meterRegistry.counter("credit.ledger.rebuild.events");
+        this.reprojections = meterRegistry.counter("credit.ledger.reprojections");
+        Gauge.builder("credit.ledger.snapshot.interval", () -> snapshotInterval)
+                .register(meterRegistry);
+        Gauge.builder("credit.ledger.unprojected", unprojected, Map::size)
+                .description("Credits whose document is behind their ledger")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<CreditSnapshot> currentState(Credit credit) {
+        return eventStore.latestSnapshot(credit.getId())
+                .flatMap(this::replay)
+                .switchIfEmpty(Mono.fromSupplier(() -> opening(credit)));
+    }
+
+    @Override
+    public Mono<CreditSnapshot> stateAt(Credit credit, Instant instant) {
+        return eventStore.snapshotAt(credit.getId(), 0L)
+                .flatMap(opening -> eventStore.entriesAfter(credit.getId(), 0L)
+                        .takeWhile(entry -> entry.getOccurredAt().isBefore(instant))
+                        .reduce(opening, CreditSnapshot::apply))
+                .switchIfEmpty(Mono.fromSupplier(() -> opening(credit)));
+    }
+
+    @Override
+    public Mono<CreditSnapshot> append(Credit credit, CreditSnapshot state, LedgerEntryType type, Money amount) {
+        LedgerEntry entry = LedgerEntry.builder()
+                .creditId(state.getCreditId())
+                .seq(state.getSeq() + 1)
+                .type(type)
+                .amount(amount)
+                .occurredAt(Instant.now())
+                .build();
+        Mono<Boolean> opened = state.getSeq() == 0
+                ? eventStore.saveSnapshot(state.toBuilder().id(null).takenAt(Instant.now()).build())
+                : Mono.empty();
+        return opened.then(eventStore.append(entry))
+                .map(state::apply)
+                .flatMap(next -> snapshotIfDue(next)
+                        .then(project(next, type))
+                        .thenReturn(next));
+    }
+
+    @Override
+    public Mono<Long> pendingPosition(String creditId) {
+        return Mono.fromSupplier(() -> {
+            Unprojected pending = unprojected.get(creditId);
+            return pending != null ? pending.seq() : null;
+        });
+    }
+
+    @Override
+    public Mono<BalanceResponse> findBalance(String creditId) {
+        return eventStore.latestSnapshot(creditId)
+                .flatMap(this::replay)
+                .map(CreditMapper.INSTANCE::toBalanceResponse)
+                .switchIfEmpty(Mono.defer(() -> creditRepository.findBalanceById(creditId)));
+    }
+
+    /**
+     * Replays the whole ledger of a credit from its opening snapshot and stores the result as a new snapshot.
+     * Used to verify the stored snapshots and to measure replay throughput.
+     *
+     * @param creditId The credit ID.
+     * @return A Mono emitting the rebuilt state, or empty if the credit has no ledger.
+     */
+    public Mono<CreditSnapshot> rebuild(String creditId) {
+        Timer.Sample sample = Timer.start();
+        return eventStore.snapshotAt(creditId, 0L)
+                .flatMap(opening -> eventStore.entriesAfter(creditId, 0L)
+                        .doOnNext(entry -> rebuildEvents.increment())
+                        .reduce(opening, CreditSnapshot::apply))
+                .flatMap(rebuilt -> saveSnapshot(rebuilt).thenReturn(rebuilt))
+                .doFinally(signal -> sample.stop(rebuildTimer));
+    }
+
+    private static CreditSnapshot opening(Credit credit) {
+        return CreditSnapshot.builder()
+                .creditId(credit.getId())
+                .clientId(credit.getClientId())
+                .seq(0L)
+                .consumptionAmount(credit.getConsumptionAmount())
+                .creditLimit(credit.getCreditLimit())
+                .build();
+    }
+
+    private Mono<CreditSnapshot> replay(CreditSnapshot snapshot) {
+        return eventStore.entriesAfter(snapshot.getCreditId(), snapshot.getSeq())
+                .collectList()
+                .map(entries -> {
+                    replayLength.record(entries.size());
+                    CreditSnapshot state = snapshot;
+                    for (LedgerEntry entry : entries) {
+                        state = state.apply(entry);
+                    }
+                    return state;
+                });
+    }
+
+    private Mono<Void> snapshotIfDue(CreditSnapshot state) {
+        if (state.getSeq() % snapshotInterval != 0) {
+            return Mono.empty();
+        }
+        return saveSnapshot(state);
+    }
+
+    private Mono<Void> saveSnapshot(CreditSnapshot state) {
+        return eventStore.saveSnapshot(state.toBuilder().id(null).takenAt(Instant.now()).build())
+                .filter(Boolean::booleanValue)
+                .doOnNext(saved -> snapshots.increment())
+                .then();
+    }
+
+    @Override
+    public void destroy() {
+        catchUps.dispose();
+    }
+
+    /**
+     * Projects a committed state, marking the credit for re-projection when it fails.
+     * Failures are not propagated: the entry is already committed, so failing the request would
+     * invite a retry that appends it twice.
+     */
+    private Mono<Void> project(CreditSnapshot state, LedgerEntryType type) {
+        return projectOnto(state, type)
+                .doOnSuccess(done -> projected(state.getCreditId(), state.getSeq()))
+                .onErrorResume(ex -> {
+                    log.warn("Could not project ledger entry {} of credit {}, retrying in the background",
+                            state.getSeq(), state.getCreditId(), ex);
+                    markUnprojected(state, type);
+                    return Mono.empty();
+                });
+    }
+
+    private void markUnprojected(CreditSnapshot state, LedgerEntryType type) {
+        Unprojected marked = new Unprojected(state.getSeq(), type);
+        if (unprojected.merge(state.getCreditId(), marked, Unprojected::merge) != marked) {
+            return;
+        }
+        catchUps.add(Mono.delay(reprojectionDelay)
+                .then(Mono.defer(() -> catchUp(state.getCreditId())))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reprojectionDelay).maxBackoff(Duration.ofMinutes(1)))
+                .subscribe(null, ex -> log.error("Stopped re-projecting credit {}", state.getCreditId(), ex)));
+    }
+
+    /**
+     * Projects the latest state of a credit marked for re-projection.
+     * The document is compared by {@link Credit#getLedgerSeq()}, so a later entry projected in between is kept.
+     */
+    private Mono<Void> catchUp(String creditId) {
+        Unprojected pending = unprojected.get(creditId);
+        if (pending == null) {
+            return Mono.empty();
+        }
+        return eventStore.latestSnapshot(creditId)
+                .flatMap(this::replay)
+                .flatMap(state -> projectOnto(state, pending.type())
+                        .doOnSuccess(done -> {
+                            reprojections.increment();
+                            projected(creditId, state.getSeq());
+                        }))
+                .then();
+    }
+
+    private void projected(String creditId, long seq) {
+        unprojected.computeIfPresent(creditId, (id, pending) -> pending.seq() <= seq ? null : pending);
+    }
+
+    /**
+     * Copies the totals of a committed state onto the credit document and its debt cycle.
+     */
+    private Mono<Void> projectOnto(CreditSnapshot state, LedgerEntryType type) {
+        return optimisticLockRetry.retryOnConflict("ledgerProjection", () -> creditRepository.findById(state.getCreditId())
+                        .filter(credit -> credit.getLedgerSeq() == null || credit.getLedgerSeq() < state.getSeq())
+                        .flatMap(credit -> {
+                            credit.setConsumptionAmount(state.getConsumptionAmount());
+                            credit.setCreditLimit(state.getCreditLimit());
+                            credit.setBalance(state.balance());
+                            credit.setLedgerSeq(state.getSeq());
+                            credit.setUpdatedDate(Instant.now());
+                            return type == LedgerEntryType.LIMIT_CHANGE
+                                    ? creditRepository.save(credit)
+                                    : debtCycleStore.record(credit, type == LedgerEntryType.PAYMENT);
+                        }))
+                .then();
+    }
+
+    /**
+     * Latest committed position of a credit whose projection failed, and the entry type to project it as.
+     * A payment is kept over later entries so that the settled cycle is still closed.
+     */
+    private record Unprojected(long seq, LedgerEntryType type) {
+
+        Unprojected merge(Unprojected later) {
+            LedgerEntryType merged = type == LedgerEntryType.PAYMENT ? type : later.type();
+            return new Unprojected(Math.max(seq, later.seq()), merged);
+        }
+    }
+}
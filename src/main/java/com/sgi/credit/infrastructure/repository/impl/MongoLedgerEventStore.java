@@ -0,0 +1,80 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntry;
+import com.sgi.credit.domain.ports.out.LedgerEventStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Mongo implementation of the ledger event store, over the {@code credit_ledger} and
+ * {@code credit_snapshot} collections. Taken positions are detected by their unique (creditId, seq) indexes.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${persistence.mode:mongo}' == 'mongo' and '${persistence.ledger:document}' == 'event-sourced'")
+public class MongoLedgerEventStore implements LedgerEventStore, InitializingBean {
+
+    private static final String CREDIT_ID = "creditId";
+    private static final String SEQ = "seq";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Creates the unique (creditId, seq) indexes before the first append, since sequence
+     * enforcement depends on them and automatic index creation is usually disabled.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        Flux.just(LedgerEntry.class, CreditSnapshot.class)
+                .concatMap(type -> Flux.fromIterable(resolver.resolveIndexFor(type))
+                        .concatMap(index -> mongoTemplate.indexOps(type).ensureIndex(index)))
+                .blockLast();
+    }
+
+    @Override
+    public Mono<LedgerEntry> append(LedgerEntry entry) {
+        return mongoTemplate.insert(entry)
+                .onErrorMap(DuplicateKeyException.class, ex -> new OptimisticLockingFailureException(
+                        "Ledger position " + entry.getSeq() + " of credit " + entry.getCreditId() + " is taken.", ex));
+    }
+
+    @Override
+    public Flux<LedgerEntry> entriesAfter(String creditId, long seq) {
+        return mongoTemplate.find(Query.query(where(CREDIT_ID).is(creditId).and(SEQ).gt(seq))
+                .with(Sort.by(Sort.Direction.ASC, SEQ)), LedgerEntry.class);
+    }
+
+    @Override
+    public Mono<CreditSnapshot> latestSnapshot(String creditId) {
+        return mongoTemplate.findOne(Query.query(where(CREDIT_ID).is(creditId))
+                .with(Sort.by(Sort.Direction.DESC, SEQ))
+                .limit(1), CreditSnapshot.class);
+    }
+
+    @Override
+    public Mono<CreditSnapshot> snapshotAt(String creditId, long seq) {
+        return mongoTemplate.findOne(Query.query(where(CREDIT_ID).is(creditId).and(SEQ).is(seq)), CreditSnapshot.class);
+    }
+
+    @Override
+    public Mono<Boolean> saveSnapshot(CreditSnapshot snapshot) {
+        return mongoTemplate.insert(snapshot)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false));
+    }
+}
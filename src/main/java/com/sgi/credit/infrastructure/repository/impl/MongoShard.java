@@ -0,0 +1,109 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.infrastructure.repository.CreditRepositoryJpa;
+import com.sgi.credit.infrastructure.repository.DebtRepositoryJpa;
+import com.sgi.credit.infrastructure.repository.sharding.Shard;
+import io.micrometer.observation.ObservationRegistry;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Shard backed by the {@code credit} and {@code debt} collections of one Mongo database.
+ * Saves and queries go through the regular repositories bound to that database. Moved documents are
+ * inserted as raw documents, because a template insert would reset their version.
+ */
+public class MongoShard implements Shard {
+
+    private final String name;
+    private final ReactiveMongoTemplate template;
+    private final BulkWriteBatcher writeBatcher;
+    private final CreditRepositoryImpl credits;
+    private final DebtRepositoryImpl debts;
+
+    /**
+     * Creates the shard.
+     *
+     * @param name                Name of the shard, usually its database.
+     * @param template            Template bound to the database of the shard.
+     * @param writeBatcher        Batcher whose settings the shard's own batcher copies.
+     * @param observationRegistry Registry observing the repository stages.
+     * @param readRouting         Routing whose settings the shard's reads copy.
+     */
+    public MongoShard(String name, ReactiveMongoTemplate template, BulkWriteBatcher writeBatcher,
+                      ObservationRegistry observationRegistry, ReadRouting readRouting) {
+        this.name = name;
+        this.template = template;
+        this.writeBatcher = writeBatcher.withTemplate(template);
+        ReactiveMongoRepositoryFactory factory = new ReactiveMongoRepositoryFactory(template);
+        ReadRouting shardReads = readRouting.withTemplate(template);
+        this.credits = new CreditRepositoryImpl(factory.getRepository(CreditRepositoryJpa.class), this.writeBatcher,
+                observationRegistry, shardReads);
+        this.debts = new DebtRepositoryImpl(factory.getRepository(DebtRepositoryJpa.class), this.writeBatcher,
+                observationRegistry, shardReads);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public CreditRepositoryImpl credits() {
+        return credits;
+    }
+
+    @Override
+    public DebtRepositoryImpl debts() {
+        return debts;
+    }
+
+    @Override
+    public Flux<Debt> streamDebts() {
+        return template.findAll(Debt.class);
+    }
+
+    @Override
+    public Mono<Void> insert(Credit credit) {
+        return insertDocument(credit);
+    }
+
+    @Override
+    public Mono<Void> insert(Debt debt) {
+        return insertDocument(debt);
+    }
+
+    @Override
+    public Mono<Boolean> remove(Credit credit) {
+        return removeVersion(credit.getId(), credit.getVersion(), Credit.class);
+    }
+
+    @Override
+    public Mono<Boolean> remove(Debt debt) {
+        return removeVersion(debt.getId(), debt.getVersion(), Debt.class);
+    }
+
+    @Override
+    public void close() {
+        writeBatcher.destroy();
+    }
+
+    private Mono<Void> insertDocument(Object entity) {
+        return Mono.defer(() -> {
+            Document document = new Document();
+            template.getConverter().write(entity, document);
+            return template.execute(entity.getClass(), collection -> collection.insertOne(document)).then();
+        });
+    }
+
+    private Mono<Boolean> removeVersion(String id, Long version, Class<?> type) {
+        Query query = Query.query(Criteria.where("id").is(id).and("version").is(version));
+        return template.remove(query, type).map(result -> result.getDeletedCount() > 0);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.sgi.credit.domain.model.Statement;
+import com.sgi.credit.domain.model.StatementJob;
+import com.sgi.credit.domain.ports.out.StatementStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Mongo implementation of the statement store.
+ * Each batch of statements is one unordered bulk write of upserting replaces keyed by statement ID.
+ */
+@Repository
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "mongo", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MongoStatementStore implements StatementStore {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> saveAll(List<Statement> statements) {
+        if (statements.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Statement.class);
+            statements.forEach(statement -> bulk.replaceOne(
+                    Query.query(Criteria.where("id").is(statement.getId())),
+                    statement,
+                    FindAndReplaceOptions.options().upsert()));
+            return bulk.execute().then();
+        });
+    }
+
+    @Override
+    public Mono<StatementJob> saveJob(StatementJob job) {
+        return mongoTemplate.save(job);
+    }
+
+    @Override
+    public Mono<StatementJob> findJob(String jobId) {
+        return mongoTemplate.findById(jobId, StatementJob.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.sgi.credit.domain.ports.out.OptimisticLockRetry;
+import com.sgi.credit.domain.shared.CustomError;
+import com.sgi.credit.infrastructure.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Retries units of work that fail with an {@link OptimisticLockingFailureException}.
+ * Uses a bounded number of retries with jittered exponential backoff and records, per operation,
+ * the attempts, conflicts and exhausted retry budgets so the conflict rate can be derived.
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetryImpl implements OptimisticLockRetry {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxRetries;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final double jitter;
+    private final Map<String, OperationPolicy> policies = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the retry helper.
+     *
+     * @param meterRegistry Registry receiving the per-operation counters.
+     * @param maxRetries    Retries allowed after the first attempt.
+     * @param minBackoff    Delay before the first retry.
+     * @param maxBackoff    Upper bound for the exponential delay.
+     * @param jitter        Random fraction applied to each delay.
+     */
+    public OptimisticLockRetryImpl(MeterRegistry meterRegistry,
+                                   @Value("${persistence.optimistic-retry.max-retries:5}") int maxRetries,
+                                   @Value("${persistence.optimistic-retry.min-backoff:5ms}") Duration minBackoff,
+                                   @Value("${persistence.optimistic-retry.max-backoff:200ms}") Duration maxBackoff,
+                                   @Value("${persistence.optimistic-retry.jitter:0.5}") double jitter) {
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public <T> Mono<T> retryOnConflict(String operation, Supplier<Mono<T>> unitOfWork) {
+        OperationPolicy policy = policies.computeIfAbsent(operation, this::createPolicy);
+        return Mono.defer(() -> {
+                    policy.attempts().increment();
+                    return unitOfWork.get();
+                })
+                .doOnError(OptimisticLockingFailureException.class, ex -> policy.conflicts().increment())
+                .retryWhen(policy.retry());
+    }
+
+    private OperationPolicy createPolicy(String operation) {
+        Counter exhausted = counter("credit.optimistic.exhausted", operation);
+        Retry retry = Retry.backoff(maxRetries, minBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(jitter)
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> {
+                    exhausted.increment();
+                    log.warn("Optimistic lock retries exhausted for {} after {} attempts",
+                            operation, signal.totalRetries() + 1);
+                    return new CustomException(CustomError.E_CONCURRENT_MODIFICATION);
+                });
+        return new OperationPolicy(
+                counter("credit.optimistic.attempts", operation),
+                counter("credit.optimistic.conflicts", operation),
+                retry);
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private record OperationPolicy(Counter attempts, Counter conflicts, Retry retry) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.sgi.credit.infrastructure.repository.impl;
+
+import com.mongodb.ReadPreference;
+import com.sgi.credit.domain.model.ReadConsistency;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes repository reads between the primary and the secondaries of the replica set.
+ * Each query is marked with the {@link ReadConsistency} it needs: strong reads and every write use the
+ * primary, while staleness-tolerant reads use {@code persistence.read-routing.read-preference} with a
+ * {@code persistence.read-routing.max-staleness} bound, so a secondary lagging further behind is not
+ * selected. Every decision is counted as {@code credit.read.routing}, tagged by query and target.
+ * Enabled with {@code persistence.read-routing.enabled=true}; otherwise every read uses the primary.
+ */
+@Component
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "mongo", matchIfMissing = true)
+public class ReadRouting {
+
+    /**
+     * Smallest bound MongoDB accepts for {@code maxStalenessSeconds}.
+     */
+    private static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90);
+
+    private final MeterRegistry meterRegistry;
+    private final ReadPreference readPreference;
+    private final ReactiveMongoRepositoryFactory replicaRepositories;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the routing.
+     *
+     * @param mongoTemplate  Template of the primary, whose database and converter the replica reads share.
+     * @param meterRegistry  Registry receiving the routing decisions.
+     * @param enabled        Whether staleness-tolerant reads leave the primary at all.
+     * @param readPreference Read preference of staleness-tolerant reads, such as {@code secondaryPreferred}.
+     * @param maxStaleness   Replication lag beyond which a secondary is not read from.
+     */
+    @Autowired
+    public ReadRouting(ReactiveMongoTemplate mongoTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${persistence.read-routing.enabled:false}") boolean enabled,
+                       @Value("${persistence.read-routing.read-preference:secondaryPreferred}") String readPreference,
+                       @Value("${persistence.read-routing.max-staleness:90s}") Duration maxStaleness) {
+        this(mongoTemplate, meterRegistry, enabled ? replicaPreference(readPreference, maxStaleness) : null);
+    }
+
+    private ReadRouting(ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry, ReadPreference readPreference) {
+        this.meterRegistry = meterRegistry;
+        this.readPreference = readPreference;
+        this.replicaRepositories = readPreference != null
+                ? new ReactiveMongoRepositoryFactory(replicaTemplate(mongoTemplate, readPreference))
+                : null;
+    }
+
+    /**
+     * Creates a routing that keeps every read on the primary, for adapters built without Spring.
+     *
+     * @param meterRegistry Registry receiving the routing decisions.
+     * @return The routing.
+     */
+    public static ReadRouting primaryOnly(MeterRegistry meterRegistry) {
+        return new ReadRouting(null, meterRegistry, null);
+    }
+
+    /**
+     * Creates a routing with the same settings reading from another database, as each shard does.
+     *
+     * @param template Template of the other database.
+     * @return The new routing.
+     */
+    public ReadRouting withTemplate(ReactiveMongoTemplate template) {
+        return new ReadRouting(template, meterRegistry, readPreference);
+    }
+
+    /**
+     * Binds a repository of the primary to its counterpart reading from the replicas.
+     *
+     * @param name           Name of the repository, prefixed to the query tags.
+     * @param repositoryType Interface of the repository.
+     * @param primary        Repository reading from the primary.
+     * @param <R>            Type of the repository.
+     * @return The routed repository.
+     */
+    public <R> Routed<R> route(String name, Class<R> repositoryType, R primary) {
+        R replica = replicaRepositories != null ? replicaRepositories.getRepository(repositoryType) : primary;
+        return new Routed<>(name, primary, replica);
+    }
+
+    private static ReadPreference replicaPreference(String name, Duration maxStaleness) {
+        if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+            throw new IllegalArgumentException("persistence.read-routing.max-staleness must be at least "
+                    + MIN_MAX_STALENESS.toSeconds() + "s, was " + maxStaleness);
+        }
+        return ReadPreference.valueOf(name, List.of(), maxStaleness.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    private static ReactiveMongoTemplate replicaTemplate(ReactiveMongoTemplate primary, ReadPreference readPreference) {
+        ReactiveMongoTemplate template = new ReactiveMongoTemplate(primary.getMongoDatabaseFactory(),
+                primary.getConverter());
+        template.setReadPreference(readPreference);
+        return template;
+    }
+
+    private Counter counter(String query, String target) {
+        return counters.computeIfAbsent(query + '|' + target, key -> Counter.builder("credit.read.routing")
+                .tag("query", query)
+                .tag("target", target)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Repository bound to both the primary and the replicas.
+     *
+     * @param <R> Type of the repository.
+     */
+    public final class Routed<R> {
+
+        private final String name;
+        private final R primary;
+        private final R replica;
+
+        private Routed(String name, R primary, R replica) {
+            this.name = name;
+            this.primary = primary;
+            this.replica = replica;
+        }
+
+        /**
+         * Returns the repository a query with the given consistency reads from, and counts the decision.
+         *
+         * @param query       Name of the query.
+         * @param consistency Consistency the query needs.
+         * @return The repository of the replicas or of the primary.
+         */
+        public R read(String query, ReadConsistency consistency) {
+            boolean toReplica = consistency == ReadConsistency.BOUNDED_STALENESS && replica != primary;
+            counter(name + query, toReplica ? "secondary" : "primary").increment();
+            return toReplica ? replica : primary;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.sgi.credit.infrastructure.repository.memory;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.mapper.CreditMapper;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory implementation of the credit repository.
+ * Stores detached copies of each credit in a concurrent map with a secondary index on clientId,
+ * so service logic can run without a database. Versions are checked and bumped the same way
+ * Spring Data does for {@code @Version} fields. Enabled with {@code persistence.mode=memory}.
+ */
+@Repository
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "memory")
+public class InMemoryCreditRepository implements CreditRepository {
+
+    private final ConcurrentMap<String, Credit> credits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> clientIndex = new ConcurrentHashMap<>();
+    private final StripedLock locks;
+
+    public InMemoryCreditRepository(@Value("${persistence.memory.lock-stripes:64}") int lockStripes) {
+        this.locks = new StripedLock(lockStripes);
+    }
+
+    @Override
+    public Mono<CreditResponse> save(Credit credit) {
+        return Mono.fromSupplier(() -> CreditMapper.INSTANCE.toCreditResponse(store(credit)));
+    }
+
+    @Override
+    public Mono<Credit> findById(String id) {
+        return Mono.fromSupplier(() -> copy(credits.get(id)));
+    }
+
+    @Override
+    public Flux<CreditResponse> findAll(String creditId, String type, String clientId) {
+        boolean allNull = Stream.of(clientId, type, creditId).allMatch(Objects::isNull);
+        return Flux.defer(() -> Flux.fromStream(credits.values().stream()
+                .filter(credit -> allNull
+                        || Objects.equals(credit.getId(), creditId)
+                        || Objects.equals(credit.getType(), type)
+                        || Objects.equals(credit.getClientId(), clientId))
+                .map(CreditMapper.INSTANCE::toCreditResponse)));
+    }
+
+    @Override
+    public Flux<Credit> streamAll() {
+        return Flux.defer(() -> Flux.fromStream(credits.values().stream().map(InMemoryCreditRepository::copy)));
+    }
+
+    @Override
+    public Flux<Credit> streamFrom(String afterId) {
+        return Flux.defer(() -> Flux.fromStream(credits.values().stream()
+                .filter(credit -> afterId == null || credit.getId().compareTo(afterId) > 0)
+                .sorted(Comparator.comparing(Credit::getId))
+                .map(InMemoryCreditRepository::copy)));
+    }
+
+    @Override
+    public Mono<Void> delete(Credit credit) {
+        return Mono.fromRunnable(() -> remove(credit.getId(), credit.getVersion()));
+    }
+
+    @Override
+    public Flux<CreditResponse> getCreditCardByClientId(String clientId) {
+        return Flux.defer(() -> Flux.fromStream(findByClientId(clientId)
+                .map(CreditMapper.INSTANCE::toCreditResponse)));
+    }
+
+    @Override
+    public Mono<BalanceResponse> findBalanceById(String id) {
+        return Mono.fromSupplier(() -> {
+            Credit credit = credits.get(id);
+            return credit != null ? CreditMapper.INSTANCE.toBalanceResponse(credit) : null;
+        });
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return Mono.fromSupplier(() -> {
+            Credit credit = credits.get(id);
+            return credit != null ? credit.getVersion() : null;
+        });
+    }
+
+    @Override
+    public Mono<Boolean> existsCycleDueBefore(String clientId, Instant cutoff) {
+        return Mono.fromSupplier(() -> findByClientId(clientId)
+                .anyMatch(credit -> credit.getActiveCycle() != null
+                        && credit.getActiveCycle().getDueDate().isBefore(cutoff)));
+    }
+
+    @Override
+    public Mono<Long> findHighestJournalSeq() {
+        return Mono.fromSupplier(() -> credits.values().stream()
+                .map(Credit::getJournalSeq)
+                .filter(Objects::nonNull)
+                .max(Long::compare)
+                .orElse(null));
+    }
+
+    /**
+     * Stores a copy of the credit keeping its version, as a shard receiving a moved credit does.
+     */
+    Mono<Void> insertCopy(Credit credit) {
+        return Mono.fromRunnable(() -> {
+            ReentrantLock lock = locks.get(credit.getId());
+            lock.lock();
+            try {
+                if (credits.putIfAbsent(credit.getId(), copy(credit)) != null) {
+                    throw new DuplicateKeyException("Document with id " + credit.getId() + " already exists.");
+                }
+                index(credit);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes the credit if it is stored at the same version.
+     */
+    Mono<Boolean> removeIfVersion(Credit credit) {
+        return Mono.fromSupplier(() -> {
+            ReentrantLock lock = locks.get(credit.getId());
+            lock.lock();
+            try {
+                Credit previous = credits.get(credit.getId());
+                if (previous == null || !Objects.equals(previous.getVersion(), credit.getVersion())) {
+                    return false;
+                }
+                credits.remove(credit.getId());
+                unindex(previous);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private Stream<Credit> findByClientId(String clientId) {
+        if (clientId == null) {
+            return credits.values().stream().filter(credit -> credit.getClientId() == null);
+        }
+        Set<String> ids = clientIndex.get(clientId);
+        if (ids == null) {
+            return Stream.empty();
+        }
+        return ids.stream()
+                .map(credits::get)
+                .filter(credit -> credit != null && clientId.equals(credit.getClientId()));
+    }
+
+    private Credit store(Credit credit) {
+        if (credit.getId() == null) {
+            credit.setId(new ObjectId().toHexString());
+        }
+        ReentrantLock lock = locks.get(credit.getId());
+        lock.lock();
+        try {
+            Credit previous = credits.get(credit.getId());
+            Credit stored = copy(credit);
+            stored.setVersion(Versions.next(credit.getId(), credit.getVersion(),
+                    previous != null ? previous.getVersion() : null, previous != null));
+            credit.setVersion(stored.getVersion());
+            credits.put(stored.getId(), stored);
+            index(stored);
+            if (previous != null && !Objects.equals(previous.getClientId(), stored.getClientId())) {
+                unindex(previous);
+            }
+            return stored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(String id, Long version) {
+        if (id == null) {
+            return;
+        }
+        ReentrantLock lock = locks.get(id);
+        lock.lock();
+        try {
+            Credit previous = credits.get(id);
+            if (previous == null) {
+                return;
+            }
+            Versions.checkDelete(id, version, previous.getVersion());
+            credits.remove(id);
+            unindex(previous);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void index(Credit credit) {
+        if (credit.getClientId() != null) {
+            clientIndex.compute(credit.getClientId(), (key, ids) -> {
+                Set<String> bucket = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                bucket.add(credit.getId());
+                return bucket;
+            });
+        }
+    }
+
+    private void unindex(Credit credit) {
+        if (credit.getClientId() != null) {
+            clientIndex.computeIfPresent(credit.getClientId(), (key, ids) -> {
+                ids.remove(credit.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static Credit copy(Credit credit) {
+        if (credit == null) {
+            return null;
+        }
+        Credit copy = credit.toBuilder().build();
+        if (credit.getActiveCycle() != null) {
+            copy.setActiveCycle(credit.getActiveCycle().toBuilder().build());
+        }
+        return copy;
+    }
+}
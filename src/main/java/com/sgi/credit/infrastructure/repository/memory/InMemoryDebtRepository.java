@@ -0,0 +1,234 @@
+package com.sgi.credit.infrastructure.repository.memory;
+
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.infrastructure.dto.DebtResponse;
+import com.sgi.credit.infrastructure.mapper.DebtMapper;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory implementation of the Debt repository.
+ * Keeps secondary indexes on clientId, (clientId, status) and creditId. Writes are serialized
+ * per credit through striped locks so a debt never shows up under two statuses at once,
+ * and versions are checked and bumped the same way Spring Data does for {@code @Version} fields.
+ * Enabled with {@code persistence.mode=memory}.
+ */
+@Repository
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "memory")
+public class InMemoryDebtRepository implements DebtRepository {
+
+    private final ConcurrentMap<String, Debt> debts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> clientIndex = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ClientStatusKey, Set<String>> clientStatusIndex = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> creditIndex = new ConcurrentHashMap<>();
+    private final StripedLock locks;
+
+    public InMemoryDebtRepository(@Value("${persistence.memory.lock-stripes:64}") int lockStripes) {
+        this.locks = new StripedLock(lockStripes);
+    }
+
+    @Override
+    public Mono<DebtResponse> save(Debt debt) {
+        return Mono.fromSupplier(() -> DebtMapper.INSTANCE.toDebtResponse(store(debt)));
+    }
+
+    @Override
+    public Flux<DebtResponse> findAllByClientId(String clientId) {
+        return Flux.defer(() -> Flux.fromStream(lookup(clientId != null, clientIndex.get(clientId),
+                        debt -> Objects.equals(debt.getClientId(), clientId))
+                .map(DebtMapper.INSTANCE::toDebtResponse)));
+    }
+
+    @Override
+    public Mono<DebtResponse> findByCreditId(String creditId) {
+        return single(() -> lookup(creditId != null, creditIndex.get(creditId),
+                debt -> Objects.equals(debt.getCreditId(), creditId)))
+                .map(DebtMapper.INSTANCE::toDebtResponse);
+    }
+
+    @Override
+    public Flux<Debt> findAllByCreditId(String creditId) {
+        return Flux.defer(() -> Flux.fromStream(lookup(creditId != null, creditIndex.get(creditId),
+                        debt -> Objects.equals(debt.getCreditId(), creditId))
+                .map(InMemoryDebtRepository::copy)));
+    }
+
+    @Override
+    public Mono<Debt> findByClientIdAndStatus(String clientId, String status) {
+        return single(() -> lookup(clientId != null, clientStatusIndex.get(new ClientStatusKey(clientId, status)),
+                debt -> Objects.equals(debt.getClientId(), clientId) && Objects.equals(debt.getStatus(), status)))
+                .map(InMemoryDebtRepository::copy);
+    }
+
+    Flux<Debt> streamAll() {
+        return Flux.defer(() -> Flux.fromStream(debts.values().stream().map(InMemoryDebtRepository::copy)));
+    }
+
+    /**
+     * Stores a copy of the debt keeping its version, as a shard receiving a moved debt does.
+     */
+    Mono<Void> insertCopy(Debt debt) {
+        return Mono.fromRunnable(() -> {
+            ReentrantLock lock = locks.get(debt.getCreditId() != null ? debt.getCreditId() : debt.getId());
+            lock.lock();
+            try {
+                if (debts.putIfAbsent(debt.getId(), copy(debt)) != null) {
+                    throw new DuplicateKeyException("Document with id " + debt.getId() + " already exists.");
+                }
+                index(debt);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes the debt if it is stored at the same version.
+     */
+    Mono<Boolean> removeIfVersion(Debt debt) {
+        return Mono.fromSupplier(() -> {
+            ReentrantLock lock = locks.get(debt.getCreditId() != null ? debt.getCreditId() : debt.getId());
+            lock.lock();
+            try {
+                Debt previous = debts.get(debt.getId());
+                if (previous == null || !Objects.equals(previous.getVersion(), debt.getVersion())) {
+                    return false;
+                }
+                debts.remove(debt.getId());
+                if (previous.getClientId() != null) {
+                    remove(clientIndex, previous.getClientId(), previous.getId());
+                    remove(clientStatusIndex, new ClientStatusKey(previous.getClientId(), previous.getStatus()),
+                            previous.getId());
+                }
+                if (previous.getCreditId() != null) {
+                    remove(creditIndex, previous.getCreditId(), previous.getId());
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Mirrors the Mongo single-result queries: empty when nothing matches,
+     * an error when more than one document matches.
+     */
+    private static Mono<Debt> single(Supplier<Stream<Debt>> query) {
+        return Mono.defer(() -> {
+            List<Debt> matches = query.get().limit(2).toList();
+            if (matches.size() > 1) {
+                return Mono.error(new IncorrectResultSizeDataAccessException(
+                        "Query returned non unique result.", 1));
+            }
+            return Mono.justOrEmpty(matches.isEmpty() ? null : matches.get(0));
+        });
+    }
+
+    /**
+     * Resolves candidates through an index bucket, re-checking each one against the filter
+     * because a concurrent save may have moved it since the bucket was read.
+     * Null keys are not indexed and fall back to a full scan.
+     */
+    private Stream<Debt> lookup(boolean indexed, Set<String> ids, Predicate<Debt> filter) {
+        if (!indexed) {
+            return debts.values().stream().filter(filter);
+        }
+        if (ids == null) {
+            return Stream.empty();
+        }
+        return ids.stream()
+                .map(debts::get)
+                .filter(debt -> debt != null && filter.test(debt));
+    }
+
+    private Debt store(Debt debt) {
+        if (debt.getId() == null) {
+            debt.setId(new ObjectId().toHexString());
+        }
+        ReentrantLock lock = locks.get(debt.getCreditId() != null ? debt.getCreditId() : debt.getId());
+        lock.lock();
+        try {
+            Debt previous = debts.get(debt.getId());
+            Debt stored = copy(debt);
+            stored.setVersion(Versions.next(debt.getId(), debt.getVersion(),
+                    previous != null ? previous.getVersion() : null, previous != null));
+            debt.setVersion(stored.getVersion());
+            debts.put(stored.getId(), stored);
+            index(stored);
+            if (previous != null) {
+                unindexStale(previous, stored);
+            }
+            return stored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void index(Debt debt) {
+        if (debt.getClientId() != null) {
+            add(clientIndex, debt.getClientId(), debt.getId());
+            add(clientStatusIndex, new ClientStatusKey(debt.getClientId(), debt.getStatus()), debt.getId());
+        }
+        if (debt.getCreditId() != null) {
+            add(creditIndex, debt.getCreditId(), debt.getId());
+        }
+    }
+
+    /**
+     * Drops the previous version from the buckets it no longer belongs to. Runs after the new
+     * version is indexed so readers never see the debt missing from every bucket.
+     */
+    private void unindexStale(Debt previous, Debt current) {
+        if (previous.getClientId() != null && !previous.getClientId().equals(current.getClientId())) {
+            remove(clientIndex, previous.getClientId(), previous.getId());
+        }
+        ClientStatusKey previousKey = new ClientStatusKey(previous.getClientId(), previous.getStatus());
+        if (previous.getClientId() != null
+                && !previousKey.equals(new ClientStatusKey(current.getClientId(), current.getStatus()))) {
+            remove(clientStatusIndex, previousKey, previous.getId());
+        }
+        if (previous.getCreditId() != null && !previous.getCreditId().equals(current.getCreditId())) {
+            remove(creditIndex, previous.getCreditId(), previous.getId());
+        }
+    }
+
+    private static <K> void add(ConcurrentMap<K, Set<String>> index, K key, String id) {
+        index.compute(key, (k, ids) -> {
+            Set<String> bucket = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            bucket.add(id);
+            return bucket;
+        });
+    }
+
+    private static <K> void remove(ConcurrentMap<K, Set<String>> index, K key, String id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Debt copy(Debt debt) {
+        return debt != null ? debt.toBuilder().build() : null;
+    }
+
+    private record ClientStatusKey(String clientId, String status) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.sgi.credit.infrastructure.repository.memory;
+
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntry;
+import com.sgi.credit.domain.ports.out.LedgerEventStore;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory implementation of the ledger event store.
+ * Keeps detached copies of the entries and snapshots of each credit in maps ordered by seq; a position is
+ * taken atomically with {@code putIfAbsent}. Enabled with {@code persistence.mode=memory} and
+ * {@code persistence.ledger=event-sourced}.
+ */
+@Repository
+@ConditionalOnExpression("'${persistence.mode:mongo}' == 'memory' and '${persistence.ledger:document}' == 'event-sourced'")
+public class InMemoryLedgerEventStore implements LedgerEventStore {
+
+    private final ConcurrentMap<String, NavigableMap<Long, LedgerEntry>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NavigableMap<Long, CreditSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<LedgerEntry> append(LedgerEntry entry) {
+        return Mono.fromSupplier(() -> {
+            if (entry.getId() == null) {
+                entry.setId(new ObjectId().toHexString());
+            }
+            if (positions(entries, entry.getCreditId()).putIfAbsent(entry.getSeq(), copy(entry)) != null) {
+                throw new OptimisticLockingFailureException(
+                        "Ledger position " + entry.getSeq() + " of credit " + entry.getCreditId() + " is taken.");
+            }
+            return entry;
+        });
+    }
+
+    @Override
+    public Flux<LedgerEntry> entriesAfter(String creditId, long seq) {
+        return Flux.defer(() -> Flux.fromIterable(positions(entries, creditId).tailMap(seq, false).values()))
+                .map(InMemoryLedgerEventStore::copy);
+    }
+
+    @Override
+    public Mono<CreditSnapshot> latestSnapshot(String creditId) {
+        return Mono.fromSupplier(() -> {
+            Map.Entry<Long, CreditSnapshot> latest = positions(snapshots, creditId).lastEntry();
+            return latest != null ? latest.getValue().toBuilder().build() : null;
+        });
+    }
+
+    @Override
+    public Mono<CreditSnapshot> snapshotAt(String creditId, long seq) {
+        return Mono.fromSupplier(() -> {
+            CreditSnapshot snapshot = positions(snapshots, creditId).get(seq);
+            return snapshot != null ? snapshot.toBuilder().build() : null;
+        });
+    }
+
+    @Override
+    public Mono<Boolean> saveSnapshot(CreditSnapshot snapshot) {
+        return Mono.fromSupplier(() -> {
+            if (snapshot.getId() == null) {
+                snapshot.setId(new ObjectId().toHexString());
+            }
+            return positions(snapshots, snapshot.getCreditId())
+                    .putIfAbsent(snapshot.getSeq(), snapshot.toBuilder().build()) == null;
+        });
+    }
+
+    private static <T> NavigableMap<Long, T> positions(ConcurrentMap<String, NavigableMap<Long, T>> byCredit,
+                                                       String creditId) {
+        return byCredit.computeIfAbsent(creditId, id -> new ConcurrentSkipListMap<>());
+    }
+
+    private static LedgerEntry copy(LedgerEntry entry) {
+        return new LedgerEntry(entry.getId(), entry.getCreditId(), entry.getSeq(), entry.getType(), entry.getAmount(),
+                entry.getOccurredAt());
+    }
+}
@@ -0,0 +1,69 @@
+package com.sgi.credit.infrastructure.repository.memory;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.infrastructure.repository.sharding.Shard;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Shard backed by its own pair of in-memory repositories, used with {@code persistence.mode=memory}.
+ */
+public class InMemoryShard implements Shard {
+
+    private final String name;
+    private final InMemoryCreditRepository credits;
+    private final InMemoryDebtRepository debts;
+
+    /**
+     * Creates an empty shard.
+     *
+     * @param name        Name of the shard.
+     * @param lockStripes Lock stripes of each repository.
+     */
+    public InMemoryShard(String name, int lockStripes) {
+        this.name = name;
+        this.credits = new InMemoryCreditRepository(lockStripes);
+        this.debts = new InMemoryDebtRepository(lockStripes);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public InMemoryCreditRepository credits() {
+        return credits;
+    }
+
+    @Override
+    public InMemoryDebtRepository debts() {
+        return debts;
+    }
+
+    @Override
+    public Flux<Debt> streamDebts() {
+        return debts.streamAll();
+    }
+
+    @Override
+    public Mono<Void> insert(Credit credit) {
+        return credits.insertCopy(credit);
+    }
+
+    @Override
+    public Mono<Void> insert(Debt debt) {
+        return debts.insertCopy(debt);
+    }
+
+    @Override
+    public Mono<Boolean> remove(Credit credit) {
+        return credits.removeIfVersion(credit);
+    }
+
+    @Override
+    public Mono<Boolean> remove(Debt debt) {
+        return debts.removeIfVersion(debt);
+    }
+}
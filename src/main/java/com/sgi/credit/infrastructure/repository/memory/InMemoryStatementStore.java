@@ -0,0 +1,60 @@
+package com.sgi.credit.infrastructure.repository.memory;
+
+import com.sgi.credit.domain.model.Statement;
+import com.sgi.credit.domain.model.StatementJob;
+import com.sgi.credit.domain.ports.out.StatementStore;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory implementation of the statement store.
+ * Stores detached copies of statements and jobs in concurrent maps. Enabled with {@code persistence.mode=memory}.
+ */
+@Repository
+@ConditionalOnProperty(name = "persistence.mode", havingValue = "memory")
+public class InMemoryStatementStore implements StatementStore {
+
+    private final ConcurrentMap<String, Statement> statements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, StatementJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> saveAll(List<Statement> batch) {
+        return Mono.fromRunnable(() -> batch.forEach(statement ->
+                statements.put(statement.getId(), statement.toBuilder().build())));
+    }
+
+    @Override
+    public Mono<StatementJob> saveJob(StatementJob job) {
+        return Mono.fromSupplier(() -> {
+            if (job.getId() == null) {
+                job.setId(new ObjectId().toHexString());
+            }
+            jobs.put(job.getId(), job.toBuilder().build());
+            return job;
+        });
+    }
+
+    @Override
+    public Mono<StatementJob> findJob(String jobId) {
+        return Mono.fromSupplier(() -> {
+            StatementJob job = jobs.get(jobId);
+            return job != null ? job.toBuilder().build() : null;
+        });
+    }
+
+    /**
+     * Returns the statement stored under the given ID, for tests and diagnostics.
+     *
+     * @param statementId Statement ID.
+     * @return The statement, or null when none was written.
+     */
+    public Statement findStatement(String statementId) {
+        return statements.get(statementId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.sgi.credit.infrastructure.repository.memory;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks selected by key hash.
+ * Keeps writes on the same key serialized without allocating a lock per key.
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * Creates the lock set, rounding the stripe count up to the next power of two.
+     *
+     * @param stripes Requested number of stripes.
+     */
+    public StripedLock(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the lock guarding the given key.
+     *
+     * @param key Key to lock, usually a credit ID.
+     * @return The stripe assigned to the key.
+     */
+    public ReentrantLock get(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,54 @@
+package com.sgi.credit.infrastructure.repository.memory;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Objects;
+
+/**
+ * Optimistic locking rules for the in-memory adapters, mirroring Spring Data's handling of
+ * {@code @Version} fields: a null version means insert, anything else must match the stored version.
+ * Callers hold the stripe lock for the document while applying them.
+ */
+final class Versions {
+
+    private Versions() {
+    }
+
+    /**
+     * Returns the version to store for a save.
+     *
+     * @param id       Document ID.
+     * @param incoming Version carried by the entity being saved.
+     * @param current  Version currently stored, if any.
+     * @param exists   Whether a document with the ID is stored.
+     * @return The new version.
+     */
+    static long next(String id, Long incoming, Long current, boolean exists) {
+        if (incoming == null) {
+            if (exists) {
+                throw new DuplicateKeyException("Document with id " + id + " already exists.");
+            }
+            return 0L;
+        }
+        if (!exists || !Objects.equals(incoming, current)) {
+            throw new OptimisticLockingFailureException(
+                    "Version " + incoming + " of document " + id + " is stale.");
+        }
+        return incoming + 1;
+    }
+
+    /**
+     * Rejects a delete issued against a stale version.
+     *
+     * @param id       Document ID.
+     * @param incoming Version carried by the entity being deleted.
+     * @param current  Version currently stored.
+     */
+    static void checkDelete(String id, Long incoming, Long current) {
+        if (incoming != null && !incoming.equals(current)) {
+            throw new OptimisticLockingFailureException(
+                    "Version " + incoming + " of document " + id + " is stale.");
+        }
+    }
+}
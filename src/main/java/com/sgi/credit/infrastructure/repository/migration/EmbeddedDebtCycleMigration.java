@@ -0,0 +1,70 @@
+package com.sgi.credit.infrastructure.repository.migration;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.DebtCycle;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves ACTIVE debts from the debt collection into the credit they belong to.
+ * Runs on startup when {@code persistence.debt-cycle=embedded} and blocks until it finishes,
+ * because charges and payments only see embedded cycles in that mode.
+ * Each debt is embedded only if its credit has no cycle yet, and deleted only once the credit holds it,
+ * so the migration can be interrupted and re-run safely.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${persistence.mode:mongo}' == 'mongo' and '${persistence.debt-cycle:collection}' == 'embedded'")
+public class EmbeddedDebtCycleMigration implements ApplicationRunner {
+
+    private static final String ACTIVE_CYCLE = "activeCycle";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long migrated = mongoTemplate.find(Query.query(where("status").is(DebtRequest.StatusEnum.ACTIVE.name())),
+                        Debt.class)
+                .concatMap(this::embed)
+                .filter(Boolean::booleanValue)
+                .count()
+                .block();
+        log.info("Embedded {} active debt cycles into their credits", migrated);
+    }
+
+    private Mono<Boolean> embed(Debt debt) {
+        DebtCycle cycle = DebtCycle.builder()
+                .id(debt.getId())
+                .amount(debt.getAmount())
+                .dueDate(debt.getDueDate())
+                .openedAt(debt.getOpenedAt())
+                .build();
+        Query withoutCycle = Query.query(where("id").is(debt.getCreditId()).and(ACTIVE_CYCLE).exists(false));
+        Query holdingCycle = Query.query(where("id").is(debt.getCreditId()).and(ACTIVE_CYCLE + ".id").is(debt.getId()));
+        return mongoTemplate.updateFirst(withoutCycle, new Update().set(ACTIVE_CYCLE, cycle).inc("version", 1),
+                        Credit.class)
+                .then(mongoTemplate.exists(holdingCycle, Credit.class))
+                .flatMap(embedded -> {
+                    if (!embedded) {
+                        log.warn("Debt {} left in place: credit {} is missing or already has an active cycle",
+                                debt.getId(), debt.getCreditId());
+                        return Mono.just(false);
+                    }
+                    return mongoTemplate.remove(Query.query(where("id").is(debt.getId())), Debt.class)
+                            .thenReturn(true);
+                });
+    }
+}
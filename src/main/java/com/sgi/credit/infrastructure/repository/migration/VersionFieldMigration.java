@@ -0,0 +1,94 @@
+package com.sgi.credit.infrastructure.repository.migration;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Backfills the optimistic locking version on documents written before it existed.
+ * Without it Spring Data treats a legacy document as new and the next save fails with a duplicate key.
+ * It runs once per deployment: completion is recorded as a marker document in the {@code migrations}
+ * collection, and later startups only look the marker up. The lookup and the update run in the background,
+ * retried with backoff, so neither a full collection scan nor a Mongo outage delays readiness; instances
+ * racing before the marker exists repeat the same idempotent update. Disabled with
+ * {@code persistence.migrations.version-field=false}.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${persistence.mode:mongo}' == 'mongo' and '${persistence.migrations.version-field:true}' == 'true'")
+public class VersionFieldMigration implements ApplicationRunner, DisposableBean {
+
+    static final String MIGRATIONS = "migrations";
+    static final String MARKER_ID = "version-field";
+
+    private static final String VERSION_FIELD = "version";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Retry retry;
+    private final Disposable.Swap task = Disposables.swap();
+
+    public VersionFieldMigration(ReactiveMongoTemplate mongoTemplate) {
+        this(mongoTemplate, Retry.backoff(10, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)));
+    }
+
+    VersionFieldMigration(ReactiveMongoTemplate mongoTemplate, Retry retry) {
+        this.mongoTemplate = mongoTemplate;
+        this.retry = retry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        task.update(migrate()
+                .retryWhen(retry)
+                .subscribe(migrated -> {
+                    if (!migrated) {
+                        log.debug("Version field migration already done");
+                    }
+                }, ex -> log.error("Version field migration failed; legacy documents cannot be saved until it runs",
+                        ex)));
+    }
+
+    /**
+     * Backfills the versions unless the marker says it was done, then records the marker.
+     *
+     * @return A Mono emitting whether the backfill ran.
+     */
+    Mono<Boolean> migrate() {
+        Query marker = Query.query(Criteria.where("_id").is(MARKER_ID));
+        Query unversioned = Query.query(Criteria.where(VERSION_FIELD).exists(false));
+        Update initialVersion = Update.update(VERSION_FIELD, 0L);
+        return mongoTemplate.exists(marker, MIGRATIONS)
+                .flatMap(done -> done ? Mono.just(false) : Flux.just(Credit.class, Debt.class)
+                        .concatMap(type -> mongoTemplate.updateMulti(unversioned, initialVersion, type)
+                                .doOnNext(result -> log.info("Initialized version on {} {} documents",
+                                        result.getModifiedCount(), type.getSimpleName())))
+                        .then(Mono.defer(() -> mongoTemplate.insert(
+                                        new Document("_id", MARKER_ID).append("completedAt", new Date()), MIGRATIONS))
+                                .onErrorResume(DuplicateKeyException.class, ex -> Mono.empty()))
+                        .thenReturn(true));
+    }
+
+    @Override
+    public void destroy() {
+        task.dispose();
+    }
+}
@@ -0,0 +1,61 @@
+package com.sgi.credit.infrastructure.repository.pool;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Times how long operations wait for a pooled connection, as {@code credit.mongo.pool.checkout} tagged
+ * with the server and the outcome: {@code checked_out}, or the reason the checkout failed, such as
+ * {@code timeout}. The pool size, checked-out connections and wait queue depth are already published
+ * per server as {@code mongodb.driver.pool.size}, {@code .checkedout} and {@code .waitqueuesize}.
+ */
+public class CheckoutWaitListener implements ConnectionPoolListener {
+
+    private static final String CHECKED_OUT = "checked_out";
+
+    private final MeterRegistry meterRegistry;
+    private final LongConsumer waits;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the listener.
+     *
+     * @param meterRegistry Registry receiving the checkout timer.
+     * @param waits         Receives every checkout wait in nanoseconds, such as the pool size controller.
+     */
+    public CheckoutWaitListener(MeterRegistry meterRegistry, LongConsumer waits) {
+        this.meterRegistry = meterRegistry;
+        this.waits = waits;
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        record(event.getConnectionId().getServerId(), CHECKED_OUT, event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        record(event.getServerId(), event.getReason().name().toLowerCase(Locale.ROOT),
+                event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(ServerId serverId, String outcome, long nanos) {
+        String server = serverId.getAddress().toString();
+        timers.computeIfAbsent(server + '|' + outcome, key -> Timer.builder("credit.mongo.pool.checkout")
+                        .tag("server.address", server)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        waits.accept(nanos);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sgi.credit.infrastructure.repository.pool;
+
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveCollectionCallback;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Template whose collection operations run within the limit of a {@link PoolSizeController}.
+ * Saves, updates, counts and callbacks go through the collection callbacks gated here, as do the
+ * repositories built on the template. Each one holds its permit until the server answers; streamed
+ * results are consumed without one.
+ */
+public class GatedReactiveMongoTemplate extends ReactiveMongoTemplate {
+
+    private final PoolSizeController controller;
+
+    /**
+     * Creates the template.
+     *
+     * @param databaseFactory Factory of the database.
+     * @param converter       Converter of the entities.
+     * @param controller      Controller whose limit the operations run within.
+     */
+    public GatedReactiveMongoTemplate(ReactiveMongoDatabaseFactory databaseFactory, MongoConverter converter,
+                                      PoolSizeController controller) {
+        super(databaseFactory, converter);
+        this.controller = controller;
+    }
+
+    @Override
+    public <T> Flux<T> createFlux(String collectionName, ReactiveCollectionCallback<T> callback) {
+        return controller.gate(super.createFlux(collectionName, callback));
+    }
+
+    @Override
+    public <T> Mono<T> createMono(String collectionName, ReactiveCollectionCallback<T> callback) {
+        return controller.gate(super.createMono(collectionName, callback));
+    }
+}
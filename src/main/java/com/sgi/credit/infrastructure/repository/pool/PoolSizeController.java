@@ -0,0 +1,230 @@
+package com.sgi.credit.infrastructure.repository.pool;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Effective maximum size of the Mongo connection pool, adjusted within bounds from the observed waits.
+ * The driver cannot resize a pool once created, so its maximum is set to the upper bound and this limit
+ * is enforced in front of it: each template operation holds a permit until its first signal, which is
+ * when the server answered its first round-trip, and operations beyond the limit queue here in order.
+ * A cursor releases its permit before its first element is consumed, so a slow consumer, or operations
+ * it issues for each element, never wait on a permit it holds. Every {@code interval} the average wait, for a permit or for a
+ * pooled connection, is compared with {@code waitThreshold}: when it is exceeded while the whole limit
+ * was in flight, or operations are still queued, the limit grows by a quarter; when waits are short and
+ * less than half of the limit was in flight it shrinks by an eighth. The limit, the operations in flight
+ * and the queued ones are published as {@code credit.mongo.pool.limit}, {@code .inflight} and
+ * {@code .queued}.
+ */
+@Slf4j
+public class PoolSizeController implements DisposableBean {
+
+    private final int minSize;
+    private final int maxSize;
+    private final long waitThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final Disposable task;
+
+    private volatile int limit;
+
+    /**
+     * Creates and starts the controller.
+     *
+     * @param meterRegistry Registry receiving the limit gauges.
+     * @param minSize       Lowest limit.
+     * @param maxSize       Highest limit, which is also the maximum size of the driver pool.
+     * @param initialSize   Limit before the first adjustment.
+     * @param waitThreshold Average wait beyond which a saturated limit grows.
+     * @param interval      Time between two adjustments.
+     */
+    public PoolSizeController(MeterRegistry meterRegistry, int minSize, int maxSize, int initialSize,
+                              Duration waitThreshold, Duration interval) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Invalid pool size bounds " + minSize + ".." + maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.waitThresholdNanos = waitThreshold.toNanos();
+        this.limit = Math.max(minSize, Math.min(maxSize, initialSize));
+        Gauge.builder("credit.mongo.pool.limit", this, PoolSizeController::limit).register(meterRegistry);
+        Gauge.builder("credit.mongo.pool.inflight", this, PoolSizeController::inFlight).register(meterRegistry);
+        Gauge.builder("credit.mongo.pool.queued", waiters, Queue::size).register(meterRegistry);
+        this.task = Flux.interval(interval, interval, Schedulers.parallel())
+                .subscribe(tick -> adjust());
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Runs a Mono holding a permit until it answers, waiting for one first when the limit is in flight.
+     *
+     * @param source Operation to run.
+     * @param <T>    Type of the value.
+     * @return The gated operation.
+     */
+    public <T> Mono<T> gate(Mono<T> source) {
+        return acquire().flatMap(permit -> source
+                .doOnEach(signal -> permit.release())
+                .doFinally(signal -> permit.release()));
+    }
+
+    /**
+     * Runs a Flux holding a permit until its first signal, waiting for one first when the limit is in flight.
+     * The permit is released before that signal reaches the subscriber.
+     *
+     * @param source Operation to run.
+     * @param <T>    Type of the elements.
+     * @return The gated operation.
+     */
+    public <T> Flux<T> gate(Flux<T> source) {
+        return acquire().flatMapMany(permit -> source
+                .doOnEach(signal -> permit.release())
+                .doFinally(signal -> permit.release()));
+    }
+
+    /**
+     * Records how long an operation waited for a pooled connection.
+     *
+     * @param nanos Wait in nanoseconds.
+     */
+    public void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        waits.increment();
+    }
+
+    /**
+     * Adjusts the limit from the waits and the peak in flight since the previous adjustment.
+     */
+    synchronized void adjust() {
+        long count = waits.sumThenReset();
+        long averageWait = count > 0 ? waitNanos.sumThenReset() / count : 0;
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        int current = limit;
+        int next = current;
+        if (averageWait > waitThresholdNanos && (peak >= current || !waiters.isEmpty())) {
+            next = Math.min(maxSize, current + Math.max(1, current / 4));
+        } else if (averageWait <= waitThresholdNanos && peak < current / 2) {
+            next = Math.max(minSize, current - Math.max(1, current / 8));
+        }
+        if (next != current) {
+            log.debug("Mongo pool limit {} -> {} (average wait {}us, peak in flight {})", current, next,
+                    averageWait / 1_000, peak);
+            limit = next;
+            drain();
+        }
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+            if (tryAcquire()) {
+                recordWait(0);
+                sink.success(new Permit());
+                return;
+            }
+            Waiter waiter = new Waiter(sink, System.nanoTime());
+            waiters.add(waiter);
+            sink.onCancel(waiter::cancel);
+            drain();
+        }).doOnDiscard(Permit.class, Permit::release);
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty() && tryAcquire()) {
+            Waiter waiter = waiters.poll();
+            if (waiter == null || !waiter.grant()) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        task.dispose();
+    }
+
+    /**
+     * Operation queued for a permit.
+     */
+    private final class Waiter {
+
+        private final MonoSink<Permit> sink;
+        private final long queuedAt;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Waiter(MonoSink<Permit> sink, long queuedAt) {
+            this.sink = sink;
+            this.queuedAt = queuedAt;
+        }
+
+        private boolean grant() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            recordWait(System.nanoTime() - queuedAt);
+            sink.success(new Permit());
+            return true;
+        }
+
+        private void cancel() {
+            if (done.compareAndSet(false, true)) {
+                waiters.remove(this);
+            }
+        }
+    }
+
+    /**
+     * Permit held by a running operation, released once whichever way the operation answers or ends.
+     */
+    private final class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                drain();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sgi.credit.infrastructure.repository.pool;
+
+import com.mongodb.RequestContext;
+import com.mongodb.reactivestreams.client.ReactiveContextProvider;
+import org.reactivestreams.Subscriber;
+import reactor.core.CoreSubscriber;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Hands the Reactor context of the subscriber issuing an operation to the driver, which passes it to the
+ * command listeners as the request context of each command event.
+ */
+public final class ReactorContextProvider implements ReactiveContextProvider {
+
+    @Override
+    public RequestContext getContext(Subscriber<?> subscriber) {
+        return new ReactorRequestContext(subscriber instanceof CoreSubscriber<?> core ? core.currentContext()
+                : Context.empty());
+    }
+
+    /**
+     * Request context backed by a Reactor context; writes replace the context held.
+     */
+    static final class ReactorRequestContext implements RequestContext {
+
+        private Context context;
+
+        private ReactorRequestContext(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public <T> T get(Object key) {
+            return context.get(key);
+        }
+
+        @Override
+        public boolean hasKey(Object key) {
+            return context.hasKey(key);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return context.isEmpty();
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            context = context.put(key, value);
+        }
+
+        @Override
+        public void delete(Object key) {
+            context = context.delete(key);
+        }
+
+        @Override
+        public int size() {
+            return context.size();
+        }
+
+        @Override
+        public Stream<Map.Entry<Object, Object>> stream() {
+            return context.stream();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.sgi.credit.infrastructure.repository.pool;
+
+import com.mongodb.RequestContext;
+import com.mongodb.event.CommandEvent;
+import com.sgi.credit.infrastructure.tracing.StageObservations;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+
+/**
+ * Tags the {@code mongodb.driver.commands} timer with the repository method that issued each command,
+ * as well as the default command, collection, server and status tags. The method is the innermost stage
+ * of {@link StageObservations}, such as {@code creditRepository.findById}, read from the request context
+ * that {@link ReactorContextProvider} hands to the driver; commands issued outside a stage, or without
+ * that provider, are tagged {@value #NONE}.
+ */
+public class StageCommandTagsProvider extends DefaultMongoCommandTagsProvider {
+
+    public static final String METHOD = "method";
+
+    private static final String NONE = "none";
+
+    @Override
+    public Iterable<Tag> commandTags(CommandEvent event) {
+        return Tags.of(super.commandTags(event)).and(METHOD, method(event.getRequestContext()));
+    }
+
+    private static String method(RequestContext context) {
+        return context instanceof ReactorContextProvider.ReactorRequestContext reactor
+                ? reactor.getOrDefault(StageObservations.CURRENT_STAGE, NONE)
+                : NONE;
+    }
+}
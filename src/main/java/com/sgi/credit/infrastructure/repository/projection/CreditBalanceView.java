@@ -0,0 +1,14 @@
+package com.sgi.credit.infrastructure.repository.projection;
+
+import com.sgi.credit.domain.model.Money;
+
+/**
+ * Closed projection of a Credit holding only the fields needed for a balance query.
+ * Spring Data restricts the Mongo field selection to these properties.
+ */
+public interface CreditBalanceView {
+
+    String getClientId();
+
+    Money getBalance();
+}
@@ -0,0 +1,31 @@
+package com.sgi.credit.infrastructure.repository.projection;
+
+import com.sgi.credit.domain.model.Money;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Closed projection of a Credit holding the card summary fields exposed by CreditResponse.
+ * Spring Data restricts the Mongo field selection to these properties.
+ */
+public interface CreditCardView {
+
+    String getId();
+
+    String getCreditNumber();
+
+    String getType();
+
+    Money getCreditLimit();
+
+    Money getConsumptionAmount();
+
+    Money getBalance();
+
+    BigDecimal getInterestRate();
+
+    String getClientId();
+
+    Instant getCreatedDate();
+}
@@ -0,0 +1,10 @@
+package com.sgi.credit.infrastructure.repository.projection;
+
+/**
+ * Closed projection of a Credit holding only the last journal sequence applied to it.
+ * Used to find where the journal has to resume without loading whole documents.
+ */
+public interface CreditJournalView {
+
+    Long getJournalSeq();
+}
@@ -0,0 +1,10 @@
+package com.sgi.credit.infrastructure.repository.projection;
+
+/**
+ * Closed projection of a Credit holding only its optimistic locking version.
+ * Used to answer conditional requests without loading the whole document.
+ */
+public interface CreditRevisionView {
+
+    Long getVersion();
+}
@@ -0,0 +1,88 @@
+package com.sgi.credit.infrastructure.repository.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring mapping keys to shard names.
+ * Every shard is placed on the ring at {@code virtualNodes} points and a key belongs to the first
+ * point at or after its hash, so adding a shard only moves the keys that land on its new points,
+ * about one key in {@code shards + 1}. Keys and points are hashed with 64-bit FNV-1a followed by
+ * the MurmurHash3 finalizer, which spreads similar keys such as sequential client IDs.
+ */
+public final class ConsistentHashRing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final List<String> shards;
+
+    /**
+     * Creates the ring.
+     *
+     * @param shards       Names of the shards; must not be empty.
+     * @param virtualNodes Points placed on the ring per shard.
+     */
+    public ConsistentHashRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one shard");
+        }
+        this.shards = List.copyOf(shards);
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.putIfAbsent(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    /**
+     * Returns the shard owning the key.
+     *
+     * @param key Routing key; null is routed like the empty string.
+     * @return The shard name.
+     */
+    public String shardFor(String key) {
+        return ownerOf(hash(key != null ? key : ""));
+    }
+
+    /**
+     * Returns the shard owning every key whose hash starts with the given 32 bits.
+     *
+     * @param prefix High 32 bits of the hashes.
+     * @return The shard name, or null when points of different shards split those hashes.
+     */
+    public String shardForPrefix(int prefix) {
+        long from = (long) prefix << 32;
+        long to = from | 0xffffffffL;
+        String owner = ownerOf(to);
+        return points.subMap(from, true, to, false).values().stream().allMatch(owner::equals) ? owner : null;
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    private String ownerOf(long hash) {
+        Map.Entry<Long, String> point = points.ceilingEntry(hash);
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
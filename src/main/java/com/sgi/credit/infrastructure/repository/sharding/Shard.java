@@ -0,0 +1,50 @@
+package com.sgi.credit.infrastructure.repository.sharding;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * One shard of the credit and debt data: the repositories of a database or a collection pair,
+ * plus the raw copies and removals used to move documents to another shard.
+ * Copies keep the version of the document, so optimistic locking carries over to the new shard.
+ */
+public interface Shard {
+
+    String name();
+
+    CreditRepository credits();
+
+    DebtRepository debts();
+
+    Flux<Debt> streamDebts();
+
+    /**
+     * Inserts the credit as it is, version included.
+     *
+     * @param credit Credit to copy.
+     * @return Completion, or a duplicate key error if the shard already holds the ID.
+     */
+    Mono<Void> insert(Credit credit);
+
+    Mono<Void> insert(Debt debt);
+
+    /**
+     * Removes the credit if the shard holds it at the same version.
+     *
+     * @param credit Credit to remove.
+     * @return Whether it was removed.
+     */
+    Mono<Boolean> remove(Credit credit);
+
+    Mono<Boolean> remove(Debt debt);
+
+    /**
+     * Releases the resources of the shard, such as its pending batched writes.
+     */
+    default void close() {
+    }
+}
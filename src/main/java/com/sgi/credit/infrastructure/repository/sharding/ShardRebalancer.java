@@ -0,0 +1,143 @@
+package com.sgi.credit.infrastructure.repository.sharding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Moves every credit and debt that is not on the shard owning its client, as after a shard is added.
+ * Each document is copied to its owner with the same version and then removed from the old shard at
+ * that version; if it changed in between, the copy is removed again and the document is left for the
+ * next run. A copy already present on the owner, left by an interrupted run or a save that moved the
+ * document, only needs the old one removed. The router reads across all shards from the start of a run
+ * until a run finishes without conflicts.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private final ShardRouter router;
+    private final int concurrency;
+    private final Counter movedCredits;
+    private final Counter movedDebts;
+    private final Counter conflicts;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Report lastReport;
+
+    /**
+     * Creates the rebalancer.
+     *
+     * @param router        Router whose shards are rebalanced.
+     * @param meterRegistry Registry receiving the move metrics.
+     * @param concurrency   Documents moved at the same time.
+     */
+    public ShardRebalancer(ShardRouter router, MeterRegistry meterRegistry, int concurrency) {
+        this.router = router;
+        this.concurrency = concurrency;
+        this.movedCredits = Counter.builder("credit.sharding.moved").tag("type", "credit").register(meterRegistry);
+        this.movedDebts = Counter.builder("credit.sharding.moved").tag("type", "debt").register(meterRegistry);
+        this.conflicts = Counter.builder("credit.sharding.conflicts").register(meterRegistry);
+    }
+
+    /**
+     * Runs one rebalancing pass over every shard.
+     *
+     * @return The report of the pass, or an error if a pass is already running.
+     */
+    public Mono<Report> rebalance() {
+        return Mono.defer(() -> {
+            if (!running.compareAndSet(false, true)) {
+                return Mono.error(new IllegalStateException("A rebalancing is already running."));
+            }
+            router.setRebalancing(true);
+            long start = System.nanoTime();
+            Tally tally = new Tally();
+            return Flux.fromIterable(router.shards())
+                    .concatMap(shard -> moveCredits(shard, tally).then(moveDebts(shard, tally)))
+                    .then(Mono.fromSupplier(() -> {
+                        Report report = tally.report(Duration.ofNanos(System.nanoTime() - start));
+                        router.setRebalancing(report.conflicts() > 0);
+                        lastReport = report;
+                        log.info("Shard rebalancing finished: {}", report);
+                        return report;
+                    }))
+                    .doFinally(signal -> running.set(false));
+        });
+    }
+
+    public Report lastReport() {
+        return lastReport;
+    }
+
+    private Mono<Void> moveCredits(Shard source, Tally tally) {
+        return source.credits().streamAll()
+                .doOnNext(credit -> tally.scanned.incrementAndGet())
+                .filter(credit -> router.shardFor(credit.getClientId()) != source)
+                .flatMap(credit -> move(source, router.shardFor(credit.getClientId()), credit,
+                        Shard::insert, Shard::remove), concurrency)
+                .doOnNext(moved -> count(moved, tally, tally.credits, movedCredits))
+                .then();
+    }
+
+    private Mono<Void> moveDebts(Shard source, Tally tally) {
+        return source.streamDebts()
+                .doOnNext(debt -> tally.scanned.incrementAndGet())
+                .filter(debt -> router.shardFor(debt.getClientId()) != source)
+                .flatMap(debt -> move(source, router.shardFor(debt.getClientId()), debt,
+                        Shard::insert, Shard::remove), concurrency)
+                .doOnNext(moved -> count(moved, tally, tally.debts, movedDebts))
+                .then();
+    }
+
+    private void count(boolean moved, Tally tally, AtomicLong movedTally, Counter movedCounter) {
+        if (moved) {
+            movedTally.incrementAndGet();
+            movedCounter.increment();
+        } else {
+            tally.conflicts.incrementAndGet();
+            conflicts.increment();
+        }
+    }
+
+    private static <T> Mono<Boolean> move(Shard source, Shard owner, T document,
+                                          BiFunction<Shard, T, Mono<Void>> insert,
+                                          BiFunction<Shard, T, Mono<Boolean>> remove) {
+        return insert.apply(owner, document)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false))
+                .flatMap(copied -> remove.apply(source, document)
+                        .flatMap(removed -> removed || !copied
+                                ? Mono.just(removed)
+                                : remove.apply(owner, document).thenReturn(false)));
+    }
+
+    private static final class Tally {
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong credits = new AtomicLong();
+        private final AtomicLong debts = new AtomicLong();
+        private final AtomicLong conflicts = new AtomicLong();
+
+        Report report(Duration took) {
+            return new Report(scanned.get(), credits.get(), debts.get(), conflicts.get(), took);
+        }
+    }
+
+    /**
+     * Outcome of a rebalancing pass.
+     *
+     * @param scanned      Documents read from the shards.
+     * @param movedCredits Credits moved to their owning shard.
+     * @param movedDebts   Debts moved to their owning shard.
+     * @param conflicts    Documents changed during their move, left for the next pass.
+     * @param took         Duration of the pass.
+     */
+    public record Report(long scanned, long movedCredits, long movedDebts, long conflicts, Duration took) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.sgi.credit.infrastructure.repository.sharding;
+
+import org.bson.types.ObjectId;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Routes operations to the shards by consistent hashing on the client ID.
+ * Operations keyed by client go to the owning shard only; lookups by document ID fan out to every
+ * shard in parallel. While documents are being moved between shards, reads keyed by client fan out
+ * too and drop the duplicates a move leaves for a moment, so nothing is missed whichever shard holds
+ * the document at the time.
+ * Credit IDs created through {@link #newCreditId(String)} carry the ring position of their client, so a
+ * lookup by such an ID goes to the owning shard first.
+ */
+public class ShardRouter implements DisposableBean {
+
+    private static final int ROUTING_OFFSET = 4;
+
+    private final Map<String, Shard> shards = new LinkedHashMap<>();
+    private final ConsistentHashRing ring;
+    private volatile boolean rebalancing;
+
+    /**
+     * Creates the router.
+     *
+     * @param shards       Shards, with distinct names.
+     * @param virtualNodes Points placed on the ring per shard.
+     * @param rebalancing  Whether documents may still be on a shard other than their owner.
+     */
+    public ShardRouter(List<Shard> shards, int virtualNodes, boolean rebalancing) {
+        shards.forEach(shard -> {
+            if (this.shards.putIfAbsent(shard.name(), shard) != null) {
+                throw new IllegalArgumentException("Duplicate shard " + shard.name());
+            }
+        });
+        this.ring = new ConsistentHashRing(this.shards.keySet(), virtualNodes);
+        this.rebalancing = rebalancing;
+    }
+
+    public Shard shardFor(String clientId) {
+        return shards.get(ring.shardFor(clientId));
+    }
+
+    /**
+     * Creates an object ID for a new credit of the client. The first 4 of its 5 per-process random bytes
+     * hold the high bits of the ring position of the client instead; the timestamp and counter are kept,
+     * so IDs still sort by creation time.
+     *
+     * @param clientId Client of the credit.
+     * @return The hexadecimal ID.
+     */
+    public String newCreditId(String clientId) {
+        ByteBuffer bytes = ByteBuffer.wrap(new ObjectId().toByteArray());
+        bytes.putInt(ROUTING_OFFSET, (int) (ConsistentHashRing.hash(clientId != null ? clientId : "") >>> 32));
+        return new ObjectId(bytes.array()).toHexString();
+    }
+
+    /**
+     * Returns the shard that owns the credit if its ID came from {@link #newCreditId(String)}.
+     * Other IDs yield an arbitrary shard, so callers fall back to the other shards on a miss.
+     *
+     * @param creditId Credit ID.
+     * @return The shard, or null when the ID is not an object ID or its position spans several shards.
+     */
+    public Shard shardForCreditId(String creditId) {
+        if (creditId == null || !ObjectId.isValid(creditId)) {
+            return null;
+        }
+        String shard = ring.shardForPrefix(ByteBuffer.wrap(new ObjectId(creditId).toByteArray()).getInt(ROUTING_OFFSET));
+        return shard != null ? shards.get(shard) : null;
+    }
+
+    public Collection<Shard> shards() {
+        return shards.values();
+    }
+
+    public boolean isRebalancing() {
+        return rebalancing;
+    }
+
+    public void setRebalancing(boolean rebalancing) {
+        this.rebalancing = rebalancing;
+    }
+
+    @Override
+    public void destroy() {
+        shards.values().forEach(Shard::close);
+    }
+
+    /**
+     * Runs the query on every shard in parallel and merges the results.
+     *
+     * @param query Query run against one shard.
+     * @param <T>   Type of the results.
+     * @return A Flux emitting the results in arrival order.
+     */
+    public <T> Flux<T> fanOut(Function<Shard, ? extends Publisher<T>> query) {
+        return Flux.fromIterable(shards.values()).flatMap(query, shards.size());
+    }
+
+    /**
+     * Runs a query keyed by client: on the owning shard, or on every shard while rebalancing.
+     *
+     * @param clientId Client ID.
+     * @param query    Query run against one shard.
+     * @param id       Extracts the document ID used to drop duplicates.
+     * @param <T>      Type of the results.
+     * @return A Flux emitting the results.
+     */
+    public <T> Flux<T> byClient(String clientId, Function<Shard, ? extends Publisher<T>> query, Function<T, String> id) {
+        if (!rebalancing) {
+            return Flux.from(query.apply(shardFor(clientId)));
+        }
+        return fanOut(query).distinct(id);
+    }
+
+    /**
+     * Returns the only result of a query run on several shards, mirroring single-result queries.
+     *
+     * @param results Results merged from the shards.
+     * @param id      Extracts the document ID used to drop duplicates.
+     * @param <T>     Type of the results.
+     * @return The result, empty if none, or an error if more than one document matches.
+     */
+    public static <T> Mono<T> single(Flux<T> results, Function<T, String> id) {
+        return results.distinct(id)
+                .take(2)
+                .collectList()
+                .flatMap(matches -> matches.size() > 1
+                        ? Mono.error(new IncorrectResultSizeDataAccessException("Query returned non unique result.", 1))
+                        : Mono.justOrEmpty(matches.isEmpty() ? null : matches.get(0)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.sgi.credit.infrastructure.repository.sharding;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.ReadConsistency;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.mapper.CreditMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Credit repository routing every call to the shard owning the client of the credit.
+ * New credits get IDs from {@link ShardRouter#newCreditId(String)}, so lookups by credit ID go to the
+ * shard the ID names and fan out to all shards only when it does not hold the credit, as with IDs
+ * created before sharding. Listings merge the shards in parallel, and {@link #streamFrom(String)} merges
+ * their ID-ordered streams so the result stays in ID order.
+ * A save whose client now belongs to another shard moves the credit there: it is inserted into the
+ * new shard with its next version, then removed from the old one at the version it was read with.
+ * This relies on every shard rejecting a versioned save of a credit it does not hold with an
+ * {@link OptimisticLockingFailureException}, batched saves included.
+ */
+@RequiredArgsConstructor
+public class ShardedCreditRepository implements CreditRepository {
+
+    private final ShardRouter router;
+
+    @Override
+    public Mono<CreditResponse> save(Credit credit) {
+        Shard owner = router.shardFor(credit.getClientId());
+        Long expected = credit.getVersion();
+        if (expected == null) {
+            if (credit.getId() == null) {
+                credit.setId(router.newCreditId(credit.getClientId()));
+            }
+            return owner.credits().save(credit);
+        }
+        return owner.credits().save(credit)
+                .onErrorResume(OptimisticLockingFailureException.class, ex -> {
+                    credit.setVersion(expected);
+                    return relocate(credit, owner, ex);
+                });
+    }
+
+    private Mono<CreditResponse> relocate(Credit credit, Shard owner, OptimisticLockingFailureException conflict) {
+        return Flux.fromIterable(router.shards())
+                .filter(shard -> shard != owner)
+                .flatMap(shard -> shard.credits().findById(credit.getId()).map(found -> Tuples.of(shard, found)))
+                .next()
+                .filter(found -> Objects.equals(found.getT2().getVersion(), credit.getVersion()))
+                .switchIfEmpty(Mono.error(conflict))
+                .flatMap(found -> {
+                    Credit moved = credit.toBuilder().version(credit.getVersion() + 1).build();
+                    return owner.insert(moved)
+                            .then(found.getT1().remove(found.getT2()))
+                            .flatMap(removed -> removed
+                                    ? Mono.fromSupplier(() -> {
+                                        credit.setVersion(moved.getVersion());
+                                        return CreditMapper.INSTANCE.toCreditResponse(moved);
+                                    })
+                                    : owner.remove(moved).then(Mono.error(conflict)));
+                });
+    }
+
+    @Override
+    public Mono<Credit> findById(String id) {
+        return byId(id, shard -> shard.credits().findById(id));
+    }
+
+    @Override
+    public Mono<Credit> findById(String id, ReadConsistency consistency) {
+        return byId(id, shard -> shard.credits().findById(id, consistency));
+    }
+
+    private <T> Mono<T> byId(String id, Function<Shard, Mono<T>> query) {
+        Shard shard = router.shardForCreditId(id);
+        Mono<T> fanOut = router.fanOut(query).next();
+        return shard != null ? query.apply(shard).switchIfEmpty(fanOut) : fanOut;
+    }
+
+    @Override
+    public Flux<CreditResponse> findAll(String creditId, String type, String clientId) {
+        Flux<CreditResponse> credits = router.fanOut(shard -> shard.credits().findAll(creditId, type, clientId));
+        return router.isRebalancing() ? credits.distinct(CreditResponse::getId) : credits;
+    }
+
+    @Override
+    public Flux<Credit> streamAll() {
+        Flux<Credit> credits = router.fanOut(shard -> shard.credits().streamAll());
+        return router.isRebalancing() ? credits.distinct(Credit::getId) : credits;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Flux<Credit> streamFrom(String afterId) {
+        Flux<Credit>[] streams = router.shards().stream()
+                .map(shard -> shard.credits().streamFrom(afterId))
+                .toArray(Flux[]::new);
+        return Flux.mergeComparing(Comparator.comparing(Credit::getId), streams)
+                .distinctUntilChanged(Credit::getId);
+    }
+
+    @Override
+    public Mono<Void> delete(Credit credit) {
+        if (!router.isRebalancing()) {
+            return router.shardFor(credit.getClientId()).credits().delete(credit);
+        }
+        return router.fanOut(shard -> shard.credits().findById(credit.getId())
+                        .flatMap(found -> shard.credits().delete(credit)))
+                .then();
+    }
+
+    @Override
+    public Flux<CreditResponse> getCreditCardByClientId(String clientId) {
+        return router.byClient(clientId, shard -> shard.credits().getCreditCardByClientId(clientId),
+                CreditResponse::getId);
+    }
+
+    @Override
+    public Mono<BalanceResponse> findBalanceById(String id) {
+        return byId(id, shard -> shard.credits().findBalanceById(id));
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return byId(id, shard -> shard.credits().findVersionById(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsCycleDueBefore(String clientId, Instant cutoff) {
+        if (!router.isRebalancing()) {
+            return router.shardFor(clientId).credits().existsCycleDueBefore(clientId, cutoff);
+        }
+        return router.fanOut(shard -> shard.credits().existsCycleDueBefore(clientId, cutoff))
+                .any(Boolean::booleanValue);
+    }
+
+    @Override
+    public Mono<Long> findHighestJournalSeq() {
+        return router.fanOut(shard -> shard.credits().findHighestJournalSeq()).reduce(Math::max);
+    }
+}
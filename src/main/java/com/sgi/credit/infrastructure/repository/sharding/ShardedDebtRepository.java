@@ -0,0 +1,86 @@
+package com.sgi.credit.infrastructure.repository.sharding;
+
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.infrastructure.dto.DebtResponse;
+import com.sgi.credit.infrastructure.mapper.DebtMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.util.Objects;
+
+/**
+ * Debt repository routing every call to the shard owning the client of the debt.
+ * Lookups by credit ID fan out to all shards; single-result lookups fail when the shards hold
+ * more than one match, as a single collection would. Saves move debts between shards the same
+ * way {@link ShardedCreditRepository} moves credits.
+ */
+@RequiredArgsConstructor
+public class ShardedDebtRepository implements DebtRepository {
+
+    private final ShardRouter router;
+
+    @Override
+    public Mono<DebtResponse> save(Debt debt) {
+        Shard owner = router.shardFor(debt.getClientId());
+        Long expected = debt.getVersion();
+        if (expected == null) {
+            return owner.debts().save(debt);
+        }
+        return owner.debts().save(debt)
+                .onErrorResume(OptimisticLockingFailureException.class, ex -> {
+                    debt.setVersion(expected);
+                    return relocate(debt, owner, ex);
+                });
+    }
+
+    private Mono<DebtResponse> relocate(Debt debt, Shard owner, OptimisticLockingFailureException conflict) {
+        return Flux.fromIterable(router.shards())
+                .filter(shard -> shard != owner)
+                .flatMap(shard -> shard.debts().findAllByCreditId(debt.getCreditId())
+                        .filter(found -> found.getId().equals(debt.getId()))
+                        .map(found -> Tuples.of(shard, found)))
+                .next()
+                .filter(found -> Objects.equals(found.getT2().getVersion(), debt.getVersion()))
+                .switchIfEmpty(Mono.error(conflict))
+                .flatMap(found -> {
+                    Debt moved = debt.toBuilder().version(debt.getVersion() + 1).build();
+                    return owner.insert(moved)
+                            .then(found.getT1().remove(found.getT2()))
+                            .flatMap(removed -> removed
+                                    ? Mono.fromSupplier(() -> {
+                                        debt.setVersion(moved.getVersion());
+                                        return DebtMapper.INSTANCE.toDebtResponse(moved);
+                                    })
+                                    : owner.remove(moved).then(Mono.error(conflict)));
+                });
+    }
+
+    @Override
+    public Flux<DebtResponse> findAllByClientId(String clientId) {
+        return router.byClient(clientId, shard -> shard.debts().findAllByClientId(clientId), DebtResponse::getId);
+    }
+
+    @Override
+    public Mono<DebtResponse> findByCreditId(String creditId) {
+        return ShardRouter.single(router.fanOut(shard -> shard.debts().findByCreditId(creditId)), DebtResponse::getId);
+    }
+
+    @Override
+    public Flux<Debt> findAllByCreditId(String creditId) {
+        Flux<Debt> debts = router.fanOut(shard -> shard.debts().findAllByCreditId(creditId));
+        return router.isRebalancing() ? debts.distinct(Debt::getId) : debts;
+    }
+
+    @Override
+    public Mono<Debt> findByClientIdAndStatus(String clientId, String status) {
+        if (!router.isRebalancing()) {
+            return router.shardFor(clientId).debts().findByClientIdAndStatus(clientId, status);
+        }
+        return ShardRouter.single(router.fanOut(shard -> shard.debts().findByClientIdAndStatus(clientId, status)),
+                Debt::getId);
+    }
+}
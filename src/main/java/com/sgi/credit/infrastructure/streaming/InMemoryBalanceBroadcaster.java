@@ -0,0 +1,110 @@
+package com.sgi.credit.infrastructure.streaming;
+
+import com.sgi.credit.domain.ports.out.BalanceBroadcaster;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process implementation of the balance broadcaster.
+ * Each followed credit has a multicast sink, created by its first subscriber and dropped with its last,
+ * so credits nobody follows cost nothing on the write path. Every subscriber reads the sink through its
+ * own latest-value buffer: a slow client skips intermediate balances instead of holding back the others.
+ * Only writes handled by this instance are published. Publishes {@code credit.balance.stream.subscribers}
+ * and the time from publication to delivery as {@code credit.balance.stream.fanout}.
+ */
+@Component
+public class InMemoryBalanceBroadcaster implements BalanceBroadcaster {
+
+    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Timer fanOut;
+
+    /**
+     * Creates the broadcaster.
+     *
+     * @param meterRegistry Registry receiving the subscriber and fan-out metrics.
+     */
+    public InMemoryBalanceBroadcaster(MeterRegistry meterRegistry) {
+        Gauge.builder("credit.balance.stream.subscribers", subscribers, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("credit.balance.stream.credits", channels, ConcurrentMap::size)
+                .register(meterRegistry);
+        this.fanOut = Timer.builder("credit.balance.stream.fanout")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean hasSubscribers(String creditId) {
+        return channels.containsKey(creditId);
+    }
+
+    @Override
+    public void publish(String creditId, BalanceResponse balance) {
+        Channel channel = channels.get(creditId);
+        if (channel != null) {
+            channel.emit(new Update(balance, System.nanoTime()));
+        }
+    }
+
+    @Override
+    public Flux<BalanceResponse> subscribe(String creditId) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(creditId, (key, current) -> {
+                Channel acquired = current != null ? current : new Channel();
+                acquired.subscribers++;
+                return acquired;
+            });
+            subscribers.incrementAndGet();
+            return channel.sink.asFlux()
+                    .onBackpressureLatest()
+                    .doOnNext(update -> fanOut.record(System.nanoTime() - update.publishedAt(), TimeUnit.NANOSECONDS))
+                    .map(Update::balance)
+                    .doFinally(signal -> release(creditId, channel));
+        });
+    }
+
+    private void release(String creditId, Channel channel) {
+        subscribers.decrementAndGet();
+        channels.computeIfPresent(creditId, (key, current) -> {
+            if (current != channel || --current.subscribers > 0) {
+                return current;
+            }
+            current.complete();
+            return null;
+        });
+    }
+
+    /**
+     * Sink of one credit and its subscriber count, which only changes inside {@link ConcurrentMap#compute}.
+     */
+    private static final class Channel {
+
+        private final Sinks.Many<Update> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+
+        /**
+         * Emits under the channel lock, since writers of the same credit may publish concurrently.
+         */
+        synchronized void emit(Update update) {
+            sink.tryEmitNext(update);
+        }
+
+        synchronized void complete() {
+            sink.tryEmitComplete();
+        }
+    }
+
+    private record Update(BalanceResponse balance, long publishedAt) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.sgi.credit.infrastructure.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.exporter.SpanReporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Span exporter keeping the most recent slow traces in memory, so they can be inspected without a
+ * tracing backend. Finished spans are grouped by trace until the local root ends: the server span of
+ * the request, or a span without parent. Traces whose root took at least
+ * {@code tracing.slow-traces.threshold} are kept, up to {@code tracing.slow-traces.capacity} of them;
+ * the others are discarded. At most {@code tracing.slow-traces.max-pending} traces are grouped at a
+ * time, and groups older than {@code tracing.slow-traces.pending-ttl} are evicted when that bound
+ * is reached.
+ */
+@Component
+public class InMemorySpanExporter implements SpanReporter {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final int maxPending;
+    private final long pendingTtlNanos;
+    private final ConcurrentMap<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    private final Deque<SlowTrace> slowTraces = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger slowTraceCount = new AtomicInteger();
+
+    /**
+     * Creates the exporter.
+     *
+     * @param threshold  Root span duration from which a trace is kept.
+     * @param capacity   Number of slow traces kept; the oldest are dropped first.
+     * @param maxPending Number of traces grouped while waiting for their root span.
+     * @param pendingTtl Age after which a group still waiting for its root span can be evicted.
+     */
+    public InMemorySpanExporter(@Value("${tracing.slow-traces.threshold:200ms}") Duration threshold,
+                                @Value("${tracing.slow-traces.capacity:100}") int capacity,
+                                @Value("${tracing.slow-traces.max-pending:10000}") int maxPending,
+                                @Value("${tracing.slow-traces.pending-ttl:1m}") Duration pendingTtl) {
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.maxPending = maxPending;
+        this.pendingTtlNanos = pendingTtl.toNanos();
+    }
+
+    @Override
+    public void report(FinishedSpan span) {
+        if (span.getParentId() == null || span.getKind() == Span.Kind.SERVER) {
+            PendingTrace trace = pending.remove(span.getTraceId());
+            if (nanos(span) >= thresholdNanos) {
+                keep(toSlowTrace(span, trace != null ? trace.spans() : List.of()));
+            }
+            return;
+        }
+        PendingTrace trace = pending.get(span.getTraceId());
+        if (trace == null) {
+            if (pending.size() >= maxPending && !evictExpired()) {
+                return;
+            }
+            trace = pending.computeIfAbsent(span.getTraceId(),
+                    traceId -> new PendingTrace(System.nanoTime(), Collections.synchronizedList(new ArrayList<>())));
+        }
+        trace.spans().add(span);
+    }
+
+    /**
+     * Returns the slow traces kept, most recent first.
+     *
+     * @return The slow traces.
+     */
+    public List<SlowTrace> slowTraces() {
+        return List.copyOf(slowTraces);
+    }
+
+    /**
+     * Finds a kept slow trace.
+     *
+     * @param traceId ID of the trace.
+     * @return The trace, if it is still kept.
+     */
+    public Optional<SlowTrace> findSlowTrace(String traceId) {
+        return slowTraces.stream()
+                .filter(trace -> trace.traceId().equals(traceId))
+                .findFirst();
+    }
+
+    private void keep(SlowTrace trace) {
+        slowTraces.addFirst(trace);
+        if (slowTraceCount.incrementAndGet() > capacity && slowTraces.pollLast() != null) {
+            slowTraceCount.decrementAndGet();
+        }
+    }
+
+    private boolean evictExpired() {
+        long now = System.nanoTime();
+        pending.values().removeIf(trace -> now - trace.createdNanos() > pendingTtlNanos);
+        return pending.size() < maxPending;
+    }
+
+    private static SlowTrace toSlowTrace(FinishedSpan root, List<FinishedSpan> children) {
+        List<FinishedSpan> spans = new ArrayList<>(children.size() + 1);
+        spans.add(root);
+        synchronized (children) {
+            spans.addAll(children);
+        }
+        spans.sort(Comparator.comparing(FinishedSpan::getStartTimestamp));
+
+        Map<String, Long> childNanos = new HashMap<>();
+        for (FinishedSpan span : spans) {
+            if (span.getParentId() != null) {
+                childNanos.merge(span.getParentId(), nanos(span), Long::sum);
+            }
+        }
+        List<SlowTrace.Stage> stages = new ArrayList<>(spans.size());
+        Map<String, Double> selfTime = new HashMap<>();
+        for (FinishedSpan span : spans) {
+            long selfNanos = Math.max(0L, nanos(span) - childNanos.getOrDefault(span.getSpanId(), 0L));
+            stages.add(new SlowTrace.Stage(span.getSpanId(), span.getParentId(), name(span), layer(span),
+                    millis(Duration.between(root.getStartTimestamp(), span.getStartTimestamp()).toNanos()),
+                    millis(nanos(span)), millis(selfNanos),
+                    span.getError() != null ? span.getError().toString() : null));
+            selfTime.merge(name(span), millis(selfNanos), Double::sum);
+        }
+        Map<String, Double> breakdown = new LinkedHashMap<>();
+        selfTime.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .forEach(entry -> breakdown.put(entry.getKey(), entry.getValue()));
+        return new SlowTrace(root.getTraceId(), name(root), root.getStartTimestamp(), millis(nanos(root)),
+                breakdown, stages);
+    }
+
+    private static String name(FinishedSpan span) {
+        return span.getTags().getOrDefault(StageObservations.STAGE, span.getName());
+    }
+
+    private static String layer(FinishedSpan span) {
+        String layer = span.getTags().get(StageObservations.LAYER);
+        if (layer != null) {
+            return layer;
+        }
+        if (span.getKind() == Span.Kind.SERVER) {
+            return "controller";
+        }
+        return span.getKind() == Span.Kind.CLIENT ? "external" : "internal";
+    }
+
+    private static long nanos(FinishedSpan span) {
+        return Duration.between(span.getStartTimestamp(), span.getEndTimestamp()).toNanos();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private record PendingTrace(long createdNanos, List<FinishedSpan> spans) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.sgi.credit.infrastructure.tracing;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request that took longer than the slow trace threshold, with its spans flattened into stages.
+ *
+ * @param traceId    ID of the trace.
+ * @param name       Name of the root span, usually the HTTP route.
+ * @param start      Start of the root span.
+ * @param durationMs Duration of the root span.
+ * @param selfTimeMs Time spent in each stage outside its children, summed per stage name, largest first.
+ * @param stages     Spans of the trace in start order.
+ */
+public record SlowTrace(String traceId, String name, Instant start, double durationMs,
+                        Map<String, Double> selfTimeMs, List<Stage> stages) {
+
+    /**
+     * One span of a slow trace.
+     *
+     * @param spanId     ID of the span.
+     * @param parentId   ID of the parent span, or null for the root.
+     * @param name       Name of the stage.
+     * @param layer      Layer of the stage: controller, service, repository or external.
+     * @param offsetMs   Start of the span relative to the root span.
+     * @param durationMs Duration of the span.
+     * @param selfMs     Duration minus the time spent in child spans.
+     * @param error      Error recorded on the span, if any.
+     */
+    public record Stage(String spanId, String parentId, String name, String layer, double offsetMs,
+                        double durationMs, double selfMs, String error) {
+    }
+}
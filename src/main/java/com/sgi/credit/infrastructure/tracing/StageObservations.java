@@ -0,0 +1,85 @@
+package com.sgi.credit.infrastructure.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Wraps reactive calls in child observations, one per stage of a request.
+ * The parent is read from the Reactor context, where WebFlux keeps the server observation, and the
+ * stage observation is written back for the calls it makes; the outbound WebClient observation, and
+ * the trace headers it propagates, therefore hang off the stage that issued the call. Each stage
+ * becomes a span named after it and a {@value #NAME} timer tagged with its layer and stage. Stages stop
+ * before their terminal signal is passed on, so a child always ends before its parent. The innermost
+ * stage is also kept under {@link #CURRENT_STAGE} in the context, even without observations, so that
+ * the database commands it issues can be attributed to it.
+ */
+public final class StageObservations {
+
+    public static final String NAME = "credit.stage";
+    public static final String LAYER = "layer";
+    public static final String STAGE = "stage";
+    public static final String CURRENT_STAGE = StageObservations.class.getName() + ".stage";
+
+    private StageObservations() {
+    }
+
+    /**
+     * Observes a Mono from subscription to termination or cancellation.
+     *
+     * @param registry Registry creating the observation; only the stage is recorded when it is a no-op.
+     * @param layer    Layer of the stage, such as {@code service} or {@code repository}.
+     * @param stage    Name of the stage, such as {@code creditRepository.findById}.
+     * @param source   Call to observe.
+     * @param <T>      Type of the value.
+     * @return The observed call.
+     */
+    public static <T> Mono<T> observe(ObservationRegistry registry, String layer, String stage, Mono<T> source) {
+        if (registry.isNoop()) {
+            return source.contextWrite(ctx -> ctx.put(CURRENT_STAGE, stage));
+        }
+        return Mono.deferContextual(context -> {
+            Observation observation = start(registry, layer, stage, context);
+            return source.doOnError(observation::error)
+                    .doOnTerminate(observation::stop)
+                    .doOnCancel(observation::stop)
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation).put(CURRENT_STAGE, stage));
+        });
+    }
+
+    /**
+     * Observes a Flux from subscription to termination or cancellation.
+     *
+     * @param registry Registry creating the observation; only the stage is recorded when it is a no-op.
+     * @param layer    Layer of the stage, such as {@code service} or {@code repository}.
+     * @param stage    Name of the stage, such as {@code creditRepository.findAll}.
+     * @param source   Call to observe.
+     * @param <T>      Type of the elements.
+     * @return The observed call.
+     */
+    public static <T> Flux<T> observe(ObservationRegistry registry, String layer, String stage, Flux<T> source) {
+        if (registry.isNoop()) {
+            return source.contextWrite(ctx -> ctx.put(CURRENT_STAGE, stage));
+        }
+        return Flux.deferContextual(context -> {
+            Observation observation = start(registry, layer, stage, context);
+            return source.doOnError(observation::error)
+                    .doOnTerminate(observation::stop)
+                    .doOnCancel(observation::stop)
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation).put(CURRENT_STAGE, stage));
+        });
+    }
+
+    private static Observation start(ObservationRegistry registry, String layer, String stage,
+                                     ContextView context) {
+        return Observation.createNotStarted(NAME, registry)
+                .contextualName(stage)
+                .lowCardinalityKeyValue(LAYER, layer)
+                .lowCardinalityKeyValue(STAGE, stage)
+                .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                .start();
+    }
+}
@@ -0,0 +1,216 @@
+package com.sgi.credit.infrastructure.warmup;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.ports.in.CreditService;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warms the service up before the readiness probe reports it ready.
+ * Spring Boot marks the application as accepting traffic only once the application runners have returned,
+ * so this runner blocks until the warm-up is over. It first opens connections of the Mongo pool and of the
+ * pool the transaction-service client shares. It then reads up to {@code warmup.sample-size} existing credits
+ * through the wired {@link CreditService}, repository and ledger, the same beans and call sites traffic uses,
+ * and encodes the responses with the server's JSON codecs, for {@code warmup.iterations} rounds. Only read
+ * paths run: charges and payments would write to the database and post to the transaction service, so they
+ * warm up on the first requests. Failures and a warm-up exceeding {@code warmup.timeout} are logged and do
+ * not keep the service from becoming ready. The duration is logged and published as {@code credit.warmup}.
+ * Disabled with {@code warmup.enabled=false}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmUp implements ApplicationRunner {
+
+    private static final Document PING = new Document("ping", 1);
+
+    private final ObjectProvider<ReactiveMongoTemplate> mongoTemplate;
+    private final WebClient transactionService;
+    private final CreditService creditService;
+    private final CreditRepository creditRepository;
+    private final Map<Class<?>, Encoder<Object>> encoders;
+    private final Timer timer;
+    private final int iterations;
+    private final int sampleSize;
+    private final int mongoConnections;
+    private final int transactionServiceConnections;
+    private final String transactionServicePath;
+    private final Duration timeout;
+
+    /**
+     * Creates the warm-up.
+     *
+     * @param mongoTemplate                 Template of the Mongo deployment, absent in memory mode.
+     * @param webClientBuilder              Builder sharing the connection pool of the transaction-service client.
+     * @param transactionServiceUrl         Base URL of the transaction service.
+     * @param creditService                 Service whose read paths are exercised.
+     * @param creditRepository              Repository the sampled credits are read from.
+     * @param codecs                        Codecs of the server, whose JSON encoders are exercised.
+     * @param meterRegistry                 Registry receiving the warm-up duration.
+     * @param iterations                    Rounds of the read paths.
+     * @param sampleSize                    Existing credits the rounds cycle through.
+     * @param mongoConnections              Concurrent pings opening Mongo connections.
+     * @param transactionServiceConnections Concurrent requests opening transaction-service connections.
+     * @param transactionServicePath        Path requested on the transaction service, whatever its status.
+     * @param timeout                       Time after which the service becomes ready regardless.
+     */
+    public StartupWarmUp(ObjectProvider<ReactiveMongoTemplate> mongoTemplate,
+                         WebClient.Builder webClientBuilder,
+                         @Value("${feign.client.config.transaction-service.url}") String transactionServiceUrl,
+                         CreditService creditService,
+                         CreditRepository creditRepository,
+                         ServerCodecConfigurer codecs,
+                         MeterRegistry meterRegistry,
+                         @Value("${warmup.iterations:500}") int iterations,
+                         @Value("${warmup.sample-size:16}") int sampleSize,
+                         @Value("${warmup.mongo-connections:10}") int mongoConnections,
+                         @Value("${warmup.transaction-service.connections:10}") int transactionServiceConnections,
+                         @Value("${warmup.transaction-service.path:/actuator/health}") String transactionServicePath,
+                         @Value("${warmup.timeout:60s}") Duration timeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionService = webClientBuilder.baseUrl(transactionServiceUrl).build();
+        this.creditService = creditService;
+        this.creditRepository = creditRepository;
+        this.encoders = Map.of(CreditResponse.class, jsonEncoder(codecs, CreditResponse.class),
+                BalanceResponse.class, jsonEncoder(codecs, BalanceResponse.class));
+        this.timer = Timer.builder("credit.warmup").register(meterRegistry);
+        this.iterations = iterations;
+        this.sampleSize = sampleSize;
+        this.mongoConnections = mongoConnections;
+        this.transactionServiceConnections = transactionServiceConnections;
+        this.transactionServicePath = transactionServicePath;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Report report = warmUp()
+                .timeout(timeout)
+                .onErrorResume(ex -> {
+                    log.warn("Warm-up interrupted, the service becomes ready anyway", ex);
+                    return Mono.empty();
+                })
+                .block();
+        Duration took = Duration.ofNanos(System.nanoTime() - start);
+        timer.record(took);
+        log.info("Warm-up finished in {} ms: {}", took.toMillis(), report);
+    }
+
+    /**
+     * Opens the connection pools, then runs the read paths.
+     *
+     * @return The outcome of the warm-up.
+     */
+    Mono<Report> warmUp() {
+        return Mono.zip(openMongoConnections(), openTransactionServiceConnections())
+                .flatMap(connections -> exerciseReadPaths()
+                        .map(rounds -> new Report(rounds, connections.getT1(), connections.getT2())));
+    }
+
+    private Mono<Long> openMongoConnections() {
+        ReactiveMongoTemplate template = mongoTemplate.getIfAvailable();
+        if (template == null || mongoConnections < 1) {
+            return Mono.just(0L);
+        }
+        return Flux.range(0, mongoConnections)
+                .flatMap(i -> template.executeCommand(PING), mongoConnections)
+                .count()
+                .onErrorResume(ex -> {
+                    log.warn("Warm-up could not reach Mongo: {}", ex.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    private Mono<Long> openTransactionServiceConnections() {
+        return Flux.range(0, Math.max(0, transactionServiceConnections))
+                .flatMap(i -> transactionService.get().uri(transactionServicePath)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                        .onErrorResume(ex -> Mono.empty()), Math.max(1, transactionServiceConnections))
+                .count();
+    }
+
+    private Mono<Integer> exerciseReadPaths() {
+        return creditRepository.streamFrom(null)
+                .take(Math.max(0, sampleSize))
+                .map(Credit::getId)
+                .collectList()
+                .flatMap(this::rounds)
+                .onErrorResume(ex -> {
+                    log.warn("Warm-up could not read credits: {}", ex.getMessage());
+                    return Mono.just(0);
+                });
+    }
+
+    private Mono<Integer> rounds(List<String> creditIds) {
+        if (creditIds.isEmpty()) {
+            return Mono.just(0);
+        }
+        return Flux.range(0, iterations)
+                .concatMap(round -> round(creditIds.get(round % creditIds.size())).thenReturn(round))
+                .count()
+                .map(Long::intValue);
+    }
+
+    private Mono<Void> round(String creditId) {
+        return creditService.getCreditVersion(creditId)
+                .then(encode(creditService.getCreditById(creditId), CreditResponse.class))
+                .then(encode(creditService.getClientBalances(creditId), BalanceResponse.class))
+                .then(encode(creditService.getAllCredits(creditId, null, null), CreditResponse.class));
+    }
+
+    private Mono<Void> encode(Publisher<?> values, Class<?> type) {
+        return encoders.get(type)
+                .encode(values, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(type),
+                        MediaType.APPLICATION_JSON, Map.of())
+                .doOnNext(DataBufferUtils::release)
+                .then();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Encoder<Object> jsonEncoder(ServerCodecConfigurer codecs, Class<?> type) {
+        return codecs.getWriters().stream()
+                .filter(writer -> writer instanceof EncoderHttpMessageWriter<?>
+                        && writer.canWrite(ResolvableType.forClass(type), MediaType.APPLICATION_JSON))
+                .map(writer -> (Encoder<Object>) ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No JSON encoder for " + type.getSimpleName()));
+    }
+
+    /**
+     * Outcome of a warm-up.
+     *
+     * @param rounds                      Rounds of the read paths completed.
+     * @param mongoPings                  Pings answered by Mongo.
+     * @param transactionServiceResponses Responses received from the transaction service.
+     */
+    record Report(int rounds, long mongoPings, long transactionServiceResponses) {
+    }
+}
@@ -2,32 +2,47 @@ package com.sgi.credit.application.service;
 
 import com.sgi.credit.domain.model.Credit;
 import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.model.ReadConsistency;
 import com.sgi.credit.domain.ports.out.CreditRepository;
 import com.sgi.credit.domain.ports.out.DebtRepository;
 import com.sgi.credit.domain.ports.out.FeignExternalService;
 import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
 import com.sgi.credit.infrastructure.dto.CreditRequest;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
 import com.sgi.credit.infrastructure.dto.DebtRequest;
 import com.sgi.credit.infrastructure.dto.DebtResponse;
 import com.sgi.credit.infrastructure.dto.ChargeRequest;
+import com.sgi.credit.infrastructure.dto.HoldResponse;
 import com.sgi.credit.infrastructure.dto.PaymentRequest;
 import com.sgi.credit.infrastructure.dto.TransactionRequest;
 import com.sgi.credit.infrastructure.dto.TransactionResponse;
+import com.sgi.credit.infrastructure.exception.CustomException;
+import com.sgi.credit.infrastructure.holds.InMemoryHoldStore;
+import com.sgi.credit.infrastructure.streaming.InMemoryBalanceBroadcaster;
 import com.sgi.credit.infrastructure.mapper.CreditMapper;
+import com.sgi.credit.infrastructure.repository.impl.CollectionDebtCycleStore;
+import com.sgi.credit.infrastructure.repository.impl.DocumentCreditLedger;
+import com.sgi.credit.infrastructure.repository.impl.OptimisticLockRetryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.any;
@@ -51,12 +66,27 @@ public class CreditServiceImplTest {
     @Mock
     private FeignExternalService feignExternalService;
 
-    @InjectMocks
     private CreditServiceImpl creditService;
 
     @Mock
     private DebtRepository debtRepository;
 
+    private final OptimisticLockRetryImpl optimisticLockRetry = new OptimisticLockRetryImpl(new SimpleMeterRegistry(),
+            3, Duration.ofMillis(1), Duration.ofMillis(5), 0.5);
+
+    private final InMemoryHoldStore holdStore = new InMemoryHoldStore(new SimpleMeterRegistry(),
+            Duration.ofDays(7), Duration.ofMinutes(1));
+
+    private final InMemoryBalanceBroadcaster balanceBroadcaster = new InMemoryBalanceBroadcaster(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        CollectionDebtCycleStore debtCycleStore = new CollectionDebtCycleStore(creditRepository, debtRepository);
+        creditService = new CreditServiceImpl(creditRepository, feignExternalService, debtCycleStore,
+                optimisticLockRetry, new DocumentCreditLedger(creditRepository, debtCycleStore), holdStore,
+                balanceBroadcaster, ObservationRegistry.NOOP);
+    }
+
     @Test
     void createCredit_shouldReturnCreatedResponse() {
         CreditRequest creditRequest = FactoryTest.toFactoryBankCredit(CreditRequest.class);
@@ -64,7 +94,7 @@ public class CreditServiceImplTest {
         DebtResponse debtResponse =  FactoryTest.toFactoryDebtResponse(creditResponse.getId(),
                 creditResponse.getClientId(), creditResponse.getConsumptionAmount());
         Debt debt = FactoryTest.toFactoryDebtModel(creditResponse.getId(),
-                creditResponse.getClientId(), creditResponse.getConsumptionAmount(),
+                creditResponse.getClientId(), Money.of(creditResponse.getConsumptionAmount()),
                 DebtRequest.StatusEnum.ACTIVE.name());
         when(debtRepository.findByClientIdAndStatus(creditResponse.getClientId(),
                 DebtRequest.StatusEnum.ACTIVE.name())).thenReturn(Mono.just(debt));
@@ -136,12 +166,24 @@ public class CreditServiceImplTest {
         verify(creditRepository).findById(creditId);
     }
 
+    @Test
+    void getCreditVersion_shouldChangeWithDocumentVersion() {
+        String creditId = UUID.randomUUID().toString();
+        when(creditRepository.findVersionById(creditId))
+                .thenReturn(Mono.just(7L), Mono.just(8L));
+        String first = creditService.getCreditVersion(creditId).block();
+        StepVerifier.create(creditService.getCreditVersion(creditId))
+                .expectNextMatches(second -> !second.equals(first))
+                .verifyComplete();
+    }
+
     @Test
     void updateCredit_shouldReturnCreditResponse() {
         String creditId = UUID.randomUUID().toString();
         Credit credit = FactoryTest.toFactoryEntityCredit();
         credit.setId(creditId);
         CreditRequest creditRequest = FactoryTest.toFactoryBankCredit(CreditRequest.class);
+        creditRequest.setCreditLimit(credit.getCreditLimit().toBigDecimal());
         CreditResponse creditResponse = CreditMapper.INSTANCE.toCreditResponse(credit);
 
         when(creditRepository.findById(creditId)).thenReturn(Mono.just(credit));
@@ -154,13 +196,30 @@ public class CreditServiceImplTest {
         verify(creditRepository).save(credit);
     }
 
+    @Test
+    void updateCredit_shouldRecordLimitChangeAndRecomputeBalance() {
+        String creditId = UUID.randomUUID().toString();
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(creditId);
+        credit.setConsumptionAmount(Money.of(BigDecimal.valueOf(4)));
+        CreditRequest creditRequest = FactoryTest.toFactoryBankCredit(CreditRequest.class);
+
+        when(creditRepository.findById(creditId)).thenReturn(Mono.just(credit));
+        when(creditRepository.save(credit)).thenReturn(Mono.just(CreditMapper.INSTANCE.toCreditResponse(credit)));
+        StepVerifier.create(creditService.updateCredit(creditId, Mono.just(creditRequest)))
+                .expectNextMatches(response -> response.getCreditLimit().compareTo(creditRequest.getCreditLimit()) == 0
+                        && response.getBalance().compareTo(BigDecimal.valueOf(6)) == 0)
+                .verifyComplete();
+        verify(creditRepository, times(2)).save(credit);
+    }
+
     @Test
     void testGetCreditIdTransactions_Success() {
         Credit credit = FactoryTest.toFactoryEntityCredit();
         TransactionResponse transactionResponse = FactoryTest.toFactoryTransactionResponse(credit.getId());
         transactionResponse.setClientId(credit.getClientId());
 
-        when(creditRepository.findById(credit.getId())).thenReturn(Mono.just(credit));
+        when(creditRepository.findById(credit.getId(), ReadConsistency.BOUNDED_STALENESS)).thenReturn(Mono.just(credit));
         when(feignExternalService.get(anyString(), anyString(), eq(TransactionResponse.class)))
                 .thenReturn(Flux.just(transactionResponse));
 
@@ -170,19 +229,19 @@ public class CreditServiceImplTest {
                 .expectNext(transactionResponse)
                 .verifyComplete();
 
-        verify(creditRepository).findById(credit.getId());
+        verify(creditRepository).findById(credit.getId(), ReadConsistency.BOUNDED_STALENESS);
         verify(feignExternalService).get(anyString(), anyString(), eq(TransactionResponse.class));
     }
 
     @Test
     void testMakePayment_Success() {
         Credit credit = FactoryTest.toFactoryEntityCredit();
-        credit.setConsumptionAmount(BigDecimal.valueOf(100));
-        credit.setCreditLimit(BigDecimal.valueOf(200));
+        credit.setConsumptionAmount(Money.of(BigDecimal.valueOf(100)));
+        credit.setCreditLimit(Money.of(BigDecimal.valueOf(200)));
         TransactionResponse transactionResponse = FactoryTest.toFactoryTransactionResponse(credit.getId());
         transactionResponse.setClientId(credit.getClientId());
         DebtResponse debtResponse =  FactoryTest.toFactoryDebtResponse(credit.getId(),
-                credit.getClientId(), credit.getConsumptionAmount());
+                credit.getClientId(), credit.getConsumptionAmount().toBigDecimal());
         PaymentRequest paymentRequest = FactoryTest.toFactoryPaymentRequest();
         Debt debt = FactoryTest.toFactoryDebtModel(credit.getId(), credit.getClientId(),
                 credit.getConsumptionAmount(), DebtRequest.StatusEnum.ACTIVE.name());
@@ -209,13 +268,13 @@ public class CreditServiceImplTest {
     @Test
     void testChargeCredit_Success() {
         Credit credit = FactoryTest.toFactoryEntityCredit();
-        credit.setConsumptionAmount(BigDecimal.valueOf(100));
-        credit.setCreditLimit(BigDecimal.valueOf(200));
+        credit.setConsumptionAmount(Money.of(BigDecimal.valueOf(100)));
+        credit.setCreditLimit(Money.of(BigDecimal.valueOf(200)));
         TransactionResponse transactionResponse = FactoryTest.toFactoryTransactionResponse(credit.getId());
         transactionResponse.setClientId(credit.getClientId());
         ChargeRequest chargeRequest = FactoryTest.toFactoryChargeRequest();
         DebtResponse debtResponse =  FactoryTest.toFactoryDebtResponse(credit.getId(),
-                credit.getClientId(), credit.getConsumptionAmount());
+                credit.getClientId(), credit.getConsumptionAmount().toBigDecimal());
         Debt debt = FactoryTest.toFactoryDebtModel(credit.getId(),
                 credit.getClientId(), credit.getConsumptionAmount(),
                 DebtRequest.StatusEnum.ACTIVE.name());
@@ -246,4 +305,161 @@ public class CreditServiceImplTest {
 
 
 
+
+    @Test
+    void testChargeCredit_shouldRetryOnOptimisticLockConflict() {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setConsumptionAmount(Money.of(BigDecimal.valueOf(100)));
+        credit.setCreditLimit(Money.of(BigDecimal.valueOf(200)));
+        TransactionResponse transactionResponse = FactoryTest.toFactoryTransactionResponse(credit.getId());
+        ChargeRequest chargeRequest = FactoryTest.toFactoryChargeRequest();
+        Debt debt = FactoryTest.toFactoryDebtModel(credit.getId(),
+                credit.getClientId(), credit.getConsumptionAmount(),
+                DebtRequest.StatusEnum.ACTIVE.name());
+
+        when(creditRepository.findById(credit.getId()))
+                .thenAnswer(invocation -> Mono.just(credit.toBuilder().build()));
+        when(debtRepository.findByClientIdAndStatus(credit.getClientId(),
+                DebtRequest.StatusEnum.ACTIVE.name())).thenAnswer(invocation -> Mono.just(debt.toBuilder().build()));
+        when(debtRepository.save(any(Debt.class)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("stale")),
+                        Mono.just(FactoryTest.toFactoryDebtResponse(credit.getId(),
+                                credit.getClientId(), credit.getConsumptionAmount().toBigDecimal())));
+        when(creditRepository.save(any(Credit.class))).thenReturn(Mono.just(CreditMapper.INSTANCE.toCreditResponse(credit)));
+        when(feignExternalService.post(anyString(), any(TransactionRequest.class), eq(TransactionResponse.class)))
+                .thenReturn(Mono.just(transactionResponse));
+
+        StepVerifier.create(creditService.chargeCreditCard(credit.getId(), Mono.just(chargeRequest)))
+                .expectNext(transactionResponse)
+                .verifyComplete();
+
+        verify(creditRepository, times(2)).findById(credit.getId());
+        verify(creditRepository).save(any(Credit.class));
+        verify(feignExternalService).post(anyString(), any(TransactionRequest.class), eq(TransactionResponse.class));
+    }
+
+    @Test
+    void exportCredits_shouldRepeatCreditPerCycleInCursorOrder() {
+        Credit first = FactoryTest.toFactoryEntityCredit();
+        Credit second = FactoryTest.toFactoryEntityCredit();
+        Debt paid = FactoryTest.toFactoryDebtModel(first.getId(), first.getClientId(), Money.ZERO,
+                DebtRequest.StatusEnum.PAID.name());
+        Debt active = FactoryTest.toFactoryDebtModel(first.getId(), first.getClientId(), Money.ofMajor(5),
+                DebtRequest.StatusEnum.ACTIVE.name());
+        when(creditRepository.streamAll()).thenReturn(Flux.just(first, second));
+        when(debtRepository.findAllByCreditId(first.getId()))
+                .thenReturn(Flux.just(paid, active).delayElements(Duration.ofMillis(10)));
+        when(debtRepository.findAllByCreditId(second.getId())).thenReturn(Flux.empty());
+
+        StepVerifier.create(creditService.exportCredits(true))
+                .expectNextMatches(row -> row.credit() == first && row.cycle() == paid)
+                .expectNextMatches(row -> row.credit() == first && row.cycle() == active)
+                .expectNextMatches(row -> row.credit() == second && row.cycle() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    void authorizeCharge_shouldHoldAmountAndServeNextAuthorizationFromStore() {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setConsumptionAmount(Money.of(BigDecimal.valueOf(100)));
+        credit.setCreditLimit(Money.of(BigDecimal.valueOf(125)));
+        when(creditRepository.findById(credit.getId())).thenReturn(Mono.just(credit));
+
+        StepVerifier.create(creditService.authorizeCharge(credit.getId(), Mono.just(FactoryTest.toFactoryChargeRequest())))
+                .expectNextMatches(hold -> hold.getStatus() == HoldResponse.StatusEnum.AUTHORIZED
+                        && hold.getAmount().compareTo(BigDecimal.TEN) == 0)
+                .verifyComplete();
+        StepVerifier.create(creditService.authorizeCharge(credit.getId(), Mono.just(FactoryTest.toFactoryChargeRequest())))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(creditService.authorizeCharge(credit.getId(), Mono.just(FactoryTest.toFactoryChargeRequest())))
+                .expectErrorMatches(ex -> ex instanceof CustomException)
+                .verify();
+        verify(creditRepository, times(1)).findById(credit.getId());
+    }
+
+    @Test
+    void captureHold_shouldChargeHeldAmountOnce() {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setConsumptionAmount(Money.of(BigDecimal.valueOf(100)));
+        credit.setCreditLimit(Money.of(BigDecimal.valueOf(200)));
+        TransactionResponse transactionResponse = FactoryTest.toFactoryTransactionResponse(credit.getId());
+        Debt debt = FactoryTest.toFactoryDebtModel(credit.getId(), credit.getClientId(), credit.getConsumptionAmount(),
+                DebtRequest.StatusEnum.ACTIVE.name());
+        when(creditRepository.findById(credit.getId())).thenAnswer(invocation -> Mono.just(credit.toBuilder().build()));
+        when(debtRepository.findByClientIdAndStatus(credit.getClientId(),
+                DebtRequest.StatusEnum.ACTIVE.name())).thenAnswer(invocation -> Mono.just(debt.toBuilder().build()));
+        when(debtRepository.save(any(Debt.class))).thenReturn(Mono.just(FactoryTest.toFactoryDebtResponse(
+                credit.getId(), credit.getClientId(), credit.getConsumptionAmount().toBigDecimal())));
+        when(creditRepository.save(any(Credit.class))).thenReturn(Mono.just(CreditMapper.INSTANCE.toCreditResponse(credit)));
+        when(feignExternalService.post(anyString(), any(TransactionRequest.class), eq(TransactionResponse.class)))
+                .thenReturn(Mono.just(transactionResponse));
+
+        HoldResponse hold = creditService.authorizeCharge(credit.getId(),
+                Mono.just(FactoryTest.toFactoryChargeRequest())).block();
+        StepVerifier.create(creditService.captureHold(credit.getId(), hold.getId()))
+                .expectNext(transactionResponse)
+                .verifyComplete();
+        StepVerifier.create(creditService.captureHold(credit.getId(), hold.getId()))
+                .expectErrorMatches(ex -> ex instanceof CustomException)
+                .verify();
+        StepVerifier.create(holdStore.heldAmount(credit.getId()))
+                .expectNext(Money.ZERO)
+                .verifyComplete();
+        verify(feignExternalService).post(anyString(), any(TransactionRequest.class), eq(TransactionResponse.class));
+    }
+
+    @Test
+    void getClientBalances_shouldSubtractActiveHolds() {
+        String creditId = UUID.randomUUID().toString();
+        holdStore.reserve(creditId, Money.ofMajor(30), Money.ofMajor(100)).block();
+        BalanceResponse balance = new BalanceResponse();
+        balance.setBalance(BigDecimal.valueOf(100));
+        when(creditRepository.findBalanceById(creditId)).thenReturn(Mono.just(balance));
+
+        StepVerifier.create(creditService.getClientBalances(creditId))
+                .expectNextMatches(response -> response.getBalance().compareTo(BigDecimal.valueOf(70)) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamBalances_shouldEmitCurrentBalanceThenCommittedCharges() {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setConsumptionAmount(Money.ofMajor(100));
+        credit.setCreditLimit(Money.ofMajor(200));
+        BalanceResponse current = new BalanceResponse();
+        current.setBalance(BigDecimal.valueOf(100));
+        Debt debt = FactoryTest.toFactoryDebtModel(credit.getId(), credit.getClientId(), credit.getConsumptionAmount(),
+                DebtRequest.StatusEnum.ACTIVE.name());
+        when(debtRepository.findByClientIdAndStatus(credit.getClientId(), DebtRequest.StatusEnum.ACTIVE.name()))
+                .thenReturn(Mono.just(debt));
+        when(debtRepository.save(any(Debt.class))).thenReturn(Mono.just(FactoryTest.toFactoryDebtResponse(
+                credit.getId(), credit.getClientId(), credit.getConsumptionAmount().toBigDecimal())));
+        when(creditRepository.findBalanceById(credit.getId())).thenReturn(Mono.just(current));
+        when(creditRepository.findById(credit.getId())).thenReturn(Mono.just(credit));
+        when(creditRepository.save(any(Credit.class))).thenReturn(Mono.just(CreditMapper.INSTANCE.toCreditResponse(credit)));
+        when(feignExternalService.post(anyString(), any(TransactionRequest.class), eq(TransactionResponse.class)))
+                .thenReturn(Mono.just(new TransactionResponse()));
+
+        StepVerifier.create(creditService.streamBalances(credit.getId()))
+                .expectNextMatches(balance -> balance.getBalance().compareTo(BigDecimal.valueOf(100)) == 0)
+                .then(() -> creditService.chargeCreditCard(credit.getId(),
+                        Mono.just(FactoryTest.toFactoryChargeRequest())).block())
+                .expectNextMatches(balance -> balance.getBalance().compareTo(new BigDecimal("90.00")) == 0
+                        && credit.getClientId().equals(balance.getClientId()))
+                .thenCancel()
+                .verify();
+
+        assertFalse(balanceBroadcaster.hasSubscribers(credit.getId()));
+    }
+
+    @Test
+    void streamBalances_shouldFailWhenCreditIsUnknown() {
+        when(creditRepository.findBalanceById("missing")).thenReturn(Mono.empty());
+
+        StepVerifier.create(creditService.streamBalances("missing"))
+                .expectError(CustomException.class)
+                .verify();
+        assertFalse(balanceBroadcaster.hasSubscribers("missing"));
+    }
 }
@@ -0,0 +1,214 @@
+package com.sgi.credit.application.service;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.model.Statement;
+import com.sgi.credit.domain.model.StatementJob;
+import com.sgi.credit.domain.model.StatementJobStatus;
+import com.sgi.credit.domain.ports.out.FeignExternalService;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import com.sgi.credit.infrastructure.dto.TransactionResponse;
+import com.sgi.credit.infrastructure.exception.CustomException;
+import com.sgi.credit.infrastructure.repository.impl.CollectionDebtCycleStore;
+import com.sgi.credit.infrastructure.repository.impl.DocumentCreditLedger;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryCreditRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryDebtRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryStatementStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link StatementServiceImpl} class, run against the in-memory adapters.
+ */
+@ExtendWith(MockitoExtension.class)
+class StatementServiceImplTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2024, 1);
+
+    @Mock
+    private FeignExternalService feignExternalService;
+
+    private final InMemoryCreditRepository creditRepository = new InMemoryCreditRepository(16);
+    private final InMemoryDebtRepository debtRepository = new InMemoryDebtRepository(16);
+    private final InMemoryStatementStore statementStore = new InMemoryStatementStore();
+    private StatementServiceImpl statementService;
+
+    @BeforeEach
+    void setUp() {
+        CollectionDebtCycleStore debtCycleStore = new CollectionDebtCycleStore(creditRepository, debtRepository);
+        statementService = new StatementServiceImpl(creditRepository, new DocumentCreditLedger(creditRepository,
+                debtCycleStore), debtCycleStore, feignExternalService, statementStore, new SimpleMeterRegistry(),
+                2, 4, 0);
+        for (int i = 0; i < 3; i++) {
+            Credit credit = FactoryTest.toFactoryEntityCredit();
+            credit.setId("credit-" + i);
+            credit.setConsumptionAmount(Money.ofMajor(100));
+            creditRepository.save(credit).block();
+        }
+    }
+
+    private static TransactionResponse transaction(TransactionResponse.TypeEnum type, int amount, String date) {
+        TransactionResponse transaction = FactoryTest.toFactoryTransactionResponse("credit");
+        transaction.setType(type);
+        transaction.setAmount(BigDecimal.valueOf(amount));
+        transaction.setCreatedDate(OffsetDateTime.parse(date + "T12:00:00Z").withOffsetSameInstant(ZoneOffset.UTC));
+        return transaction;
+    }
+
+    private StatementJob awaitJob(String jobId) {
+        return Flux.interval(Duration.ofMillis(10))
+                .concatMap(tick -> statementService.getJob(jobId))
+                .filter(job -> job.getStatus() != StatementJobStatus.RUNNING)
+                .blockFirst(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void startJob_shouldWriteStatementPerCreditWithPeriodTotals() {
+        when(feignExternalService.get(anyString(), anyString(), eq(TransactionResponse.class)))
+                .thenAnswer(invocation -> Flux.just(
+                        transaction(TransactionResponse.TypeEnum.CHARGE, 30, "2024-01-05"),
+                        transaction(TransactionResponse.TypeEnum.CHARGE, 20, "2024-01-31"),
+                        transaction(TransactionResponse.TypeEnum.PAYMENT, 10, "2024-01-15"),
+                        transaction(TransactionResponse.TypeEnum.CHARGE, 99, "2024-02-01")));
+
+        final Instant started = Instant.now();
+        StatementJob job = awaitJob(statementService.startJob(PERIOD).block().getId());
+
+        assertEquals(StatementJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessed());
+        assertEquals(0, job.getFailed());
+        assertEquals("credit-2", job.getLastCreditId());
+        Statement statement = statementStore.findStatement(Statement.idOf("credit-1", "2024-01"));
+        assertNotNull(statement);
+        assertEquals(Money.ofMajor(50), statement.getCharges());
+        assertEquals(Money.ofMajor(10), statement.getPayments());
+        assertEquals(3, statement.getTransactionCount());
+        assertEquals(Money.ofMajor(1900), statement.getBalance());
+        assertFalse(statement.getAsOf().isBefore(started), "The document ledger only knows the current totals");
+    }
+
+    @Test
+    void resumeJob_shouldContinueAfterLastCheckpoint() {
+        when(feignExternalService.get(anyString(), anyString(), eq(TransactionResponse.class)))
+                .thenReturn(Flux.empty());
+        statementStore.saveJob(StatementJob.builder()
+                .id("job")
+                .period(PERIOD.toString())
+                .status(StatementJobStatus.FAILED)
+                .lastCreditId("credit-0")
+                .processed(1)
+                .build()).block();
+
+        statementService.resumeJob("job").block();
+        StatementJob job = awaitJob("job");
+
+        assertEquals(StatementJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessed());
+        assertNull(statementStore.findStatement(Statement.idOf("credit-0", "2024-01")));
+        assertNotNull(statementStore.findStatement(Statement.idOf("credit-2", "2024-01")));
+        verify(feignExternalService, never()).get(anyString(), eq("credit-0"), eq(TransactionResponse.class));
+    }
+
+    @Test
+    void startJob_shouldCountCreditsWhoseDataCannotBeFetched() {
+        when(feignExternalService.get(anyString(), anyString(), eq(TransactionResponse.class)))
+                .thenAnswer(invocation -> "credit-1".equals(invocation.getArgument(1))
+                        ? Flux.error(new IllegalStateException("unavailable"))
+                        : Flux.empty());
+
+        StatementJob job = awaitJob(statementService.startJob(PERIOD).block().getId());
+
+        assertEquals(StatementJobStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getProcessed());
+        assertEquals(1, job.getFailed());
+        assertEquals(List.of("credit-1"), job.getFailedCreditIds());
+        assertNull(statementStore.findStatement(Statement.idOf("credit-1", "2024-01")));
+    }
+
+    @Test
+    void resumeJob_shouldRetryFailedCreditsOfCompletedJob() {
+        when(feignExternalService.get(anyString(), anyString(), eq(TransactionResponse.class)))
+                .thenReturn(Flux.empty());
+        statementStore.saveJob(StatementJob.builder()
+                .id("job")
+                .period(PERIOD.toString())
+                .status(StatementJobStatus.COMPLETED)
+                .lastCreditId("credit-2")
+                .processed(2)
+                .failed(1)
+                .failedCreditIds(List.of("credit-1", "credit-deleted"))
+                .build()).block();
+
+        statementService.resumeJob("job").block();
+        StatementJob job = awaitJob("job");
+
+        assertEquals(StatementJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessed());
+        assertEquals(0, job.getFailed());
+        assertEquals(List.of(), job.getFailedCreditIds());
+        assertEquals("credit-2", job.getLastCreditId());
+        assertNotNull(statementStore.findStatement(Statement.idOf("credit-1", "2024-01")));
+        verify(feignExternalService, never()).get(anyString(), eq("credit-0"), eq(TransactionResponse.class));
+    }
+
+    @Test
+    void startJob_shouldTakeTheDebtOfCyclesOpenAtTheEndOfThePeriod() {
+        when(feignExternalService.get(anyString(), anyString(), eq(TransactionResponse.class)))
+                .thenReturn(Flux.empty());
+        Instant paidDueDate = Instant.parse("2024-02-15T00:00:00Z");
+        debtRepository.save(Debt.builder().creditId("credit-0").clientId("client").amount(Money.ZERO)
+                .status(DebtRequest.StatusEnum.PAID.name()).dueDate(paidDueDate)
+                .openedAt(Instant.parse("2024-01-10T00:00:00Z")).paidAt(Instant.parse("2024-02-10T00:00:00Z"))
+                .build()).block();
+        debtRepository.save(Debt.builder().creditId("credit-0").clientId("client").amount(Money.ofMajor(100))
+                .status(DebtRequest.StatusEnum.ACTIVE.name()).dueDate(Instant.parse("2024-03-15T00:00:00Z"))
+                .openedAt(Instant.parse("2024-02-10T00:00:00Z"))
+                .build()).block();
+        debtRepository.save(Debt.builder().creditId("credit-1").clientId("client").amount(Money.ZERO)
+                .status(DebtRequest.StatusEnum.PAID.name()).dueDate(paidDueDate)
+                .openedAt(Instant.parse("2023-12-10T00:00:00Z")).paidAt(Instant.parse("2024-01-20T00:00:00Z"))
+                .build()).block();
+
+        awaitJob(statementService.startJob(PERIOD).block().getId());
+
+        Statement open = statementStore.findStatement(Statement.idOf("credit-0", "2024-01"));
+        assertEquals(paidDueDate, open.getDueDate());
+        assertEquals(Money.ofMajor(100), open.getDebtAmount());
+        Statement settled = statementStore.findStatement(Statement.idOf("credit-1", "2024-01"));
+        assertNull(settled.getDueDate());
+        assertEquals(Money.ZERO, settled.getDebtAmount());
+    }
+
+    @Test
+    void getJob_shouldFailWhenUnknown() {
+        StepVerifier.create(statementService.getJob("missing"))
+                .expectError(CustomException.class)
+                .verify();
+    }
+}
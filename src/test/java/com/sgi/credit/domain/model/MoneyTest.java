@@ -0,0 +1,38 @@
+package com.sgi.credit.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the {@link Money} class.
+ */
+public class MoneyTest {
+
+    @Test
+    void of_shouldRoundToCurrencyScaleHalfEven() {
+        assertEquals(1012L, Money.of(new BigDecimal("10.125")).minorUnits());
+        assertEquals(1014L, Money.of(new BigDecimal("10.135")).minorUnits());
+        assertEquals(-250L, Money.of(new BigDecimal("-2.5")).minorUnits());
+        assertEquals(Money.ofMajor(7), Money.of(new BigDecimal("7.000")));
+        assertNull(Money.of(null));
+    }
+
+    @Test
+    void toBigDecimal_shouldKeepCurrencyScale() {
+        assertEquals(new BigDecimal("12.30"), Money.ofMinor(1230).toBigDecimal());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+    }
+
+    @Test
+    void arithmetic_shouldFailInsteadOfOverflowing() {
+        assertEquals(Money.ofMinor(150), Money.ofMinor(100).plus(Money.ofMinor(50)));
+        assertEquals(-1, Money.ofMinor(100).minus(Money.ofMinor(101)).signum());
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e30")));
+    }
+}
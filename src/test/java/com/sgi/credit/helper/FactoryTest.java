@@ -2,6 +2,7 @@ package com.sgi.credit.helper;
 
 import com.sgi.credit.domain.model.Credit;
 import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
 import com.sgi.credit.infrastructure.dto.BalanceResponse;
 import com.sgi.credit.infrastructure.dto.CreditRequest;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
@@ -78,7 +79,7 @@ public class FactoryTest {
      *
      * @return Debt objects with default data.
      */
-    public static Debt toFactoryDebtModel(String creditId, String clientId, BigDecimal amount, String status) {
+    public static Debt toFactoryDebtModel(String creditId, String clientId, Money amount, String status) {
         Debt debt = new Debt();
         debt.setId(UUID.randomUUID().toString());
         debt.setDueDate(Instant.now().plusNanos(1));
@@ -190,8 +191,9 @@ public class FactoryTest {
                 .id(randomUUID().toString())
                 .createdDate(Instant.now())
                 .interestRate(BigDecimal.valueOf(10))
-                .balance(BigDecimal.valueOf(2000))
-                .consumptionAmount(BigDecimal.ZERO)
+                .balance(Money.of(BigDecimal.valueOf(2000)))
+                .creditLimit(Money.of(BigDecimal.valueOf(2000)))
+                .consumptionAmount(Money.ZERO)
                 .clientId("client-test-0001")
                 .createdDate(Instant.now())
                 .type("PERSONAL")
@@ -0,0 +1,47 @@
+package com.sgi.credit.helper;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.sgi.credit.infrastructure.config.MongoConversionConfig;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Builds Mongo templates for tests that run without the Spring context,
+ * with the same custom conversions the application registers.
+ */
+public final class MongoTestTemplates {
+
+    private MongoTestTemplates() {
+    }
+
+    /**
+     * Creates a template on the given database.
+     *
+     * @param client   Client connected to the test server.
+     * @param database Name of the database.
+     * @return The template.
+     */
+    public static ReactiveMongoTemplate create(MongoClient client, String database) {
+        return new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(client, database), converter());
+    }
+
+    /**
+     * Creates the mapping converter used by the templates, without a database.
+     *
+     * @return The initialized converter.
+     */
+    public static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = MongoConversionConfig.customConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
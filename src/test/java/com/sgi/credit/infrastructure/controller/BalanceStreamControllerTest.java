@@ -0,0 +1,75 @@
+package com.sgi.credit.infrastructure.controller;
+
+import com.sgi.credit.application.service.CreditServiceImpl;
+import com.sgi.credit.domain.shared.CustomError;
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import com.sgi.credit.infrastructure.exception.CustomException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+/**
+ * Test suite for {@link BalanceStreamController}.
+ */
+@WebFluxTest(controllers = BalanceStreamController.class)
+@Import(SimpleMeterRegistry.class)
+public class BalanceStreamControllerTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<BalanceResponse>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private CreditServiceImpl creditService;
+
+    @Test
+    void streamBalances_shouldSendEachBalanceAsAnEvent() {
+        BalanceResponse balance = new BalanceResponse();
+        balance.setClientId("client");
+        balance.setBalance(BigDecimal.valueOf(70));
+        Mockito.when(creditService.streamBalances("credit")).thenReturn(Flux.just(balance).concatWith(Flux.never()));
+
+        Flux<ServerSentEvent<BalanceResponse>> events = webTestClient.get()
+                .uri("/v1/credits/{creditId}/balances/stream", "credit")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(EVENT_TYPE)
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .expectNextMatches(event -> BalanceStreamController.BALANCE_EVENT.equals(event.event())
+                        && event.data() != null
+                        && event.data().getBalance().compareTo(BigDecimal.valueOf(70)) == 0)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void streamBalances_shouldAnswerNotFoundForUnknownCredit() {
+        Mockito.when(creditService.streamBalances("missing"))
+                .thenReturn(Flux.error(new CustomException(CustomError.E_CREDIT_NOT_FOUND)));
+
+        webTestClient.get()
+                .uri("/v1/credits/{creditId}/balances/stream", "missing")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
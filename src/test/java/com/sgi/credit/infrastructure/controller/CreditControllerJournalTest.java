@@ -0,0 +1,135 @@
+package com.sgi.credit.infrastructure.controller;
+
+import com.sgi.credit.application.service.CreditServiceImpl;
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.ports.in.StatementService;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.FeignExternalService;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.dto.TransactionResponse;
+import com.sgi.credit.infrastructure.holds.InMemoryHoldStore;
+import com.sgi.credit.infrastructure.journal.JournaledCreditLedger;
+import com.sgi.credit.infrastructure.repository.impl.CollectionDebtCycleStore;
+import com.sgi.credit.infrastructure.repository.impl.DocumentCreditLedger;
+import com.sgi.credit.infrastructure.repository.impl.OptimisticLockRetryImpl;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryCreditRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryDebtRepository;
+import com.sgi.credit.infrastructure.streaming.InMemoryBalanceBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Conditional reads of {@link CreditController} on top of the {@link JournaledCreditLedger}, whose
+ * entries reach the credit document after they are acknowledged. The journal applier is held back,
+ * so the reads run while a charge is acknowledged but not applied.
+ */
+class CreditControllerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryCreditRepository creditRepository = new InMemoryCreditRepository(16);
+    private final Sinks.Empty<Void> applyGate = Sinks.empty();
+    private JournaledCreditLedger ledger;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OptimisticLockRetryImpl optimisticLockRetry = new OptimisticLockRetryImpl(meterRegistry, 3,
+                Duration.ofMillis(1), Duration.ofMillis(5), 0.5);
+        CollectionDebtCycleStore debtCycleStore = new CollectionDebtCycleStore(creditRepository,
+                new InMemoryDebtRepository(16));
+        CreditRepository applierRepository = Mockito.mock(CreditRepository.class,
+                AdditionalAnswers.delegatesTo(creditRepository));
+        Mockito.doAnswer(invocation -> creditRepository.findById(invocation.getArgument(0, String.class))
+                        .delayUntil(credit -> applyGate.asMono()))
+                .when(applierRepository).findById(anyString());
+        ledger = new JournaledCreditLedger(new DocumentCreditLedger(creditRepository, debtCycleStore),
+                applierRepository, optimisticLockRetry, meterRegistry, directory, DataSize.ofKilobytes(64),
+                Duration.ZERO);
+
+        FeignExternalService webClient = Mockito.mock(FeignExternalService.class);
+        Mockito.when(webClient.post(eq("/v1/transactions"), any(), eq(TransactionResponse.class)))
+                .thenAnswer(invocation -> Mono.just(FactoryTest.toFactoryTransactionResponse("credit")));
+        CreditServiceImpl creditService = new CreditServiceImpl(creditRepository, webClient, debtCycleStore,
+                optimisticLockRetry, ledger,
+                new InMemoryHoldStore(meterRegistry, Duration.ofDays(7), Duration.ofMinutes(1)),
+                new InMemoryBalanceBroadcaster(meterRegistry), ObservationRegistry.NOOP);
+        webTestClient = WebTestClient.bindToController(
+                new CreditController(creditService, Mockito.mock(StatementService.class))).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        applyGate.tryEmitEmpty();
+        ledger.destroy();
+    }
+
+    private String getCredit(String creditId, String ifNoneMatch, int status, BigDecimal consumption) {
+        WebTestClient.ResponseSpec response = webTestClient.get()
+                .uri("/v1/credits/{creditId}", creditId)
+                .headers(headers -> headers.setIfNoneMatch(ifNoneMatch))
+                .exchange()
+                .expectStatus().isEqualTo(status);
+        String entityTag = response.returnResult(CreditResponse.class).getResponseHeaders().getETag();
+        if (consumption != null) {
+            webTestClient.get()
+                    .uri("/v1/credits/{creditId}", creditId)
+                    .exchange()
+                    .expectBody(CreditResponse.class)
+                    .value(credit -> assertEquals(0, consumption.compareTo(credit.getConsumptionAmount())));
+        }
+        return entityTag;
+    }
+
+    @Test
+    void getCreditById_shouldNotAnswerNotModifiedForChargesNotAppliedYet() {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(null);
+        creditRepository.save(credit).block();
+        String before = getCredit(credit.getId(), "*", 304, null);
+        assertNotNull(before);
+
+        webTestClient.post()
+                .uri("/v1/credits/{creditId}/charge", credit.getId())
+                .bodyValue(FactoryTest.toFactoryChargeRequest())
+                .exchange()
+                .expectStatus().isOk();
+
+        String pending = getCredit(credit.getId(), before, 200, BigDecimal.TEN);
+        assertNotEquals(before, pending);
+        getCredit(credit.getId(), pending, 304, null);
+
+        applyGate.tryEmitEmpty();
+        Mono.defer(() -> creditRepository.findById(credit.getId()))
+                .filter(applied -> applied.getJournalSeq() != null)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(20)).take(100))
+                .block(Duration.ofSeconds(5));
+        String applied = getCredit(credit.getId(), pending, 200, BigDecimal.TEN);
+        assertNotEquals(pending, applied);
+    }
+}
@@ -1,6 +1,12 @@
 package com.sgi.credit.infrastructure.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.sgi.credit.application.service.CreditServiceImpl;
+import com.sgi.credit.domain.ports.in.StatementService;
 import com.sgi.credit.helper.FactoryTest;
 import com.sgi.credit.infrastructure.dto.CreditRequest;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
@@ -8,17 +14,22 @@ import com.sgi.credit.infrastructure.dto.BalanceResponse;
 import com.sgi.credit.infrastructure.dto.TransactionResponse;
 import com.sgi.credit.infrastructure.dto.PaymentRequest;
 import com.sgi.credit.infrastructure.dto.ChargeRequest;
+import com.sgi.credit.infrastructure.encoding.BinaryJsonEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -35,6 +46,7 @@ import static org.mockito.Mockito.times;
  * Uses {@link WebTestClient} for simulating HTTP requests and responses.
  */
 @WebFluxTest(controllers = CreditController.class)
+@Import(SimpleMeterRegistry.class)
 public class CreditControllerTest {
 
     @Autowired
@@ -43,6 +55,12 @@ public class CreditControllerTest {
     @MockBean
     private CreditServiceImpl creditService;
 
+    @MockBean
+    private StatementService statementService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
 
     @Test
     void createCredit_shouldReturnCreatedResponse() {
@@ -82,12 +100,15 @@ public class CreditControllerTest {
         CreditResponse creditResponse = FactoryTest.toFactoryBankCredit(CreditResponse.class);
         Mockito.when(creditService.getCreditById(creditResponse.getId()))
                 .thenReturn(Mono.just(creditResponse));
+        Mockito.when(creditService.getCreditVersion(creditResponse.getId()))
+                .thenReturn(Mono.just("v1"));
         webTestClient.get()
                 .uri("/v1/credits/{creditId}", creditResponse.getId())
                 .exchange()
                 .expectStatus()
                 .isOk()
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v1\"")
                 .expectBody(CreditResponse.class)
                 .consumeWith(System.out::println)
                 .value(actual -> {
@@ -121,21 +142,109 @@ public class CreditControllerTest {
                 });
     }
 
+    @Test
+    void getAllCredits_shouldStreamNdjsonWhenRequested() {
+        List<CreditResponse> credits = FactoryTest.toFactoryListCredits();
+        Mockito.when(creditService.getAllCredits(null, null, null))
+                .thenReturn(Flux.fromIterable(credits));
+        webTestClient.get()
+                .uri("/v1/credits")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CreditResponse.class)
+                .getResponseBody()
+                .collectList()
+                .as(list -> assertThat(list.block()).containsExactlyElementsOf(credits));
+    }
+
+    @Test
+    void getAllCredits_shouldNegotiateCborWhenRequested() throws IOException {
+        List<CreditResponse> credits = FactoryTest.toFactoryListCredits();
+        Mockito.when(creditService.getAllCredits(null, null, null))
+                .thenReturn(Flux.fromIterable(credits));
+        byte[] body = webTestClient.get()
+                .uri("/v1/credits")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(binaryMapper(new CBORFactory()).readValue(body, new TypeReference<List<CreditResponse>>() { }))
+                .containsExactlyElementsOf(credits);
+    }
+
+    @Test
+    void getClientTransactions_shouldNegotiateSmileWhenRequested() throws IOException {
+        String creditId = randomUUID().toString();
+        List<TransactionResponse> transactions = FactoryTest.toFactoryListTransactionResponse(creditId);
+        Mockito.when(creditService.getClientTransactions(creditId))
+                .thenReturn(Flux.fromIterable(transactions));
+        byte[] body = webTestClient.get()
+                .uri("/v1/credits/{creditId}/transactions", creditId)
+                .accept(BinaryJsonEncoder.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(BinaryJsonEncoder.APPLICATION_SMILE)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(binaryMapper(new SmileFactory()).readValue(body, new TypeReference<List<TransactionResponse>>() { }))
+                .containsExactlyElementsOf(transactions);
+    }
+
     @Test
     void getClientCreditBalances_shouldReturnBalanceResponse() {
         String creditId = randomUUID().toString();
         BalanceResponse balanceResponse = FactoryTest.toFactoryBalanceClient();
         Mockito.when(creditService.getClientBalances(creditId)).thenReturn(Mono.just(balanceResponse));
+        Mockito.when(creditService.getCreditVersion(creditId)).thenReturn(Mono.just("v1"));
         webTestClient.get()
                 .uri("/v1/credits/{creditId}/balances", creditId)
                 .exchange()
                 .expectStatus().isOk()
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v1\"")
                 .expectBody(BalanceResponse.class)
                 .isEqualTo(balanceResponse);
         Mockito.verify(creditService, times(1)).getClientBalances(creditId);
     }
 
+    @Test
+    void getClientCreditBalances_shouldReturnNotModifiedWhenEtagMatches() {
+        String creditId = randomUUID().toString();
+        Mockito.when(creditService.getClientBalances(creditId))
+                .thenReturn(Mono.error(new IllegalStateException("full read not expected")));
+        Mockito.when(creditService.getCreditVersion(creditId)).thenReturn(Mono.just("v2"));
+        webTestClient.get()
+                .uri("/v1/credits/{creditId}/balances", creditId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\", \"v2\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v2\"")
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getCreditById_shouldReturnBodyWhenEtagIsStale() {
+        CreditResponse creditResponse = FactoryTest.toFactoryBankCredit(CreditResponse.class);
+        Mockito.when(creditService.getCreditById(creditResponse.getId()))
+                .thenReturn(Mono.just(creditResponse));
+        Mockito.when(creditService.getCreditVersion(creditResponse.getId()))
+                .thenReturn(Mono.just("v2"));
+        webTestClient.get()
+                .uri("/v1/credits/{creditId}", creditResponse.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v2\"")
+                .expectBody(CreditResponse.class)
+                .value(actual -> Assertions.assertEquals(creditResponse.getId(), actual.getId()));
+    }
+
     @Test
     void makePayment_shouldReturnTransactionResponse() {
         String creditId = randomUUID().toString();
@@ -217,5 +326,7 @@ public class CreditControllerTest {
         Mockito.verify(creditService, times(1)).updateCredit(eq(creditId), any(Mono.class));
     }
 
-
+    private ObjectMapper binaryMapper(JsonFactory factory) {
+        return objectMapper.copyWith(factory);
+    }
 }
@@ -0,0 +1,98 @@
+package com.sgi.credit.infrastructure.controller;
+
+import com.sgi.credit.application.service.CreditServiceImpl;
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditExportRow;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test suite for {@link CreditExportController}.
+ */
+@WebFluxTest(controllers = CreditExportController.class)
+@Import(SimpleMeterRegistry.class)
+public class CreditExportControllerTest {
+
+    private static final Instant CREATED = Instant.parse("2024-01-15T10:20:30Z");
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private CreditServiceImpl creditService;
+
+    private static Credit credit(String id, String clientId) {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(id);
+        credit.setCreditNumber("4557");
+        credit.setClientId(clientId);
+        credit.setInterestRate(new BigDecimal("0.35"));
+        credit.setConsumptionAmount(Money.ofMinor(1_050));
+        credit.setCreatedDate(CREATED);
+        credit.setUpdatedDate(null);
+        return credit;
+    }
+
+    private String export(boolean cycles) {
+        return webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/v1/credits/export").queryParam("cycles", cycles).build())
+                .accept(MediaType.valueOf(CreditExportController.TEXT_CSV))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.valueOf(CreditExportController.TEXT_CSV))
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"credits.csv\"")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    void exportCredits_shouldWriteOneEscapedLinePerCredit() {
+        Mockito.when(creditService.exportCredits(false)).thenReturn(Flux.just(
+                new CreditExportRow(credit("c1", "client, \"A\""), null),
+                new CreditExportRow(credit("c2", null), null)));
+
+        assertEquals("id,creditNumber,type,clientId,creditLimit,consumptionAmount,balance,interestRate,"
+                        + "createdDate,updatedDate\r\n"
+                        + "c1,4557,PERSONAL,\"client, \"\"A\"\"\",2000.00,10.50,2000.00,0.35,2024-01-15T10:20:30Z,\r\n"
+                        + "c2,4557,PERSONAL,,2000.00,10.50,2000.00,0.35,2024-01-15T10:20:30Z,\r\n",
+                export(false));
+    }
+
+    @Test
+    void exportCredits_shouldAppendCycleColumnsWhenRequested() {
+        Credit credit = credit("c1", "client-1");
+        Debt cycle = FactoryTest.toFactoryDebtModel("c1", "client-1", Money.ofMajor(5),
+                DebtRequest.StatusEnum.ACTIVE.name());
+        cycle.setId("d1");
+        cycle.setDueDate(CREATED);
+        Mockito.when(creditService.exportCredits(true)).thenReturn(Flux.just(
+                new CreditExportRow(credit, cycle),
+                new CreditExportRow(credit("c2", "client-2"), null)));
+
+        assertEquals("id,creditNumber,type,clientId,creditLimit,consumptionAmount,balance,interestRate,"
+                        + "createdDate,updatedDate,cycleId,cycleStatus,cycleAmount,cycleDueDate\r\n"
+                        + "c1,4557,PERSONAL,client-1,2000.00,10.50,2000.00,0.35,2024-01-15T10:20:30Z,,"
+                        + "d1,ACTIVE,5.00,2024-01-15T10:20:30Z\r\n"
+                        + "c2,4557,PERSONAL,client-2,2000.00,10.50,2000.00,0.35,2024-01-15T10:20:30Z,,,,,\r\n",
+                export(true));
+    }
+}
@@ -0,0 +1,96 @@
+package com.sgi.credit.infrastructure.encoding;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sgi.credit.infrastructure.config.JacksonConfig;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link BinaryJsonEncoder} class.
+ */
+public class BinaryJsonEncoderTest {
+
+    private static final ResolvableType CREDIT_TYPE = ResolvableType.forClass(CreditResponse.class);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new JacksonConfig().moneyModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final BinaryJsonEncoder encoder = new BinaryJsonEncoder(objectMapper);
+
+    private static CreditResponse credit(int i) {
+        return new CreditResponse()
+                .id("credit-" + i)
+                .type(CreditResponse.TypeEnum.PERSONAL)
+                .creditLimit(BigDecimal.valueOf(200_000 + i, 2))
+                .clientId("client-" + i);
+    }
+
+    private List<CreditResponse> decode(Flux<DataBuffer> buffers, JsonFactory factory) throws IOException {
+        DataBuffer joined = DataBufferUtils.join(buffers).block();
+        byte[] bytes = new byte[joined != null ? joined.readableByteCount() : 0];
+        if (joined != null) {
+            joined.read(bytes);
+            DataBufferUtils.release(joined);
+        }
+        return objectMapper.copyWith(factory).readValue(bytes, new TypeReference<>() { });
+    }
+
+    private Flux<DataBuffer> encode(Flux<CreditResponse> credits, MimeType mimeType) {
+        return encoder.encode(credits, DefaultDataBufferFactory.sharedInstance, CREDIT_TYPE, mimeType, Map.of());
+    }
+
+    @Test
+    void encode_shouldWriteOneArrayInEveryBinaryFormat() throws IOException {
+        List<CreditResponse> credits = Flux.range(0, 50).map(BinaryJsonEncoderTest::credit).collectList().block();
+
+        assertEquals(credits, decode(encode(Flux.fromIterable(credits), MediaType.APPLICATION_CBOR), new CBORFactory()));
+        assertEquals(credits, decode(encode(Flux.fromIterable(credits), BinaryJsonEncoder.APPLICATION_SMILE),
+                new SmileFactory()));
+        assertEquals(List.of(), decode(encode(Flux.empty(), MediaType.APPLICATION_CBOR), new CBORFactory()));
+    }
+
+    @Test
+    void encode_shouldWriteEachElementAsItArrives() {
+        Sinks.Many<CreditResponse> credits = Sinks.many().unicast().onBackpressureBuffer();
+        List<DataBuffer> buffers = new CopyOnWriteArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        encode(credits.asFlux(), MediaType.APPLICATION_CBOR)
+                .doOnComplete(() -> completed.set(true))
+                .subscribe(buffers::add);
+
+        credits.tryEmitNext(credit(1));
+        assertEquals(2, buffers.size());
+        assertFalse(completed.get());
+        credits.tryEmitNext(credit(2));
+        credits.tryEmitComplete();
+        assertEquals(4, buffers.size());
+        assertTrue(completed.get());
+        buffers.forEach(DataBufferUtils::release);
+    }
+}
@@ -0,0 +1,112 @@
+package com.sgi.credit.infrastructure.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sgi.credit.infrastructure.config.JacksonConfig;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.dto.TransactionResponse;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link StreamingJsonEncoder} class, checked against the default Jackson encoder.
+ */
+public class StreamingJsonEncoderTest {
+
+    private static final ResolvableType CREDIT_TYPE = ResolvableType.forClass(CreditResponse.class);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new JacksonConfig().moneyModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final Jackson2JsonEncoder defaultEncoder = new Jackson2JsonEncoder(objectMapper);
+    private final StreamingJsonEncoder encoder = new StreamingJsonEncoder(objectMapper,
+            List.of(CreditResponse.class, TransactionResponse.class), 64, Duration.ofMillis(5));
+
+    private static List<CreditResponse> credits(int count) {
+        OffsetDateTime base = OffsetDateTime.of(2024, 1, 15, 10, 20, 30, 0, ZoneOffset.UTC);
+        int[] nanos = {0, 500_000_000, 123_000_000, 123_456_789, 1_000};
+        return Flux.range(0, count)
+                .map(i -> new CreditResponse()
+                        .id("credit-" + i)
+                        .creditNumber("4557" + i)
+                        .type(CreditResponse.TypeEnum.PERSONAL)
+                        .creditLimit(BigDecimal.valueOf(200_000 + i, 2))
+                        .consumptionAmount(BigDecimal.valueOf(i, 2))
+                        .balance(BigDecimal.valueOf(200_000, 2))
+                        .interestRate(new BigDecimal("0.35"))
+                        .clientId(i % 7 == 0 ? null : "client-" + i)
+                        .createdDate(base.plusSeconds(i).withNano(nanos[i % nanos.length])))
+                .collectList()
+                .block();
+    }
+
+    private static String join(Flux<DataBuffer> buffers) {
+        DataBuffer joined = DataBufferUtils.join(buffers).block();
+        if (joined == null) {
+            return "";
+        }
+        String text = joined.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(joined);
+        return text;
+    }
+
+    private static String encode(Encoder<Object> encoder, Publisher<?> values, MimeType mimeType) {
+        return join(encoder.encode(values, DefaultDataBufferFactory.sharedInstance, CREDIT_TYPE, mimeType, Map.of()));
+    }
+
+    @Test
+    void encode_shouldWriteSameJsonArrayAsDefaultEncoder() {
+        Flux<CreditResponse> values = Flux.fromIterable(credits(300));
+        assertEquals(encode(defaultEncoder, values, MediaType.APPLICATION_JSON),
+                encode(encoder, values, MediaType.APPLICATION_JSON));
+        assertEquals("[]", encode(encoder, Flux.empty(), MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void encode_shouldWriteOneDocumentPerLineForNdjson() {
+        Flux<CreditResponse> values = Flux.fromIterable(credits(150));
+        assertEquals(encode(defaultEncoder, values, MediaType.APPLICATION_NDJSON),
+                encode(encoder, values, MediaType.APPLICATION_NDJSON));
+        assertEquals("", encode(encoder, Flux.empty(), MediaType.APPLICATION_NDJSON));
+    }
+
+    @Test
+    void encode_shouldWriteSingleValueWithoutSeparators() {
+        CreditResponse credit = credits(1).get(0);
+        credit.setCreatedDate(OffsetDateTime.of(2024, 1, 15, 10, 20, 30, 0, ZoneOffset.ofHours(-5)));
+        assertEquals(encode(defaultEncoder, Mono.just(credit), MediaType.APPLICATION_JSON),
+                encode(encoder, Mono.just(credit), MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void canEncode_shouldOnlyAcceptRegisteredTypesAndJson() {
+        assertTrue(encoder.canEncode(CREDIT_TYPE, null));
+        assertTrue(encoder.canEncode(ResolvableType.forClass(TransactionResponse.class), MediaType.APPLICATION_NDJSON));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON));
+        assertFalse(encoder.canEncode(CREDIT_TYPE, MediaType.APPLICATION_XML));
+    }
+}
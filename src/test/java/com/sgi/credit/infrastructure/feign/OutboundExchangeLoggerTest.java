@@ -0,0 +1,104 @@
+package com.sgi.credit.infrastructure.feign;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundExchangeLoggerTest {
+
+    private static final String BODY = "[{\"id\":\"t1\",\"amount\":10.5},{\"id\":\"t2\",\"amount\":3}]";
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(OutboundExchangeLogger.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+    }
+
+    private static WebClient webClient(OutboundExchangeLogger exchangeLogger, HttpStatus status) {
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(BODY)
+                        .build()))
+                .filter(exchangeLogger.byteCounter())
+                .build();
+    }
+
+    private static void call(OutboundExchangeLogger exchangeLogger, HttpStatus status) {
+        OutboundExchangeLogger.Exchange exchange = exchangeLogger.start(HttpMethod.GET, "/transactions/{id}");
+        StepVerifier.create(exchangeLogger.track(exchange, webClient(exchangeLogger, status).get()
+                        .uri("/transactions/{id}", "c1")
+                        .attribute(OutboundExchangeLogger.EXCHANGE_ATTRIBUTE, exchange)
+                        .retrieve()
+                        .bodyToFlux(Map.class))
+                        .onErrorResume(ex -> Flux.empty()))
+                .thenConsumeWhile(element -> true)
+                .verifyComplete();
+    }
+
+    private static OutboundExchangeLogger exchangeLogger(double sampleRate, boolean bodyPreview) {
+        return new OutboundExchangeLogger(new ObjectMapper(), sampleRate, bodyPreview, Set.of("amount"));
+    }
+
+    @Test
+    void track_shouldLogOneSummaryPerExchange() {
+        call(exchangeLogger(1.0, false), HttpStatus.OK);
+
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.startsWith("Outbound GET /transactions/{id} outcome=SUCCESS status=200 elements=2 bytes="
+                + BODY.getBytes(StandardCharsets.UTF_8).length + " latencyMs="), message);
+        assertFalse(message.contains("body="), message);
+    }
+
+    @Test
+    void track_shouldSampleSuccessesButAlwaysLogErrors() {
+        OutboundExchangeLogger exchangeLogger = exchangeLogger(0.0, false);
+        call(exchangeLogger, HttpStatus.OK);
+        assertTrue(appender.list.isEmpty());
+
+        call(exchangeLogger, HttpStatus.INTERNAL_SERVER_ERROR);
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals("ERROR", event.getLevel().toString());
+        assertTrue(event.getFormattedMessage().contains("outcome=ERROR status=500 elements=0"), event.getFormattedMessage());
+    }
+
+    @Test
+    void track_shouldRedactMonetaryFieldsInBodyPreview() {
+        call(exchangeLogger(1.0, true), HttpStatus.OK);
+
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.endsWith(" body={\"id\":\"t1\",\"amount\":\"***\"}"), message);
+    }
+}
@@ -0,0 +1,80 @@
+package com.sgi.credit.infrastructure.holds;
+
+import com.sgi.credit.domain.model.Hold;
+import com.sgi.credit.domain.model.HoldStatus;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.infrastructure.exception.CustomException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Unit tests for the {@link InMemoryHoldStore} class.
+ */
+class InMemoryHoldStoreTest {
+
+    private final InMemoryHoldStore holdStore = new InMemoryHoldStore(new SimpleMeterRegistry(),
+            Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+    @Test
+    void reserve_shouldNeedRecordedBalanceAndStayWithinIt() {
+        StepVerifier.create(holdStore.reserve("credit", Money.ofMajor(10)))
+                .verifyComplete();
+        StepVerifier.create(holdStore.reserve("credit", Money.ofMajor(60), Money.ofMajor(100)))
+                .expectNextMatches(hold -> hold.getStatus() == HoldStatus.AUTHORIZED)
+                .verifyComplete();
+        StepVerifier.create(holdStore.reserve("credit", Money.ofMajor(50)))
+                .expectError(CustomException.class)
+                .verify();
+        StepVerifier.create(holdStore.reserve("credit", Money.ofMajor(40)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(holdStore.heldAmount("credit"))
+                .expectNext(Money.ofMajor(100))
+                .verifyComplete();
+    }
+
+    @Test
+    void claim_shouldReleaseHoldOnceAndRestoreShouldReserveItAgain() {
+        Hold hold = holdStore.reserve("credit", Money.ofMajor(10), Money.ofMajor(100)).block();
+        assertNotNull(hold);
+        Long revision = holdStore.revision("credit").block();
+        StepVerifier.create(holdStore.claim("credit", hold.getId(), HoldStatus.VOIDED))
+                .expectNextMatches(voided -> voided.getStatus() == HoldStatus.VOIDED)
+                .verifyComplete();
+        StepVerifier.create(holdStore.claim("credit", hold.getId(), HoldStatus.CAPTURED))
+                .verifyComplete();
+        StepVerifier.create(holdStore.revision("credit"))
+                .expectNextMatches(next -> next > revision)
+                .verifyComplete();
+        holdStore.restore(hold).block();
+        StepVerifier.create(holdStore.heldAmount("credit"))
+                .expectNext(Money.ofMajor(10))
+                .verifyComplete();
+    }
+
+    @Test
+    void expire_shouldReleaseDueHoldsInBatches() {
+        for (int i = 0; i < 3; i++) {
+            holdStore.reserve("credit", Money.ofMajor(10), Money.ofMajor(100)).block();
+        }
+        Instant later = Instant.now().plus(Duration.ofHours(1));
+        StepVerifier.create(holdStore.expire(Instant.now(), 10))
+                .expectNext(0)
+                .verifyComplete();
+        StepVerifier.create(holdStore.expire(later, 2))
+                .expectNext(2)
+                .verifyComplete();
+        StepVerifier.create(holdStore.expire(later, 2))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(holdStore.heldAmount("credit"))
+                .expectNext(Money.ZERO)
+                .verifyComplete();
+    }
+}
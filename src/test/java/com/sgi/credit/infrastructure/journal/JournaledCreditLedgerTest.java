@@ -0,0 +1,157 @@
+package com.sgi.credit.infrastructure.journal;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.repository.impl.CollectionDebtCycleStore;
+import com.sgi.credit.infrastructure.repository.impl.DocumentCreditLedger;
+import com.sgi.credit.infrastructure.repository.impl.OptimisticLockRetryImpl;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryCreditRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryDebtRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.util.unit.DataSize;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Unit tests for the {@link JournaledCreditLedger} class, backed by the in-memory adapters.
+ */
+public class JournaledCreditLedgerTest {
+
+    @TempDir
+    Path directory;
+
+    private CreditRepository creditRepository;
+
+    private DocumentCreditLedger documentLedger;
+
+    @BeforeEach
+    void setUp() {
+        creditRepository = new InMemoryCreditRepository(16);
+        documentLedger = new DocumentCreditLedger(creditRepository,
+                new CollectionDebtCycleStore(creditRepository, new InMemoryDebtRepository(16)));
+    }
+
+    private JournaledCreditLedger openLedger() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new JournaledCreditLedger(documentLedger, creditRepository,
+                new OptimisticLockRetryImpl(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(5), 0.5),
+                meterRegistry, directory, DataSize.ofKilobytes(64), Duration.ZERO);
+    }
+
+    private Credit newCredit() {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(null);
+        creditRepository.save(credit).block();
+        return creditRepository.findById(credit.getId()).block();
+    }
+
+    private Credit awaitJournalSeq(String creditId, long seq) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Credit credit = creditRepository.findById(creditId).block();
+            if (credit != null && credit.getJournalSeq() != null && credit.getJournalSeq() >= seq) {
+                return credit;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Journal entry " + seq + " was not applied");
+    }
+
+    @Test
+    void append_shouldAcknowledgeAndApplyInOrder() throws Exception {
+        JournaledCreditLedger ledger = openLedger();
+        Credit credit = newCredit();
+        CreditSnapshot state = ledger.currentState(credit).block();
+        assertNotNull(state);
+        state = ledger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(300)).block();
+        assertNotNull(state);
+        ledger.append(credit, state, LedgerEntryType.PAYMENT, Money.ofMajor(100)).block();
+
+        Credit applied = awaitJournalSeq(credit.getId(), 2);
+        assertEquals(0, Money.ofMajor(200).compareTo(applied.getConsumptionAmount()));
+        assertEquals(0, Money.ofMajor(1800).compareTo(applied.getBalance()));
+        ledger.destroy();
+    }
+
+    @Test
+    void append_shouldRejectStaleState() throws Exception {
+        JournaledCreditLedger ledger = openLedger();
+        Credit credit = newCredit();
+        CreditSnapshot stale = ledger.currentState(credit).block();
+        assertNotNull(stale);
+        ledger.append(credit, stale, LedgerEntryType.CHARGE, Money.ofMajor(10)).block();
+        StepVerifier.create(ledger.append(credit, stale, LedgerEntryType.CHARGE, Money.ofMajor(10)))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+        ledger.destroy();
+    }
+
+    @Test
+    void restart_shouldApplyReplayedEntriesOnce() throws Exception {
+        JournaledCreditLedger ledger = openLedger();
+        Credit credit = newCredit();
+        CreditSnapshot state = ledger.currentState(credit).block();
+        assertNotNull(state);
+        ledger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(50)).block();
+        awaitJournalSeq(credit.getId(), 1);
+        ledger.destroy();
+        Files.write(directory.resolve("checkpoint"), new byte[Long.BYTES]);
+
+        final JournaledCreditLedger restarted = openLedger();
+        Thread.sleep(100);
+        Credit reloaded = creditRepository.findById(credit.getId()).block();
+        assertNotNull(reloaded);
+        assertEquals(0, Money.ofMajor(50).compareTo(reloaded.getConsumptionAmount()));
+        StepVerifier.create(restarted.findBalance(credit.getId()))
+                .expectNextMatches(balance -> balance.getBalance().compareTo(BigDecimal.valueOf(1950)) == 0)
+                .verifyComplete();
+        restarted.destroy();
+    }
+
+    @Test
+    void restart_shouldContinuePastAppliedSequencesWhenTheJournalIsLost() throws Exception {
+        JournaledCreditLedger ledger = openLedger();
+        Credit credit = newCredit();
+        CreditSnapshot state = ledger.currentState(credit).block();
+        assertNotNull(state);
+        state = ledger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(50)).block();
+        assertNotNull(state);
+        ledger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(20)).block();
+        awaitJournalSeq(credit.getId(), 2);
+        ledger.destroy();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+
+        final JournaledCreditLedger restarted = openLedger();
+        Credit reloaded = creditRepository.findById(credit.getId()).block();
+        assertNotNull(reloaded);
+        CreditSnapshot current = restarted.currentState(reloaded).block();
+        assertNotNull(current);
+        CreditSnapshot next = restarted.append(reloaded, current, LedgerEntryType.CHARGE, Money.ofMajor(5)).block();
+        assertNotNull(next);
+        assertEquals(0, Money.ofMajor(75).compareTo(next.getConsumptionAmount()));
+
+        Credit applied = awaitJournalSeq(credit.getId(), 3);
+        assertEquals(0, Money.ofMajor(75).compareTo(applied.getConsumptionAmount()));
+        restarted.destroy();
+    }
+}
@@ -0,0 +1,172 @@
+package com.sgi.credit.infrastructure.journal;
+
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link MappedJournal} class.
+ */
+public class MappedJournalTest {
+
+    private static final int SEGMENT_SIZE = 1 << 16;
+
+    @TempDir
+    Path directory;
+
+    private MappedJournal open(int segmentSize, long commitDelay, SimpleMeterRegistry meterRegistry,
+                               List<JournalEntry> committed) throws IOException {
+        MappedJournal journal = new MappedJournal(directory, segmentSize, commitDelay, meterRegistry);
+        journal.start(committed::addAll);
+        return journal;
+    }
+
+    private static void append(MappedJournal journal, String creditId, String amount) {
+        journal.append(creditId, LedgerEntryType.CHARGE, Money.of(new BigDecimal(amount))).durable().join();
+    }
+
+    @Test
+    void recover_shouldReturnEntriesAfterCheckpoint() throws IOException {
+        List<JournalEntry> committed = new CopyOnWriteArrayList<>();
+        MappedJournal journal = open(SEGMENT_SIZE, 0, new SimpleMeterRegistry(), committed);
+        append(journal, "credit-1", "10.50");
+        append(journal, "credit-2", "-3");
+        append(journal, "credit-1", "7.125");
+        assertEquals(3, committed.size());
+        journal.markApplied(2);
+        journal.close();
+
+        MappedJournal reopened = open(SEGMENT_SIZE, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        List<JournalEntry> unapplied = reopened.unapplied();
+        assertEquals(1, unapplied.size());
+        assertEquals(3, unapplied.get(0).seq());
+        assertEquals("credit-1", unapplied.get(0).creditId());
+        assertEquals(Money.of(new BigDecimal("7.125")), unapplied.get(0).amount());
+        assertEquals(4, reopened.append("credit-3", LedgerEntryType.PAYMENT, Money.ofMajor(1)).entry().seq());
+        reopened.close();
+    }
+
+    @Test
+    void recover_shouldStopAtTornRecordAndReuseItsPosition() throws IOException {
+        MappedJournal journal = open(SEGMENT_SIZE, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        append(journal, "credit-1", "1");
+        append(journal, "credit-1", "2");
+        journal.close();
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            int secondRecord = Integer.BYTES * 2 + header.getInt(0);
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), secondRecord + Integer.BYTES * 2 + 1);
+        }
+
+        MappedJournal reopened = open(SEGMENT_SIZE, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        assertEquals(1, reopened.unapplied().size());
+        append(reopened, "credit-2", "5");
+        reopened.close();
+
+        MappedJournal recovered = open(SEGMENT_SIZE, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        List<JournalEntry> unapplied = recovered.unapplied();
+        assertEquals(2, unapplied.size());
+        assertEquals("credit-2", unapplied.get(1).creditId());
+        assertEquals(2, unapplied.get(1).seq());
+        recovered.close();
+    }
+
+    @Test
+    void append_shouldShareFlushesBetweenConcurrentWriters() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<JournalEntry> committed = new CopyOnWriteArrayList<>();
+        MappedJournal journal = open(SEGMENT_SIZE, 20_000_000L, meterRegistry, committed);
+        List<CompletableFuture<Void>> futures = IntStream.range(0, 200).parallel()
+                .mapToObj(i -> journal.append("credit-" + i, LedgerEntryType.CHARGE, Money.ofMajor(1)).durable())
+                .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        journal.close();
+
+        assertEquals(200, committed.size());
+        assertTrue(IntStream.range(1, committed.size())
+                .allMatch(i -> committed.get(i).seq() == committed.get(i - 1).seq() + 1));
+        assertEquals(200.0, meterRegistry.get("credit.journal.batch.size").summary().totalAmount());
+        assertTrue(meterRegistry.get("credit.journal.batch.size").summary().count() < 200);
+    }
+
+    @Test
+    void markApplied_shouldDeleteSegmentsBehindCheckpoint() throws IOException {
+        MappedJournal journal = open(256, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            append(journal, "credit-" + i, "1");
+        }
+        assertTrue(segments().size() > 1);
+        journal.markApplied(20);
+        assertEquals(1, segments().size());
+        journal.close();
+
+        MappedJournal reopened = open(256, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        assertTrue(reopened.unapplied().isEmpty());
+        assertEquals(21, reopened.append("credit-x", LedgerEntryType.CHARGE, Money.ofMajor(1)).entry().seq());
+        reopened.close();
+    }
+
+    @Test
+    void recover_shouldNotReuseSequencesOfTheNewestSegment() throws IOException {
+        MappedJournal journal = open(256, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            append(journal, "credit-" + i, "1");
+        }
+        journal.markApplied(20);
+        journal.close();
+        Path newest = segments().get(segments().size() - 1);
+        String name = newest.getFileName().toString();
+        long firstSeq = Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+        assertTrue(firstSeq > 1);
+        Files.delete(directory.resolve("checkpoint"));
+        try (FileChannel channel = FileChannel.open(newest, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(256), 0);
+        }
+
+        MappedJournal reopened = open(256, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        assertTrue(reopened.unapplied().isEmpty());
+        assertEquals(firstSeq, reopened.append("credit-x", LedgerEntryType.CHARGE, Money.ofMajor(1)).entry().seq());
+        reopened.close();
+    }
+
+    @Test
+    void advancePast_shouldSurviveRestart() throws IOException {
+        MappedJournal journal = open(SEGMENT_SIZE, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        assertTrue(journal.advancePast(41));
+        assertFalse(journal.advancePast(10));
+        journal.close();
+
+        MappedJournal reopened = open(SEGMENT_SIZE, 0, new SimpleMeterRegistry(), new CopyOnWriteArrayList<>());
+        assertEquals(42, reopened.append("credit-1", LedgerEntryType.CHARGE, Money.ofMajor(1)).entry().seq());
+        reopened.close();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("journal-"))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sgi.credit.infrastructure.loadshedding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Sinks.Empty<Void> pending = Sinks.empty();
+    private final List<Runnable> cancels = new ArrayList<>();
+    private final ConcurrencyLimitFilter filter = filter();
+
+    private ConcurrencyLimitFilter filter() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(10);
+        return new ConcurrencyLimitFilter(properties, meterRegistry,
+                new ObjectMapper().registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    private MockServerWebExchange hold(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        cancels.add(filter.filter(exchange, ignored -> pending.asMono()).subscribe()::dispose);
+        return exchange;
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        StepVerifier.create(filter.filter(exchange, ignored -> Mono.empty())).verifyComplete();
+        return exchange;
+    }
+
+    @Test
+    void filter_shouldShedListingsBeforePayments() {
+        for (int i = 0; i < 5; i++) {
+            hold(MockServerHttpRequest.get("/v1/credits").build());
+        }
+        assertEquals(5, filter.inFlight());
+
+        MockServerWebExchange listing = send(MockServerHttpRequest.get("/v1/credits").build());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, listing.getResponse().getStatusCode());
+        assertEquals("1", listing.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        StepVerifier.create(listing.getResponse().getBodyAsString())
+                .expectNextMatches(body -> body.contains("\"code\":\"CREDIT-011\""))
+                .verifyComplete();
+
+        for (int i = 0; i < 4; i++) {
+            hold(MockServerHttpRequest.post("/v1/credits/{id}/charge", "credit-1").build());
+        }
+        MockServerWebExchange charge = send(MockServerHttpRequest.post("/v1/credits/{id}/charge", "credit-1").build());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, charge.getResponse().getStatusCode());
+
+        MockServerWebExchange payment = send(MockServerHttpRequest.post("/v1/credits/{id}/payment", "credit-1").build());
+        assertNull(payment.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.get("credit.concurrency.rejected").tag("priority", "low").counter().count());
+        assertEquals(1.0, meterRegistry.get("credit.concurrency.rejected").tag("priority", "high").counter().count());
+        assertEquals(0.0, meterRegistry.get("credit.concurrency.rejected").tag("priority", "critical").counter().count());
+
+        pending.tryEmitEmpty();
+        assertEquals(0, filter.inFlight());
+        assertEquals(10.0, meterRegistry.get("credit.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void filter_shouldLeaveStreamsAndOtherPathsOutOfTheLimit() {
+        for (int i = 0; i < 10; i++) {
+            hold(MockServerHttpRequest.post("/v1/credits/{id}/payment", "credit-1").build());
+        }
+        assertNull(send(MockServerHttpRequest.get("/v1/credits/credit-1/balances/stream").build())
+                .getResponse().getStatusCode());
+        assertNull(send(MockServerHttpRequest.get("/actuator/health").build()).getResponse().getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                send(MockServerHttpRequest.post("/v1/credits/{id}/payment", "credit-1").build())
+                        .getResponse().getStatusCode());
+
+        cancels.forEach(Runnable::run);
+        assertEquals(0, filter.inFlight());
+    }
+}
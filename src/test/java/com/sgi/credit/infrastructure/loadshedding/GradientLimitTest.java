@@ -0,0 +1,76 @@
+package com.sgi.credit.infrastructure.loadshedding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final GradientLimit limit = new GradientLimit(50, 10, 200, 2.0, 0.2, 600, WINDOW, 10);
+    private long now;
+
+    private void window(long rttNanos, int inFlight) {
+        for (int i = 0; i < 10; i++) {
+            now += WINDOW / 10;
+            limit.onSample(rttNanos, inFlight, now);
+        }
+    }
+
+    @Test
+    void onSample_shouldGrowWhileLatencyIsSteadyAndTheLimitIsUsed() {
+        for (int i = 0; i < 20; i++) {
+            window(RTT, limit.limit());
+        }
+        assertTrue(limit.limit() > 60, "limit " + limit.limit());
+    }
+
+    @Test
+    void onSample_shouldShrinkWhenLatencyRises() {
+        for (int i = 0; i < 5; i++) {
+            window(RTT, limit.limit());
+        }
+        int steady = limit.limit();
+        for (int i = 0; i < 20; i++) {
+            window(RTT * 10, limit.limit());
+        }
+        assertTrue(limit.limit() < steady / 2, "limit " + limit.limit() + " after " + steady);
+        for (int i = 0; i < 200; i++) {
+            window(RTT * 10, limit.limit());
+        }
+        assertTrue(limit.limit() >= 10);
+    }
+
+    @Test
+    void onSample_shouldKeepTheLimitWhenLittleOfItIsUsed() {
+        for (int i = 0; i < 20; i++) {
+            window(RTT, 5);
+        }
+        window(RTT * 10, 5);
+        assertEquals(50, limit.limit());
+    }
+
+    @Test
+    void onSample_shouldCloseWindowsWhenSampledFromManyThreads() throws InterruptedException {
+        AtomicLong clock = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    limit.onSample(RTT, limit.limit(), clock.addAndGet(WINDOW / 100));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200, limit.limit());
+    }
+}
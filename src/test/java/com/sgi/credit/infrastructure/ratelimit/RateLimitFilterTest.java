@@ -0,0 +1,146 @@
+package com.sgi.credit.infrastructure.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private RateLimitFilter filter = filter(new RateLimitProperties());
+
+    private RateLimitFilter filter(RateLimitProperties properties) {
+        properties.getEndpoints().get("charge").setCredit(new RateLimitProperties.Quota(2, 1));
+        return new RateLimitFilter(properties, meterRegistry,
+                new ObjectMapper().registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        StepVerifier.create(filter.filter(exchange, ignored -> Mono.fromRunnable(forwarded::incrementAndGet)))
+                .verifyComplete();
+        return exchange;
+    }
+
+    private MockServerWebExchange charge(String creditId) {
+        return send(MockServerHttpRequest.post("/v1/credits/{id}/charge", creditId).header("X-Client-Id", "c1").build());
+    }
+
+    @Test
+    void filter_shouldRejectOnceCreditQuotaIsSpent() {
+        HttpHeaders first = charge("credit-1").getResponse().getHeaders();
+        assertEquals("2", first.getFirst(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", first.getFirst(RateLimitFilter.REMAINING_HEADER));
+        charge("credit-1");
+
+        MockServerWebExchange rejected = charge("credit-1");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("0", rejected.getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        StepVerifier.create(rejected.getResponse().getBodyAsString())
+                .expectNextMatches(body -> body.contains("\"code\":\"CREDIT-008\""))
+                .verifyComplete();
+        assertEquals(2, forwarded.get());
+        assertEquals(1.0, meterRegistry.get("credit.ratelimit.rejected")
+                .tag("endpoint", "charge").tag("dimension", "credit").counter().count());
+
+        assertEquals("1", charge("credit-2").getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(3, forwarded.get());
+    }
+
+    @Test
+    void filter_shouldPassRequestsOutsideLimitedEndpoints() {
+        MockServerWebExchange exchange = send(MockServerHttpRequest.get("/v1/credits/credit-1/charge").build());
+        assertNull(exchange.getResponse().getHeaders().getFirst(RateLimitFilter.LIMIT_HEADER));
+
+        MockServerWebExchange created = send(MockServerHttpRequest.post("/v1/credits").build());
+        assertEquals("20", created.getResponse().getHeaders().getFirst(RateLimitFilter.LIMIT_HEADER));
+        assertEquals(2, forwarded.get());
+    }
+
+    private MockServerWebExchange create(String clientId, String address) {
+        return send(MockServerHttpRequest.post("/v1/credits").header("X-Client-Id", clientId)
+                .remoteAddress(new InetSocketAddress(address, 40000)).build());
+    }
+
+    @Test
+    void filter_shouldLimitTheAddressWhateverClientIdItSends() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEndpoints().get("create").setClient(new RateLimitProperties.Quota(5, 0.01));
+        filter = filter(properties);
+        IntStream.range(0, 5).forEach(i -> create("client-" + i, "10.0.0.1"));
+
+        MockServerWebExchange rejected = create("client-5", "10.0.0.1");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals(5, forwarded.get());
+        assertEquals(1.0, meterRegistry.get("credit.ratelimit.rejected")
+                .tag("endpoint", "create").tag("dimension", "client").counter().count());
+
+        assertEquals("4", create("client-6", "10.0.0.2").getResponse().getHeaders()
+                .getFirst(RateLimitFilter.REMAINING_HEADER));
+    }
+
+    private MockServerWebExchange proxied(String address) {
+        return send(MockServerHttpRequest.post("/v1/credits").header("X-Forwarded-For", address)
+                .remoteAddress(new InetSocketAddress("10.0.0.100", 40000)).build());
+    }
+
+    @Test
+    void filter_shouldReadTheAddressFromTheTrustedHeader() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setAddressHeader("X-Forwarded-For");
+        properties.getEndpoints().get("create").setClient(new RateLimitProperties.Quota(20, 0.01));
+        filter = filter(properties);
+
+        assertEquals("19", proxied("192.0.2.1").getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("19", proxied("192.0.2.2").getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("18", proxied("203.0.113.9, 192.0.2.1").getResponse().getHeaders()
+                .getFirst(RateLimitFilter.REMAINING_HEADER));
+    }
+
+    @Test
+    void filter_shouldNarrowTheAddressQuotaPerClientId() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEndpoints().get("create").setClientId(new RateLimitProperties.Quota(1, 0.01));
+        filter = filter(properties);
+
+        create("c1", "10.0.0.1");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, create("c1", "10.0.0.2").getResponse().getStatusCode());
+        assertEquals("0", create("c2", "10.0.0.1").getResponse().getHeaders()
+                .getFirst(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    void filter_shouldLimitHoldVoidsAndStatementJobs() {
+        MockServerWebExchange voided = send(MockServerHttpRequest.delete("/v1/credits/credit-1/authorizations/hold-1")
+                .header("X-Client-Id", "c1").build());
+        assertEquals("19", voided.getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+
+        MockServerWebExchange started = send(MockServerHttpRequest.post("/v1/statements/jobs")
+                .header("X-Client-Id", "c1").build());
+        assertEquals("0", started.getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+        MockServerWebExchange again = send(MockServerHttpRequest.post("/v1/statements/jobs")
+                .header("X-Client-Id", "c1").build());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, again.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.get("credit.ratelimit.rejected")
+                .tag("endpoint", "statement-job").tag("dimension", "client-id").counter().count());
+    }
+}
@@ -0,0 +1,45 @@
+package com.sgi.credit.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefillAtRate() {
+        TokenBuckets buckets = new TokenBuckets(3, 2, 4, Duration.ofMinutes(1));
+        long now = 1_000 * SECOND;
+
+        assertEquals(2, buckets.tryAcquire("client", now));
+        assertEquals(1, buckets.tryAcquire("client", now));
+        assertEquals(0, buckets.tryAcquire("client", now));
+        long rejected = buckets.tryAcquire("client", now);
+        assertTrue(rejected < 0);
+        assertEquals(SECOND / 2, -1L - rejected);
+        assertEquals(2, buckets.tryAcquire("other", now));
+        assertEquals(SECOND / 2, buckets.nanosUntilFull("other", now));
+
+        assertEquals(0, buckets.tryAcquire("client", now + SECOND / 2));
+        assertEquals(0, buckets.nanosUntilFull("other", now + SECOND / 2));
+        assertEquals(2, buckets.tryAcquire("client", now + 10 * SECOND));
+    }
+
+    @Test
+    void tryAcquire_shouldEvictBucketsIdleLongerThanTimeout() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 1, Duration.ofSeconds(1));
+        long now = System.nanoTime();
+        buckets.tryAcquire("first", now);
+        buckets.tryAcquire("second", now);
+        assertEquals(2, buckets.size());
+
+        buckets.tryAcquire("third", now + 5 * SECOND);
+        assertEquals(1, buckets.size());
+    }
+}
@@ -0,0 +1,57 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.repository.impl.BulkWriteBatcher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the persistence contract against the Mongo adapters with saves coalesced into bulk writes.
+ * Requires {@code MONGODB_CONTRACT_URI}; skipped otherwise.
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_CONTRACT_URI", matches = ".+")
+public class BatchedMongoPersistenceContractTest extends MongoPersistenceContractTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Override
+    protected BulkWriteBatcher createWriteBatcher(ReactiveMongoTemplate mongoTemplate) {
+        return new BulkWriteBatcher(mongoTemplate, meterRegistry, true, Duration.ofMillis(20), 64, 4, false);
+    }
+
+    @Test
+    void save_shouldShareBulkWritesBetweenConcurrentCallers() {
+        String clientId = "client-" + UUID.randomUUID();
+        List<Credit> credits = Flux.range(0, 50)
+                .map(i -> {
+                    Credit credit = FactoryTest.toFactoryEntityCredit();
+                    credit.setId(null);
+                    credit.setClientId(clientId);
+                    return credit;
+                })
+                .collectList()
+                .block();
+        assertTrue(credits != null && credits.size() == 50);
+        Flux.fromIterable(credits)
+                .flatMap(creditRepository::save)
+                .blockLast();
+
+        assertTrue(credits.stream().allMatch(credit -> credit.getId() != null && credit.getVersion() == 0L));
+        assertEquals(50L, creditRepository.getCreditCardByClientId(clientId).count().block());
+        DistributionSummary batchSize = meterRegistry.get("credit.write.batch.size").summary();
+        assertEquals(50.0, batchSize.totalAmount());
+        assertTrue(batchSize.count() < 50);
+    }
+}
@@ -0,0 +1,171 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.helper.MongoTestTemplates;
+import com.sgi.credit.infrastructure.repository.impl.BulkWriteBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Unit tests for the {@link BulkWriteBatcher} class. The bulk write results are stubbed, so the
+ * outcome of each save is checked without a server.
+ */
+class BulkWriteBatcherTest {
+
+    private final ReactiveMongoTemplate mongoTemplate = Mockito.mock(ReactiveMongoTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = Mockito.mock(MongoCollection.class);
+
+    private final List<WriteModel<Document>> written = new CopyOnWriteArrayList<>();
+
+    private BulkWriteBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(mongoTemplate.getConverter()).thenReturn(MongoTestTemplates.converter());
+        Mockito.when(mongoTemplate.getCollection(anyString())).thenReturn(Mono.just(collection));
+        batcher = new BulkWriteBatcher(mongoTemplate, new SimpleMeterRegistry(), true, Duration.ofSeconds(1), 2, 1,
+                false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.destroy();
+    }
+
+    private static Credit existingCredit(long version) {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(new ObjectId().toHexString());
+        credit.setVersion(version);
+        return credit;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubMatchedCount(int matchedCount) {
+        Mockito.when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenAnswer(invocation -> {
+                    written.addAll(invocation.getArgument(0, List.class));
+                    return Mono.just(BulkWriteResult.acknowledged(0, matchedCount, 0, matchedCount, List.of(),
+                            List.of()));
+                });
+    }
+
+    private Document replacementOf(Credit credit) {
+        return written.stream()
+                .filter(ReplaceOneModel.class::isInstance)
+                .map(model -> ((ReplaceOneModel<Document>) model).getReplacement())
+                .filter(document -> document.get("_id").toString().equals(credit.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private CompletableFuture<Credit> save(Credit credit) {
+        return batcher.save(credit, ignored -> Mono.error(new IllegalStateException("Batching is enabled")))
+                .toFuture();
+    }
+
+    private static void assertOptimisticLockFailure(CompletableFuture<Credit> outcome) {
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> outcome.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OptimisticLockingFailureException.class, ex.getCause());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void save_shouldCompleteEveryWriteWhenEveryReplaceMatched() throws Exception {
+        stubMatchedCount(1);
+        Credit existing = existingCredit(3);
+        Credit created = FactoryTest.toFactoryEntityCredit();
+        created.setId(null);
+
+        CompletableFuture<Credit> replaced = save(existing);
+        CompletableFuture<Credit> inserted = save(created);
+        assertEquals(4L, replaced.get(5, TimeUnit.SECONDS).getVersion());
+        assertEquals(0L, inserted.get(5, TimeUnit.SECONDS).getVersion());
+        assertNotNull(created.getId());
+
+        ArgumentCaptor<List<WriteModel<Document>>> models = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(collection).bulkWrite(models.capture(), any(BulkWriteOptions.class));
+        ReplaceOneModel<Document> replace = (ReplaceOneModel<Document>) models.getValue().get(0);
+        assertFalse(replace.getReplaceOptions().isUpsert());
+        assertInstanceOf(InsertOneModel.class, models.getValue().get(1));
+        Mockito.verify(mongoTemplate, Mockito.never()).find(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    void save_shouldFailReplacesWhoseDocumentWasNotReplaced() throws Exception {
+        stubMatchedCount(1);
+        Credit kept = existingCredit(0);
+        Credit deleted = existingCredit(5);
+        Mockito.when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString()))
+                .thenAnswer(invocation -> Flux.just(replacementOf(kept)));
+
+        CompletableFuture<Credit> first = save(kept);
+        CompletableFuture<Credit> second = save(deleted);
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS).getVersion());
+        assertOptimisticLockFailure(second);
+        assertEquals(5L, deleted.getVersion());
+    }
+
+    @Test
+    void save_shouldFailReplacesOvertakenByAnotherWriterReachingTheSameVersion() throws Exception {
+        stubMatchedCount(0);
+        Credit credit = existingCredit(4);
+        Mockito.when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString()))
+                .thenReturn(Flux.just(new Document("_id", new ObjectId(credit.getId())).append("version", 5L)));
+
+        CompletableFuture<Credit> outcome = save(credit);
+        assertOptimisticLockFailure(outcome);
+        assertEquals(4L, credit.getVersion());
+        assertNotNull(replacementOf(credit).get("_writeToken"));
+    }
+
+    @Test
+    void save_shouldFailConcurrentReplacesOfTheSameDocument() throws Exception {
+        stubMatchedCount(1);
+        Credit credit = existingCredit(2);
+        Credit stale = existingCredit(2);
+        stale.setId(credit.getId());
+
+        CompletableFuture<Credit> first = save(credit);
+        CompletableFuture<Credit> second = save(stale);
+        assertEquals(3L, first.get(5, TimeUnit.SECONDS).getVersion());
+        assertOptimisticLockFailure(second);
+        Mockito.verify(mongoTemplate, Mockito.never()).find(any(Query.class), eq(Document.class), anyString());
+    }
+}
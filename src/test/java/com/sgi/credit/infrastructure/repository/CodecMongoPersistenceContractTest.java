@@ -0,0 +1,26 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.infrastructure.repository.impl.CodecCreditRepository;
+import com.sgi.credit.infrastructure.repository.impl.CodecDebtRepository;
+import com.sgi.credit.infrastructure.repository.impl.CreditRepositoryImpl;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+/**
+ * Runs the persistence contract against the Mongo adapters that map documents with the domain codecs.
+ * Requires {@code MONGODB_CONTRACT_URI}; skipped otherwise.
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_CONTRACT_URI", matches = ".+")
+public class CodecMongoPersistenceContractTest extends MongoPersistenceContractTest {
+
+    @Override
+    protected CreditRepository createCreditRepository() {
+        return new CodecCreditRepository((CreditRepositoryImpl) super.createCreditRepository(), template);
+    }
+
+    @Override
+    protected DebtRepository createDebtRepository() {
+        return new CodecDebtRepository(template);
+    }
+}
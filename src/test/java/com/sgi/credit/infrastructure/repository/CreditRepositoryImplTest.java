@@ -1,24 +1,35 @@
 package com.sgi.credit.infrastructure.repository;
 
 import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Money;
 import com.sgi.credit.helper.FactoryTest;
 import com.sgi.credit.infrastructure.dto.CreditResponse;
 import com.sgi.credit.infrastructure.mapper.CreditMapper;
+import com.sgi.credit.infrastructure.repository.impl.BulkWriteBatcher;
 import com.sgi.credit.infrastructure.repository.impl.CreditRepositoryImpl;
+import com.sgi.credit.infrastructure.repository.impl.ReadRouting;
+import com.sgi.credit.infrastructure.repository.projection.CreditBalanceView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
@@ -38,11 +49,22 @@ public class CreditRepositoryImplTest {
     @Mock
     private CreditRepositoryJpa repositoryJpa;
 
+    @Mock
+    private BulkWriteBatcher writeBatcher;
+
+    @Spy
+    private ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    @Spy
+    private ReadRouting readRouting = ReadRouting.primaryOnly(new SimpleMeterRegistry());
+
     @Test
     public void testSave() {
         Credit credit = FactoryTest.toFactoryEntityCredit();
         CreditResponse accountResponse = CreditMapper.INSTANCE.toCreditResponse(credit);
         when(repositoryJpa.save(credit)).thenReturn(Mono.just(credit));
+        when(writeBatcher.save(eq(credit), any()))
+                .thenAnswer(invocation -> invocation.<Function<Credit, Mono<Credit>>>getArgument(1).apply(credit));
         Mono<CreditResponse> result = creditRepository.save(credit);
         StepVerifier.create(result)
                 .expectNext(accountResponse)
@@ -96,10 +118,32 @@ public class CreditRepositoryImplTest {
     public void getCreditCardByClientId() {
         Credit credit = FactoryTest.toFactoryEntityCredit();
         credit.setId(UUID.randomUUID().toString());
-        when(repositoryJpa.findAllByClientId(credit.getClientId())).thenReturn(Flux.empty());
+        when(repositoryJpa.findCardsByClientId(credit.getClientId())).thenReturn(Flux.empty());
         Flux<CreditResponse> result = creditRepository.getCreditCardByClientId(credit.getClientId());
         StepVerifier.create(result)
                 .verifyComplete();
-        verify(repositoryJpa, times(1)).findAllByClientId(credit.getClientId());
+        verify(repositoryJpa, times(1)).findCardsByClientId(credit.getClientId());
+    }
+
+    @Test
+    public void findBalanceById() {
+        String creditId = UUID.randomUUID().toString();
+        CreditBalanceView balance = new CreditBalanceView() {
+            @Override
+            public String getClientId() {
+                return "client-test-0001";
+            }
+
+            @Override
+            public Money getBalance() {
+                return Money.ofMajor(10);
+            }
+        };
+        when(repositoryJpa.findBalanceById(creditId)).thenReturn(Mono.just(balance));
+        StepVerifier.create(creditRepository.findBalanceById(creditId))
+                .expectNextMatches(response -> response.getClientId().equals("client-test-0001")
+                        && response.getBalance().compareTo(BigDecimal.TEN) == 0)
+                .verifyComplete();
+        verify(repositoryJpa, times(1)).findBalanceById(creditId);
     }
 }
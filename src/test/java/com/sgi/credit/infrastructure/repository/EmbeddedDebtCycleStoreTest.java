@@ -0,0 +1,121 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.DebtCycle;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import com.sgi.credit.infrastructure.repository.impl.EmbeddedDebtCycleStore;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryCreditRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryDebtRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Unit tests for the {@link EmbeddedDebtCycleStore} class, backed by the in-memory adapters.
+ */
+public class EmbeddedDebtCycleStoreTest {
+
+    private CreditRepository creditRepository;
+
+    private DebtRepository debtRepository;
+
+    private EmbeddedDebtCycleStore debtCycleStore;
+
+    @BeforeEach
+    void setUp() {
+        creditRepository = new InMemoryCreditRepository(16);
+        debtRepository = new InMemoryDebtRepository(16);
+        debtCycleStore = new EmbeddedDebtCycleStore(creditRepository, debtRepository);
+    }
+
+    private Credit openCredit(Money consumptionAmount) {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(null);
+        credit.setConsumptionAmount(consumptionAmount);
+        debtCycleStore.open(credit).block();
+        return creditRepository.findById(credit.getId()).block();
+    }
+
+    @Test
+    void open_shouldEmbedCycleWithoutWritingDebt() {
+        Credit credit = openCredit(Money.ofMajor(10));
+        assertNotNull(credit.getActiveCycle());
+        assertEquals(0, Money.ofMajor(10).compareTo(credit.getActiveCycle().getAmount()));
+        StepVerifier.create(debtRepository.findAllByClientId(credit.getClientId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void record_shouldUpdateCycleInPlaceWhileOutstanding() {
+        Credit credit = openCredit(Money.ofMajor(10));
+        final String cycleId = credit.getActiveCycle().getId();
+        credit.setConsumptionAmount(Money.ofMajor(1));
+        debtCycleStore.record(credit, true).block();
+
+        Credit reloaded = creditRepository.findById(credit.getId()).block();
+        assertNotNull(reloaded);
+        assertEquals(cycleId, reloaded.getActiveCycle().getId());
+        assertEquals(0, Money.ofMajor(1).compareTo(reloaded.getActiveCycle().getAmount()));
+        StepVerifier.create(debtRepository.findAllByClientId(credit.getClientId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void record_shouldArchiveSettledCycleAndOpenNextOne() {
+        Credit credit = openCredit(Money.ofMajor(10));
+        final DebtCycle settled = credit.getActiveCycle();
+        credit.setConsumptionAmount(Money.ZERO);
+        debtCycleStore.record(credit, true).block();
+
+        Credit reloaded = creditRepository.findById(credit.getId()).block();
+        assertNotNull(reloaded);
+        assertNotEquals(settled.getId(), reloaded.getActiveCycle().getId());
+        assertEquals(0, Money.ZERO.compareTo(reloaded.getActiveCycle().getAmount()));
+        StepVerifier.create(debtRepository.findByClientIdAndStatus(credit.getClientId(),
+                        DebtRequest.StatusEnum.PAID.name()))
+                .expectNextMatches(debt -> debt.getId().equals(settled.getId())
+                        && debt.getCreditId().equals(credit.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void hasCycleDueBefore_shouldCompareEmbeddedDueDate() {
+        Credit credit = openCredit(Money.ofMajor(10));
+        Instant dueDate = credit.getActiveCycle().getDueDate();
+        StepVerifier.create(debtCycleStore.hasCycleDueBefore(credit.getClientId(), dueDate.plus(1, ChronoUnit.DAYS)))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(debtCycleStore.hasCycleDueBefore(credit.getClientId(), dueDate))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void findCycles_shouldListClosedCyclesThenOpenOne() {
+        Credit credit = openCredit(Money.ofMajor(10));
+        final DebtCycle settled = credit.getActiveCycle();
+        credit.setConsumptionAmount(Money.ZERO);
+        debtCycleStore.record(credit, true).block();
+        Credit reloaded = creditRepository.findById(credit.getId()).block();
+        assertNotNull(reloaded);
+
+        StepVerifier.create(debtCycleStore.findCycles(reloaded))
+                .expectNextMatches(debt -> debt.getId().equals(settled.getId())
+                        && debt.getStatus().equals(DebtRequest.StatusEnum.PAID.name()))
+                .expectNextMatches(debt -> debt.getId().equals(reloaded.getActiveCycle().getId())
+                        && debt.getStatus().equals(DebtRequest.StatusEnum.ACTIVE.name())
+                        && debt.getCreditId().equals(credit.getId()))
+                .verifyComplete();
+    }
+}
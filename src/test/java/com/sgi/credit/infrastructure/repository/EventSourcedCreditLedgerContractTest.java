@@ -0,0 +1,195 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.CreditSnapshot;
+import com.sgi.credit.domain.model.LedgerEntryType;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.domain.ports.out.LedgerEventStore;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.repository.impl.CollectionDebtCycleStore;
+import com.sgi.credit.infrastructure.repository.impl.EventSourcedCreditLedger;
+import com.sgi.credit.infrastructure.repository.impl.OptimisticLockRetryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Behavioral contract of the {@link EventSourcedCreditLedger} class, shared by every {@link LedgerEventStore}.
+ * Subclasses provide the store and the repositories the totals are projected to.
+ */
+public abstract class EventSourcedCreditLedgerContractTest {
+
+    protected LedgerEventStore eventStore;
+
+    protected CreditRepository creditRepository;
+
+    protected SimpleMeterRegistry meterRegistry;
+
+    protected EventSourcedCreditLedger creditLedger;
+
+    protected abstract LedgerEventStore createEventStore();
+
+    protected abstract CreditRepository createCreditRepository();
+
+    protected abstract DebtRepository createDebtRepository();
+
+    @BeforeEach
+    void setUpLedger() {
+        eventStore = createEventStore();
+        creditRepository = createCreditRepository();
+        meterRegistry = new SimpleMeterRegistry();
+        creditLedger = new EventSourcedCreditLedger(eventStore, creditRepository,
+                new CollectionDebtCycleStore(creditRepository, createDebtRepository()),
+                new OptimisticLockRetryImpl(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(5), 0.5),
+                meterRegistry, 4, Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDownLedger() {
+        creditLedger.destroy();
+    }
+
+    private Credit newCredit() {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(null);
+        creditRepository.save(credit).block();
+        return credit;
+    }
+
+    @Test
+    void currentState_shouldNotWriteBeforeTheFirstEntry() {
+        Credit credit = newCredit();
+        StepVerifier.create(creditLedger.currentState(credit))
+                .expectNextMatches(state -> state.getSeq() == 0
+                        && state.getConsumptionAmount().compareTo(credit.getConsumptionAmount()) == 0)
+                .verifyComplete();
+        StepVerifier.create(eventStore.latestSnapshot(credit.getId())).verifyComplete();
+
+        CreditSnapshot state = creditLedger.currentState(credit).block();
+        assertNotNull(state);
+        creditLedger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(1)).block();
+        StepVerifier.create(eventStore.snapshotAt(credit.getId(), 0L))
+                .expectNextMatches(opening -> opening.getCreditLimit().compareTo(credit.getCreditLimit()) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    void append_shouldReplayFromSnapshotsAndProjectTotals() {
+        Credit credit = newCredit();
+        for (int i = 0; i < 10; i++) {
+            CreditSnapshot state = creditLedger.currentState(credit).block();
+            assertNotNull(state);
+            creditLedger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(10)).block();
+        }
+        StepVerifier.create(creditLedger.currentState(credit))
+                .expectNextMatches(state -> state.getSeq() == 10
+                        && state.getConsumptionAmount().compareTo(Money.ofMajor(100)) == 0)
+                .verifyComplete();
+        StepVerifier.create(creditRepository.findById(credit.getId()))
+                .expectNextMatches(projected -> projected.getLedgerSeq() == 10
+                        && projected.getBalance().compareTo(Money.ofMajor(1900)) == 0)
+                .verifyComplete();
+        assertEquals(2.0, meterRegistry.get("credit.ledger.snapshots").counter().count());
+        assertEquals(3.0, meterRegistry.get("credit.ledger.replay.length").summary().max());
+    }
+
+    @Test
+    void stateAt_shouldLeaveOutEntriesMadeFromTheInstantOn() throws InterruptedException {
+        Credit credit = newCredit();
+        StepVerifier.create(creditLedger.stateAt(credit, Instant.now()))
+                .expectNextMatches(state -> state.getSeq() == 0)
+                .verifyComplete();
+        CreditSnapshot state = creditLedger.currentState(credit).block();
+        assertNotNull(state);
+        for (int i = 0; i < 5; i++) {
+            state = creditLedger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(10)).block();
+            assertNotNull(state);
+        }
+        Thread.sleep(5);
+        Instant closing = Instant.now();
+        Thread.sleep(5);
+        creditLedger.append(credit, state, LedgerEntryType.PAYMENT, Money.ofMajor(30)).block();
+
+        StepVerifier.create(creditLedger.stateAt(credit, closing))
+                .expectNextMatches(past -> past.getSeq() == 5
+                        && past.getConsumptionAmount().compareTo(credit.getConsumptionAmount().plus(Money.ofMajor(50))) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    void append_shouldReprojectWhenTheProjectionFails() {
+        final Credit credit = newCredit();
+        AtomicInteger reads = new AtomicInteger();
+        CreditRepository unavailable = Mockito.mock(CreditRepository.class, AdditionalAnswers.delegatesTo(creditRepository));
+        Mockito.doAnswer(invocation -> reads.getAndIncrement() < 2
+                        ? Mono.error(new IllegalStateException("unavailable"))
+                        : creditRepository.findById(invocation.getArgument(0, String.class)))
+                .when(unavailable).findById(anyString());
+        creditLedger.destroy();
+        creditLedger = new EventSourcedCreditLedger(eventStore, unavailable,
+                new CollectionDebtCycleStore(unavailable, createDebtRepository()),
+                new OptimisticLockRetryImpl(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(5), 0.5),
+                meterRegistry, 4, Duration.ofMillis(10));
+        CreditSnapshot state = creditLedger.currentState(credit).block();
+        assertNotNull(state);
+
+        StepVerifier.create(creditLedger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(10)))
+                .expectNextMatches(next -> next.getSeq() == 1)
+                .verifyComplete();
+        StepVerifier.create(creditLedger.pendingPosition(credit.getId())).expectNext(1L).verifyComplete();
+
+        Credit projected = Mono.defer(() -> creditRepository.findById(credit.getId()))
+                .filter(document -> document.getLedgerSeq() != null)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(20)).take(100))
+                .block(Duration.ofSeconds(5));
+        assertNotNull(projected);
+        assertEquals(0, credit.getConsumptionAmount().plus(Money.ofMajor(10)).compareTo(projected.getConsumptionAmount()));
+        StepVerifier.create(creditLedger.pendingPosition(credit.getId())).verifyComplete();
+        assertEquals(1.0, meterRegistry.get("credit.ledger.reprojections").counter().count());
+    }
+
+    @Test
+    void append_shouldRejectTakenPosition() {
+        Credit credit = newCredit();
+        CreditSnapshot state = creditLedger.currentState(credit).block();
+        assertNotNull(state);
+        creditLedger.append(credit, state, LedgerEntryType.CHARGE, Money.ofMajor(1)).block();
+        StepVerifier.create(creditLedger.append(credit, state, LedgerEntryType.PAYMENT, Money.ofMajor(1)))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void rebuild_shouldMatchCurrentState() {
+        Credit credit = newCredit();
+        CreditSnapshot state = creditLedger.currentState(credit).block();
+        assertNotNull(state);
+        state = creditLedger.append(credit, state, LedgerEntryType.LIMIT_CHANGE, Money.ofMajor(500)).block();
+        assertNotNull(state);
+        creditLedger.append(credit, state, LedgerEntryType.INTEREST, Money.ofMajor(1)).block();
+        StepVerifier.create(creditLedger.rebuild(credit.getId()))
+                .expectNextMatches(rebuilt -> rebuilt.getSeq() == 2
+                        && rebuilt.balance().compareTo(Money.ofMajor(499)) == 0)
+                .verifyComplete();
+        StepVerifier.create(creditLedger.findBalance(credit.getId()))
+                .expectNextMatches(balance -> balance.getBalance().compareTo(BigDecimal.valueOf(499)) == 0)
+                .verifyComplete();
+    }
+}
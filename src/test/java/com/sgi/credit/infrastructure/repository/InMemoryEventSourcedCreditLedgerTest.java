@@ -0,0 +1,29 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.domain.ports.out.LedgerEventStore;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryCreditRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryDebtRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryLedgerEventStore;
+
+/**
+ * Runs the event-sourced ledger contract against the in-memory adapters.
+ */
+public class InMemoryEventSourcedCreditLedgerTest extends EventSourcedCreditLedgerContractTest {
+
+    @Override
+    protected LedgerEventStore createEventStore() {
+        return new InMemoryLedgerEventStore();
+    }
+
+    @Override
+    protected CreditRepository createCreditRepository() {
+        return new InMemoryCreditRepository(16);
+    }
+
+    @Override
+    protected DebtRepository createDebtRepository() {
+        return new InMemoryDebtRepository(16);
+    }
+}
@@ -0,0 +1,67 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryCreditRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryDebtRepository;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the persistence contract against the in-memory adapters and checks
+ * that their secondary indexes stay consistent under concurrent writes.
+ */
+public class InMemoryPersistenceContractTest extends PersistenceContractTest {
+
+    @Override
+    protected CreditRepository createCreditRepository() {
+        return new InMemoryCreditRepository(16);
+    }
+
+    @Override
+    protected DebtRepository createDebtRepository() {
+        return new InMemoryDebtRepository(16);
+    }
+
+    @Test
+    void concurrentStatusChanges_shouldKeepIndexesConsistent() {
+        int clients = 200;
+        Flux.range(0, clients)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> {
+                    String clientId = "client-" + i;
+                    Debt debt = FactoryTest.toFactoryDebtModel(UUID.randomUUID().toString(), clientId,
+                            Money.ofMajor(1), DebtRequest.StatusEnum.ACTIVE.name());
+                    debt.setId(null);
+                    return debtRepository.save(debt)
+                            .then(debtRepository.findByClientIdAndStatus(clientId, DebtRequest.StatusEnum.ACTIVE.name()))
+                            .flatMap(active -> {
+                                active.setStatus(DebtRequest.StatusEnum.PAID.name());
+                                return debtRepository.save(active);
+                            });
+                })
+                .sequential()
+                .blockLast();
+
+        long active = Flux.range(0, clients)
+                .flatMap(i -> debtRepository.findByClientIdAndStatus("client-" + i, DebtRequest.StatusEnum.ACTIVE.name()))
+                .count()
+                .block();
+        long paid = Flux.range(0, clients)
+                .flatMap(i -> debtRepository.findByClientIdAndStatus("client-" + i, DebtRequest.StatusEnum.PAID.name()))
+                .count()
+                .block();
+        assertEquals(0, active);
+        assertEquals(clients, paid);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.domain.ports.out.LedgerEventStore;
+import com.sgi.credit.helper.MongoTestTemplates;
+import com.sgi.credit.infrastructure.repository.impl.BulkWriteBatcher;
+import com.sgi.credit.infrastructure.repository.impl.CreditRepositoryImpl;
+import com.sgi.credit.infrastructure.repository.impl.DebtRepositoryImpl;
+import com.sgi.credit.infrastructure.repository.impl.MongoLedgerEventStore;
+import com.sgi.credit.infrastructure.repository.impl.ReadRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+
+import java.time.Duration;
+
+/**
+ * Runs the event-sourced ledger contract against the Mongo adapters, since sequence enforcement relies
+ * on their unique indexes. Requires {@code MONGODB_CONTRACT_URI}; skipped otherwise.
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_CONTRACT_URI", matches = ".+")
+public class MongoEventSourcedCreditLedgerTest extends EventSourcedCreditLedgerContractTest {
+
+    private static MongoClient client;
+
+    private static ReactiveMongoTemplate template;
+
+    private static ReactiveMongoRepositoryFactory factory;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_CONTRACT_URI"));
+        template = MongoTestTemplates.create(client, "credit-contract-test");
+        factory = new ReactiveMongoRepositoryFactory(template);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+    }
+
+    private static BulkWriteBatcher writeBatcher() {
+        return new BulkWriteBatcher(template, new SimpleMeterRegistry(), false, Duration.ZERO, 1, 1, false);
+    }
+
+    @Override
+    protected LedgerEventStore createEventStore() {
+        MongoLedgerEventStore store = new MongoLedgerEventStore(template);
+        store.afterPropertiesSet();
+        return store;
+    }
+
+    @Override
+    protected CreditRepository createCreditRepository() {
+        return new CreditRepositoryImpl(factory.getRepository(CreditRepositoryJpa.class), writeBatcher(),
+                ObservationRegistry.NOOP, ReadRouting.primaryOnly(new SimpleMeterRegistry()));
+    }
+
+    @Override
+    protected DebtRepository createDebtRepository() {
+        return new DebtRepositoryImpl(factory.getRepository(DebtRepositoryJpa.class), writeBatcher(),
+                ObservationRegistry.NOOP, ReadRouting.primaryOnly(new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,347 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.DebtCycle;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.dto.CreditResponse;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import com.sgi.credit.infrastructure.dto.DebtResponse;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Behavioral contract shared by every implementation of {@link CreditRepository} and {@link DebtRepository}.
+ * Subclasses provide the adapters under test; each test uses its own client ID so adapters
+ * backed by a shared database do not need to be wiped between tests.
+ */
+public abstract class PersistenceContractTest {
+
+    protected CreditRepository creditRepository;
+
+    protected DebtRepository debtRepository;
+
+    protected abstract CreditRepository createCreditRepository();
+
+    protected abstract DebtRepository createDebtRepository();
+
+    @BeforeEach
+    void setUpRepositories() {
+        creditRepository = createCreditRepository();
+        debtRepository = createDebtRepository();
+    }
+
+    private static String newClientId() {
+        return "client-" + UUID.randomUUID();
+    }
+
+    private static Credit newCredit(String clientId) {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(null);
+        credit.setClientId(clientId);
+        credit.setCreditLimit(Money.ofMajor(2000));
+        return credit;
+    }
+
+    @Test
+    void save_shouldAssignIdAndBeFoundById() {
+        Credit credit = newCredit(newClientId());
+        CreditResponse saved = creditRepository.save(credit).block();
+        assertNotNull(saved);
+        assertNotNull(saved.getId());
+        assertEquals(saved.getId(), credit.getId());
+        StepVerifier.create(creditRepository.findById(saved.getId()))
+                .expectNextMatches(found -> found.getClientId().equals(credit.getClientId())
+                        && found.getBalance().compareTo(credit.getBalance()) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    void findById_shouldBeEmptyWhenMissing() {
+        StepVerifier.create(creditRepository.findById(UUID.randomUUID().toString()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findById_shouldReturnDetachedCopy() {
+        Credit credit = newCredit(newClientId());
+        creditRepository.save(credit).block();
+        Credit found = creditRepository.findById(credit.getId()).block();
+        assertNotNull(found);
+        found.setBalance(Money.ofMajor(1));
+        StepVerifier.create(creditRepository.findById(credit.getId()))
+                .expectNextMatches(reloaded -> reloaded.getBalance().compareTo(Money.ofMajor(2000)) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    void findBalanceById_shouldReturnClientAndBalance() {
+        Credit credit = newCredit(newClientId());
+        creditRepository.save(credit).block();
+        StepVerifier.create(creditRepository.findBalanceById(credit.getId()))
+                .expectNextMatches(balance -> balance.getClientId().equals(credit.getClientId())
+                        && balance.getBalance().compareTo(credit.getBalance().toBigDecimal()) == 0)
+                .verifyComplete();
+        StepVerifier.create(creditRepository.findBalanceById(UUID.randomUUID().toString()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findVersionById_shouldIncrementOnEverySave() {
+        Credit credit = newCredit(newClientId());
+        creditRepository.save(credit).block();
+        StepVerifier.create(creditRepository.findVersionById(credit.getId()))
+                .expectNext(0L)
+                .verifyComplete();
+        creditRepository.save(credit).block();
+        assertEquals(1L, credit.getVersion());
+        StepVerifier.create(creditRepository.findVersionById(credit.getId()))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void save_shouldRejectVersionedSaveOfUnknownCredit() {
+        Credit credit = newCredit(newClientId());
+        credit.setId(new ObjectId().toHexString());
+        credit.setVersion(0L);
+        StepVerifier.create(creditRepository.save(credit))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+        StepVerifier.create(creditRepository.findById(credit.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findHighestJournalSeq_shouldReturnTheHighestAppliedSequence() {
+        Credit first = newCredit(newClientId());
+        first.setJournalSeq(Long.MAX_VALUE - 1);
+        creditRepository.save(first).block();
+        Credit second = newCredit(newClientId());
+        second.setJournalSeq(7L);
+        creditRepository.save(second).block();
+        creditRepository.save(newCredit(newClientId())).block();
+        StepVerifier.create(creditRepository.findHighestJournalSeq())
+                .expectNext(Long.MAX_VALUE - 1)
+                .verifyComplete();
+    }
+
+    @Test
+    void save_shouldRejectStaleVersion() {
+        Credit credit = newCredit(newClientId());
+        creditRepository.save(credit).block();
+        Credit stale = creditRepository.findById(credit.getId()).block();
+        assertNotNull(stale);
+        creditRepository.save(credit).block();
+        StepVerifier.create(creditRepository.save(stale))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void save_shouldRejectStaleDebtVersion() {
+        Debt debt = FactoryTest.toFactoryDebtModel(UUID.randomUUID().toString(), newClientId(), Money.ofMajor(1),
+                DebtRequest.StatusEnum.ACTIVE.name());
+        debt.setId(null);
+        debtRepository.save(debt).block();
+        Debt stale = debtRepository.findByClientIdAndStatus(debt.getClientId(), debt.getStatus()).block();
+        assertNotNull(stale);
+        debtRepository.save(debt).block();
+        StepVerifier.create(debtRepository.save(stale))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void existsCycleDueBefore_shouldMatchEmbeddedCycleDueDate() {
+        Credit credit = newCredit(newClientId());
+        credit.setActiveCycle(DebtCycle.builder()
+                .id(UUID.randomUUID().toString())
+                .amount(Money.ofMajor(10))
+                .dueDate(Instant.parse("2024-01-15T00:00:00Z"))
+                .build());
+        creditRepository.save(credit).block();
+        StepVerifier.create(creditRepository.existsCycleDueBefore(credit.getClientId(),
+                        Instant.parse("2024-02-01T00:00:00Z")))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(creditRepository.existsCycleDueBefore(credit.getClientId(),
+                        Instant.parse("2024-01-01T00:00:00Z")))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void getCreditCardByClientId_shouldFollowClientChanges() {
+        String clientId = newClientId();
+        Credit first = newCredit(clientId);
+        Credit second = newCredit(clientId);
+        creditRepository.save(first).block();
+        creditRepository.save(second).block();
+        StepVerifier.create(creditRepository.getCreditCardByClientId(clientId))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        String otherClientId = newClientId();
+        second.setClientId(otherClientId);
+        creditRepository.save(second).block();
+        StepVerifier.create(creditRepository.getCreditCardByClientId(clientId))
+                .expectNextMatches(response -> response.getId().equals(first.getId()))
+                .verifyComplete();
+        StepVerifier.create(creditRepository.getCreditCardByClientId(otherClientId))
+                .expectNextMatches(response -> response.getId().equals(second.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findAll_shouldMatchAnyProvidedFilter() {
+        String clientId = newClientId();
+        Credit first = newCredit(clientId);
+        Credit second = newCredit(clientId);
+        creditRepository.save(first).block();
+        creditRepository.save(second).block();
+        StepVerifier.create(creditRepository.findAll(first.getId(), "UNKNOWN", null))
+                .expectNextMatches(response -> response.getId().equals(first.getId()))
+                .verifyComplete();
+        StepVerifier.create(creditRepository.findAll(null, "UNKNOWN", clientId))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void delete_shouldRemoveCreditAndIndexEntry() {
+        String clientId = newClientId();
+        Credit credit = newCredit(clientId);
+        creditRepository.save(credit).block();
+        StepVerifier.create(creditRepository.delete(credit))
+                .verifyComplete();
+        StepVerifier.create(creditRepository.findById(credit.getId()))
+                .verifyComplete();
+        StepVerifier.create(creditRepository.getCreditCardByClientId(clientId))
+                .verifyComplete();
+    }
+
+    @Test
+    void findByClientIdAndStatus_shouldFollowStatusChanges() {
+        String clientId = newClientId();
+        String creditId = UUID.randomUUID().toString();
+        Debt debt = FactoryTest.toFactoryDebtModel(creditId, clientId, Money.ofMajor(10),
+                DebtRequest.StatusEnum.ACTIVE.name());
+        debt.setId(null);
+        DebtResponse saved = debtRepository.save(debt).block();
+        assertNotNull(saved);
+        assertNotNull(saved.getId());
+
+        Debt active = debtRepository.findByClientIdAndStatus(clientId, DebtRequest.StatusEnum.ACTIVE.name()).block();
+        assertNotNull(active);
+        assertEquals(0, Money.ofMajor(10).compareTo(active.getAmount()));
+
+        active.setStatus(DebtRequest.StatusEnum.PAID.name());
+        debtRepository.save(active).block();
+        StepVerifier.create(debtRepository.findByClientIdAndStatus(clientId, DebtRequest.StatusEnum.ACTIVE.name()))
+                .verifyComplete();
+        StepVerifier.create(debtRepository.findByClientIdAndStatus(clientId, DebtRequest.StatusEnum.PAID.name()))
+                .expectNextMatches(found -> found.getId().equals(saved.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findByClientIdAndStatus_shouldFailWhenNotUnique() {
+        String clientId = newClientId();
+        for (int i = 0; i < 2; i++) {
+            Debt debt = FactoryTest.toFactoryDebtModel(UUID.randomUUID().toString(), clientId, Money.ofMajor(1),
+                    DebtRequest.StatusEnum.ACTIVE.name());
+            debt.setId(null);
+            debtRepository.save(debt).block();
+        }
+        StepVerifier.create(debtRepository.findByClientIdAndStatus(clientId, DebtRequest.StatusEnum.ACTIVE.name()))
+                .expectError(IncorrectResultSizeDataAccessException.class)
+                .verify();
+    }
+
+    @Test
+    void streamAll_shouldIncludeEverySavedCredit() {
+        String clientId = newClientId();
+        Credit first = newCredit(clientId);
+        Credit second = newCredit(clientId);
+        creditRepository.save(first).block();
+        creditRepository.save(second).block();
+        StepVerifier.create(creditRepository.streamAll()
+                        .filter(credit -> clientId.equals(credit.getClientId()))
+                        .map(Credit::getId)
+                        .collectList())
+                .expectNextMatches(ids -> ids.size() == 2 && ids.containsAll(List.of(first.getId(), second.getId())))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamFrom_shouldResumeAfterGivenIdInIdOrder() {
+        String clientId = newClientId();
+        for (int i = 0; i < 3; i++) {
+            creditRepository.save(newCredit(clientId)).block();
+        }
+        List<String> ids = creditRepository.streamFrom(null)
+                .filter(credit -> clientId.equals(credit.getClientId()))
+                .map(Credit::getId)
+                .collectList()
+                .block();
+        assertNotNull(ids);
+        assertEquals(3, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+        StepVerifier.create(creditRepository.streamFrom(ids.get(0))
+                        .filter(credit -> clientId.equals(credit.getClientId()))
+                        .map(Credit::getId)
+                        .collectList())
+                .expectNext(ids.subList(1, 3))
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllByCreditId_shouldReturnEveryDebtOfTheCredit() {
+        String clientId = newClientId();
+        String creditId = UUID.randomUUID().toString();
+        for (String status : List.of(DebtRequest.StatusEnum.PAID.name(), DebtRequest.StatusEnum.ACTIVE.name())) {
+            Debt debt = FactoryTest.toFactoryDebtModel(creditId, clientId, Money.ofMajor(1), status);
+            debt.setId(null);
+            debtRepository.save(debt).block();
+        }
+        StepVerifier.create(debtRepository.findAllByCreditId(creditId).map(Debt::getStatus).collectList())
+                .expectNextMatches(statuses -> statuses.size() == 2
+                        && statuses.contains(DebtRequest.StatusEnum.ACTIVE.name()))
+                .verifyComplete();
+        StepVerifier.create(debtRepository.findAllByCreditId(UUID.randomUUID().toString()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllByClientIdAndFindByCreditId_shouldReturnSavedDebts() {
+        String clientId = newClientId();
+        String creditId = UUID.randomUUID().toString();
+        Debt debt = FactoryTest.toFactoryDebtModel(creditId, clientId, Money.ofMajor(1),
+                DebtRequest.StatusEnum.ACTIVE.name());
+        debt.setId(null);
+        debtRepository.save(debt).block();
+        StepVerifier.create(debtRepository.findAllByClientId(clientId))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(debtRepository.findByCreditId(creditId))
+                .expectNextMatches(found -> found.getClientId().equals(clientId))
+                .verifyComplete();
+        StepVerifier.create(debtRepository.findByCreditId(UUID.randomUUID().toString()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,66 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.sgi.credit.domain.model.ReadConsistency;
+import com.sgi.credit.helper.MongoTestTemplates;
+import com.sgi.credit.infrastructure.repository.impl.ReadRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the {@link ReadRouting} class. The client is never connected: building the
+ * replica repositories does not reach the server.
+ */
+class ReadRoutingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoClient client = MongoClients.create("mongodb://localhost:1");
+    private final CreditRepositoryJpa primary = Mockito.mock(CreditRepositoryJpa.class);
+
+    @AfterEach
+    void close() {
+        client.close();
+    }
+
+    private double routed(String query, String target) {
+        return meterRegistry.get("credit.read.routing").tag("query", query).tag("target", target).counter().count();
+    }
+
+    @Test
+    void read_shouldSendStalenessTolerantQueriesToReplicas() {
+        ReadRouting readRouting = new ReadRouting(MongoTestTemplates.create(client, "routing"), meterRegistry, true,
+                "secondaryPreferred", Duration.ofSeconds(120));
+        ReadRouting.Routed<CreditRepositoryJpa> reads = readRouting.route("credit.", CreditRepositoryJpa.class, primary);
+
+        assertSame(primary, reads.read("findById", ReadConsistency.STRONG));
+        assertNotSame(primary, reads.read("findAll", ReadConsistency.BOUNDED_STALENESS));
+        assertNotSame(primary, reads.read("findAll", ReadConsistency.BOUNDED_STALENESS));
+        assertEquals(1.0, routed("credit.findById", "primary"));
+        assertEquals(2.0, routed("credit.findAll", "secondary"));
+    }
+
+    @Test
+    void read_shouldKeepEveryQueryOnPrimaryWhenDisabled() {
+        ReadRouting.Routed<CreditRepositoryJpa> reads = ReadRouting.primaryOnly(meterRegistry)
+                .route("credit.", CreditRepositoryJpa.class, primary);
+
+        assertSame(primary, reads.read("findAll", ReadConsistency.BOUNDED_STALENESS));
+        assertEquals(1.0, routed("credit.findAll", "primary"));
+    }
+
+    @Test
+    void constructor_shouldRejectStalenessBelowMongoMinimum() {
+        assertThrows(IllegalArgumentException.class, () -> new ReadRouting(MongoTestTemplates.create(client, "routing"),
+                meterRegistry, true, "secondaryPreferred", Duration.ofSeconds(30)));
+    }
+}
@@ -0,0 +1,142 @@
+package com.sgi.credit.infrastructure.repository;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.domain.ports.out.CreditRepository;
+import com.sgi.credit.domain.ports.out.DebtRepository;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryShard;
+import com.sgi.credit.infrastructure.repository.sharding.Shard;
+import com.sgi.credit.infrastructure.repository.sharding.ShardRebalancer;
+import com.sgi.credit.infrastructure.repository.sharding.ShardRouter;
+import com.sgi.credit.infrastructure.repository.sharding.ShardedCreditRepository;
+import com.sgi.credit.infrastructure.repository.sharding.ShardedDebtRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the persistence contract against the sharded repositories over three in-memory shards,
+ * and checks that documents reach the shard owning their client after a shard is added.
+ */
+public class ShardedPersistenceContractTest extends PersistenceContractTest {
+
+    private final List<Shard> shards = new ArrayList<>(List.of(new InMemoryShard("shard-0", 16),
+            new InMemoryShard("shard-1", 16), new InMemoryShard("shard-2", 16)));
+    private final ShardRouter router = new ShardRouter(shards, 64, false);
+
+    @Override
+    protected CreditRepository createCreditRepository() {
+        return new ShardedCreditRepository(router);
+    }
+
+    @Override
+    protected DebtRepository createDebtRepository() {
+        return new ShardedDebtRepository(router);
+    }
+
+    private List<Credit> saveCredits(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    Credit credit = FactoryTest.toFactoryEntityCredit();
+                    credit.setId(null);
+                    credit.setClientId("client-" + i);
+                    creditRepository.save(credit).block();
+                    Debt debt = FactoryTest.toFactoryDebtModel(credit.getId(), credit.getClientId(), Money.ofMajor(1),
+                            DebtRequest.StatusEnum.ACTIVE.name());
+                    debtRepository.save(debt).block();
+                    return credit;
+                })
+                .toList();
+    }
+
+    @Test
+    void save_shouldPlaceEachCreditOnTheShardOfItsClient() {
+        List<Credit> credits = saveCredits(60);
+
+        credits.forEach(credit -> assertNotNull(router.shardFor(credit.getClientId()).credits()
+                .findById(credit.getId()).block()));
+        long used = shards.stream().filter(shard -> shard.credits().streamAll().hasElements().block()).count();
+        assertEquals(3, used);
+        assertEquals(60, creditRepository.streamAll().count().block());
+    }
+
+    @Test
+    void save_shouldGiveNewCreditsIdsNamingTheShardOfTheirClient() {
+        List<Credit> credits = saveCredits(60);
+
+        credits.forEach(credit -> {
+            assertTrue(ObjectId.isValid(credit.getId()));
+            assertSame(router.shardFor(credit.getClientId()), router.shardForCreditId(credit.getId()));
+        });
+        assertNull(router.shardForCreditId("not-an-object-id"));
+    }
+
+    @Test
+    void rebalance_shouldMoveDocumentsToAnAddedShard() {
+        List<Credit> credits = saveCredits(60);
+        shards.add(new InMemoryShard("shard-3", 16));
+        ShardRouter grown = new ShardRouter(shards, 64, true);
+        CreditRepository grownCredits = new ShardedCreditRepository(grown);
+
+        credits.forEach(credit -> assertNotNull(grownCredits.getCreditCardByClientId(credit.getClientId())
+                .blockFirst()));
+        ShardRebalancer.Report report = new ShardRebalancer(grown, new SimpleMeterRegistry(), 4).rebalance().block();
+
+        assertNotNull(report);
+        assertEquals(0, report.conflicts());
+        assertTrue(report.movedCredits() > 0);
+        assertEquals(report.movedCredits(), report.movedDebts());
+        assertFalse(grown.isRebalancing());
+        DebtRepository grownDebts = new ShardedDebtRepository(grown);
+        credits.forEach(credit -> {
+            assertSame(grown.shardFor(credit.getClientId()), shardHolding(credit.getId()));
+            assertEquals(1, grownCredits.getCreditCardByClientId(credit.getClientId()).count().block());
+            assertEquals(1, grownDebts.findAllByClientId(credit.getClientId()).count().block());
+        });
+    }
+
+    @Test
+    void save_shouldMoveCreditWhoseClientBelongsToAnotherShard() {
+        Credit credit = saveCredits(1).get(0);
+        Shard before = router.shardFor(credit.getClientId());
+        String otherClient = IntStream.range(0, 100).mapToObj(i -> "other-" + i)
+                .filter(clientId -> router.shardFor(clientId) != before)
+                .findFirst()
+                .orElseThrow();
+        Credit found = creditRepository.findById(credit.getId()).block();
+        assertNotNull(found);
+
+        found.setClientId(otherClient);
+        creditRepository.save(found).block();
+
+        assertEquals(1L, found.getVersion());
+        assertSame(router.shardFor(otherClient), shardHolding(credit.getId()));
+        assertNotNull(creditRepository.findById(credit.getId()).block());
+        assertEquals(1, Flux.fromIterable(shards)
+                .flatMap(shard -> shard.credits().findById(credit.getId()))
+                .count()
+                .block());
+    }
+
+    private Shard shardHolding(String creditId) {
+        return shards.stream()
+                .filter(shard -> shard.credits().findById(creditId).blockOptional().isPresent())
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,135 @@
+package com.sgi.credit.infrastructure.repository.codec;
+
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import com.sgi.credit.domain.model.DebtCycle;
+import com.sgi.credit.domain.model.Money;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.helper.MongoTestTemplates;
+import com.sgi.credit.infrastructure.dto.DebtRequest;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the domain codecs, checked against the documents written by the Spring Data mapping.
+ */
+public class DomainCodecsTest {
+
+    private final MappingMongoConverter converter = MongoTestTemplates.converter();
+
+    private static Credit credit() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(new ObjectId().toHexString());
+        credit.setInterestRate(new BigDecimal("0.35"));
+        credit.setCreditLimit(Money.ofMinor(200_050));
+        credit.setActiveCycle(DebtCycle.builder()
+                .id(new ObjectId().toHexString())
+                .amount(Money.ofMinor(1_099))
+                .dueDate(now)
+                .openedAt(now)
+                .build());
+        credit.setLedgerSeq(7L);
+        credit.setJournalSeq(3L);
+        credit.setCreatedDate(now);
+        credit.setUpdatedDate(now);
+        credit.setVersion(4L);
+        return credit;
+    }
+
+    private <T> BsonDocument converterDocument(T entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document.toBsonDocument(BsonDocument.class, DomainCodecs.REGISTRY);
+    }
+
+    private static <T> BsonDocument encode(Codec<T> codec, T entity) {
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), entity, EncoderContext.builder().build());
+        return document;
+    }
+
+    private static <T> T decode(Codec<T> codec, BsonDocument document) {
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    @Test
+    void creditCodec_shouldWriteSameDocumentAsConverter() {
+        Credit credit = credit();
+        assertEquals(converterDocument(credit), encode(new CreditCodec(), credit));
+
+        credit.setActiveCycle(null);
+        credit.setCreditNumber(null);
+        credit.setVersion(null);
+        assertEquals(converterDocument(credit), encode(new CreditCodec(), credit));
+    }
+
+    @Test
+    void creditCodec_shouldReadDocumentWrittenByConverter() {
+        Credit credit = credit();
+        Credit decoded = decode(new CreditCodec(), converterDocument(credit));
+        assertEquals(credit.getId(), decoded.getId());
+        assertEquals(credit.getBalance(), decoded.getBalance());
+        assertEquals(credit.getCreditLimit(), decoded.getCreditLimit());
+        assertEquals(0, credit.getInterestRate().compareTo(decoded.getInterestRate()));
+        assertEquals(credit.getActiveCycle().getId(), decoded.getActiveCycle().getId());
+        assertEquals(credit.getActiveCycle().getAmount(), decoded.getActiveCycle().getAmount());
+        assertEquals(credit.getActiveCycle().getDueDate(), decoded.getActiveCycle().getDueDate());
+        assertEquals(credit.getActiveCycle().getOpenedAt(), decoded.getActiveCycle().getOpenedAt());
+        assertEquals(credit.getCreatedDate(), decoded.getCreatedDate());
+        assertEquals(credit.getVersion(), decoded.getVersion());
+
+        BsonDocument encoded = encode(new CreditCodec(), decoded);
+        assertEquals(encoded, converterDocument(converter.read(Credit.class, decode(new DocumentCodec(), encoded))));
+    }
+
+    @Test
+    void debtCodec_shouldRoundTripThroughConverter() {
+        Debt debt = FactoryTest.toFactoryDebtModel(new ObjectId().toHexString(), "client-1", Money.ofMinor(1_050),
+                DebtRequest.StatusEnum.ACTIVE.name());
+        debt.setId(new ObjectId().toHexString());
+        debt.setDueDate(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        debt.setOpenedAt(debt.getDueDate().minus(30, ChronoUnit.DAYS));
+        debt.setPaidAt(debt.getDueDate());
+        debt.setVersion(2L);
+        assertEquals(converterDocument(debt), encode(new DebtCodec(), debt));
+
+        Debt decoded = decode(new DebtCodec(), converterDocument(debt));
+        assertEquals(debt.getId(), decoded.getId());
+        assertEquals(debt.getCreditId(), decoded.getCreditId());
+        assertEquals(debt.getAmount(), decoded.getAmount());
+        assertEquals(debt.getDueDate(), decoded.getDueDate());
+        assertEquals(debt.getOpenedAt(), decoded.getOpenedAt());
+        assertEquals(debt.getPaidAt(), decoded.getPaidAt());
+        assertEquals(debt.getVersion(), decoded.getVersion());
+    }
+
+    @Test
+    void decode_shouldToleratePlainNumbersAndSkipUnknownFields() {
+        BsonDocument document = BsonDocument.parse("{_id: 'legacy-1', balance: 12.5, creditLimit: {$numberLong: '2000'},"
+                + " interestRate: '0.1', version: 1, clientId: null, extra: {nested: [1, 2]}}");
+        Credit decoded = decode(new CreditCodec(), document);
+        assertEquals("legacy-1", decoded.getId());
+        assertEquals(Money.ofMinor(1_250), decoded.getBalance());
+        assertEquals(Money.ofMajor(2000), decoded.getCreditLimit());
+        assertEquals(new BigDecimal("0.1"), decoded.getInterestRate());
+        assertEquals(1L, decoded.getVersion());
+        assertNull(decoded.getClientId());
+    }
+}
@@ -0,0 +1,31 @@
+package com.sgi.credit.infrastructure.repository.convert;
+
+import com.sgi.credit.domain.model.Money;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the {@link MoneyDecimal128} class.
+ */
+public class MoneyDecimal128Test {
+
+    @Test
+    void toDecimal128_shouldMatchDecimalEncoding() {
+        for (long minorUnits : new long[] {0L, 1L, -1L, 123_456L, -987_654_321L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Money money = Money.ofMinor(minorUnits);
+            assertEquals(new Decimal128(money.toBigDecimal()), MoneyDecimal128.toDecimal128(money));
+            assertEquals(money, MoneyDecimal128.toMoney(MoneyDecimal128.toDecimal128(money)));
+        }
+    }
+
+    @Test
+    void toMoney_shouldRoundValuesStoredWithAnotherScale() {
+        assertEquals(Money.ofMajor(2000), MoneyDecimal128.toMoney(new Decimal128(BigDecimal.valueOf(2000))));
+        assertEquals(Money.ofMinor(1012), MoneyDecimal128.toMoney(Decimal128.parse("10.125")));
+        assertEquals(Money.ofMinor(-5), MoneyDecimal128.toMoney(Decimal128.parse("-0.050")));
+    }
+}
@@ -0,0 +1,80 @@
+package com.sgi.credit.infrastructure.repository.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.model.Debt;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Unit tests for the {@link VersionFieldMigration} class.
+ */
+class VersionFieldMigrationTest {
+
+    private final ReactiveMongoTemplate mongoTemplate = Mockito.mock(ReactiveMongoTemplate.class);
+    private final VersionFieldMigration migration = new VersionFieldMigration(mongoTemplate,
+            Retry.fixedDelay(3, Duration.ofMillis(10)));
+
+    private void stubMarker(boolean exists) {
+        Mockito.when(mongoTemplate.exists(any(Query.class), eq(VersionFieldMigration.MIGRATIONS)))
+                .thenReturn(Mono.just(exists));
+    }
+
+    private void stubUpdates(Mono<UpdateResult> update) {
+        Mockito.when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Credit.class)))
+                .thenReturn(update);
+        Mockito.when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Debt.class)))
+                .thenReturn(update);
+    }
+
+    @Test
+    void migrate_shouldUpdateBothCollectionsThenRecordTheMarker() {
+        stubMarker(false);
+        stubUpdates(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        Mockito.when(mongoTemplate.insert(any(Document.class), eq(VersionFieldMigration.MIGRATIONS)))
+                .thenReturn(Mono.error(new DuplicateKeyException("another instance recorded it")));
+
+        StepVerifier.create(migration.migrate()).expectNext(true).verifyComplete();
+        Mockito.verify(mongoTemplate).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Debt.class));
+    }
+
+    @Test
+    void migrate_shouldSkipTheUpdateOnceTheMarkerExists() {
+        stubMarker(true);
+
+        StepVerifier.create(migration.migrate()).expectNext(false).verifyComplete();
+        Mockito.verify(mongoTemplate, Mockito.never())
+                .updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Credit.class));
+    }
+
+    @Test
+    void run_shouldReturnBeforeTheUpdateAndRetryItInTheBackground() {
+        AtomicInteger attempts = new AtomicInteger();
+        stubMarker(false);
+        stubUpdates(Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.error(new IllegalStateException("unreachable"))
+                : Mono.delay(Duration.ofMillis(50)).thenReturn(UpdateResult.acknowledged(1, 1L, null))));
+        Mockito.when(mongoTemplate.insert(any(Document.class), eq(VersionFieldMigration.MIGRATIONS)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        migration.run(null);
+        Mockito.verify(mongoTemplate, Mockito.never()).insert(any(Document.class), eq(VersionFieldMigration.MIGRATIONS));
+        Mockito.verify(mongoTemplate, Mockito.timeout(2000))
+                .insert(any(Document.class), eq(VersionFieldMigration.MIGRATIONS));
+        migration.destroy();
+    }
+}
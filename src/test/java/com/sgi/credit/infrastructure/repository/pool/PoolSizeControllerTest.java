@@ -0,0 +1,120 @@
+package com.sgi.credit.infrastructure.repository.pool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PoolSizeControllerTest {
+
+    private static final Duration THRESHOLD = Duration.ofMillis(5);
+
+    private final List<PoolSizeController> controllers = new ArrayList<>();
+
+    private PoolSizeController controller(int minSize, int maxSize, int initialSize) {
+        PoolSizeController controller = new PoolSizeController(new SimpleMeterRegistry(), minSize, maxSize,
+                initialSize, THRESHOLD, Duration.ofHours(1));
+        controllers.add(controller);
+        return controller;
+    }
+
+    @AfterEach
+    void tearDown() {
+        controllers.forEach(PoolSizeController::destroy);
+    }
+
+    @Test
+    void gate_shouldQueueOperationsBeyondTheLimitUntilPermitsAreReleased() {
+        PoolSizeController controller = controller(1, 4, 1);
+        Sinks.One<String> first = Sinks.one();
+        AtomicReference<String> second = new AtomicReference<>();
+        controller.gate(first.asMono()).subscribe();
+        controller.gate(Mono.just("second")).subscribe(second::set);
+
+        assertNull(second.get());
+        assertEquals(1, controller.inFlight());
+
+        first.tryEmitValue("first");
+        assertEquals("second", second.get());
+        assertEquals(0, controller.inFlight());
+    }
+
+    @Test
+    void gate_shouldNotHoldPermitsForCancelledWaiters() {
+        PoolSizeController controller = controller(1, 4, 1);
+        Sinks.One<String> first = Sinks.one();
+        controller.gate(first.asMono()).subscribe();
+        Disposable queued = controller.gate(Mono.just("queued")).subscribe();
+        queued.dispose();
+
+        first.tryEmitValue("first");
+        assertEquals(0, controller.inFlight());
+        assertEquals("next", controller.gate(Mono.just("next")).block());
+    }
+
+    @Test
+    void gate_shouldReleaseStreamPermitsAtTheFirstElement() {
+        PoolSizeController controller = controller(1, 4, 1);
+        Sinks.Many<String> cursor = Sinks.many().unicast().onBackpressureBuffer();
+        List<String> received = new ArrayList<>();
+        controller.gate(cursor.asFlux()).subscribe(received::add);
+        assertEquals(1, controller.inFlight());
+
+        cursor.tryEmitNext("first");
+        assertEquals(0, controller.inFlight());
+        assertEquals("next", controller.gate(Mono.just("next")).block());
+        cursor.tryEmitNext("second");
+        cursor.tryEmitComplete();
+        assertEquals(List.of("first", "second"), received);
+        assertEquals(0, controller.inFlight());
+    }
+
+    @Test
+    void gate_shouldRunNestedOperationsWithinLimitOfOne() {
+        PoolSizeController controller = controller(1, 4, 1);
+        List<String> results = controller.gate(Flux.just("a", "b"))
+                .concatMap(value -> controller.gate(Flux.just(value + "1", value + "2"))
+                        .concatMap(nested -> controller.gate(Mono.just(nested + "!"))))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("a1!", "a2!", "b1!", "b2!"), results);
+        assertEquals(0, controller.inFlight());
+    }
+
+    @Test
+    void adjust_shouldGrowWhenTheLimitIsInFlightAndWaitsAreLong() {
+        PoolSizeController controller = controller(2, 10, 4);
+        for (int i = 0; i < 5; i++) {
+            controller.gate(Mono.never()).subscribe();
+        }
+        controller.recordWait(TimeUnit.MILLISECONDS.toNanos(50));
+
+        controller.adjust();
+        assertEquals(5, controller.limit());
+        assertEquals(5, controller.inFlight());
+    }
+
+    @Test
+    void adjust_shouldShrinkToTheLowerBoundWhileIdle() {
+        PoolSizeController controller = controller(4, 40, 16);
+        controller.adjust();
+        assertEquals(14, controller.limit());
+        for (int i = 0; i < 20; i++) {
+            controller.adjust();
+        }
+        assertEquals(4, controller.limit());
+    }
+}
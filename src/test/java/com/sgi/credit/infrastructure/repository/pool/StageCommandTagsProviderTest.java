@@ -0,0 +1,57 @@
+package com.sgi.credit.infrastructure.repository.pool;
+
+import com.mongodb.RequestContext;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.sgi.credit.infrastructure.tracing.StageObservations;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.observation.ObservationRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StageCommandTagsProviderTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final ReactorContextProvider contextProvider = new ReactorContextProvider();
+    private final StageCommandTagsProvider tagsProvider = new StageCommandTagsProvider();
+
+    private Mono<RequestContext> requestContext() {
+        return Mono.from(subscriber -> Mono.just(contextProvider.getContext(subscriber)).subscribe(subscriber));
+    }
+
+    private String method(RequestContext context) {
+        tagsProvider.commandStarted(new CommandStartedEvent(context, 1, 1, CONNECTION, "credit", "find",
+                new BsonDocument("find", new BsonString("credit"))));
+        return Tags.of(tagsProvider.commandTags(new CommandSucceededEvent(context, 1, 1, CONNECTION, "credit",
+                        "find", new BsonDocument(), 1_000)))
+                .stream()
+                .filter(tag -> tag.getKey().equals(StageCommandTagsProvider.METHOD))
+                .findFirst()
+                .orElseThrow()
+                .getValue();
+    }
+
+    @Test
+    void commandTags_shouldTagTheInnermostRepositoryStage() {
+        RequestContext context = StageObservations.observe(ObservationRegistry.NOOP, "service",
+                "creditService.getCreditById", StageObservations.observe(ObservationRegistry.NOOP, "repository",
+                        "creditRepository.findById", requestContext())).block();
+
+        assertEquals("creditRepository.findById", method(context));
+    }
+
+    @Test
+    void commandTags_shouldTagCommandsOutsideStagesAsNone() {
+        assertEquals("none", method(requestContext().block()));
+    }
+}
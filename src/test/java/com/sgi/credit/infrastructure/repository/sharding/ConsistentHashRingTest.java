@@ -0,0 +1,66 @@
+package com.sgi.credit.infrastructure.repository.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link ConsistentHashRing} class.
+ */
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 30_000;
+
+    @Test
+    void shardFor_shouldSpreadKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        IntStream.range(0, KEYS).forEach(i -> counts.merge(ring.shardFor("client-" + i), 1, Integer::sum));
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - KEYS / 3) < KEYS / 3 * 0.2, counts::toString));
+    }
+
+    @Test
+    void shardFor_shouldOnlyMoveKeysToAnAddedShard() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+        long moved = IntStream.range(0, KEYS)
+                .mapToObj(i -> "client-" + i)
+                .filter(key -> !before.shardFor(key).equals(after.shardFor(key)))
+                .peek(key -> assertEquals("d", after.shardFor(key)))
+                .count();
+
+        assertTrue(moved > KEYS / 4 * 0.8 && moved < KEYS / 4 * 1.2, () -> "moved " + moved);
+    }
+
+    @Test
+    void shardForPrefix_shouldAgreeWithTheKeysItCovers() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        long resolved = IntStream.range(0, KEYS)
+                .mapToObj(i -> "client-" + i)
+                .filter(key -> {
+                    String shard = ring.shardForPrefix((int) (ConsistentHashRing.hash(key) >>> 32));
+                    assertTrue(shard == null || shard.equals(ring.shardFor(key)), key);
+                    return shard != null;
+                })
+                .count();
+
+        assertTrue(resolved > KEYS * 0.99, () -> "resolved " + resolved);
+    }
+
+    @Test
+    void shardFor_shouldBeStableForTheSameShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b"), 16);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("b", "a"), 16);
+
+        IntStream.range(0, 1000).forEach(i -> assertEquals(ring.shardFor("client-" + i),
+                reordered.shardFor("client-" + i)));
+    }
+}
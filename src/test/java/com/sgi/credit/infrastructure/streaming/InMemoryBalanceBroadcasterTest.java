@@ -0,0 +1,86 @@
+package com.sgi.credit.infrastructure.streaming;
+
+import com.sgi.credit.infrastructure.dto.BalanceResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link InMemoryBalanceBroadcaster} class.
+ */
+class InMemoryBalanceBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryBalanceBroadcaster broadcaster = new InMemoryBalanceBroadcaster(meterRegistry);
+
+    private static BalanceResponse balance(int amount) {
+        BalanceResponse balance = new BalanceResponse();
+        balance.setBalance(BigDecimal.valueOf(amount));
+        return balance;
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("credit.balance.stream.subscribers").gauge().value();
+    }
+
+    @Test
+    void publish_shouldReachEverySubscriberOfTheCredit() {
+        final StepVerifier first = StepVerifier.create(broadcaster.subscribe("c1"))
+                .expectNextMatches(balance -> balance.getBalance().intValue() == 10)
+                .thenCancel()
+                .verifyLater();
+        final StepVerifier second = StepVerifier.create(broadcaster.subscribe("c1"))
+                .expectNextMatches(balance -> balance.getBalance().intValue() == 10)
+                .thenCancel()
+                .verifyLater();
+        assertEquals(2.0, subscribers());
+
+        broadcaster.publish("c2", balance(99));
+        broadcaster.publish("c1", balance(10));
+
+        first.verify();
+        second.verify();
+        assertEquals(0.0, subscribers());
+        assertEquals(2, meterRegistry.get("credit.balance.stream.fanout").timer().count());
+    }
+
+    @Test
+    void subscribe_shouldReleaseTheCreditWithItsLastSubscriber() {
+        assertFalse(broadcaster.hasSubscribers("c1"));
+        final StepVerifier first = StepVerifier.create(broadcaster.subscribe("c1")).thenCancel().verifyLater();
+        final StepVerifier second = StepVerifier.create(broadcaster.subscribe("c1"))
+                .expectNextCount(1)
+                .thenCancel()
+                .verifyLater();
+        assertTrue(broadcaster.hasSubscribers("c1"));
+
+        first.verify();
+        assertTrue(broadcaster.hasSubscribers("c1"));
+        broadcaster.publish("c1", balance(1));
+        second.verify();
+        assertFalse(broadcaster.hasSubscribers("c1"));
+    }
+
+    @Test
+    void subscribe_shouldOnlyKeepTheLatestBalanceForSlowSubscribers() {
+        StepVerifier.create(broadcaster.subscribe("c1"), 0)
+                .then(() -> {
+                    broadcaster.publish("c1", balance(1));
+                    broadcaster.publish("c1", balance(2));
+                    broadcaster.publish("c1", balance(3));
+                })
+                .thenRequest(1)
+                .expectNextMatches(balance -> balance.getBalance().intValue() == 3)
+                .thenRequest(1)
+                .expectNoEvent(Duration.ofMillis(20))
+                .thenCancel()
+                .verify();
+    }
+}
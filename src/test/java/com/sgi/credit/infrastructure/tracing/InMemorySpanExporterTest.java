@@ -0,0 +1,95 @@
+package com.sgi.credit.infrastructure.tracing;
+
+import brave.Tracing;
+import brave.propagation.CurrentTraceContext;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.brave.bridge.BraveCurrentTraceContext;
+import io.micrometer.tracing.brave.bridge.BraveTracer;
+import io.micrometer.tracing.brave.bridge.CompositeSpanHandler;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemorySpanExporterTest {
+
+    private Tracing tracing;
+
+    @AfterEach
+    void closeTracing() {
+        tracing.close();
+    }
+
+    private ObservationRegistry registry(InMemorySpanExporter exporter) {
+        CurrentTraceContext currentTraceContext = ThreadLocalCurrentTraceContext.create();
+        tracing = Tracing.newBuilder()
+                .currentTraceContext(currentTraceContext)
+                .addSpanHandler(new CompositeSpanHandler(List.of(), List.of(exporter), List.of()))
+                .build();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultTracingObservationHandler(
+                new BraveTracer(tracing.tracer(), new BraveCurrentTraceContext(currentTraceContext))));
+        return registry;
+    }
+
+    private static Mono<String> charge(ObservationRegistry registry) {
+        Mono<String> read = StageObservations.observe(registry, "repository", "creditRepository.findById",
+                Mono.just("credit").delayElement(Duration.ofMillis(30)));
+        Mono<String> post = StageObservations.observe(registry, "external", "transactionService.post",
+                Mono.just("transaction").delayElement(Duration.ofMillis(60)));
+        return StageObservations.observe(registry, "service", "creditService.chargeCreditCard",
+                read.then(post));
+    }
+
+    @Test
+    void report_shouldKeepSlowTraceBrokenDownPerStage() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter(Duration.ofMillis(50), 10, 100, Duration.ofMinutes(1));
+        StepVerifier.create(charge(registry(exporter)))
+                .expectNext("transaction")
+                .verifyComplete();
+
+        assertEquals(1, exporter.slowTraces().size());
+        SlowTrace trace = exporter.slowTraces().get(0);
+        assertEquals("creditService.chargeCreditCard", trace.name());
+        assertTrue(trace.durationMs() >= 90, "duration " + trace.durationMs());
+        assertEquals(List.of("creditService.chargeCreditCard", "creditRepository.findById", "transactionService.post"),
+                trace.stages().stream().map(SlowTrace.Stage::name).toList());
+
+        Map<String, SlowTrace.Stage> stages = trace.stages().stream()
+                .collect(Collectors.toMap(SlowTrace.Stage::name, stage -> stage));
+        SlowTrace.Stage root = stages.get("creditService.chargeCreditCard");
+        assertNull(root.parentId());
+        assertEquals(root.spanId(), stages.get("creditRepository.findById").parentId());
+        assertEquals("external", stages.get("transactionService.post").layer());
+        assertTrue(root.selfMs() < stages.get("transactionService.post").selfMs());
+        assertEquals("transactionService.post", trace.selfTimeMs().keySet().iterator().next());
+        assertEquals(trace, exporter.findSlowTrace(trace.traceId()).orElseThrow());
+    }
+
+    @Test
+    void report_shouldDiscardFastTracesAndBoundTheSlowOnes() {
+        InMemorySpanExporter fast = new InMemorySpanExporter(Duration.ofHours(1), 10, 100, Duration.ofMinutes(1));
+        charge(registry(fast)).block();
+        tracing.close();
+        assertTrue(fast.slowTraces().isEmpty());
+
+        InMemorySpanExporter bounded = new InMemorySpanExporter(Duration.ZERO, 2, 100, Duration.ofMinutes(1));
+        ObservationRegistry registry = registry(bounded);
+        for (int i = 0; i < 3; i++) {
+            StageObservations.observe(registry, "service", "creditService.getCreditById" + i, Mono.just(i)).block();
+        }
+        assertEquals(List.of("creditService.getCreditById2", "creditService.getCreditById1"),
+                bounded.slowTraces().stream().map(SlowTrace::name).toList());
+    }
+}
@@ -0,0 +1,82 @@
+package com.sgi.credit.infrastructure.warmup;
+
+import com.sgi.credit.application.service.CreditServiceImpl;
+import com.sgi.credit.domain.model.Credit;
+import com.sgi.credit.domain.ports.out.DebtCycleStore;
+import com.sgi.credit.domain.ports.out.FeignExternalService;
+import com.sgi.credit.helper.FactoryTest;
+import com.sgi.credit.infrastructure.holds.InMemoryHoldStore;
+import com.sgi.credit.infrastructure.repository.impl.CollectionDebtCycleStore;
+import com.sgi.credit.infrastructure.repository.impl.DocumentCreditLedger;
+import com.sgi.credit.infrastructure.repository.impl.OptimisticLockRetryImpl;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryCreditRepository;
+import com.sgi.credit.infrastructure.repository.memory.InMemoryDebtRepository;
+import com.sgi.credit.infrastructure.streaming.InMemoryBalanceBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StartupWarmUpTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryCreditRepository creditRepository = new InMemoryCreditRepository(16);
+    private final FeignExternalService transactionService = Mockito.mock(FeignExternalService.class);
+
+    private StartupWarmUp warmUp(int iterations) {
+        DebtCycleStore debtCycles = new CollectionDebtCycleStore(creditRepository, new InMemoryDebtRepository(16));
+        CreditServiceImpl creditService = new CreditServiceImpl(creditRepository, transactionService, debtCycles,
+                new OptimisticLockRetryImpl(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(5), 0.5),
+                new DocumentCreditLedger(creditRepository, debtCycles),
+                new InMemoryHoldStore(meterRegistry, Duration.ofDays(7), Duration.ofMinutes(1)),
+                new InMemoryBalanceBroadcaster(meterRegistry), ObservationRegistry.NOOP);
+        return new StartupWarmUp(new StaticListableBeanFactory().getBeanProvider(ReactiveMongoTemplate.class),
+                WebClient.builder(), "http://localhost:1", creditService, creditRepository,
+                ServerCodecConfigurer.create(), meterRegistry, iterations, 4, 4, 2, "/actuator/health",
+                Duration.ofSeconds(30));
+    }
+
+    private Credit saveCredit() {
+        Credit credit = FactoryTest.toFactoryEntityCredit();
+        credit.setId(null);
+        creditRepository.save(credit).block();
+        return credit;
+    }
+
+    @Test
+    void warmUp_shouldReadExistingCreditsWithoutWriting() {
+        Credit first = saveCredit();
+        saveCredit();
+        Long version = creditRepository.findVersionById(first.getId()).block();
+
+        StepVerifier.create(warmUp(50).warmUp())
+                .expectNext(new StartupWarmUp.Report(50, 0, 0))
+                .verifyComplete();
+        assertEquals(version, creditRepository.findVersionById(first.getId()).block());
+        Mockito.verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void warmUp_shouldSkipTheReadPathsWithoutCredits() {
+        StepVerifier.create(warmUp(50).warmUp())
+                .expectNext(new StartupWarmUp.Report(0, 0, 0))
+                .verifyComplete();
+    }
+
+    @Test
+    void run_shouldRecordTheWarmUpDuration() {
+        saveCredit();
+        warmUp(5).run(null);
+
+        assertEquals(1, meterRegistry.get("credit.warmup").timer().count());
+    }
+}